@@ -2,10 +2,14 @@ package io.fotoapparat;
 
 import android.content.Context;
 import android.support.annotation.FloatRange;
+import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import io.fotoapparat.error.Callbacks;
 import io.fotoapparat.error.CameraErrorCallback;
@@ -13,11 +17,15 @@ import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.orientation.OrientationSensor;
 import io.fotoapparat.hardware.orientation.RotationListener;
 import io.fotoapparat.hardware.orientation.ScreenOrientationProvider;
+import io.fotoapparat.lens.FocusStatistics;
 import io.fotoapparat.parameter.provider.CapabilitiesProvider;
 import io.fotoapparat.parameter.provider.CurrentParametersProvider;
 import io.fotoapparat.parameter.provider.InitialParametersProvider;
 import io.fotoapparat.parameter.provider.InitialParametersValidator;
 import io.fotoapparat.parameter.update.UpdateRequest;
+import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameRingBuffer;
+import io.fotoapparat.preview.ProcessorOptions;
 import io.fotoapparat.result.CapabilitiesResult;
 import io.fotoapparat.result.FocusResult;
 import io.fotoapparat.result.ParametersResult;
@@ -25,10 +33,12 @@ import io.fotoapparat.result.PendingResult;
 import io.fotoapparat.result.PhotoResult;
 import io.fotoapparat.routine.CheckAvailabilityRoutine;
 import io.fotoapparat.routine.ConfigurePreviewStreamRoutine;
+import io.fotoapparat.routine.OperationDeadline;
 import io.fotoapparat.routine.StartCameraRoutine;
 import io.fotoapparat.routine.StopCameraRoutine;
 import io.fotoapparat.routine.UpdateOrientationRoutine;
 import io.fotoapparat.routine.focus.AutoFocusRoutine;
+import io.fotoapparat.routine.parameter.AdaptPreviewFpsRangeRoutine;
 import io.fotoapparat.routine.parameter.UpdateParametersRoutine;
 import io.fotoapparat.routine.picture.TakePictureRoutine;
 import io.fotoapparat.routine.zoom.UpdateZoomLevelRoutine;
@@ -39,6 +49,8 @@ import io.fotoapparat.routine.zoom.UpdateZoomLevelRoutine;
 public class Fotoapparat {
 
     private static final Executor SERIAL_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor();
+    private static final Executor ENCODING_EXECUTOR = Executors.newSingleThreadExecutor();
 
     private final StartCameraRoutine startCameraRoutine;
     private final StopCameraRoutine stopCameraRoutine;
@@ -51,6 +63,7 @@ public class Fotoapparat {
     private final CheckAvailabilityRoutine checkAvailabilityRoutine;
     private final UpdateParametersRoutine updateParametersRoutine;
     private final UpdateZoomLevelRoutine updateZoomLevelRoutine;
+    private final AdaptPreviewFpsRangeRoutine adaptPreviewFpsRangeRoutine;
     private final Executor executor;
 
     private boolean started = false;
@@ -66,6 +79,7 @@ public class Fotoapparat {
                 CheckAvailabilityRoutine checkAvailabilityRoutine,
                 UpdateParametersRoutine updateParametersRoutine,
                 UpdateZoomLevelRoutine updateZoomLevelRoutine,
+                AdaptPreviewFpsRangeRoutine adaptPreviewFpsRangeRoutine,
                 Executor executor) {
         this.startCameraRoutine = startCameraRoutine;
         this.stopCameraRoutine = stopCameraRoutine;
@@ -78,6 +92,7 @@ public class Fotoapparat {
         this.checkAvailabilityRoutine = checkAvailabilityRoutine;
         this.updateParametersRoutine = updateParametersRoutine;
         this.updateZoomLevelRoutine = updateZoomLevelRoutine;
+        this.adaptPreviewFpsRangeRoutine = adaptPreviewFpsRangeRoutine;
         this.executor = executor;
     }
 
@@ -152,14 +167,16 @@ public class Fotoapparat {
                 SERIAL_EXECUTOR
         );
 
-        TakePictureRoutine takePictureRoutine = new TakePictureRoutine(
+        TakePictureRoutine takePictureRoutine = createTakePictureRoutine(
+                builder,
                 cameraDevice,
-                SERIAL_EXECUTOR
+                configurePreviewStreamRoutine
         );
 
         AutoFocusRoutine autoFocusRoutine = new AutoFocusRoutine(
                 cameraDevice,
-                SERIAL_EXECUTOR
+                SERIAL_EXECUTOR,
+                operationDeadline(builder)
         );
 
         CheckAvailabilityRoutine checkAvailabilityRoutine = new CheckAvailabilityRoutine(
@@ -175,6 +192,16 @@ public class Fotoapparat {
                 cameraDevice
         );
 
+        AdaptPreviewFpsRangeRoutine adaptPreviewFpsRangeRoutine = new AdaptPreviewFpsRangeRoutine(
+                cameraDevice,
+                configurePreviewStreamRoutine,
+                updateParametersRoutine,
+                SCHEDULER,
+                SERIAL_EXECUTOR,
+                builder.logger,
+                builder.adaptivePreviewFpsRange
+        );
+
         return new Fotoapparat(
                 startCameraRoutine,
                 stopCameraRoutine,
@@ -187,10 +214,50 @@ public class Fotoapparat {
                 checkAvailabilityRoutine,
                 updateParametersRoutine,
                 updateZoomLevelRoutine,
+                adaptPreviewFpsRangeRoutine,
                 SERIAL_EXECUTOR
         );
     }
 
+    private static TakePictureRoutine createTakePictureRoutine(FotoapparatBuilder builder,
+                                                               CameraDevice cameraDevice,
+                                                               ConfigurePreviewStreamRoutine configurePreviewStreamRoutine) {
+        if (builder.zeroShutterLagFrames == 0) {
+            return new TakePictureRoutine(
+                    cameraDevice,
+                    SERIAL_EXECUTOR,
+                    builder.focusFreshnessNanos,
+                    null,
+                    null,
+                    0,
+                    operationDeadline(builder)
+            );
+        }
+
+        FrameRingBuffer frameRingBuffer = new FrameRingBuffer(builder.zeroShutterLagFrames);
+        configurePreviewStreamRoutine.addProcessor(
+                frameRingBuffer,
+                ProcessorOptions.defaults()
+        );
+
+        return new TakePictureRoutine(
+                cameraDevice,
+                SERIAL_EXECUTOR,
+                builder.focusFreshnessNanos,
+                frameRingBuffer,
+                ENCODING_EXECUTOR,
+                builder.jpegQuality,
+                operationDeadline(builder)
+        );
+    }
+
+    private static OperationDeadline operationDeadline(FotoapparatBuilder builder) {
+        return new OperationDeadline(
+                builder.operationTimeoutNanos,
+                SCHEDULER
+        );
+    }
+
     /**
      * @return {@code true} if camera for this {@link Fotoapparat} is available. {@code false} if
      * it is not available.
@@ -239,6 +306,30 @@ public class Fotoapparat {
         return takePictureRoutine.takePicture();
     }
 
+    /**
+     * @return how much time focusing took before pictures so far. Useful to tune
+     * {@link FotoapparatBuilder#focusFreshness(long, TimeUnit)}.
+     */
+    public FocusStatistics getFocusStatistics() {
+        return takePictureRoutine.getFocusStatistics();
+    }
+
+    /**
+     * Takes a burst of pictures. Returns immediately.
+     * <p>
+     * Camera is focused once for the whole burst and pictures are taken back to back, so the
+     * burst is much faster than the same number of {@link #takePicture()} calls.
+     *
+     * @param count number of pictures. Must be positive.
+     * @return {@link PhotoResult}s in the order of capture. Every result is delivered
+     * asynchronously as soon as its photo is available.
+     */
+    public List<PhotoResult> takePictures(@IntRange(from = 1) int count) {
+        ensureStarted();
+
+        return takePictureRoutine.takePictures(count);
+    }
+
     /**
      * Performs auto focus. If it is not available or not enabled, does nothing.
      */
@@ -291,6 +382,50 @@ public class Fotoapparat {
         });
     }
 
+    /**
+     * Asynchronously attaches the frame processor with {@link ProcessorOptions#defaults()}. Can be
+     * called at any time, also while camera is running. Processor stays attached until it is
+     * removed, even if camera is restarted.
+     * <p>
+     * Preview frames are only taken from the camera while at least one processor is attached.
+     */
+    public void addFrameProcessor(@NonNull FrameProcessor frameProcessor) {
+        addFrameProcessor(frameProcessor, ProcessorOptions.defaults());
+    }
+
+    /**
+     * Asynchronously attaches the frame processor. Can be called at any time, also while camera is
+     * running. Processor stays attached until it is removed, even if camera is restarted.
+     * <p>
+     * Preview frames are only taken from the camera while at least one processor is attached.
+     *
+     * @param options decide which frames processor receives and what happens with frames when
+     *                processor does not keep up.
+     */
+    public void addFrameProcessor(@NonNull final FrameProcessor frameProcessor,
+                                  @NonNull final ProcessorOptions options) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                configurePreviewStreamRoutine.addProcessor(frameProcessor, options);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously detaches the frame processor, including the one which was given to
+     * {@link FotoapparatBuilder#frameProcessor(FrameProcessor)}. Frames which processor did not
+     * start processing yet are dropped.
+     */
+    public void removeFrameProcessor(@NonNull final FrameProcessor frameProcessor) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                configurePreviewStreamRoutine.removeProcessor(frameProcessor);
+            }
+        });
+    }
+
     /**
      * Starts camera.
      *
@@ -303,6 +438,7 @@ public class Fotoapparat {
         startCamera();
         configurePreviewStream();
         updateOrientationRoutine.start();
+        adaptPreviewFpsRangeRoutine.start();
     }
 
     /**
@@ -314,7 +450,9 @@ public class Fotoapparat {
         ensureStarted();
         started = false;
 
+        adaptPreviewFpsRangeRoutine.stop();
         updateOrientationRoutine.stop();
+        detachFrameProcessors();
         stopCamera();
     }
 
@@ -324,6 +462,15 @@ public class Fotoapparat {
         );
     }
 
+    private void detachFrameProcessors() {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                configurePreviewStreamRoutine.stop();
+            }
+        });
+    }
+
     private void stopCamera() {
         executor.execute(
                 stopCameraRoutine
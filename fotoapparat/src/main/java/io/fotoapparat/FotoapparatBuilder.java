@@ -5,6 +5,7 @@ import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 import io.fotoapparat.error.CameraErrorCallback;
 import io.fotoapparat.hardware.CameraDevice;
@@ -22,6 +23,8 @@ import io.fotoapparat.parameter.selector.FlashSelectors;
 import io.fotoapparat.parameter.selector.SelectorFunction;
 import io.fotoapparat.parameter.selector.Selectors;
 import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.result.PendingResult;
+import io.fotoapparat.routine.picture.TakePictureRoutine;
 import io.fotoapparat.view.CameraRenderer;
 import io.fotoapparat.view.CameraView;
 
@@ -69,6 +72,7 @@ public class FotoapparatBuilder {
     SelectorFunction<Collection<Flash>, Flash> flashSelector = FlashSelectors.off();
     SelectorFunction<Collection<Range<Integer>>, Range<Integer>> previewFpsRangeSelector = Selectors.nothing();
     SelectorFunction<Range<Integer>, Integer> sensorSensitivitySelector = Selectors.nothing();
+    boolean adaptivePreviewFpsRange = false;
 
     int jpegQuality;
 
@@ -76,6 +80,12 @@ public class FotoapparatBuilder {
 
     FrameProcessor frameProcessor = null;
 
+    int zeroShutterLagFrames = 0;
+
+    long focusFreshnessNanos = TakePictureRoutine.DEFAULT_FOCUS_FRESHNESS_NANOS;
+
+    long operationTimeoutNanos = 0;
+
     Logger logger = Loggers.none();
 
     CameraErrorCallback cameraErrorCallback = CameraErrorCallback.NULL;
@@ -156,6 +166,16 @@ public class FotoapparatBuilder {
         return this;
     }
 
+    /**
+     * Lets the camera lower the preview FPS range when frame processors cannot keep up with it and
+     * raise it again when they can. Range selected by {@link #previewFpsRange(SelectorFunction)}
+     * is used until processors are measured. Disabled by default.
+     */
+    public FotoapparatBuilder adaptivePreviewFpsRange() {
+        this.adaptivePreviewFpsRange = true;
+        return this;
+    }
+
     /**
      * @param selector selects ISO value from range of available values.
      */
@@ -181,6 +201,63 @@ public class FotoapparatBuilder {
         return this;
     }
 
+    /**
+     * Enables zero shutter lag mode. The most recent preview frames are kept in memory and
+     * {@link Fotoapparat#takePicture()} encodes the one which was received at the moment of the
+     * call, instead of focusing and taking a new picture. Resolution of such pictures is the
+     * resolution of the preview, see {@link #previewSize(SelectorFunction)}. If there is no recent
+     * frame, the picture is taken by the camera as usual. Disabled by default.
+     *
+     * @param bufferedFrames number of recent preview frames kept in memory.
+     */
+    public FotoapparatBuilder zeroShutterLag(@IntRange(from = 1) int bufferedFrames) {
+        if (bufferedFrames < 1) {
+            throw new IllegalArgumentException("Number of buffered frames must be positive: " + bufferedFrames);
+        }
+
+        this.zeroShutterLagFrames = bufferedFrames;
+        return this;
+    }
+
+    /**
+     * Camera is not focused again before a picture if the lens converged no longer than given
+     * time ago and did not move since then. Exposure is still measured before the picture. Zero,
+     * the default, makes the camera focus before every picture.
+     *
+     * @param freshness how long focus stays valid after the lens converged.
+     * @param unit      unit of {@code freshness}.
+     */
+    public FotoapparatBuilder focusFreshness(@IntRange(from = 0) long freshness,
+                                             @NonNull TimeUnit unit) {
+        if (freshness < 0) {
+            throw new IllegalArgumentException("Focus freshness must not be negative: " + freshness);
+        }
+
+        this.focusFreshnessNanos = unit.toNanos(freshness);
+        return this;
+    }
+
+    /**
+     * Cancels taking pictures and focusing if they do not complete within given time after the
+     * call, so that a camera which stopped responding does not block the operations queued after
+     * them. A burst of pictures counts as a single operation. Cancelled results are never
+     * delivered and {@link PendingResult#await()} throws
+     * {@link java.util.concurrent.CancellationException}. Zero disables the deadline, which is
+     * the default.
+     *
+     * @param timeout time an operation is given to complete.
+     * @param unit    unit of {@code timeout}.
+     */
+    public FotoapparatBuilder operationTimeout(@IntRange(from = 0) long timeout,
+                                               @NonNull TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Operation timeout must not be negative: " + timeout);
+        }
+
+        this.operationTimeoutNanos = unit.toNanos(timeout);
+        return this;
+    }
+
     /**
      * @param logger logger which will print logs. No logger is set by default.
      * @see Loggers
@@ -9,6 +9,7 @@ import io.fotoapparat.hardware.operators.CapabilitiesOperator;
 import io.fotoapparat.hardware.operators.CaptureOperator;
 import io.fotoapparat.hardware.operators.ConnectionOperator;
 import io.fotoapparat.hardware.operators.ExposureMeasurementOperator;
+import io.fotoapparat.hardware.operators.FocusStateOperator;
 import io.fotoapparat.hardware.operators.OrientationOperator;
 import io.fotoapparat.hardware.operators.ParametersOperator;
 import io.fotoapparat.hardware.operators.PreviewOperator;
@@ -18,6 +19,7 @@ import io.fotoapparat.hardware.operators.SurfaceOperator;
 import io.fotoapparat.hardware.operators.ZoomOperator;
 import io.fotoapparat.hardware.provider.AvailableLensPositionsProvider;
 import io.fotoapparat.lens.FocusResult;
+import io.fotoapparat.lens.FocusStateTracker;
 import io.fotoapparat.parameter.LensPosition;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.RendererParameters;
@@ -31,7 +33,7 @@ public interface CameraDevice extends CaptureOperator,
         PreviewOperator, CapabilitiesOperator, OrientationOperator, ParametersOperator,
         ConnectionOperator, SurfaceOperator, PreviewStreamOperator, RendererParametersOperator,
         ExposureMeasurementOperator, AutoFocusOperator, AvailableLensPositionsProvider,
-        ZoomOperator {
+        ZoomOperator, FocusStateOperator {
 
     @Override
     void open(LensPosition lensPosition);
@@ -51,6 +53,9 @@ public interface CameraDevice extends CaptureOperator,
     @Override
     void setDisplayOrientation(int degrees);
 
+    @Override
+    int getPhotoOrientation();
+
     @Override
     void updateParameters(Parameters parameters);
 
@@ -60,12 +65,18 @@ public interface CameraDevice extends CaptureOperator,
     @Override
     FocusResult autoFocus();
 
+    @Override
+    FocusStateTracker getFocusState();
+
     @Override
     void measureExposure();
 
     @Override
     Photo takePicture();
 
+    @Override
+    void takePictures(int count, BurstCallback callback);
+
     @Override
     PreviewStream getPreviewStream();
 
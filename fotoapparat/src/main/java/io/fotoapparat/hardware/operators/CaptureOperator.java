@@ -14,4 +14,25 @@ public interface CaptureOperator {
      * @return The captured photo.
      */
     Photo takePicture();
+
+    /**
+     * Invokes a burst of still picture captures. Blocks until all pictures are taken. Does not
+     * focus the camera.
+     *
+     * @param count    The number of pictures to take.
+     * @param callback Receives every photo as soon as it is available, in the order of capture.
+     */
+    void takePictures(int count, BurstCallback callback);
+
+    /**
+     * Receives photos of a burst.
+     */
+    interface BurstCallback {
+
+        /**
+         * Called when the next photo of the burst is available.
+         */
+        void onPhotoTaken(Photo photo);
+
+    }
 }
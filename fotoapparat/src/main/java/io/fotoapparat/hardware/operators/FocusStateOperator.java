@@ -0,0 +1,15 @@
+package io.fotoapparat.hardware.operators;
+
+import io.fotoapparat.lens.FocusStateTracker;
+
+/**
+ * Provides focus state of the camera.
+ */
+public interface FocusStateOperator {
+
+    /**
+     * @return tracker which is updated by the camera whenever focus state changes.
+     */
+    FocusStateTracker getFocusState();
+
+}
@@ -10,4 +10,10 @@ public interface OrientationOperator {
      * Sets the current orientation of the display.
      */
     void setDisplayOrientation(int degrees);
+
+    /**
+     * @return clockwise rotation of a photo taken right now in degrees, relative to the
+     * orientation of the camera.
+     */
+    int getPhotoOrientation();
 }
@@ -2,6 +2,9 @@ package io.fotoapparat.hardware.provider;
 
 import android.content.Context;
 
+import io.fotoapparat.photo.PhotoBufferPool;
+import io.fotoapparat.photo.PooledPhoto;
+
 /**
  * Static factory for {@link CameraProvider}
  */
@@ -28,6 +31,16 @@ public class CameraProviders {
 		return new V1Provider();
 	}
 
+	/**
+	 * @param previewBufferCount number of preview buffers which are kept queued in the camera.
+	 *                           More buffers let the camera keep delivering frames while frame
+	 *                           processors are busy, at the cost of memory.
+	 * @return provider for Camera v1.
+	 */
+	public static CameraProvider v1(int previewBufferCount) {
+		return new V1Provider(previewBufferCount);
+	}
+
 	/**
 	 * @return provider for Camera v2.
 	 */
@@ -35,4 +48,40 @@ public class CameraProviders {
 		return new V2Provider(context);
 	}
 
+	/**
+	 * @param previewMaxImages number of preview images which the camera can hold at the same time.
+	 *                         Newest image is always picked for processing, so more images give
+	 *                         the camera more room while a frame is being converted.
+	 * @return provider for Camera v2.
+	 */
+	public static CameraProvider v2(Context context, int previewMaxImages) {
+		return new V2Provider(context, previewMaxImages);
+	}
+
+	/**
+	 * @param previewMaxImages number of preview images which the camera can hold at the same time.
+	 * @param stillMaxImages   number of still images which the camera can hold at the same time.
+	 *                         More images let captures of a burst overlap with copying of
+	 *                         previous ones.
+	 * @return provider for Camera v2.
+	 */
+	public static CameraProvider v2(Context context, int previewMaxImages, int stillMaxImages) {
+		return new V2Provider(context, previewMaxImages, stillMaxImages);
+	}
+
+	/**
+	 * @param previewMaxImages number of preview images which the camera can hold at the same time.
+	 * @param stillMaxImages   number of still images which the camera can hold at the same time.
+	 * @param photoBufferPool  pool which photos are copied to instead of newly allocated arrays.
+	 *                         Photos are then delivered as {@link PooledPhoto} and should be
+	 *                         released once they are no longer needed.
+	 * @return provider for Camera v2.
+	 */
+	public static CameraProvider v2(Context context,
+									int previewMaxImages,
+									int stillMaxImages,
+									PhotoBufferPool photoBufferPool) {
+		return new V2Provider(context, previewMaxImages, stillMaxImages, photoBufferPool);
+	}
+
 }
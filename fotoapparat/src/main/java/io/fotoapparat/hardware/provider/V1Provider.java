@@ -2,6 +2,7 @@ package io.fotoapparat.hardware.provider;
 
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.v1.Camera1;
+import io.fotoapparat.hardware.v1.PreviewStream1;
 import io.fotoapparat.log.Logger;
 
 /**
@@ -9,8 +10,21 @@ import io.fotoapparat.log.Logger;
  */
 public class V1Provider implements CameraProvider {
 
+    private final int previewBufferCount;
+
+    public V1Provider() {
+        this(PreviewStream1.DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * @param previewBufferCount number of buffers which preview stream keeps queued in the camera.
+     */
+    public V1Provider(int previewBufferCount) {
+        this.previewBufferCount = previewBufferCount;
+    }
+
     @Override
     public CameraDevice get(Logger logger) {
-        return new Camera1(logger);
+        return new Camera1(logger, previewBufferCount);
     }
 }
@@ -3,6 +3,7 @@ package io.fotoapparat.hardware.provider;
 import android.content.Context;
 import android.hardware.camera2.CameraManager;
 import android.os.Build;
+import android.support.annotation.Nullable;
 import android.support.annotation.RequiresApi;
 
 import io.fotoapparat.hardware.CameraDevice;
@@ -25,7 +26,9 @@ import io.fotoapparat.hardware.v2.session.SessionManager;
 import io.fotoapparat.hardware.v2.session.SessionProvider;
 import io.fotoapparat.hardware.v2.stream.PreviewStream2;
 import io.fotoapparat.hardware.v2.surface.TextureManager;
+import io.fotoapparat.lens.FocusStateTracker;
 import io.fotoapparat.log.Logger;
+import io.fotoapparat.photo.PhotoBufferPool;
 
 /**
  * Always provides {@link Camera2}.
@@ -34,9 +37,44 @@ public class V2Provider implements CameraProvider {
 
     private static final CameraThread CAMERA_THREAD = new CameraThread();
     private final Context context;
+    private final int previewMaxImages;
+    private final int stillMaxImages;
+    @Nullable
+    private final PhotoBufferPool photoBufferPool;
 
     public V2Provider(Context context) {
+        this(context, ContinuousSurfaceReader.DEFAULT_MAX_IMAGES);
+    }
+
+    /**
+     * @param previewMaxImages number of preview images which can be held at the same time.
+     */
+    public V2Provider(Context context, int previewMaxImages) {
+        this(context, previewMaxImages, StillSurfaceReader.DEFAULT_MAX_IMAGES);
+    }
+
+    /**
+     * @param previewMaxImages number of preview images which can be held at the same time.
+     * @param stillMaxImages   number of still images which can be held at the same time.
+     */
+    public V2Provider(Context context, int previewMaxImages, int stillMaxImages) {
+        this(context, previewMaxImages, stillMaxImages, null);
+    }
+
+    /**
+     * @param previewMaxImages number of preview images which can be held at the same time.
+     * @param stillMaxImages   number of still images which can be held at the same time.
+     * @param photoBufferPool  pool which photos are copied to. {@code null} to copy every photo
+     *                         into a new array of its exact length.
+     */
+    public V2Provider(Context context,
+                      int previewMaxImages,
+                      int stillMaxImages,
+                      @Nullable PhotoBufferPool photoBufferPool) {
         this.context = context;
+        this.previewMaxImages = previewMaxImages;
+        this.stillMaxImages = stillMaxImages;
+        this.photoBufferPool = photoBufferPool;
     }
 
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
@@ -64,11 +102,14 @@ public class V2Provider implements CameraProvider {
 
         StillSurfaceReader stillSurfaceReader = new StillSurfaceReader(
                 parametersProvider,
-                CAMERA_THREAD
+                CAMERA_THREAD,
+                stillMaxImages,
+                photoBufferPool
         );
         ContinuousSurfaceReader continuousSurfaceReader = new ContinuousSurfaceReader(
                 parametersProvider,
-                CAMERA_THREAD
+                CAMERA_THREAD,
+                previewMaxImages
         );
         TextureManager textureManager = new TextureManager(
                 orientationManager,
@@ -82,12 +123,15 @@ public class V2Provider implements CameraProvider {
                 parametersProvider
         );
 
+        FocusStateTracker focusStateTracker = new FocusStateTracker();
+
         SessionProvider sessionProvider = new SessionProvider(
                 stillSurfaceReader,
                 cameraConnection,
                 captureRequestFactory,
                 textureManager,
-                CAMERA_THREAD
+                CAMERA_THREAD,
+                focusStateTracker
         );
 
         SessionManager sessionManager = new SessionManager(
@@ -99,8 +143,7 @@ public class V2Provider implements CameraProvider {
 
         PreviewStream2 previewStream = new PreviewStream2(
                 continuousSurfaceReader,
-                parametersProvider,
-                logger
+                parametersProvider
         );
 
         RendererParametersProvider rendererParametersOperator = new RendererParametersProvider(
@@ -140,7 +183,8 @@ public class V2Provider implements CameraProvider {
                 focusExecutor,
                 exposureGatheringExecutor,
                 captureExecutor,
-                availableLensPositionsProvider
+                availableLensPositionsProvider,
+                focusStateTracker
         );
     }
 }
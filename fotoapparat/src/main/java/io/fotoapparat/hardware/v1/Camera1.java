@@ -1,6 +1,8 @@
 package io.fotoapparat.hardware.v1;
 
+import android.annotation.TargetApi;
 import android.hardware.Camera;
+import android.os.Build;
 import android.support.annotation.FloatRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -11,6 +13,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.fotoapparat.hardware.CameraDevice;
@@ -26,7 +29,9 @@ import io.fotoapparat.hardware.v1.parameters.SupressExceptionsParametersOperator
 import io.fotoapparat.hardware.v1.parameters.SwitchOnFailureParametersOperator;
 import io.fotoapparat.hardware.v1.parameters.UnsafeParametersOperator;
 import io.fotoapparat.lens.FocusResult;
+import io.fotoapparat.lens.FocusStateTracker;
 import io.fotoapparat.log.Logger;
+import io.fotoapparat.parameter.FocusMode;
 import io.fotoapparat.parameter.LensPosition;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.RendererParameters;
@@ -42,17 +47,24 @@ public class Camera1 implements CameraDevice {
 
     private static final long AUTOFOCUS_TIMEOUT_SECONDS = 3L;
 
+    /**
+     * How long a cancelled picture still waits for the camera to deliver it.
+     */
+    private static final long CANCELLED_PICTURE_TIMEOUT_SECONDS = 10L;
+
     private final CapabilitiesFactory capabilitiesFactory;
     private final ParametersConverter parametersConverter;
     private final AvailableLensPositionsProvider availableLensPositionsProvider;
     private final Logger logger;
+    private final int previewBufferCount;
+    private final FocusStateTracker focusStateTracker = new FocusStateTracker();
 
     private Camera camera;
     private int cameraId = -1;
     private PreviewStream1 previewStream;
 
     private Throwable lastStacktrace;
-    private int imageRotation;
+    private volatile int imageRotation;
 
     @Nullable
     private Capabilities cachedCapabilities = null;
@@ -60,10 +72,18 @@ public class Camera1 implements CameraDevice {
     private Camera.Parameters cachedZoomParameters = null;
 
     public Camera1(Logger logger) {
+        this(logger, PreviewStream1.DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * @param previewBufferCount number of buffers which preview stream keeps queued in the camera.
+     */
+    public Camera1(Logger logger, int previewBufferCount) {
         this.capabilitiesFactory = new CapabilitiesFactory();
         this.parametersConverter = new ParametersConverter();
         this.availableLensPositionsProvider = new V1AvailableLensPositionProvider();
         this.logger = logger;
+        this.previewBufferCount = previewBufferCount;
     }
 
     private static void throwOnFailSetDisplaySurface(Object displaySurface, IOException e) {
@@ -77,7 +97,7 @@ public class Camera1 implements CameraDevice {
         try {
             cameraId = cameraIdForLensPosition(lensPosition);
             camera = Camera.open(cameraId);
-            previewStream = new PreviewStream1(camera);
+            previewStream = new PreviewStream1(camera, previewBufferCount);
         } catch (RuntimeException e) {
             throwOnFailedToOpenCamera(lensPosition, e);
         }
@@ -92,6 +112,28 @@ public class Camera1 implements CameraDevice {
                 logger.log("Camera error code: " + error);
             }
         });
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            trackFocusMoves();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void trackFocusMoves() {
+        try {
+            camera.setAutoFocusMoveCallback(new Camera.AutoFocusMoveCallback() {
+                @Override
+                public void onAutoFocusMoving(boolean start, Camera camera) {
+                    if (start) {
+                        focusStateTracker.onFocusLost();
+                    } else {
+                        focusStateTracker.onFocusConverged();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.log("Focus moves are not reported by camera " + cameraId + " e: " + e.getMessage());
+        }
     }
 
     private void throwOnFailedToOpenCamera(LensPosition lensPosition, RuntimeException e) {
@@ -131,6 +173,7 @@ public class Camera1 implements CameraDevice {
         recordMethod();
 
         cachedCapabilities = null;
+        focusStateTracker.reset();
 
         if (isCameraOpened()) {
             camera.release();
@@ -193,6 +236,11 @@ public class Camera1 implements CameraDevice {
         previewStream.setFrameOrientation(imageRotation);
     }
 
+    @Override
+    public int getPhotoOrientation() {
+        return imageRotation;
+    }
+
     private int computeDisplayOrientation(int screenRotationDegrees,
                                           Camera.CameraInfo info) {
         return OrientationUtils.computeDisplayOrientation(
@@ -218,6 +266,11 @@ public class Camera1 implements CameraDevice {
         parametersOperator().updateParameters(parameters);
 
         cachedZoomParameters = null;
+
+        FocusMode focusMode = parameters.getValue(Parameters.Type.FOCUS_MODE);
+        if (focusMode != null) {
+            focusStateTracker.onFocusModeChanged(focusMode);
+        }
     }
 
     @Override
@@ -279,6 +332,25 @@ public class Camera1 implements CameraDevice {
     public Photo takePicture() {
         recordMethod();
 
+        return capturePhoto(false);
+    }
+
+    /**
+     * Preview is started again right inside the picture callback, so that the camera can take the
+     * next picture as soon as possible.
+     */
+    @Override
+    public void takePictures(int count, BurstCallback callback) {
+        recordMethod();
+
+        for (int i = 0; i < count; i++) {
+            callback.onPhotoTaken(
+                    capturePhoto(true)
+            );
+        }
+    }
+
+    private Photo capturePhoto(final boolean restartPreview) {
         final CountDownLatch latch = new CountDownLatch(1);
         final AtomicReference<Photo> photoReference = new AtomicReference<>();
 
@@ -289,6 +361,10 @@ public class Camera1 implements CameraDevice {
                 new Camera.PictureCallback() {
                     @Override
                     public void onPictureTaken(byte[] data, Camera camera) {
+                        if (restartPreview) {
+                            restartPreviewSafe(camera);
+                        }
+
                         photoReference.set(
                                 new Photo(data, imageRotation)
                         );
@@ -301,12 +377,37 @@ public class Camera1 implements CameraDevice {
         try {
             latch.await();
         } catch (InterruptedException e) {
-            // Do nothing
+            // Camera must not be used before it delivers the picture, even if it is not needed
+            awaitUninterruptibly(latch, CANCELLED_PICTURE_TIMEOUT_SECONDS);
+
+            Thread.currentThread().interrupt();
+            throw new CameraException("Interrupted while waiting for the picture", e);
         }
 
         return photoReference.get();
     }
 
+    private static void awaitUninterruptibly(CountDownLatch latch, long timeoutSeconds) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+
+        while (true) {
+            try {
+                latch.await(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                return;
+            } catch (InterruptedException e) {
+                // Keep waiting, interrupt is restored by the caller
+            }
+        }
+    }
+
+    private void restartPreviewSafe(Camera camera) {
+        try {
+            camera.startPreview();
+        } catch (RuntimeException e) {
+            logger.log("Failed to restart preview after picture: " + e.getMessage());
+        }
+    }
+
     @Override
     public PreviewStream getPreviewStream() {
         recordMethod();
@@ -343,16 +444,19 @@ public class Camera1 implements CameraDevice {
         recordMethod();
 
         final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicBoolean focused = new AtomicBoolean(false);
 
         try {
             camera.autoFocus(new Camera.AutoFocusCallback() {
                 @Override
                 public void onAutoFocus(boolean success, Camera camera) {
+                    focused.set(success);
                     latch.countDown();
                 }
             });
         } catch (Exception e) {
             logFailedAutoFocus(e);
+            focusStateTracker.onFocusLost();
 
             return FocusResult.none();
         }
@@ -360,12 +464,33 @@ public class Camera1 implements CameraDevice {
         try {
             latch.await(AUTOFOCUS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
-            // Do nothing
+            // Operation was cancelled, stop focusing and let the caller know
+            cancelAutoFocusSafe();
+            Thread.currentThread().interrupt();
+        }
+
+        if (focused.get()) {
+            focusStateTracker.onFocusConverged();
+        } else {
+            focusStateTracker.onFocusLost();
         }
 
         return FocusResult.successNoMeasurement();
     }
 
+    @Override
+    public FocusStateTracker getFocusState() {
+        return focusStateTracker;
+    }
+
+    private void cancelAutoFocusSafe() {
+        try {
+            camera.cancelAutoFocus();
+        } catch (RuntimeException e) {
+            logger.log("Failed to cancel autofocus: " + e.getMessage());
+        }
+    }
+
     private void logFailedAutoFocus(Exception e) {
         logger.log("Failed to perform autofocus using device " + cameraId + " e: " + e.getMessage());
     }
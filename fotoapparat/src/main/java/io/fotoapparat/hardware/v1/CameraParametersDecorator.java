@@ -86,6 +86,16 @@ public class CameraParametersDecorator {
         return cameraParameters.getSupportedPreviewFpsRange();
     }
 
+    /**
+     * @return current preview FPS range as {@code [min, max]}, scaled by 1000.
+     * @see Camera.Parameters#getPreviewFpsRange(int[])
+     */
+    public int[] getPreviewFpsRange() {
+        int[] range = new int[2];
+        cameraParameters.getPreviewFpsRange(range);
+        return range;
+    }
+
     /**
      * @see Camera.Parameters#getAntibanding()
      */
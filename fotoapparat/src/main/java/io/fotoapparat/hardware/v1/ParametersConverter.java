@@ -11,6 +11,7 @@ import io.fotoapparat.parameter.FocusMode;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.parameter.range.Range;
+import io.fotoapparat.parameter.range.Ranges;
 
 /**
  * Converts {@link Parameters} to {@link CameraParametersDecorator}.
@@ -67,6 +68,17 @@ public class ParametersConverter {
         Integer jpegQuality = platformParameters.getJpegQuality();
         parameters.putValue(Parameters.Type.JPEG_QUALITY, jpegQuality);
 
+        int[] previewFpsRange = platformParameters.getPreviewFpsRange();
+        if (previewFpsRange != null) {
+            parameters.putValue(
+                    Parameters.Type.PREVIEW_FPS_RANGE,
+                    Ranges.continuousRange(
+                            previewFpsRange[Camera.Parameters.PREVIEW_FPS_MIN_INDEX],
+                            previewFpsRange[Camera.Parameters.PREVIEW_FPS_MAX_INDEX]
+                    )
+            );
+        }
+
         return parameters;
     }
 
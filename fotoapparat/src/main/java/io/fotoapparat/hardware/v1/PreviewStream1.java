@@ -3,34 +3,94 @@ package io.fotoapparat.hardware.v1;
 import android.graphics.ImageFormat;
 import android.hardware.Camera;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
-import java.util.LinkedHashSet;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameDispatcher;
 import io.fotoapparat.preview.FrameProcessor;
 import io.fotoapparat.preview.PreviewStream;
+import io.fotoapparat.preview.ProcessorOptions;
+import io.fotoapparat.preview.ProcessorStatistics;
+import io.fotoapparat.preview.StreamStatistics;
 
 /**
  * {@link PreviewStream} of Camera v1.
+ * <p>
+ * Keeps a fixed ring of preview buffers queued in the camera. Buffers are allocated once when the
+ * first frame processor is attached and are returned back to the camera as soon as frame
+ * processors are done with them, so the camera always has somewhere to write while a frame is
+ * being processed. Once the buffers are allocated, passing frames to processors and back does not
+ * allocate.
+ * <p>
+ * The preview callback is only installed while the stream is started and at least one processor
+ * is attached, so the camera does not copy preview frames when nobody needs them.
  */
 @SuppressWarnings("deprecation")
-public class PreviewStream1 implements PreviewStream {
+public class PreviewStream1 implements PreviewStream,
+        FrameDispatcher.OnFrameReleasedListener {
 
-    private static Executor FRAME_PROCESSORS_EXECUTOR = Executors.newSingleThreadExecutor();
+    /**
+     * Number of preview buffers used when nothing else is specified.
+     */
+    public static final int DEFAULT_BUFFER_COUNT = 3;
 
     private final Camera camera;
+    private final int bufferCount;
+
+    private final FrameDispatcher frameDispatcher = new FrameDispatcher(this);
+
+    private final AtomicInteger buffersInFlight = new AtomicInteger();
+    private final AtomicLong starvationCount = new AtomicLong();
+
+    private final Camera.PreviewCallback previewCallback = new Camera.PreviewCallback() {
+        @Override
+        public void onPreviewFrame(byte[] data, Camera camera) {
+            onFrameTaken(data);
+        }
+    };
+
+    /**
+     * Buffers which are neither queued in the camera nor held by processors.
+     */
+    private final Deque<byte[]> idleBuffers = new ArrayDeque<>();
+
+    /**
+     * Buffers which are queued in the camera.
+     */
+    private final Set<byte[]> queuedBuffers = Collections.newSetFromMap(new IdentityHashMap<byte[], Boolean>());
 
-    private final Set<FrameProcessor> frameProcessors = new LinkedHashSet<>();
+    private boolean started = false;
+    private boolean callbackEnabled = false;
+    private boolean buffersAllocated = false;
 
     private Size previewSize = null;
+    private int bufferSize = 0;
     private int frameOrientation = 0;
+    private long nextSequenceNumber = 0;
 
     public PreviewStream1(Camera camera) {
+        this(camera, DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * @param bufferCount number of preview buffers which are kept in the camera. Must be positive.
+     */
+    public PreviewStream1(Camera camera, int bufferCount) {
+        if (bufferCount < 1) {
+            throw new IllegalArgumentException("Buffer count must be positive: " + bufferCount);
+        }
+
         this.camera = camera;
+        this.bufferCount = bufferCount;
     }
 
     /**
@@ -40,14 +100,45 @@ public class PreviewStream1 implements PreviewStream {
         this.frameOrientation = frameOrientation;
     }
 
+    /**
+     * @return number of preview buffers which are currently held by frame processors and therefore
+     * are not available to the camera.
+     */
+    public int getBuffersInFlight() {
+        return buffersInFlight.get();
+    }
+
+    /**
+     * @return how many times all preview buffers were taken away from the camera. Every such event
+     * means that the camera drops frames until one of the buffers is returned.
+     */
+    public long getStarvationCount() {
+        return starvationCount.get();
+    }
+
+    /**
+     * @return {@code true} if preview callback is currently installed in the camera.
+     */
+    public boolean isCallbackEnabled() {
+        synchronized (idleBuffers) {
+            return callbackEnabled;
+        }
+    }
+
+    /**
+     * Allocates the preview buffers ahead of time. Does nothing if they are already allocated, so
+     * the number of buffers never exceeds the one given in the constructor.
+     */
     @Override
     public void addFrameToBuffer() {
-        camera.addCallbackBuffer(
-                allocateBuffer(camera.getParameters())
-        );
+        synchronized (idleBuffers) {
+            if (!buffersAllocated) {
+                allocateBuffers();
+            }
+        }
     }
 
-    private byte[] allocateBuffer(Camera.Parameters parameters) {
+    private void readPreviewSize(Camera.Parameters parameters) {
         ensureNv21Format(parameters);
 
         Camera.Size previewSize = parameters.getPreviewSize();
@@ -55,8 +146,7 @@ public class PreviewStream1 implements PreviewStream {
                 previewSize.width,
                 previewSize.height
         );
-
-        return new byte[bytesPerFrame(previewSize)];
+        this.bufferSize = bytesPerFrame(previewSize);
     }
 
     private int bytesPerFrame(Camera.Size previewSize) {
@@ -71,51 +161,129 @@ public class PreviewStream1 implements PreviewStream {
 
     @Override
     public void addProcessor(@NonNull FrameProcessor processor) {
-        synchronized (frameProcessors) {
-            frameProcessors.add(processor);
-        }
+        addProcessor(processor, ProcessorOptions.defaults());
+    }
+
+    @Override
+    public void addProcessor(@NonNull FrameProcessor processor,
+                             @NonNull ProcessorOptions options) {
+        frameDispatcher.addProcessor(processor, options);
+        updateCallback();
     }
 
     @Override
     public void removeProcessor(@NonNull FrameProcessor processor) {
-        synchronized (frameProcessors) {
-            frameProcessors.remove(processor);
-        }
+        frameDispatcher.removeProcessor(processor);
+        updateCallback();
+    }
+
+    @Nullable
+    @Override
+    public ProcessorStatistics getStatistics(@NonNull FrameProcessor processor) {
+        return frameDispatcher.getStatistics(processor);
+    }
+
+    @NonNull
+    @Override
+    public StreamStatistics getStreamStatistics() {
+        return frameDispatcher.getStreamStatistics();
     }
 
     @Override
     public void start() {
-        addFrameToBuffer();
+        synchronized (idleBuffers) {
+            started = true;
+        }
 
-        camera.setPreviewCallbackWithBuffer(new Camera.PreviewCallback() {
-            @Override
-            public void onPreviewFrame(byte[] data, Camera camera) {
-                dispatchFrameOnBackgroundThread(data);
-            }
-        });
+        updateCallback();
     }
 
-    private void dispatchFrameOnBackgroundThread(final byte[] data) {
-        FRAME_PROCESSORS_EXECUTOR.execute(new Runnable() {
-            @Override
-            public void run() {
-                synchronized (frameProcessors) {
-                    dispatchFrame(data);
-                }
+    private void updateCallback() {
+        synchronized (idleBuffers) {
+            boolean callbackNeeded = started && frameDispatcher.hasProcessors();
+
+            if (callbackNeeded && !callbackEnabled) {
+                enableCallback();
+            } else if (!callbackNeeded && callbackEnabled) {
+                disableCallback();
             }
-        });
+        }
     }
 
-    private void dispatchFrame(byte[] image) {
-        ensurePreviewSizeAvailable();
+    private void enableCallback() {
+        if (!buffersAllocated) {
+            allocateBuffers();
+        }
 
-        final Frame frame = new Frame(previewSize, image, frameOrientation);
+        callbackEnabled = true;
 
-        for (final FrameProcessor frameProcessor : frameProcessors) {
-            frameProcessor.processFrame(frame);
+        byte[] buffer;
+        while ((buffer = idleBuffers.poll()) != null) {
+            queueBuffer(buffer);
         }
 
-        returnFrameToBuffer(frame);
+        camera.setPreviewCallbackWithBuffer(previewCallback);
+    }
+
+    /**
+     * Removing the callback also clears the queue of buffers in the camera, so all queued buffers
+     * become idle.
+     */
+    private void disableCallback() {
+        callbackEnabled = false;
+
+        camera.setPreviewCallbackWithBuffer(null);
+
+        idleBuffers.addAll(queuedBuffers);
+        queuedBuffers.clear();
+    }
+
+    private void allocateBuffers() {
+        readPreviewSize(camera.getParameters());
+        buffersAllocated = true;
+
+        for (int i = 0; i < bufferCount; i++) {
+            idleBuffers.add(new byte[bufferSize]);
+        }
+    }
+
+    private void queueBuffer(byte[] buffer) {
+        queuedBuffers.add(buffer);
+        camera.addCallbackBuffer(buffer);
+    }
+
+    private void onFrameTaken(byte[] data) {
+        if (data == null) {
+            return;
+        }
+
+        synchronized (idleBuffers) {
+            if (!callbackEnabled) {
+                return;
+            }
+
+            queuedBuffers.remove(data);
+        }
+
+        long arrivalNanos = System.nanoTime();
+
+        if (buffersInFlight.incrementAndGet() >= bufferCount) {
+            starvationCount.incrementAndGet();
+        }
+
+        dispatchFrame(data, arrivalNanos);
+    }
+
+    private void dispatchFrame(byte[] image, long arrivalNanos) {
+        ensurePreviewSizeAvailable();
+
+        frameDispatcher.dispatch(
+                previewSize,
+                image,
+                frameOrientation,
+                nextSequenceNumber++,
+                arrivalNanos
+        );
     }
 
     private void ensurePreviewSizeAvailable() {
@@ -124,10 +292,25 @@ public class PreviewStream1 implements PreviewStream {
         }
     }
 
+    @Override
+    public void onFrameReleased(Frame frame) {
+        returnFrameToBuffer(frame);
+    }
+
     private void returnFrameToBuffer(Frame frame) {
-        camera.addCallbackBuffer(
-                frame.image
-        );
+        buffersInFlight.decrementAndGet();
+
+        returnBuffer(frame.image);
+    }
+
+    private void returnBuffer(byte[] buffer) {
+        synchronized (idleBuffers) {
+            if (callbackEnabled) {
+                queueBuffer(buffer);
+            } else {
+                idleBuffers.push(buffer);
+            }
+        }
     }
 
 }
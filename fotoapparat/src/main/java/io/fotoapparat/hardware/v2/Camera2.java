@@ -22,7 +22,9 @@ import io.fotoapparat.hardware.operators.SurfaceOperator;
 import io.fotoapparat.hardware.provider.AvailableLensPositionsProvider;
 import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.lens.FocusResult;
+import io.fotoapparat.lens.FocusStateTracker;
 import io.fotoapparat.log.Logger;
+import io.fotoapparat.parameter.FocusMode;
 import io.fotoapparat.parameter.LensPosition;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.RendererParameters;
@@ -48,6 +50,7 @@ public class Camera2 implements CameraDevice {
     private final RendererParametersOperator rendererParametersOperator;
     private final AutoFocusOperator autoFocusOperator;
     private final AvailableLensPositionsProvider availableLensPositionsProvider;
+    private final FocusStateTracker focusStateTracker;
 
     private CountDownLatch currentParametersLatch;
     private Parameters currentParameters;
@@ -64,7 +67,8 @@ public class Camera2 implements CameraDevice {
                    AutoFocusOperator autoFocusOperator,
                    ExposureMeasurementOperator exposureMeasurementOperator,
                    CaptureOperator captureOperator,
-                   AvailableLensPositionsProvider availableLensPositionsProvider) {
+                   AvailableLensPositionsProvider availableLensPositionsProvider,
+                   FocusStateTracker focusStateTracker) {
         this.logger = logger;
         this.connectionOperator = connectionOperator;
         this.parametersOperator = parametersOperator;
@@ -78,6 +82,7 @@ public class Camera2 implements CameraDevice {
         this.rendererParametersOperator = rendererParametersOperator;
         this.autoFocusOperator = autoFocusOperator;
         this.availableLensPositionsProvider = availableLensPositionsProvider;
+        this.focusStateTracker = focusStateTracker;
         this.currentParametersLatch = new CountDownLatch(1);
         this.currentParameters = null;
     }
@@ -94,6 +99,7 @@ public class Camera2 implements CameraDevice {
         recordMethod();
 
         connectionOperator.close();
+        focusStateTracker.reset();
     }
 
     @Override
@@ -124,6 +130,11 @@ public class Camera2 implements CameraDevice {
         orientationOperator.setDisplayOrientation(degrees);
     }
 
+    @Override
+    public int getPhotoOrientation() {
+        return orientationOperator.getPhotoOrientation();
+    }
+
     @Override
     public void updateParameters(Parameters parameters) {
         recordMethod();
@@ -131,6 +142,11 @@ public class Camera2 implements CameraDevice {
         parametersOperator.updateParameters(parameters);
         currentParameters = parameters;
         currentParametersLatch.countDown();
+
+        FocusMode focusMode = parameters.getValue(Parameters.Type.FOCUS_MODE);
+        if (focusMode != null) {
+            focusStateTracker.onFocusModeChanged(focusMode);
+        }
     }
 
     @Override
@@ -154,7 +170,15 @@ public class Camera2 implements CameraDevice {
     public FocusResult autoFocus() {
         recordMethod();
 
-        return autoFocusOperator.autoFocus();
+        FocusResult focusResult = autoFocusOperator.autoFocus();
+        focusStateTracker.onFocusResult(focusResult);
+
+        return focusResult;
+    }
+
+    @Override
+    public FocusStateTracker getFocusState() {
+        return focusStateTracker;
     }
 
     @Override
@@ -171,6 +195,13 @@ public class Camera2 implements CameraDevice {
         return captureOperator.takePicture();
     }
 
+    @Override
+    public void takePictures(int count, BurstCallback callback) {
+        recordMethod();
+
+        captureOperator.takePictures(count, callback);
+    }
+
     @Override
     public PreviewStream getPreviewStream() {
         recordMethod();
@@ -1,11 +1,15 @@
 package io.fotoapparat.hardware.v2.lens.executors;
 
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CaptureFailure;
+import android.hardware.camera2.CaptureRequest;
+import android.support.annotation.NonNull;
+
+import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.hardware.operators.CaptureOperator;
-import io.fotoapparat.hardware.v2.lens.operations.LensOperation;
 import io.fotoapparat.hardware.v2.lens.operations.LensOperationsFactory;
 import io.fotoapparat.hardware.v2.orientation.OrientationManager;
 import io.fotoapparat.hardware.v2.readers.StillSurfaceReader;
-import io.fotoapparat.lens.CaptureResultState;
 import io.fotoapparat.photo.Photo;
 
 /**
@@ -28,13 +32,63 @@ public class CaptureOperatorImpl implements CaptureOperator {
 
     @Override
     public Photo takePicture() {
-        LensOperation<CaptureResultState> captureOperation = lensOperationsFactory.createCaptureOperation();
+        StillSurfaceReader.Capture capture = stillSurfaceReader.startCapture();
+
+        try {
+            lensOperationsFactory.startBurstCapture(1, captureCallback(capture));
+
+            return capture.nextPhoto(
+                    orientationManager.getPhotoOrientation()
+            );
+        } finally {
+            stillSurfaceReader.finishCapture(capture);
+        }
+    }
+
+    @Override
+    public void takePictures(int count, BurstCallback callback) {
+        StillSurfaceReader.Capture capture = stillSurfaceReader.startCapture();
+
+        try {
+            lensOperationsFactory.startBurstCapture(count, captureCallback(capture));
+
+            for (int i = 0; i < count; i++) {
+                Photo photo;
+
+                try {
+                    photo = capture.nextPhoto(
+                            orientationManager.getPhotoOrientation()
+                    );
+                } catch (CameraException e) {
+                    throw new CameraException("Burst capture failed after " + i + " of " + count + " photos", e);
+                }
+
+                callback.onPhotoTaken(photo);
+            }
+        } finally {
+            stillSurfaceReader.finishCapture(capture);
+        }
+    }
 
-        captureOperation.call();
+    /**
+     * @return callback which tells the reader which images belong to the capture.
+     */
+    private CameraCaptureSession.CaptureCallback captureCallback(final StillSurfaceReader.Capture capture) {
+        return new CameraCaptureSession.CaptureCallback() {
+            @Override
+            public void onCaptureStarted(@NonNull CameraCaptureSession session,
+                                         @NonNull CaptureRequest request,
+                                         long timestamp,
+                                         long frameNumber) {
+                stillSurfaceReader.onCaptureStarted(capture, timestamp);
+            }
 
-        return new Photo(
-                stillSurfaceReader.getPhotoBytes(),
-                orientationManager.getPhotoOrientation()
-        );
+            @Override
+            public void onCaptureFailed(@NonNull CameraCaptureSession session,
+                                        @NonNull CaptureRequest request,
+                                        @NonNull CaptureFailure failure) {
+                stillSurfaceReader.onCaptureFailed(capture);
+            }
+        };
     }
 }
@@ -1,8 +1,12 @@
 package io.fotoapparat.hardware.v2.lens.operations;
 
 import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CaptureRequest;
 import android.os.Handler;
 
+import java.util.Collections;
+
 import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.hardware.v2.CameraThread;
 import io.fotoapparat.hardware.v2.lens.operations.transformer.CaptureResultTransformer;
@@ -82,4 +86,27 @@ public class LensOperationsFactory {
             throw new CameraException(e);
         }
     }
+
+    /**
+     * Submits a burst of still captures to the current session. Returns immediately, captured
+     * images arrive to the still capture surface.
+     *
+     * @param count    The number of captures.
+     * @param callback Notified about the progress of every capture.
+     */
+    public void startBurstCapture(int count, CameraCaptureSession.CaptureCallback callback) {
+        try {
+            CaptureRequest request = captureRequestFactory.createCaptureRequest();
+
+            sessionManager
+                    .getCaptureSession()
+                    .captureBurst(
+                            Collections.nCopies(count, request),
+                            callback,
+                            handler
+                    );
+        } catch (CameraAccessException e) {
+            throw new CameraException(e);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package io.fotoapparat.hardware.v2.lens.operations;
 
 import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CaptureFailure;
 import android.hardware.camera2.CaptureRequest;
 import android.hardware.camera2.CaptureResult;
 import android.hardware.camera2.TotalCaptureResult;
@@ -32,6 +33,7 @@ class WrappedCaptureCallback<R> extends CameraCaptureSession.CaptureCallback imp
     private final Transformer<CaptureResult, R> transformer;
 
     private R stage;
+    private boolean failed = false;
 
     private WrappedCaptureCallback(CameraCaptureSession captureSession,
                                    CaptureRequest request,
@@ -72,15 +74,31 @@ class WrappedCaptureCallback<R> extends CameraCaptureSession.CaptureCallback imp
         countDownLatch.countDown();
     }
 
+    @Override
+    public void onCaptureFailed(@NonNull CameraCaptureSession session,
+                                @NonNull CaptureRequest request,
+                                @NonNull CaptureFailure failure) {
+        super.onCaptureFailed(session, request, failure);
+        this.failed = true;
+        countDownLatch.countDown();
+    }
+
     /**
      * @return The result subsequent to the process.
+     * @throws CameraException if the camera failed to process the request.
      */
     private R getResult() {
         try {
             countDownLatch.await();
         } catch (InterruptedException e) {
-            // do nothing
+            Thread.currentThread().interrupt();
+            throw new CameraException("Interrupted while waiting for the capture", e);
         }
+
+        if (failed) {
+            throw new CameraException("Camera failed to process the capture request");
+        }
+
         return stage;
     }
 
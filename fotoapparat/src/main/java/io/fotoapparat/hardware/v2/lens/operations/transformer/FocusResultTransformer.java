@@ -18,9 +18,10 @@ public class FocusResultTransformer implements Transformer<CaptureResult, FocusR
         Integer autoFocusState = input.get(CaptureResult.CONTROL_AF_STATE);
 
         boolean lockSucceeded = autoFocusState != null && isFocusLocked(autoFocusState);
+        boolean focused = autoFocusState != null && isFocused(autoFocusState);
         boolean needsExposureMeasurement = needsExposureMeasurement(input);
 
-        return new FocusResult(lockSucceeded, needsExposureMeasurement);
+        return new FocusResult(lockSucceeded, focused, needsExposureMeasurement);
     }
 
     private boolean needsExposureMeasurement(CaptureResult input) {
@@ -36,4 +37,8 @@ public class FocusResultTransformer implements Transformer<CaptureResult, FocusR
         return autoFocusState == CaptureResult.CONTROL_AF_STATE_FOCUSED_LOCKED
                 || autoFocusState == CaptureResult.CONTROL_AF_STATE_NOT_FOCUSED_LOCKED;
     }
+
+    private boolean isFocused(Integer autoFocusState) {
+        return autoFocusState == CaptureResult.CONTROL_AF_STATE_FOCUSED_LOCKED;
+    }
 }
@@ -42,6 +42,7 @@ public class OrientationManager implements OrientationOperator {
      * @return The clockwise rotation of the photo in degrees, relative to the orientation to the
      * camera.
      */
+    @Override
     public int getPhotoOrientation() {
         Characteristics characteristics = cameraConnection.getCharacteristics();
 
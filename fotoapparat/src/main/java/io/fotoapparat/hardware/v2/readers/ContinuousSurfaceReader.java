@@ -4,66 +4,140 @@ import android.graphics.ImageFormat;
 import android.media.Image;
 import android.media.ImageReader;
 import android.os.Build;
+import android.os.SystemClock;
 import android.support.annotation.RequiresApi;
 import android.view.Surface;
 
-import java.nio.ByteBuffer;
-
 import io.fotoapparat.hardware.v2.CameraThread;
 import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.hardware.v2.stream.OnImageAcquiredObserver;
 import io.fotoapparat.parameter.Size;
+import io.fotoapparat.util.ByteArrayPool;
 
 /**
  * Creates a {@link Surface} which can capture continuous events (several frames).
+ * <p>
+ * Images are converted to NV21 arrays which are taken from a pool. Arrays are returned to the pool
+ * through {@link #recycle(byte[])} once the frame is no longer used.
  */
 @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
 public class ContinuousSurfaceReader
         implements OnImageAcquiredObserver, ImageReader.OnImageAvailableListener {
 
+    /**
+     * Number of images which {@link ImageReader} can hold when nothing else is specified.
+     */
+    public static final int DEFAULT_MAX_IMAGES = 2;
+
     private final ParametersProvider parametersProvider;
     private final CameraThread cameraThread;
+    private final int maxImages;
+
+    private final ByteArrayPool bufferPool = new ByteArrayPool();
+    private final Yuv420Converter converter = new Yuv420Converter();
+
     private ImageReader imageReader;
-    private OnFrameAcquiredListener listener;
+    private volatile OnFrameAcquiredListener listener;
 
     public ContinuousSurfaceReader(ParametersProvider parametersProvider, CameraThread cameraThread) {
+        this(parametersProvider, cameraThread, DEFAULT_MAX_IMAGES);
+    }
+
+    /**
+     * @param maxImages number of images which {@link ImageReader} can hold at the same time.
+     */
+    public ContinuousSurfaceReader(ParametersProvider parametersProvider,
+                                   CameraThread cameraThread,
+                                   int maxImages) {
+        if (maxImages < 1) {
+            throw new IllegalArgumentException("Max images must be positive: " + maxImages);
+        }
+
         this.parametersProvider = parametersProvider;
         this.cameraThread = cameraThread;
+        this.maxImages = maxImages;
     }
 
-    private static byte[] YUV_420_888toNV21(Image image) {
-        byte[] nv21;
-        ByteBuffer yBuffer = image.getPlanes()[0].getBuffer();
-        ByteBuffer uBuffer = image.getPlanes()[1].getBuffer();
-        ByteBuffer vBuffer = image.getPlanes()[2].getBuffer();
+    private byte[] toNv21(Image image) {
+        Image.Plane[] planes = image.getPlanes();
 
-        int ySize = yBuffer.remaining();
-        int uSize = uBuffer.remaining();
-        int vSize = vBuffer.remaining();
+        int width = image.getWidth();
+        int height = image.getHeight();
 
-        nv21 = new byte[ySize + uSize + vSize];
+        byte[] nv21 = bufferPool.acquire(
+                Yuv420Converter.nv21Length(width, height)
+        );
 
-        //U and V are swapped
-        yBuffer.get(nv21, 0, ySize);
-        vBuffer.get(nv21, ySize, vSize);
-        uBuffer.get(nv21, ySize + vSize, uSize);
+        converter.toNv21(
+                width,
+                height,
+                planes[0].getBuffer(),
+                planes[0].getRowStride(),
+                planes[1].getBuffer(),
+                planes[2].getBuffer(),
+                planes[1].getRowStride(),
+                planes[1].getPixelStride(),
+                nv21
+        );
 
         return nv21;
     }
 
     @Override
     public void onImageAvailable(ImageReader reader) {
-        Image image = reader.acquireNextImage();
-        Image.Plane[] planes = image.getPlanes();
+        Image image = reader.acquireLatestImage();
 
-        if (planes.length > 0) {
-            byte[] bytes = YUV_420_888toNV21(image);
+        if (image == null) {
+            return;
+        }
 
-            if (listener != null) {
-                listener.onFrameAcquired(bytes);
-            }
+        try {
+            dispatchImage(image);
+        } finally {
+            image.close();
         }
-        image.close();
+    }
+
+    private void dispatchImage(Image image) {
+        OnFrameAcquiredListener listener = this.listener;
+
+        if (listener == null || image.getPlanes().length < 3) {
+            return;
+        }
+
+        listener.onFrameAcquired(
+                toNv21(image),
+                captureTimeNanos(image.getTimestamp())
+        );
+    }
+
+    /**
+     * Sensor timestamps are either in {@link System#nanoTime()} or in
+     * {@link SystemClock#elapsedRealtimeNanos()} time base, depending on the device. The time base
+     * is told apart by which clock the timestamp is closer to, as the clocks drift apart by the
+     * time the device spent in deep sleep.
+     */
+    private static long captureTimeNanos(long sensorTimestampNanos) {
+        long nowNanos = System.nanoTime();
+        long realtimeNanos = SystemClock.elapsedRealtimeNanos();
+
+        if (sensorTimestampNanos <= 0) {
+            return nowNanos;
+        }
+
+        boolean realtimeBase = Math.abs(realtimeNanos - sensorTimestampNanos)
+                < Math.abs(nowNanos - sensorTimestampNanos);
+
+        long captureNanos = realtimeBase
+                ? nowNanos - (realtimeNanos - sensorTimestampNanos)
+                : sensorTimestampNanos;
+
+        return Math.min(captureNanos, nowNanos);
+    }
+
+    @Override
+    public void recycle(byte[] bytes) {
+        bufferPool.release(bytes);
     }
 
     /**
@@ -86,7 +160,7 @@ public class ContinuousSurfaceReader
                         previewSize.width,
                         previewSize.height,
                         ImageFormat.YUV_420_888,
-                        1
+                        maxImages
                 );
 
         imageReader.setOnImageAvailableListener(
@@ -4,29 +4,91 @@ import android.graphics.ImageFormat;
 import android.media.Image;
 import android.media.ImageReader;
 import android.os.Build;
+import android.support.annotation.Nullable;
 import android.support.annotation.RequiresApi;
 import android.view.Surface;
 
 import java.nio.ByteBuffer;
-import java.util.concurrent.CountDownLatch;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.hardware.v2.CameraThread;
 import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.parameter.Size;
+import io.fotoapparat.photo.Photo;
+import io.fotoapparat.photo.PhotoBufferPool;
+import io.fotoapparat.photo.PooledPhoto;
 
 /**
  * Creates a {@link Surface} which can capture single events.
+ * <p>
+ * Every image is copied out and returned to the reader as soon as it arrives, so the camera can
+ * write the next image while previous ones are still being consumed. Images are copied into
+ * arrays of their exact length, or into buffers from {@link PhotoBufferPool} if one is given.
+ * <p>
+ * Images are matched to {@link Capture}s by sensor timestamp, which the camera reports when the
+ * capture starts. Images of captures which are already finished, for example because they timed
+ * out, are dropped, so they are never delivered as a photo of another capture.
  */
 @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
-public class StillSurfaceReader {
+public class StillSurfaceReader implements ImageReader.OnImageAvailableListener {
+
+    /**
+     * Number of still images which the camera can hold at the same time when nothing else is
+     * specified.
+     */
+    public static final int DEFAULT_MAX_IMAGES = 2;
+
+    /**
+     * Started captures are forgotten once they are finished and more than this many are tracked.
+     */
+    static final int MAX_TRACKED_CAPTURES = 32;
 
     private final CameraThread cameraThread;
     private final ParametersProvider parametersProvider;
+    private final int maxImages;
+    @Nullable
+    private final PhotoBufferPool bufferPool;
+
+    private final Object lock = new Object();
+    private final Map<Long, Capture> startedCaptures = new HashMap<>();
+    private final LinkedHashMap<Long, EncodedImage> unclaimedImages = new LinkedHashMap<>();
+
     private ImageReader imageReader;
 
     public StillSurfaceReader(ParametersProvider parametersProvider, CameraThread cameraThread) {
+        this(
+                parametersProvider,
+                cameraThread,
+                DEFAULT_MAX_IMAGES,
+                null
+        );
+    }
+
+    /**
+     * @param maxImages  number of still images which the camera can hold at the same time. Must
+     *                   be positive.
+     * @param bufferPool pool of buffers which images are copied to. {@code null} to copy every
+     *                   image into a new array of its exact length.
+     */
+    public StillSurfaceReader(ParametersProvider parametersProvider,
+                              CameraThread cameraThread,
+                              int maxImages,
+                              @Nullable PhotoBufferPool bufferPool) {
+        if (maxImages < 1) {
+            throw new IllegalArgumentException("Max images must be positive: " + maxImages);
+        }
+
         this.parametersProvider = parametersProvider;
         this.cameraThread = cameraThread;
+        this.maxImages = maxImages;
+        this.bufferPool = bufferPool;
     }
 
     /**
@@ -42,14 +104,13 @@ public class StillSurfaceReader {
     }
 
     /**
-     * Returns the next available Image as a byte array.
+     * Starts collecting images of a capture. Every image the capture produces must be announced
+     * with {@link #onCaptureStarted(Capture, long)} or {@link #onCaptureFailed(Capture)}.
      *
-     * @return the Image as byte array.
+     * @return The capture which returns images in the order of their arrival.
      */
-    public byte[] getPhotoBytes() {
-        ImageCaptureAction imageCaptureAction = new ImageCaptureAction(imageReader, cameraThread);
-
-        return imageCaptureAction.getPhoto();
+    public Capture startCapture() {
+        return new Capture(bufferPool);
     }
 
     private void createImageReader() {
@@ -60,67 +121,229 @@ public class StillSurfaceReader {
                         largestSize.width,
                         largestSize.height,
                         ImageFormat.JPEG,
-                        1
+                        maxImages
                 );
 
+        imageReader.setOnImageAvailableListener(
+                this,
+                cameraThread.createHandler()
+        );
     }
 
-    private static class ImageCaptureAction implements ImageReader.OnImageAvailableListener {
-
-        private final CountDownLatch countDownLatch = new CountDownLatch(1);
-        private final ImageReader imageReader;
-        private byte[] bytes;
+    @Override
+    public void onImageAvailable(ImageReader reader) {
+        Image image;
 
-        private ImageCaptureAction(ImageReader imageReader, CameraThread cameraThread) {
-            this.imageReader = imageReader;
-            imageReader.setOnImageAvailableListener(
-                    this,
-                    cameraThread.createHandler()
+        while ((image = reader.acquireNextImage()) != null) {
+            onImage(
+                    copy(image)
             );
         }
+    }
+
+    private EncodedImage copy(Image image) {
+        try {
+            ByteBuffer source = image.getPlanes()[0].getBuffer();
+
+            int length = source.remaining();
+            byte[] buffer = bufferPool != null
+                    ? bufferPool.acquire(length)
+                    : new byte[length];
+            source.get(buffer, 0, length);
+
+            return new EncodedImage(buffer, length, image.getTimestamp());
+        } finally {
+            image.close();
+        }
+    }
+
+    /**
+     * Hands the image over to the capture it belongs to. Images of finished captures are dropped
+     * right away. Images which arrive before their capture is reported as started are kept
+     * until it is, but no more than the reader can hold at once.
+     */
+    void onImage(EncodedImage encodedImage) {
+        synchronized (lock) {
+            Capture capture = startedCaptures.remove(encodedImage.timestampNanos);
 
-        private byte[] getPhoto() {
-            Image image = imageReader.acquireLatestImage();
-            if (image != null) {
-                removeListener();
-                return imageToBytes(image);
+            if (capture == null) {
+                keepUnclaimed(encodedImage);
+            } else if (capture.finished) {
+                encodedImage.release(bufferPool);
+            } else {
+                capture.onResult(encodedImage);
             }
+        }
+    }
+
+    private void keepUnclaimed(EncodedImage encodedImage) {
+        unclaimedImages.put(encodedImage.timestampNanos, encodedImage);
+
+        if (unclaimedImages.size() > maxImages) {
+            Iterator<EncodedImage> oldest = unclaimedImages.values().iterator();
+            oldest.next().release(bufferPool);
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Notifies that the camera started to expose an image of the capture.
+     *
+     * @param timestampNanos sensor timestamp of the image.
+     */
+    public void onCaptureStarted(Capture capture, long timestampNanos) {
+        synchronized (lock) {
+            EncodedImage encodedImage = unclaimedImages.remove(timestampNanos);
+
+            if (encodedImage != null) {
+                if (capture.finished) {
+                    encodedImage.release(bufferPool);
+                } else {
+                    capture.onResult(encodedImage);
+                }
+                return;
+            }
+
+            startedCaptures.put(timestampNanos, capture);
+            forgetFinishedCaptures();
+        }
+    }
+
+    /**
+     * Images of failed captures never arrive, so finished captures would pile up otherwise.
+     */
+    private void forgetFinishedCaptures() {
+        if (startedCaptures.size() <= MAX_TRACKED_CAPTURES) {
+            return;
+        }
+
+        Iterator<Capture> iterator = startedCaptures.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().finished) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Stops collecting images of the capture, whether all of them were consumed or not. Images
+     * which were not consumed are returned to the pool and images which arrive later are
+     * dropped. Must be called once the capture is no longer used.
+     */
+    public void finishCapture(Capture capture) {
+        synchronized (lock) {
+            capture.finished = true;
+        }
+
+        capture.releaseRemaining();
+    }
+
+    /**
+     * Notifies that one of the images of the capture will never arrive.
+     */
+    public void onCaptureFailed(Capture capture) {
+        synchronized (lock) {
+            if (!capture.finished) {
+                capture.onResult(EncodedImage.FAILED);
+            }
+        }
+    }
+
+    /**
+     * Collects images of a single capture or of a burst.
+     */
+    public static class Capture {
+
+        /**
+         * Time given to the camera to deliver an image after it was requested.
+         */
+        static final long IMAGE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+        private final BlockingQueue<EncodedImage> images = new LinkedBlockingQueue<>();
+        @Nullable
+        private final PhotoBufferPool bufferPool;
+        private boolean finished = false;
+
+        private Capture(@Nullable PhotoBufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+        }
+
+        /**
+         * Returns the next image of the capture. Blocks until it is available. The photo is a
+         * {@link PooledPhoto} if the reader copies images into pooled buffers.
+         *
+         * @param rotationDegrees rotation of the photo.
+         * @return the photo.
+         * @throws CameraException if the capture failed, the image did not arrive in time or the
+         *                         thread was interrupted.
+         */
+        public Photo nextPhoto(int rotationDegrees) {
+            EncodedImage image;
 
             try {
-                countDownLatch.await();
+                image = images.poll(IMAGE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
             } catch (InterruptedException e) {
-                // Do nothing
+                Thread.currentThread().interrupt();
+                throw new CameraException("Interrupted while waiting for the photo", e);
+            }
+
+            if (image == null) {
+                throw new CameraException("Photo did not arrive in " + IMAGE_TIMEOUT_MILLIS + " ms");
+            }
+
+            if (image == EncodedImage.FAILED) {
+                throw new CameraException("Camera failed to capture the photo");
             }
 
-            return bytes;
+            if (bufferPool == null) {
+                return new Photo(
+                        image.buffer,
+                        rotationDegrees
+                );
+            }
+
+            return new PooledPhoto(
+                    image.buffer,
+                    image.length,
+                    rotationDegrees,
+                    bufferPool
+            );
         }
 
-        @Override
-        public void onImageAvailable(ImageReader reader) {
-            Image image = reader.acquireLatestImage();
-            bytes = imageToBytes(image);
+        private void releaseRemaining() {
+            EncodedImage image;
 
-            removeListener();
+            while ((image = images.poll()) != null) {
+                image.release(bufferPool);
+            }
+        }
 
-            countDownLatch.countDown();
+        private void onResult(EncodedImage image) {
+            images.add(image);
         }
 
-        private byte[] imageToBytes(Image image) {
-            Image.Plane[] planes = image.getPlanes();
+    }
 
-            ByteBuffer buffer = planes[0].getBuffer();
+    static class EncodedImage {
 
-            byte[] result = new byte[buffer.remaining()];
-            buffer.get(result);
+        static final EncodedImage FAILED = new EncodedImage(new byte[0], 0, -1);
 
-            image.close();
+        final byte[] buffer;
+        final int length;
+        final long timestampNanos;
 
-            return result;
+        EncodedImage(byte[] buffer, int length, long timestampNanos) {
+            this.buffer = buffer;
+            this.length = length;
+            this.timestampNanos = timestampNanos;
         }
 
-        private void removeListener() {
-            imageReader.setOnImageAvailableListener(null, null);
+        void release(@Nullable PhotoBufferPool bufferPool) {
+            if (bufferPool != null && this != FAILED) {
+                bufferPool.release(buffer);
+            }
         }
+
     }
 
 }
@@ -0,0 +1,104 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts planes of {@code YUV_420_888} images into NV21 byte arrays.
+ * <p>
+ * Takes row and pixel strides of every plane into account, so padded rows and both planar and
+ * semi-planar chroma layouts are converted correctly. Does not allocate once the row buffers are
+ * sized for the image width.
+ */
+class Yuv420Converter {
+
+    private byte[] uRow = new byte[0];
+    private byte[] vRow = new byte[0];
+
+    /**
+     * @return length of NV21 array for an image of the given size.
+     */
+    static int nv21Length(int width, int height) {
+        return width * height + 2 * chromaLength(width) * chromaLength(height);
+    }
+
+    private static int chromaLength(int lumaLength) {
+        return (lumaLength + 1) / 2;
+    }
+
+    /**
+     * Writes the image into {@code nv21}, which must be at least {@link #nv21Length(int, int)}
+     * long.
+     */
+    void toNv21(int width,
+                int height,
+                ByteBuffer yBuffer,
+                int yRowStride,
+                ByteBuffer uBuffer,
+                ByteBuffer vBuffer,
+                int uvRowStride,
+                int uvPixelStride,
+                byte[] nv21) {
+        copyLuma(width, height, yBuffer, yRowStride, nv21);
+        interleaveChroma(
+                chromaLength(width),
+                chromaLength(height),
+                uBuffer,
+                vBuffer,
+                uvRowStride,
+                uvPixelStride,
+                nv21,
+                width * height
+        );
+    }
+
+    private void copyLuma(int width,
+                          int height,
+                          ByteBuffer yBuffer,
+                          int rowStride,
+                          byte[] nv21) {
+        if (rowStride == width) {
+            yBuffer.position(0);
+            yBuffer.get(nv21, 0, width * height);
+            return;
+        }
+
+        for (int row = 0; row < height; row++) {
+            yBuffer.position(row * rowStride);
+            yBuffer.get(nv21, row * width, width);
+        }
+    }
+
+    private void interleaveChroma(int chromaWidth,
+                                  int chromaHeight,
+                                  ByteBuffer uBuffer,
+                                  ByteBuffer vBuffer,
+                                  int rowStride,
+                                  int pixelStride,
+                                  byte[] nv21,
+                                  int offset) {
+        int rowLength = (chromaWidth - 1) * pixelStride + 1;
+        ensureRowCapacity(rowLength);
+
+        int position = offset;
+
+        for (int row = 0; row < chromaHeight; row++) {
+            uBuffer.position(row * rowStride);
+            uBuffer.get(uRow, 0, rowLength);
+            vBuffer.position(row * rowStride);
+            vBuffer.get(vRow, 0, rowLength);
+
+            for (int column = 0; column < rowLength; column += pixelStride) {
+                nv21[position++] = vRow[column];
+                nv21[position++] = uRow[column];
+            }
+        }
+    }
+
+    private void ensureRowCapacity(int rowLength) {
+        if (uRow.length < rowLength) {
+            uRow = new byte[rowLength];
+            vRow = new byte[rowLength];
+        }
+    }
+
+}
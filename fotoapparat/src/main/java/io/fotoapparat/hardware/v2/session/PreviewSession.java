@@ -5,6 +5,8 @@ import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraCaptureSession;
 import android.hardware.camera2.CameraDevice;
 import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.CaptureResult;
+import android.hardware.camera2.TotalCaptureResult;
 import android.os.Build;
 import android.support.annotation.RequiresApi;
 import android.view.Surface;
@@ -15,25 +17,43 @@ import java.util.List;
 import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.hardware.operators.PreviewOperator;
 import io.fotoapparat.hardware.v2.CameraThread;
+import io.fotoapparat.lens.FocusStateTracker;
 
 /**
  * Wrapper around the internal {@link android.hardware.camera2.CameraCaptureSession}
  * for a particular {@link CameraDevice}.
  * <p>
  * It facilitates a {@link SurfaceTexture} to preview the results of the {@link CameraDevice}.
+ * Auto focus state reported with preview frames is passed to {@link FocusStateTracker}.
  */
 @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
 class PreviewSession extends Session implements PreviewOperator {
 
     private final CaptureRequest captureRequest;
+    private final FocusStateTracker focusStateTracker;
+    private final CameraThread cameraThread;
     private CameraCaptureSession captureSession;
 
+    private Integer lastAutoFocusState = null;
+
+    private final CameraCaptureSession.CaptureCallback focusStateCallback = new CameraCaptureSession.CaptureCallback() {
+        @Override
+        public void onCaptureCompleted(CameraCaptureSession session,
+                                       CaptureRequest request,
+                                       TotalCaptureResult result) {
+            onAutoFocusState(result.get(CaptureResult.CONTROL_AF_STATE));
+        }
+    };
+
     PreviewSession(CameraDevice camera,
                    CaptureRequest captureRequest,
                    List<Surface> surfaces,
-                   CameraThread cameraThread) {
+                   CameraThread cameraThread,
+                   FocusStateTracker focusStateTracker) {
         super(camera, Collections.unmodifiableList(surfaces), cameraThread);
         this.captureRequest = captureRequest;
+        this.cameraThread = cameraThread;
+        this.focusStateTracker = focusStateTracker;
     }
 
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
@@ -43,8 +63,8 @@ class PreviewSession extends Session implements PreviewOperator {
             captureSession = getCaptureSession();
             captureSession.setRepeatingRequest(
                     captureRequest,
-                    null,
-                    null
+                    focusStateCallback,
+                    cameraThread.createHandler()
             );
         } catch (CameraAccessException e) {
             throw new CameraException(e);
@@ -60,4 +80,31 @@ class PreviewSession extends Session implements PreviewOperator {
         }
         captureSession.close();
     }
+
+    /**
+     * Only changes of the state are passed on, so that the time of convergence is not moved
+     * forward by every preview frame.
+     */
+    private void onAutoFocusState(Integer autoFocusState) {
+        if (autoFocusState == null || autoFocusState.equals(lastAutoFocusState)) {
+            return;
+        }
+
+        lastAutoFocusState = autoFocusState;
+
+        switch (autoFocusState) {
+            case CaptureResult.CONTROL_AF_STATE_PASSIVE_FOCUSED:
+            case CaptureResult.CONTROL_AF_STATE_FOCUSED_LOCKED:
+                focusStateTracker.onFocusConverged();
+                break;
+            case CaptureResult.CONTROL_AF_STATE_PASSIVE_SCAN:
+            case CaptureResult.CONTROL_AF_STATE_ACTIVE_SCAN:
+            case CaptureResult.CONTROL_AF_STATE_PASSIVE_UNFOCUSED:
+            case CaptureResult.CONTROL_AF_STATE_NOT_FOCUSED_LOCKED:
+                focusStateTracker.onFocusLost();
+                break;
+            default:
+                // Do nothing
+        }
+    }
 }
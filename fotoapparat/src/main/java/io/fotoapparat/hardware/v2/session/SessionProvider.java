@@ -14,6 +14,7 @@ import io.fotoapparat.hardware.v2.connection.CameraConnection;
 import io.fotoapparat.hardware.v2.parameters.CaptureRequestFactory;
 import io.fotoapparat.hardware.v2.readers.StillSurfaceReader;
 import io.fotoapparat.hardware.v2.surface.TextureManager;
+import io.fotoapparat.lens.FocusStateTracker;
 
 /**
  * Provides {@link PreviewSession}s for the currently given display surface.
@@ -26,15 +27,18 @@ public class SessionProvider implements TextureManager.Listener {
     private CameraConnection connection;
     private CaptureRequestFactory captureRequestFactory;
     private CameraThread cameraThread;
+    private FocusStateTracker focusStateTracker;
 
     public SessionProvider(StillSurfaceReader surfaceReader,
                            CameraConnection connection,
                            CaptureRequestFactory captureRequestFactory,
-                           TextureManager textureManager, CameraThread cameraThread) {
+                           TextureManager textureManager, CameraThread cameraThread,
+                           FocusStateTracker focusStateTracker) {
         this.surfaceReader = surfaceReader;
         this.connection = connection;
         this.captureRequestFactory = captureRequestFactory;
         this.cameraThread = cameraThread;
+        this.focusStateTracker = focusStateTracker;
         textureManager.setListener(this);
     }
 
@@ -52,7 +56,8 @@ public class SessionProvider implements TextureManager.Listener {
                     camera,
                     previewRequest,
                     surfaces,
-                    cameraThread
+                    cameraThread,
+                    focusStateTracker
             );
         } catch (CameraAccessException e) {
             throw new CameraException(e);
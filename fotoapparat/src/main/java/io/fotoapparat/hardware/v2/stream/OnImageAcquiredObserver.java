@@ -12,6 +12,14 @@ public interface OnImageAcquiredObserver {
      */
     void setListener(OnFrameAcquiredListener listener);
 
+    /**
+     * Returns the array of an acquired image which is no longer used, so it can be reused for
+     * following images.
+     *
+     * @param bytes The array which was passed to {@link OnFrameAcquiredListener}.
+     */
+    void recycle(byte[] bytes);
+
     /**
      * Notified when an image has been acquired.
      */
@@ -20,9 +28,11 @@ public interface OnImageAcquiredObserver {
         /**
          * Called when an image has been acquired.
          *
-         * @param bytes The image as a byte array.
+         * @param bytes          The image as a byte array in NV21 format. Must be given back
+         *                       through {@link #recycle(byte[])} once it is no longer used.
+         * @param timestampNanos Capture time of the image in {@link System#nanoTime()} time base.
          */
-        void onFrameAcquired(byte[] bytes);
+        void onFrameAcquired(byte[] bytes, long timestampNanos);
 
     }
 }
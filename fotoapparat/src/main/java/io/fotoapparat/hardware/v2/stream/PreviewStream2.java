@@ -1,35 +1,42 @@
 package io.fotoapparat.hardware.v2.stream;
 
 import android.support.annotation.NonNull;
-
-import java.util.LinkedHashSet;
-import java.util.Set;
+import android.support.annotation.Nullable;
 
 import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
-import io.fotoapparat.log.Logger;
 import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameDispatcher;
 import io.fotoapparat.preview.FrameProcessor;
 import io.fotoapparat.preview.PreviewStream;
+import io.fotoapparat.preview.ProcessorOptions;
+import io.fotoapparat.preview.ProcessorStatistics;
+import io.fotoapparat.preview.StreamStatistics;
 
 /**
  * {@link PreviewStream} of Camera v2.
+ * <p>
+ * Images are only converted into frames while the stream is started and at least one processor
+ * is attached.
  */
 @SuppressWarnings("NewApi")
 public class PreviewStream2 implements PreviewStream,
-        OnImageAcquiredObserver.OnFrameAcquiredListener {
+        OnImageAcquiredObserver.OnFrameAcquiredListener,
+        FrameDispatcher.OnFrameReleasedListener {
 
     private final OnImageAcquiredObserver imageAcquiredObserver;
     private final ParametersProvider parametersProvider;
-    private final Logger logger;
 
-    private final Set<FrameProcessor> frameProcessors = new LinkedHashSet<>();
+    private final FrameDispatcher frameDispatcher = new FrameDispatcher(this);
+
+    private long nextSequenceNumber = 0;
+
+    private boolean started = false;
+    private boolean listening = false;
 
     public PreviewStream2(OnImageAcquiredObserver imageAcquiredObserver,
-                          ParametersProvider parametersProvider,
-                          Logger logger) {
+                          ParametersProvider parametersProvider) {
         this.imageAcquiredObserver = imageAcquiredObserver;
         this.parametersProvider = parametersProvider;
-        this.logger = logger;
     }
 
     @Override
@@ -39,37 +46,72 @@ public class PreviewStream2 implements PreviewStream,
 
     @Override
     public void addProcessor(@NonNull FrameProcessor processor) {
-        synchronized (frameProcessors) {
-            frameProcessors.add(processor);
-        }
+        addProcessor(processor, ProcessorOptions.defaults());
+    }
+
+    @Override
+    public void addProcessor(@NonNull FrameProcessor processor,
+                             @NonNull ProcessorOptions options) {
+        frameDispatcher.addProcessor(processor, options);
+        updateListener();
     }
 
     @Override
     public void removeProcessor(@NonNull FrameProcessor processor) {
-        synchronized (frameProcessors) {
-            frameProcessors.remove(processor);
-        }
+        frameDispatcher.removeProcessor(processor);
+        updateListener();
     }
 
+    @Nullable
     @Override
-    public void start() {
-        imageAcquiredObserver.setListener(this);
+    public ProcessorStatistics getStatistics(@NonNull FrameProcessor processor) {
+        return frameDispatcher.getStatistics(processor);
+    }
 
-        logger.log("Frame processors are currently not supported in Camera2. To use them please switch to Camera1.");
+    @NonNull
+    @Override
+    public StreamStatistics getStreamStatistics() {
+        return frameDispatcher.getStreamStatistics();
     }
 
     @Override
-    public void onFrameAcquired(byte[] bytes) {
-        synchronized (frameProcessors) {
-            dispatchFrame(bytes);
+    public void start() {
+        synchronized (this) {
+            started = true;
         }
+
+        updateListener();
     }
 
-    private void dispatchFrame(byte[] image) {
-        final Frame frame = new Frame(parametersProvider.getPreviewSize(), image, 0);
+    private synchronized void updateListener() {
+        boolean listenerNeeded = started && frameDispatcher.hasProcessors();
+
+        if (listenerNeeded != listening) {
+            listening = listenerNeeded;
 
-        for (FrameProcessor frameProcessor : frameProcessors) {
-            frameProcessor.processFrame(frame);
+            imageAcquiredObserver.setListener(
+                    listenerNeeded ? this : null
+            );
         }
     }
+
+    @Override
+    public void onFrameAcquired(byte[] bytes, long timestampNanos) {
+        dispatchFrame(bytes, timestampNanos);
+    }
+
+    private void dispatchFrame(byte[] image, long timestampNanos) {
+        frameDispatcher.dispatch(
+                parametersProvider.getPreviewSize(),
+                image,
+                0,
+                nextSequenceNumber++,
+                timestampNanos
+        );
+    }
+
+    @Override
+    public void onFrameReleased(Frame frame) {
+        imageAcquiredObserver.recycle(frame.image);
+    }
 }
@@ -10,13 +10,24 @@ public class FocusResult {
      */
     public final boolean succeeded;
 
+    /**
+     * {@code True} if the scene is in focus. The camera may succeed to lock the focus even if it
+     * failed to bring the scene into focus.
+     */
+    public final boolean focused;
+
     /**
      * {@code True} if the camera needs to perform an exposure measurement.
      */
     public final boolean needsExposureMeasurement;
 
     public FocusResult(boolean succeeded, boolean needsExposureMeasurement) {
+        this(succeeded, succeeded, needsExposureMeasurement);
+    }
+
+    public FocusResult(boolean succeeded, boolean focused, boolean needsExposureMeasurement) {
         this.succeeded = succeeded;
+        this.focused = focused;
         this.needsExposureMeasurement = needsExposureMeasurement;
     }
 
@@ -46,12 +57,14 @@ public class FocusResult {
         FocusResult that = (FocusResult) o;
 
         return succeeded == that.succeeded
+                && focused == that.focused
                 && needsExposureMeasurement == that.needsExposureMeasurement;
     }
 
     @Override
     public int hashCode() {
         int result = (succeeded ? 1 : 0);
+        result = 31 * result + (focused ? 1 : 0);
         result = 31 * result + (needsExposureMeasurement ? 1 : 0);
         return result;
     }
@@ -0,0 +1,146 @@
+package io.fotoapparat.lens;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import io.fotoapparat.parameter.FocusMode;
+
+/**
+ * Keeps track of the lens focus state as reported by the camera, so that a capture does not have
+ * to refocus when the lens converged only a moment ago.
+ * <p>
+ * Fed by results of explicit auto focus as well as by focus state which the camera reports on its
+ * own while the preview is running. Also caches the current {@link FocusMode}, so it does not
+ * have to be read back from the camera before every capture.
+ */
+public class FocusStateTracker {
+
+    private final Object lock = new Object();
+
+    @Nullable
+    private FocusMode focusMode = null;
+
+    private boolean converged = false;
+    private long convergedAtNanos = 0;
+
+    private long captures = 0;
+    private long skippedFocusCaptures = 0;
+    private long focusTimeNanos = 0;
+
+    /**
+     * @param focusMode which was just set to the camera. {@code null} if it is unknown.
+     */
+    public void onFocusModeChanged(@Nullable FocusMode focusMode) {
+        synchronized (lock) {
+            if (this.focusMode != null && this.focusMode != focusMode) {
+                converged = false;
+            }
+
+            this.focusMode = focusMode;
+        }
+    }
+
+    /**
+     * @return last known focus mode of the camera or {@code null} if it is unknown.
+     */
+    @Nullable
+    public FocusMode getFocusMode() {
+        synchronized (lock) {
+            return focusMode;
+        }
+    }
+
+    /**
+     * Called when an explicit auto focus completes. Only a result with the scene in focus counts
+     * as converged, a lock on an unfocused scene does not.
+     */
+    public void onFocusResult(@NonNull FocusResult focusResult) {
+        if (focusResult.focused) {
+            onFocusConverged(System.nanoTime());
+        } else {
+            onFocusLost();
+        }
+    }
+
+    /**
+     * Called when the camera reports that the lens stopped moving and the scene is in focus.
+     */
+    public void onFocusConverged() {
+        onFocusConverged(System.nanoTime());
+    }
+
+    void onFocusConverged(long timestampNanos) {
+        synchronized (lock) {
+            converged = true;
+            convergedAtNanos = timestampNanos;
+        }
+    }
+
+    /**
+     * Called when the camera reports that the lens started moving or failed to focus.
+     */
+    public void onFocusLost() {
+        synchronized (lock) {
+            converged = false;
+        }
+    }
+
+    /**
+     * Forgets the focus state, for example when the camera is closed.
+     */
+    public void reset() {
+        synchronized (lock) {
+            focusMode = null;
+            converged = false;
+        }
+    }
+
+    /**
+     * @param freshnessNanos how long in nanoseconds the focus stays valid after the lens converged.
+     * @return {@code true} if the lens converged no longer than given time ago and did not move
+     * since then.
+     */
+    public boolean isFocusFresh(long freshnessNanos) {
+        return isFocusFresh(freshnessNanos, System.nanoTime());
+    }
+
+    boolean isFocusFresh(long freshnessNanos, long nowNanos) {
+        synchronized (lock) {
+            return converged
+                    && freshnessNanos > 0
+                    && nowNanos - convergedAtNanos <= freshnessNanos;
+        }
+    }
+
+    /**
+     * Records how long focusing took before a capture.
+     *
+     * @param durationNanos time in nanoseconds spent on focusing.
+     * @param skipped       {@code true} if focusing was not needed.
+     */
+    public void onCaptureFocused(long durationNanos, boolean skipped) {
+        synchronized (lock) {
+            captures++;
+            focusTimeNanos += durationNanos;
+
+            if (skipped) {
+                skippedFocusCaptures++;
+            }
+        }
+    }
+
+    /**
+     * @return snapshot of focus timings of captures so far.
+     */
+    @NonNull
+    public FocusStatistics getStatistics() {
+        synchronized (lock) {
+            return new FocusStatistics(
+                    captures,
+                    skippedFocusCaptures,
+                    focusTimeNanos
+            );
+        }
+    }
+
+}
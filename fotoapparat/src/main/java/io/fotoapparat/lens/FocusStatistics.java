@@ -0,0 +1,71 @@
+package io.fotoapparat.lens;
+
+/**
+ * Snapshot of how much time focusing took before captures.
+ */
+public class FocusStatistics {
+
+    /**
+     * Number of captures which were preceded by a focus decision.
+     */
+    public final long captures;
+
+    /**
+     * Number of captures for which focusing was skipped, either because the camera focuses
+     * continuously or because the lens converged recently.
+     */
+    public final long skippedFocusCaptures;
+
+    /**
+     * Total time in nanoseconds spent on focusing before captures.
+     */
+    public final long focusTimeNanos;
+
+    public FocusStatistics(long captures,
+                           long skippedFocusCaptures,
+                           long focusTimeNanos) {
+        this.captures = captures;
+        this.skippedFocusCaptures = skippedFocusCaptures;
+        this.focusTimeNanos = focusTimeNanos;
+    }
+
+    /**
+     * @return average time in nanoseconds which focusing added to a single capture. {@code 0} if
+     * there were no captures.
+     */
+    public long averageFocusTimeNanos() {
+        return captures == 0
+                ? 0
+                : focusTimeNanos / captures;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FocusStatistics that = (FocusStatistics) o;
+
+        return captures == that.captures
+                && skippedFocusCaptures == that.skippedFocusCaptures
+                && focusTimeNanos == that.focusTimeNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (captures ^ (captures >>> 32));
+        result = 31 * result + (int) (skippedFocusCaptures ^ (skippedFocusCaptures >>> 32));
+        result = 31 * result + (int) (focusTimeNanos ^ (focusTimeNanos >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FocusStatistics{" +
+                "captures=" + captures +
+                ", skippedFocusCaptures=" + skippedFocusCaptures +
+                ", focusTimeNanos=" + focusTimeNanos +
+                '}';
+    }
+
+}
@@ -1,15 +1,15 @@
 package io.fotoapparat.parameter.provider;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.FutureTask;
 
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.Capabilities;
+import io.fotoapparat.result.ListenableFutureTask;
 
 /**
  * Gets the camera {@link Capabilities}.
  */
-public class GetCapabilitiesTask extends FutureTask<Capabilities> {
+public class GetCapabilitiesTask extends ListenableFutureTask<Capabilities> {
 
     public GetCapabilitiesTask(final CameraDevice cameraDevice) {
         super(new Callable<Capabilities>() {
@@ -1,16 +1,16 @@
 package io.fotoapparat.parameter.provider;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.FutureTask;
 
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.parameter.Parameters;
+import io.fotoapparat.result.ListenableFutureTask;
 
 /**
  * Gets the camera {@link Parameters}.
  */
-public class GetCurrentParametersTask extends FutureTask<Parameters> {
+public class GetCurrentParametersTask extends ListenableFutureTask<Parameters> {
 
     public GetCurrentParametersTask(final CameraDevice cameraDevice) {
         super(new Callable<Parameters>() {
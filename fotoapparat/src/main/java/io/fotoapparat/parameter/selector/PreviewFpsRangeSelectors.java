@@ -42,6 +42,36 @@ public class PreviewFpsRangeSelectors {
                 filtered(rangeWithHighestFps(), new InBoundsFpsRangePredicate(fps * FPS_RANGE_BOUNDS_SCALE)));
     }
 
+    /**
+     * @param fps the specified FPS
+     * @return {@link SelectorFunction} which selects FPS range with the lowest upper bound which
+     * still reaches the specified FPS. If there is no such range, selects range with max FPS.
+     */
+    public static SelectorFunction<Collection<Range<Integer>>, Range<Integer>> slowestRangeReaching(final int fps) {
+        return new SelectorFunction<Collection<Range<Integer>>, Range<Integer>>() {
+            @Override
+            public Range<Integer> select(Collection<Range<Integer>> items) {
+                Range<Integer> result = null;
+
+                for (Range<Integer> range : items) {
+                    if (range.highest() < fps * FPS_RANGE_BOUNDS_SCALE) {
+                        continue;
+                    }
+
+                    if (result == null
+                            || range.highest() < result.highest()
+                            || (range.highest().equals(result.highest()) && range.lowest() < result.lowest())) {
+                        result = range;
+                    }
+                }
+
+                return result != null
+                        ? result
+                        : rangeWithHighestFps().select(items);
+            }
+        };
+    }
+
     /**
      * @return {@link SelectorFunction} which selects FPS range with max FPS.
      */
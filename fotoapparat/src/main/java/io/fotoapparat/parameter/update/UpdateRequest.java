@@ -7,6 +7,7 @@ import java.util.Collection;
 import io.fotoapparat.parameter.AntiBandingMode;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.range.Range;
 import io.fotoapparat.parameter.selector.SelectorFunction;
 
 /**
@@ -42,10 +43,19 @@ public class UpdateRequest {
     @Nullable
     public final SelectorFunction<Collection<FocusMode>, FocusMode> focusModeSelector;
 
+    /**
+     * Selects preview FPS range from list of available ranges.
+     * <p>
+     * {@code null} if no update is required.
+     */
+    @Nullable
+    public final SelectorFunction<Collection<Range<Integer>>, Range<Integer>> previewFpsRangeSelector;
+
     private UpdateRequest(Builder builder) {
         this.flashSelector = builder.flashSelector;
         this.antiBandingModeSelector = builder.antiBandingModeSelector;
         this.focusModeSelector = builder.focusModeSelector;
+        this.previewFpsRangeSelector = builder.previewFpsRangeSelector;
     }
 
     /**
@@ -63,6 +73,7 @@ public class UpdateRequest {
         SelectorFunction<Collection<Flash>, Flash> flashSelector = null;
         SelectorFunction<Collection<AntiBandingMode>, AntiBandingMode> antiBandingModeSelector = null;
         SelectorFunction<Collection<FocusMode>, FocusMode> focusModeSelector = null;
+        SelectorFunction<Collection<Range<Integer>>, Range<Integer>> previewFpsRangeSelector = null;
 
         /**
          * @param selector selects anti banding mode from list of available modes.
@@ -88,6 +99,14 @@ public class UpdateRequest {
             return this;
         }
 
+        /**
+         * @param selector selects preview FPS range from list of available ranges.
+         */
+        public Builder previewFpsRange(@Nullable SelectorFunction<Collection<Range<Integer>>, Range<Integer>> selector) {
+            this.previewFpsRangeSelector = selector;
+            return this;
+        }
+
         /**
          * @return a new instance of {@link UpdateRequest} which uses values from current builder.
          */
@@ -1,9 +1,12 @@
 package io.fotoapparat.photo;
 
 import android.graphics.Bitmap;
+import android.support.annotation.Nullable;
 
 /**
  * Photo as {@link Bitmap}.
+ * <p>
+ * Call {@link #recycle()} once the photo is no longer displayed, so its memory can be reused.
  */
 public class BitmapPhoto {
 
@@ -17,9 +20,36 @@ public class BitmapPhoto {
      */
     public final int rotationDegrees;
 
+    @Nullable
+    private final BitmapPool bitmapPool;
+
     public BitmapPhoto(Bitmap bitmap,
                        int rotationDegrees) {
+        this(bitmap, rotationDegrees, null);
+    }
+
+    /**
+     * @param bitmapPool pool which the bitmap is returned to by {@link #recycle()} or
+     *                   {@code null} if the bitmap should be recycled.
+     */
+    public BitmapPhoto(Bitmap bitmap,
+                       int rotationDegrees,
+                       @Nullable BitmapPool bitmapPool) {
         this.bitmap = bitmap;
         this.rotationDegrees = rotationDegrees;
+        this.bitmapPool = bitmapPool;
     }
+
+    /**
+     * Returns the bitmap to the {@link BitmapPool} it was decoded with, or recycles it if there is
+     * no pool. Bitmap must not be used after that.
+     */
+    public void recycle() {
+        if (bitmapPool != null) {
+            bitmapPool.put(bitmap);
+        } else {
+            bitmap.recycle();
+        }
+    }
+
 }
@@ -0,0 +1,187 @@
+package io.fotoapparat.photo;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pool of mutable {@link Bitmap}s which photos can be decoded into, so that reviewing many photos
+ * does not allocate a new bitmap for each of them. Thread safe.
+ * <p>
+ * Bitmaps are kept by size and config. When the total size of pooled bitmaps exceeds the budget,
+ * the least recently pooled bitmaps are recycled.
+ */
+public class BitmapPool {
+
+    private final long maxBytes;
+
+    private final Map<Key, Deque<Bitmap>> bitmapsByKey = new HashMap<>();
+
+    /**
+     * All pooled bitmaps from the least to the most recently pooled.
+     */
+    private final LinkedHashMap<Bitmap, Entry> bitmapsInOrder = new LinkedHashMap<>();
+
+    private long pooledBytes = 0;
+
+    /**
+     * @param maxBytes maximum total size of pooled bitmaps in bytes.
+     */
+    public BitmapPool(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Max bytes must not be negative: " + maxBytes);
+        }
+
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Takes a bitmap out of the pool.
+     *
+     * @return pooled bitmap of exactly given size and config or {@code null} if there is none.
+     * Contents of the bitmap are undefined.
+     */
+    @Nullable
+    public Bitmap get(int width, int height, @NonNull Bitmap.Config config) {
+        Key key = new Key(width, height, config);
+
+        synchronized (bitmapsInOrder) {
+            Deque<Bitmap> bitmaps = bitmapsByKey.get(key);
+            Bitmap bitmap = bitmaps != null
+                    ? bitmaps.poll()
+                    : null;
+
+            if (bitmap != null) {
+                pooledBytes -= bitmapsInOrder.remove(bitmap).byteCount;
+            }
+
+            return bitmap;
+        }
+    }
+
+    /**
+     * Returns a bitmap to the pool, so it can be reused. Bitmaps which can not be reused or do
+     * not fit into the budget are recycled. Bitmap must not be used after that.
+     */
+    public void put(@NonNull Bitmap bitmap) {
+        if (bitmap.isRecycled()) {
+            return;
+        }
+
+        int byteCount = bitmap.getByteCount();
+
+        if (!bitmap.isMutable() || byteCount > maxBytes) {
+            bitmap.recycle();
+            return;
+        }
+
+        synchronized (bitmapsInOrder) {
+            if (bitmapsInOrder.containsKey(bitmap)) {
+                return;
+            }
+
+            Key key = new Key(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+
+            Deque<Bitmap> bitmaps = bitmapsByKey.get(key);
+            if (bitmaps == null) {
+                bitmaps = new ArrayDeque<>();
+                bitmapsByKey.put(key, bitmaps);
+            }
+
+            bitmaps.push(bitmap);
+            bitmapsInOrder.put(bitmap, new Entry(key, byteCount));
+            pooledBytes += byteCount;
+
+            trimToSize(maxBytes);
+        }
+    }
+
+    /**
+     * Recycles all pooled bitmaps.
+     */
+    public void clear() {
+        synchronized (bitmapsInOrder) {
+            trimToSize(0);
+        }
+    }
+
+    /**
+     * @return total size of pooled bitmaps in bytes.
+     */
+    public long getPooledBytes() {
+        synchronized (bitmapsInOrder) {
+            return pooledBytes;
+        }
+    }
+
+    private void trimToSize(long size) {
+        Iterator<Map.Entry<Bitmap, Entry>> iterator = bitmapsInOrder.entrySet().iterator();
+
+        while (pooledBytes > size && iterator.hasNext()) {
+            Map.Entry<Bitmap, Entry> eldest = iterator.next();
+            iterator.remove();
+
+            Bitmap bitmap = eldest.getKey();
+            Entry entry = eldest.getValue();
+
+            bitmapsByKey.get(entry.key).remove(bitmap);
+            pooledBytes -= entry.byteCount;
+
+            bitmap.recycle();
+        }
+    }
+
+    private static class Key {
+
+        final int width;
+        final int height;
+        final Bitmap.Config config;
+
+        Key(int width, int height, Bitmap.Config config) {
+            this.width = width;
+            this.height = height;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            return width == key.width
+                    && height == key.height
+                    && config == key.config;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = width;
+            result = 31 * result + height;
+            result = 31 * result + (config != null ? config.hashCode() : 0);
+            return result;
+        }
+
+    }
+
+    private static class Entry {
+
+        final Key key;
+        final int byteCount;
+
+        Entry(Key key, int byteCount) {
+            this.key = key;
+            this.byteCount = byteCount;
+        }
+
+    }
+
+}
@@ -1,7 +1,5 @@
 package io.fotoapparat.photo;
 
-import java.util.Arrays;
-
 /**
  * Taken photo.
  */
@@ -9,10 +7,16 @@ public class Photo {
 
     /**
      * Encoded image. Use {@link android.graphics.BitmapFactory#decodeByteArray(byte[], int, int)}
-     * to decode it.
+     * to decode it. Only first {@link #encodedImageLength} bytes belong to the image.
      */
     public final byte[] encodedImage;
 
+    /**
+     * Number of bytes of {@link #encodedImage} which belong to the image. Equals to the length of
+     * the array unless the array is a pooled buffer, see {@link PooledPhoto}.
+     */
+    public final int encodedImageLength;
+
     /**
      * Clockwise rotation relatively to screen orientation at the moment when photo was taken. To
      * display the photo in a correct orientation it needs to be rotated counter clockwise by this
@@ -22,7 +26,21 @@ public class Photo {
 
     public Photo(byte[] encodedImage,
                  int rotationDegrees) {
+        this(encodedImage, encodedImage.length, rotationDegrees);
+    }
+
+    /**
+     * @param encodedImageLength number of bytes of {@code encodedImage} which belong to the image.
+     */
+    public Photo(byte[] encodedImage,
+                 int encodedImageLength,
+                 int rotationDegrees) {
+        if (encodedImageLength < 0 || encodedImageLength > encodedImage.length) {
+            throw new IllegalArgumentException("Invalid encoded image length: " + encodedImageLength);
+        }
+
         this.encodedImage = encodedImage;
+        this.encodedImageLength = encodedImageLength;
         this.rotationDegrees = rotationDegrees;
     }
 
@@ -41,12 +59,26 @@ public class Photo {
         Photo photo = (Photo) o;
 
         return rotationDegrees == photo.rotationDegrees
-                && Arrays.equals(encodedImage, photo.encodedImage);
+                && encodedImageLength == photo.encodedImageLength
+                && sameImageBytes(photo);
+    }
+
+    private boolean sameImageBytes(Photo photo) {
+        for (int i = 0; i < encodedImageLength; i++) {
+            if (encodedImage[i] != photo.encodedImage[i]) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     @Override
     public int hashCode() {
-        int result = Arrays.hashCode(encodedImage);
+        int result = 1;
+        for (int i = 0; i < encodedImageLength; i++) {
+            result = 31 * result + encodedImage[i];
+        }
         result = 31 * result + rotationDegrees;
         return result;
     }
@@ -0,0 +1,109 @@
+package io.fotoapparat.photo;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pool of buffers for encoded photos, so that consecutive captures reuse memory instead of
+ * allocating several megabytes each.
+ * <p>
+ * Buffers are allocated in sizes which are multiples of {@link #BUCKET_SIZE} and are kept in
+ * buckets by size. A request is served from the bucket of the requested size or from one of the
+ * next {@link #MAX_BUCKET_SLACK} buckets, so photos of slightly different sizes share buffers.
+ */
+public class PhotoBufferPool {
+
+    /**
+     * Granularity of buffer sizes in bytes.
+     */
+    static final int BUCKET_SIZE = 256 * 1024;
+
+    /**
+     * How many buckets above the requested size may serve the request.
+     */
+    static final int MAX_BUCKET_SLACK = 2;
+
+    private final int maxPooledBuffers;
+
+    private final TreeMap<Integer, Deque<byte[]>> buckets = new TreeMap<>();
+    private int pooledBuffers = 0;
+
+    /**
+     * @param maxPooledBuffers maximum number of idle buffers which are kept. Buffers released on
+     *                         top of that are left to the garbage collector.
+     */
+    public PhotoBufferPool(int maxPooledBuffers) {
+        if (maxPooledBuffers < 0) {
+            throw new IllegalArgumentException("Number of pooled buffers must not be negative: " + maxPooledBuffers);
+        }
+
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * @param minSize minimal size of the buffer in bytes.
+     * @return pooled buffer which is at least as large as requested. New buffer is allocated if
+     * there is no suitable one in the pool.
+     */
+    @NonNull
+    public byte[] acquire(int minSize) {
+        int bucket = bucketOf(minSize);
+
+        synchronized (buckets) {
+            for (Map.Entry<Integer, Deque<byte[]>> entry : buckets.subMap(bucket, true, bucket + MAX_BUCKET_SLACK, true).entrySet()) {
+                byte[] buffer = entry.getValue().poll();
+
+                if (buffer != null) {
+                    pooledBuffers--;
+                    return buffer;
+                }
+            }
+        }
+
+        return new byte[bucket * BUCKET_SIZE];
+    }
+
+    /**
+     * Returns buffer to the pool. Buffer must not be used after that.
+     */
+    public void release(@NonNull byte[] buffer) {
+        if (buffer.length == 0 || buffer.length % BUCKET_SIZE != 0) {
+            return;
+        }
+
+        int bucket = buffer.length / BUCKET_SIZE;
+
+        synchronized (buckets) {
+            if (pooledBuffers >= maxPooledBuffers) {
+                return;
+            }
+
+            Deque<byte[]> buffers = buckets.get(bucket);
+            if (buffers == null) {
+                buffers = new ArrayDeque<>();
+                buckets.put(bucket, buffers);
+            }
+
+            buffers.push(buffer);
+            pooledBuffers++;
+        }
+    }
+
+    /**
+     * @return number of idle buffers in the pool.
+     */
+    public int getPooledBuffers() {
+        synchronized (buckets) {
+            return pooledBuffers;
+        }
+    }
+
+    private static int bucketOf(int size) {
+        return Math.max(1, (size + BUCKET_SIZE - 1) / BUCKET_SIZE);
+    }
+
+}
@@ -0,0 +1,42 @@
+package io.fotoapparat.photo;
+
+import android.support.annotation.NonNull;
+
+/**
+ * {@link Photo} which is backed by a buffer from {@link PhotoBufferPool}. The buffer is usually
+ * larger than the image, so only first {@link #encodedImageLength} bytes of {@link #encodedImage}
+ * must be used.
+ * <p>
+ * Call {@link #release()} once the photo is no longer needed, so the buffer can be reused by the
+ * next capture. Photo must not be used after that. Photos which are never released are simply
+ * collected by the garbage collector.
+ */
+public class PooledPhoto extends Photo {
+
+    private final PhotoBufferPool pool;
+    private boolean released = false;
+
+    public PooledPhoto(@NonNull byte[] buffer,
+                       int encodedImageLength,
+                       int rotationDegrees,
+                       @NonNull PhotoBufferPool pool) {
+        super(buffer, encodedImageLength, rotationDegrees);
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the buffer of this photo to the pool. Subsequent calls do nothing.
+     */
+    public void release() {
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+
+            released = true;
+        }
+
+        pool.release(encodedImage);
+    }
+
+}
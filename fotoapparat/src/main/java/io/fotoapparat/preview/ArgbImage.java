@@ -0,0 +1,91 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.util.IntArrayPool;
+
+/**
+ * Image with one {@code ARGB_8888} int per pixel, derived from a preview {@link Frame}.
+ * <p>
+ * Image might be backed by a pooled array. Call {@link #release()} once the image is no longer
+ * needed, so the array can be reused for the following frames. Do not use the image afterwards.
+ */
+public class ArgbImage {
+
+    /**
+     * Size of the image in pixels (before rotation).
+     */
+    public final Size size;
+
+    /**
+     * Pixels of the image, row by row. Might be longer than needed.
+     */
+    public final int[] pixels;
+
+    /**
+     * Clockwise rotation of the image in degrees relatively to user.
+     */
+    public final int rotation;
+
+    @Nullable
+    private final IntArrayPool pool;
+
+    public ArgbImage(@NonNull Size size,
+                     @NonNull int[] pixels,
+                     int rotation) {
+        this(size, pixels, rotation, null);
+    }
+
+    ArgbImage(Size size,
+              int[] pixels,
+              int rotation,
+              @Nullable IntArrayPool pool) {
+        this.size = size;
+        this.pixels = pixels;
+        this.rotation = rotation;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the array of the image back to its pool. If the image is not pooled, does nothing.
+     */
+    public void release() {
+        if (pool != null) {
+            pool.release(pixels);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ArgbImage that = (ArgbImage) o;
+
+        return rotation == that.rotation
+                && size.equals(that.size)
+                && Arrays.equals(pixels, that.pixels);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size.hashCode();
+        result = 31 * result + Arrays.hashCode(pixels);
+        result = 31 * result + rotation;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ArgbImage{" +
+                "size=" + size +
+                ", pixels= array(" + pixels.length + ")" +
+                ", rotation=" + rotation +
+                '}';
+    }
+
+}
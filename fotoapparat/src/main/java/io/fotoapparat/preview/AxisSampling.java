@@ -0,0 +1,77 @@
+package io.fotoapparat.preview;
+
+/**
+ * Precomputed mapping of output pixels to source pixels along one axis of an image.
+ */
+class AxisSampling {
+
+    /**
+     * Weights of the bilinear filter are fixed point numbers with this amount of fractional bits.
+     */
+    static final int WEIGHT_BITS = 8;
+    static final int WEIGHT_ONE = 1 << WEIGHT_BITS;
+
+    /**
+     * First source pixel of every output pixel.
+     */
+    final int[] from;
+
+    /**
+     * For box filter: source pixel after the last one of every output pixel (exclusive). For
+     * bilinear filter: second source pixel of every output pixel.
+     */
+    final int[] to;
+
+    /**
+     * For bilinear filter: weight of the second source pixel. Unused by box filter.
+     */
+    final int[] weights;
+
+    private AxisSampling(int length) {
+        from = new int[length];
+        to = new int[length];
+        weights = new int[length];
+    }
+
+    /**
+     * @return sampling which averages all source pixels covered by every output pixel.
+     */
+    static AxisSampling box(int sourceOffset, int sourceLength, int outputLength) {
+        AxisSampling sampling = new AxisSampling(outputLength);
+
+        for (int i = 0; i < outputLength; i++) {
+            int start = (int) ((long) i * sourceLength / outputLength);
+            int end = (int) ((long) (i + 1) * sourceLength / outputLength);
+
+            sampling.from[i] = sourceOffset + start;
+            sampling.to[i] = sourceOffset + Math.max(end, start + 1);
+        }
+
+        return sampling;
+    }
+
+    /**
+     * @return sampling which interpolates between two source pixels closest to the center of every
+     * output pixel.
+     */
+    static AxisSampling bilinear(int sourceOffset, int sourceLength, int outputLength) {
+        AxisSampling sampling = new AxisSampling(outputLength);
+
+        float scale = (float) sourceLength / outputLength;
+
+        for (int i = 0; i < outputLength; i++) {
+            float center = Math.min(
+                    Math.max((i + 0.5f) * scale - 0.5f, 0f),
+                    sourceLength - 1
+            );
+            int first = (int) center;
+
+            sampling.from[i] = sourceOffset + first;
+            sampling.to[i] = sourceOffset + Math.min(first + 1, sourceLength - 1);
+            sampling.weights[i] = Math.round((center - first) * WEIGHT_ONE);
+        }
+
+        return sampling;
+    }
+
+}
@@ -0,0 +1,84 @@
+package io.fotoapparat.preview;
+
+/**
+ * Decides what happens with new frames when a {@link FrameProcessor} does not keep up with the
+ * preview stream.
+ */
+public class BackpressurePolicy {
+
+    /**
+     * Maximum number of frames waiting for the processor.
+     */
+    final int capacity;
+
+    /**
+     * {@code true} if delivery of new frames waits for a free slot, {@code false} if the oldest
+     * waiting frame is dropped instead.
+     */
+    final boolean blocking;
+
+    private BackpressurePolicy(int capacity, boolean blocking) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.blocking = blocking;
+    }
+
+    /**
+     * @return policy which keeps only the most recent frame. Older frame which was not picked up by
+     * the processor yet is dropped. This is the default policy.
+     */
+    public static BackpressurePolicy latestOnly() {
+        return new BackpressurePolicy(1, false);
+    }
+
+    /**
+     * @param capacity maximum number of frames waiting for the processor.
+     * @return policy which keeps up to {@code capacity} frames and drops the oldest one when a new
+     * frame arrives to a full queue.
+     */
+    public static BackpressurePolicy dropOldest(int capacity) {
+        return new BackpressurePolicy(capacity, false);
+    }
+
+    /**
+     * Note that the thread which delivers frames from the camera waits while the queue is full.
+     * With Camera1 the camera also stops receiving buffers in the meantime and drops frames by
+     * itself.
+     *
+     * @param capacity maximum number of frames waiting for the processor.
+     * @return policy which never drops frames and instead holds back the camera until the
+     * processor picks up one of the waiting frames.
+     */
+    public static BackpressurePolicy block(int capacity) {
+        return new BackpressurePolicy(capacity, true);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BackpressurePolicy that = (BackpressurePolicy) o;
+
+        return capacity == that.capacity && blocking == that.blocking;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = capacity;
+        result = 31 * result + (blocking ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BackpressurePolicy{" +
+                "capacity=" + capacity +
+                ", blocking=" + blocking +
+                '}';
+    }
+
+}
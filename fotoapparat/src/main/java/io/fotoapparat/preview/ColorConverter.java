@@ -0,0 +1,347 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.util.ByteArrayPool;
+import io.fotoapparat.util.IntArrayPool;
+
+/**
+ * Converts NV21 preview images into {@link ArgbImage}s or RGB {@link PreviewImage}s using BT.601
+ * coefficients.
+ * <p>
+ * Rows of the image are split into stripes which are converted in parallel. Output images are
+ * written into pooled arrays. Release every image once it is no longer needed. Thread safe.
+ * <p>
+ * Use {@link ColorConverter#builder()} to create a new instance.
+ */
+public class ColorConverter {
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final Executor STRIPES_EXECUTOR = newStripesExecutor();
+
+    /**
+     * Coefficients are fixed point numbers with this amount of fractional bits.
+     */
+    private static final int COEFFICIENT_BITS = 10;
+
+    private final Executor executor;
+    private final int stripes;
+
+    private final int lumaOffset;
+    private final int lumaScale;
+    private final int redFromV;
+    private final int greenFromU;
+    private final int greenFromV;
+    private final int blueFromU;
+
+    private final IntArrayPool argbPool = new IntArrayPool();
+    private final ByteArrayPool rgbPool = new ByteArrayPool();
+
+    private ColorConverter(Builder builder) {
+        this.executor = builder.executor;
+        this.stripes = builder.stripes;
+
+        Range range = builder.range;
+        this.lumaOffset = range.lumaOffset;
+        this.lumaScale = fixedPoint(range.lumaScale);
+        this.redFromV = fixedPoint(range.redFromV);
+        this.greenFromU = fixedPoint(range.greenFromU);
+        this.greenFromV = fixedPoint(range.greenFromV);
+        this.blueFromU = fixedPoint(range.blueFromU);
+    }
+
+    /**
+     * @return builder for {@link ColorConverter}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static int fixedPoint(double coefficient) {
+        return (int) Math.round(coefficient * (1 << COEFFICIENT_BITS));
+    }
+
+    private static Executor newStripesExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                CPU_COUNT, CPU_COUNT,
+                5L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "ColorConverter");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * @return ARGB image of the frame. Must be released once it is no longer needed.
+     */
+    public ArgbImage toArgb(@NonNull Frame frame) {
+        return toArgb(frame.size, frame.image, frame.rotation);
+    }
+
+    /**
+     * @param image image in {@link PreviewImage.Format#NV21} format.
+     * @return ARGB image. Must be released once it is no longer needed.
+     */
+    public ArgbImage toArgb(@NonNull PreviewImage image) {
+        ensureNv21(image);
+
+        return toArgb(image.size, image.image, image.rotation);
+    }
+
+    /**
+     * @return RGB image of the frame. Must be released once it is no longer needed.
+     */
+    public PreviewImage toRgb(@NonNull Frame frame) {
+        return toRgb(frame.size, frame.image, frame.rotation);
+    }
+
+    /**
+     * @param image image in {@link PreviewImage.Format#NV21} format.
+     * @return RGB image. Must be released once it is no longer needed.
+     */
+    public PreviewImage toRgb(@NonNull PreviewImage image) {
+        ensureNv21(image);
+
+        return toRgb(image.size, image.image, image.rotation);
+    }
+
+    private void ensureNv21(PreviewImage image) {
+        if (image.format != PreviewImage.Format.NV21) {
+            throw new IllegalArgumentException("Only NV21 images can be converted, but was: " + image.format);
+        }
+    }
+
+    private ArgbImage toArgb(Size size, byte[] nv21, int rotation) {
+        int[] output = argbPool.acquire(size.width * size.height);
+
+        convert(size, nv21, output, null);
+
+        return new ArgbImage(size, output, rotation, argbPool);
+    }
+
+    private PreviewImage toRgb(Size size, byte[] nv21, int rotation) {
+        byte[] output = rgbPool.acquire(
+                PreviewImage.Format.RGB.bytesFor(size.width, size.height)
+        );
+
+        convert(size, nv21, null, output);
+
+        return new PreviewImage(size, output, PreviewImage.Format.RGB, rotation, rgbPool);
+    }
+
+    private void convert(final Size size,
+                         final byte[] nv21,
+                         final int[] argb,
+                         final byte[] rgb) {
+        int rowPairs = (size.height + 1) / 2;
+        int stripesCount = Math.max(1, Math.min(stripes, rowPairs));
+
+        final CountDownLatch latch = new CountDownLatch(stripesCount - 1);
+
+        for (int stripe = 1; stripe < stripesCount; stripe++) {
+            final int fromRow = 2 * (rowPairs * stripe / stripesCount);
+            final int toRow = Math.min(size.height, 2 * (rowPairs * (stripe + 1) / stripesCount));
+
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        convertRows(size, nv21, argb, rgb, fromRow, toRow);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+
+        convertRows(size, nv21, argb, rgb, 0, Math.min(size.height, 2 * (rowPairs / stripesCount)));
+
+        awaitStripes(latch);
+    }
+
+    /**
+     * Stripes write into the output array, so it must not be handed out before all of them are
+     * done. Interruption is therefore deferred until then.
+     */
+    private static void awaitStripes(CountDownLatch latch) {
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void convertRows(Size size,
+                             byte[] nv21,
+                             int[] argb,
+                             byte[] rgb,
+                             int fromRow,
+                             int toRow) {
+        int width = size.width;
+        int chromaOffset = width * size.height;
+        int chromaStride = (width + 1) & ~1;
+
+        for (int row = fromRow; row < toRow; row++) {
+            int lumaPosition = row * width;
+            int chromaPosition = chromaOffset + (row >> 1) * chromaStride;
+
+            for (int column = 0; column < width; column++) {
+                int y = Math.max((nv21[lumaPosition] & 0xFF) - lumaOffset, 0) * lumaScale;
+
+                int chroma = chromaPosition + (column & ~1);
+                int v = (nv21[chroma] & 0xFF) - 128;
+                int u = (nv21[chroma + 1] & 0xFF) - 128;
+
+                int red = clamp((y + redFromV * v) >> COEFFICIENT_BITS);
+                int green = clamp((y - greenFromU * u - greenFromV * v) >> COEFFICIENT_BITS);
+                int blue = clamp((y + blueFromU * u) >> COEFFICIENT_BITS);
+
+                if (argb != null) {
+                    argb[lumaPosition] = 0xFF000000 | (red << 16) | (green << 8) | blue;
+                } else {
+                    int position = lumaPosition * 3;
+                    rgb[position] = (byte) red;
+                    rgb[position + 1] = (byte) green;
+                    rgb[position + 2] = (byte) blue;
+                }
+
+                lumaPosition++;
+            }
+        }
+    }
+
+    private static int clamp(int value) {
+        return value < 0
+                ? 0
+                : value > 255 ? 255 : value;
+    }
+
+    /**
+     * Range of YUV values produced by the camera.
+     */
+    public enum Range {
+
+        /**
+         * All values use the whole {@code 0..255} range, as in JPEG. Used by most camera
+         * preview streams.
+         */
+        FULL(0, 1.0, 1.402, 0.344136, 0.714136, 1.772),
+
+        /**
+         * Luma uses {@code 16..235} and chroma {@code 16..240} range, as in video.
+         */
+        LIMITED(16, 1.164, 1.596, 0.391, 0.813, 2.018);
+
+        final int lumaOffset;
+        final double lumaScale;
+        final double redFromV;
+        final double greenFromU;
+        final double greenFromV;
+        final double blueFromU;
+
+        Range(int lumaOffset,
+              double lumaScale,
+              double redFromV,
+              double greenFromU,
+              double greenFromV,
+              double blueFromU) {
+            this.lumaOffset = lumaOffset;
+            this.lumaScale = lumaScale;
+            this.redFromV = redFromV;
+            this.greenFromU = greenFromU;
+            this.greenFromV = greenFromV;
+            this.blueFromU = blueFromU;
+        }
+
+    }
+
+    /**
+     * Builder for {@link ColorConverter}.
+     */
+    public static class Builder {
+
+        Range range = Range.FULL;
+        Executor executor = STRIPES_EXECUTOR;
+        int stripes = CPU_COUNT;
+
+        /**
+         * @param range range of YUV values produced by the camera. {@link Range#FULL} by default.
+         */
+        public Builder range(@NonNull Range range) {
+            this.range = range;
+            return this;
+        }
+
+        /**
+         * @param executor executor which converts stripes of the image. By default a shared pool
+         *                 with a thread per CPU core is used.
+         */
+        public Builder executor(@NonNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param stripes number of stripes into which rows of the image are split. One stripe is
+         *                always converted by the calling thread. Defaults to the number of CPU
+         *                cores.
+         */
+        public Builder stripes(@IntRange(from = 1) int stripes) {
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * @return new instance of {@link ColorConverter}.
+         * @throws IllegalStateException if some of the values are invalid.
+         */
+        public ColorConverter build() {
+            validate();
+
+            return new ColorConverter(this);
+        }
+
+        private void validate() {
+            if (range == null) {
+                throw new IllegalStateException("Range is mandatory.");
+            }
+
+            if (executor == null) {
+                throw new IllegalStateException("Executor is mandatory.");
+            }
+
+            if (stripes < 1) {
+                throw new IllegalStateException("Stripes count must be positive: " + stripes);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package io.fotoapparat.preview;
+
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Frame} which is shared between several processor lanes.
+ * <p>
+ * Instances are recycled: once the last lane releases the frame, values of its {@link FrameContext}
+ * are released and the holder goes back to the pool it came from to be reused for one of the
+ * following frames.
+ */
+class DispatchedFrame {
+
+    Frame frame;
+
+    /**
+     * Values of {@link FrameNode}s shared by all lanes which received the frame.
+     */
+    final FrameContext context = new FrameContext(null);
+
+    private final AtomicInteger pendingLanes = new AtomicInteger();
+    private final FrameDispatcher.OnFrameReleasedListener releasedListener;
+    private final Deque<DispatchedFrame> pool;
+
+    DispatchedFrame(FrameDispatcher.OnFrameReleasedListener releasedListener,
+                    Deque<DispatchedFrame> pool) {
+        this.releasedListener = releasedListener;
+        this.pool = pool;
+    }
+
+    /**
+     * Prepares the holder for the next frame.
+     */
+    void reset(Frame frame, int lanesCount) {
+        this.frame = frame;
+        this.context.reset(frame);
+        this.pendingLanes.set(lanesCount);
+    }
+
+    /**
+     * Called by a lane once it is done with the frame. The last call releases the frame.
+     */
+    void release() {
+        if (pendingLanes.decrementAndGet() != 0) {
+            return;
+        }
+
+        Frame releasedFrame = frame;
+        frame = null;
+
+        try {
+            context.release();
+        } finally {
+            synchronized (pool) {
+                pool.push(this);
+            }
+
+            releasedListener.onFrameReleased(releasedFrame);
+        }
+    }
+
+}
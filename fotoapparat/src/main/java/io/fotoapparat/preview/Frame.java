@@ -6,6 +6,10 @@ import io.fotoapparat.parameter.Size;
 
 /**
  * Frame of the preview stream.
+ * <p>
+ * Frames and their images are reused by the stream once all processors are done with them, so
+ * processors must not keep references to them after {@link FrameProcessor#processFrame(Frame)}
+ * returns. Timestamps of a reused frame can only be changed by the stream, never by processors.
  */
 public class Frame {
 
@@ -24,12 +28,68 @@ public class Frame {
      */
     public final int rotation;
 
+    private long sequenceNumber;
+    private long timestampNanos;
+    private long dispatchTimestampNanos;
+
     public Frame(Size size, byte[] image, int rotation) {
+        this(size, image, rotation, 0, 0, 0);
+    }
+
+    public Frame(Size size,
+                 byte[] image,
+                 int rotation,
+                 long sequenceNumber,
+                 long timestampNanos,
+                 long dispatchTimestampNanos) {
         this.size = size;
         this.image = image;
         this.rotation = rotation;
+        this.sequenceNumber = sequenceNumber;
+        this.timestampNanos = timestampNanos;
+        this.dispatchTimestampNanos = dispatchTimestampNanos;
+    }
+
+    /**
+     * Reuses the frame for the next image which was captured into the same array.
+     */
+    void restamp(long sequenceNumber,
+                 long timestampNanos,
+                 long dispatchTimestampNanos) {
+        this.sequenceNumber = sequenceNumber;
+        this.timestampNanos = timestampNanos;
+        this.dispatchTimestampNanos = dispatchTimestampNanos;
+    }
+
+    /**
+     * @return number of the frame within its stream. Increases by one with every frame taken from
+     * the camera, so a processor can tell how many frames it did not receive.
+     */
+    public long getSequenceNumber() {
+        return sequenceNumber;
     }
 
+    /**
+     * @return time when the frame was captured in {@link System#nanoTime()} time base. Comes from
+     * the sensor when the camera reports it, otherwise it is the time when the frame arrived from
+     * the camera. {@code 0} if unknown.
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * @return time when the frame was handed over to frame processors in
+     * {@link System#nanoTime()} time base. {@code 0} if unknown.
+     */
+    public long getDispatchTimestampNanos() {
+        return dispatchTimestampNanos;
+    }
+
+    /**
+     * Frames are equal if they hold the same image. Timestamps are not compared, since they
+     * change when the frame is reused.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -56,6 +116,9 @@ public class Frame {
                 "size=" + size +
                 ", image= array(" + image.length + ")" +
                 ", rotation=" + rotation +
+                ", sequenceNumber=" + sequenceNumber +
+                ", timestampNanos=" + timestampNanos +
+                ", dispatchTimestampNanos=" + dispatchTimestampNanos +
                 '}';
     }
 
@@ -0,0 +1,155 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Values of {@link FrameNode}s computed for a single frame and shared between all
+ * {@link GraphFrameProcessor}s which receive the frame.
+ * <p>
+ * Values are computed on the first request. If another processor requests the same node while it
+ * is being computed, it waits for the result instead of computing it once more. Values are released
+ * once the frame is released by all processors. Thread safe.
+ */
+public class FrameContext {
+
+    /**
+     * Marks a node which is currently being computed.
+     */
+    private static final Object COMPUTING = new Object();
+
+    private final List<FrameNode<?>> nodes = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+    private final List<Thread> computingThreads = new ArrayList<>();
+
+    private Frame frame;
+
+    FrameContext(Frame frame) {
+        this.frame = frame;
+    }
+
+    /**
+     * @return frame of the context.
+     */
+    @NonNull
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return value of the node for the frame. Computed only if no processor asked for it before.
+     * @throws IllegalStateException if node depends on itself.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull FrameNode<T> node) {
+        synchronized (this) {
+            int index = awaitComputed(node);
+
+            if (index >= 0) {
+                return (T) values.get(index);
+            }
+
+            nodes.add(node);
+            values.add(COMPUTING);
+            computingThreads.add(Thread.currentThread());
+        }
+
+        T value = null;
+
+        try {
+            value = node.compute(this);
+            return value;
+        } finally {
+            onComputed(node, value);
+        }
+    }
+
+    /**
+     * @return index of the node which is already computed or {@code -1} if it needs to be
+     * computed.
+     */
+    private int awaitComputed(FrameNode<?> node) {
+        boolean interrupted = false;
+
+        int index = indexOf(node);
+
+        while (index >= 0 && values.get(index) == COMPUTING) {
+            if (computingThreads.get(index) == Thread.currentThread()) {
+                throw new IllegalStateException("Node depends on itself: " + node);
+            }
+
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+
+            index = indexOf(node);
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        return index;
+    }
+
+    /**
+     * Moves the computed node to the end of the list, so that nodes are ordered by completion and
+     * every node comes after the nodes it depends on.
+     */
+    private synchronized void onComputed(FrameNode<?> node, Object value) {
+        int index = indexOf(node);
+
+        nodes.remove(index);
+        values.remove(index);
+        computingThreads.remove(index);
+
+        if (value != null) {
+            nodes.add(node);
+            values.add(value);
+            computingThreads.add(null);
+        }
+
+        notifyAll();
+    }
+
+    private int indexOf(FrameNode<?> node) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i) == node) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Prepares the context for the next frame.
+     */
+    void reset(Frame frame) {
+        this.frame = frame;
+    }
+
+    /**
+     * Releases all computed values, the most recently computed first, so that nodes are released
+     * before the nodes they depend on.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized void release() {
+        try {
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                ((FrameNode<Object>) nodes.get(i)).release(values.get(i));
+            }
+        } finally {
+            nodes.clear();
+            values.clear();
+            computingThreads.clear();
+            frame = null;
+        }
+    }
+
+}
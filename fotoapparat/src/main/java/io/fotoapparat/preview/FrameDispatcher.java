@@ -0,0 +1,187 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Dispatches preview frames to registered {@link FrameProcessor}s.
+ * <p>
+ * Every processor has its own lane: a worker thread with an independent queue of frames. Slow
+ * processors therefore do not hold back fast ones. Which frames a processor receives and what
+ * happens when its lane falls behind is decided by {@link ProcessorOptions} of the processor. A
+ * frame is released back to its owner only after every lane which received it is done with it.
+ * <p>
+ * Processors are kept in a copy-on-write registry, so dispatching never blocks registration of
+ * processors and the other way around. Once warmed up, dispatching does not allocate:
+ * {@link Frame}s are reused for images which come in the same arrays and internal holders are
+ * recycled.
+ */
+public class FrameDispatcher {
+
+    /**
+     * Frames are kept for at most this many image arrays. Streams normally cycle through a handful
+     * of arrays, more only show up after the preview size changes.
+     */
+    private static final int MAX_CACHED_FRAMES = 16;
+
+    private final OnFrameReleasedListener releasedListener;
+
+    private final ProcessorRegistry registry = new ProcessorRegistry();
+    private final StreamStatisticsCollector statisticsCollector = new StreamStatisticsCollector();
+
+    private final Deque<DispatchedFrame> dispatchedFramesPool = new ArrayDeque<>();
+    private final Map<byte[], Frame> cachedFrames = new IdentityHashMap<>();
+
+    public FrameDispatcher(@NonNull OnFrameReleasedListener releasedListener) {
+        this.releasedListener = releasedListener;
+    }
+
+    /**
+     * Registers new processor in its own lane. If processor was already added before, does
+     * nothing. Never waits for frames which are being dispatched or processed.
+     */
+    public void addProcessor(@NonNull FrameProcessor processor,
+                             @NonNull ProcessorOptions options) {
+        if (registry.get(processor) != null) {
+            return;
+        }
+
+        registry.add(
+                new ProcessorLane(processor, options, statisticsCollector),
+                processor
+        );
+    }
+
+    /**
+     * Unregisters the processor. Frames which are still waiting in its lane are released without
+     * being processed. If processor was not registered before, does nothing. Never waits for
+     * frames which are being dispatched or processed.
+     */
+    public void removeProcessor(@NonNull FrameProcessor processor) {
+        ProcessorLane lane = registry.remove(processor);
+
+        if (lane != null) {
+            lane.close();
+        }
+    }
+
+    /**
+     * @return {@code true} if at least one processor is registered.
+     */
+    public boolean hasProcessors() {
+        return registry.lanes().length > 0;
+    }
+
+    /**
+     * @return counters of the given processor or {@code null} if processor is not registered.
+     */
+    @Nullable
+    public ProcessorStatistics getStatistics(@NonNull FrameProcessor processor) {
+        ProcessorLane lane = registry.get(processor);
+
+        return lane != null
+                ? lane.getStatistics()
+                : null;
+    }
+
+    /**
+     * @return frame intervals and latencies of all frames which went through this dispatcher.
+     */
+    @NonNull
+    public StreamStatistics getStreamStatistics() {
+        return statisticsCollector.getStatistics();
+    }
+
+    /**
+     * Hands the image over to every registered processor. The {@link Frame} of the image is reused
+     * from the previous time the same array was dispatched, so the array must not be dispatched
+     * again before it is released.
+     *
+     * @param timestampNanos capture time of the image in {@link System#nanoTime()} time base.
+     * @see #dispatch(Frame)
+     */
+    public void dispatch(@NonNull Size size,
+                         @NonNull byte[] image,
+                         int rotation,
+                         long sequenceNumber,
+                         long timestampNanos) {
+        Frame frame = frameFor(size, image, rotation);
+        frame.restamp(sequenceNumber, timestampNanos, System.nanoTime());
+
+        dispatch(frame);
+    }
+
+    private Frame frameFor(Size size, byte[] image, int rotation) {
+        synchronized (cachedFrames) {
+            Frame frame = cachedFrames.get(image);
+
+            if (frame == null || frame.rotation != rotation || !frame.size.equals(size)) {
+                if (cachedFrames.size() >= MAX_CACHED_FRAMES) {
+                    cachedFrames.clear();
+                }
+
+                frame = new Frame(size, image, rotation);
+                cachedFrames.put(image, frame);
+            }
+
+            return frame;
+        }
+    }
+
+    /**
+     * Hands the frame over to every registered processor. Returns immediately unless one of the
+     * processors uses {@link BackpressurePolicy#block(int)} and its queue is full.
+     */
+    public void dispatch(@NonNull Frame frame) {
+        statisticsCollector.onFrameDispatched(frame);
+
+        ProcessorLane[] currentLanes = registry.lanes();
+
+        if (currentLanes.length == 0) {
+            releasedListener.onFrameReleased(frame);
+            return;
+        }
+
+        DispatchedFrame dispatchedFrame = obtainDispatchedFrame();
+        dispatchedFrame.reset(frame, currentLanes.length);
+
+        long timestampNanos = System.nanoTime();
+
+        for (ProcessorLane lane : currentLanes) {
+            lane.offer(dispatchedFrame, timestampNanos);
+        }
+    }
+
+    private DispatchedFrame obtainDispatchedFrame() {
+        synchronized (dispatchedFramesPool) {
+            DispatchedFrame dispatchedFrame = dispatchedFramesPool.poll();
+
+            return dispatchedFrame != null
+                    ? dispatchedFrame
+                    : new DispatchedFrame(releasedListener, dispatchedFramesPool);
+        }
+    }
+
+    /**
+     * Notified when all processors are done with the frame.
+     */
+    public interface OnFrameReleasedListener {
+
+        /**
+         * Called when the frame is no longer used by any of the processors and its image can be
+         * reused.
+         *
+         * @param frame the released frame.
+         */
+        void onFrameReleased(Frame frame);
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Product derived from a preview frame, such as a downscaled image or a histogram, which is shared
+ * by all {@link GraphFrameProcessor}s.
+ * <p>
+ * A node is computed lazily when the first processor asks for it through
+ * {@link FrameContext#get(FrameNode)} and at most once per frame. Nodes may depend on other
+ * nodes. Once all processors are done with the frame, the value is passed to
+ * {@link #release(Object)}, which is where pooled buffers should be returned.
+ * <p>
+ * Nodes are identified by instance, so the same instance must be shared by all processors which
+ * are supposed to share the result. See {@link FrameNodes} for common nodes.
+ *
+ * @param <T> type of the computed value.
+ */
+public abstract class FrameNode<T> {
+
+    /**
+     * Computes the value for the frame of the context. Might be called from any processor thread.
+     *
+     * @param context context of the frame. Use it to obtain values of other nodes.
+     * @return computed value. Must not be {@code null}.
+     */
+    @NonNull
+    protected abstract T compute(@NonNull FrameContext context);
+
+    /**
+     * Called once all processors are done with the frame. Does nothing by default.
+     *
+     * @param value value which was computed for the frame.
+     */
+    protected void release(@NonNull T value) {
+        // Do nothing
+    }
+
+}
@@ -0,0 +1,164 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+import io.fotoapparat.util.IntArrayPool;
+
+/**
+ * Common {@link FrameNode}s. Every call creates a new node, so create a node once and share the
+ * instance between processors.
+ */
+public class FrameNodes {
+
+    /**
+     * Number of bins of a luma histogram.
+     */
+    public static final int HISTOGRAM_BINS = 256;
+
+    /**
+     * @return node which provides the frame scaled by the given scaler.
+     */
+    public static FrameNode<PreviewImage> scaled(@NonNull final FrameScaler scaler) {
+        return new PreviewImageNode() {
+            @NonNull
+            @Override
+            protected PreviewImage compute(@NonNull FrameContext context) {
+                return scaler.scale(context.getFrame());
+            }
+        };
+    }
+
+    /**
+     * @return node which provides the frame rotated upright by the given rotator.
+     */
+    public static FrameNode<PreviewImage> upright(@NonNull final FrameRotator rotator) {
+        return new PreviewImageNode() {
+            @NonNull
+            @Override
+            protected PreviewImage compute(@NonNull FrameContext context) {
+                return rotator.rotate(context.getFrame());
+            }
+        };
+    }
+
+    /**
+     * @return node which provides the frame converted to ARGB by the given converter.
+     */
+    public static FrameNode<ArgbImage> argb(@NonNull final ColorConverter converter) {
+        return new ArgbImageNode() {
+            @NonNull
+            @Override
+            protected ArgbImage compute(@NonNull FrameContext context) {
+                return converter.toArgb(context.getFrame());
+            }
+        };
+    }
+
+    /**
+     * @param source node which provides an image in {@link PreviewImage.Format#NV21} format, for
+     *               example a downscaled frame.
+     * @return node which provides the image of the source node converted to ARGB by the given
+     * converter.
+     */
+    public static FrameNode<ArgbImage> argb(@NonNull final ColorConverter converter,
+                                            @NonNull final FrameNode<PreviewImage> source) {
+        return new ArgbImageNode() {
+            @NonNull
+            @Override
+            protected ArgbImage compute(@NonNull FrameContext context) {
+                return converter.toArgb(context.get(source));
+            }
+        };
+    }
+
+    /**
+     * @return node which provides the histogram of luma values of the frame with
+     * {@link #HISTOGRAM_BINS} bins.
+     */
+    public static FrameNode<int[]> lumaHistogram() {
+        return new HistogramNode() {
+            @NonNull
+            @Override
+            protected int[] compute(@NonNull FrameContext context) {
+                Frame frame = context.getFrame();
+
+                return histogram(frame.image, frame.size.width * frame.size.height);
+            }
+        };
+    }
+
+    /**
+     * @param source node which provides an image in {@link PreviewImage.Format#NV21} or
+     *               {@link PreviewImage.Format#LUMA} format, for example a downscaled frame.
+     * @return node which provides the histogram of luma values of the image of the source node with
+     * {@link #HISTOGRAM_BINS} bins.
+     */
+    public static FrameNode<int[]> lumaHistogram(@NonNull final FrameNode<PreviewImage> source) {
+        return new HistogramNode() {
+            @NonNull
+            @Override
+            protected int[] compute(@NonNull FrameContext context) {
+                PreviewImage image = context.get(source);
+
+                if (image.format == PreviewImage.Format.RGB) {
+                    throw new IllegalArgumentException("Luma histogram of RGB image is not supported.");
+                }
+
+                return histogram(image.image, image.size.width * image.size.height);
+            }
+        };
+    }
+
+    /**
+     * Node of a pooled {@link PreviewImage}.
+     */
+    private abstract static class PreviewImageNode extends FrameNode<PreviewImage> {
+
+        @Override
+        protected void release(@NonNull PreviewImage value) {
+            value.release();
+        }
+
+    }
+
+    /**
+     * Node of a pooled {@link ArgbImage}.
+     */
+    private abstract static class ArgbImageNode extends FrameNode<ArgbImage> {
+
+        @Override
+        protected void release(@NonNull ArgbImage value) {
+            value.release();
+        }
+
+    }
+
+    /**
+     * Node of a histogram which is kept in pooled arrays.
+     */
+    private abstract static class HistogramNode extends FrameNode<int[]> {
+
+        private final IntArrayPool pool = new IntArrayPool();
+
+        int[] histogram(byte[] luma, int pixelsCount) {
+            int[] histogram = pool.acquire(HISTOGRAM_BINS);
+
+            for (int i = 0; i < HISTOGRAM_BINS; i++) {
+                histogram[i] = 0;
+            }
+
+            for (int i = 0; i < pixelsCount; i++) {
+                histogram[luma[i] & 0xFF]++;
+            }
+
+            return histogram;
+        }
+
+        @Override
+        protected void release(@NonNull int[] value) {
+            pool.release(value);
+        }
+
+    }
+
+}
@@ -3,10 +3,11 @@ package io.fotoapparat.preview;
 /**
  * Performs processing on preview frames.
  * <p>
- * Frame processors are called from worker thread (aka non-UI thread). After
- * {@link #processFrame(Frame)} completes the frame is returned back to the pool where it is reused
- * afterwards. This means that implementations should take special care to not do any operations on
- * frame after method completes.
+ * Frame processors are called from worker thread (aka non-UI thread). Every registered processor
+ * has its own thread, so processors run independently of each other and a slow processor does not
+ * delay the others. After {@link #processFrame(Frame)} of every processor completes the frame is
+ * returned back to the pool where it is reused afterwards. This means that implementations should
+ * take special care to not do any operations on frame after method completes.
  */
 public interface FrameProcessor {
 
@@ -0,0 +1,156 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * {@link FrameProcessor} which keeps copies of the most recent preview frames.
+ * <p>
+ * Frames are copied into a fixed number of slots which are allocated once and reused, so keeping
+ * the buffer filled does not allocate as long as the preview size does not change. A frame taken
+ * out with {@link #acquireClosestFrame(long)} is not overwritten until it is given back with
+ * {@link #release(Frame)}.
+ */
+public class FrameRingBuffer implements FrameProcessor {
+
+    private final Slot[] slots;
+
+    /**
+     * @param capacity maximum number of frames kept in the buffer. Must be positive.
+     */
+    public FrameRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Copies the frame into the slot with the oldest frame. If all slots are acquired, the frame
+     * is skipped.
+     */
+    @Override
+    public void processFrame(Frame frame) {
+        synchronized (slots) {
+            Slot slot = oldestFreeSlot();
+
+            if (slot != null) {
+                slot.store(frame);
+            }
+        }
+    }
+
+    private Slot oldestFreeSlot() {
+        Slot result = null;
+
+        for (Slot slot : slots) {
+            if (slot.acquired) {
+                continue;
+            }
+
+            if (!slot.filled) {
+                return slot;
+            }
+
+            if (result == null || slot.timestampNanos < result.timestampNanos) {
+                result = slot;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Takes out the frame with the timestamp closest to the given one. The frame stays in the
+     * buffer and is not overwritten until it is released.
+     *
+     * @param timestampNanos time in {@link System#nanoTime()} base, the same as
+     *                       {@link Frame#getTimestampNanos()}.
+     * @return the frame or {@code null} if buffer is empty.
+     */
+    @Nullable
+    public Frame acquireClosestFrame(long timestampNanos) {
+        synchronized (slots) {
+            Slot result = null;
+
+            for (Slot slot : slots) {
+                if (!slot.filled || slot.acquired) {
+                    continue;
+                }
+
+                if (result == null
+                        || Math.abs(slot.timestampNanos - timestampNanos) < Math.abs(result.timestampNanos - timestampNanos)) {
+                    result = slot;
+                }
+            }
+
+            if (result == null) {
+                return null;
+            }
+
+            result.acquired = true;
+
+            return result.toFrame();
+        }
+    }
+
+    /**
+     * Gives back the frame which was taken out with {@link #acquireClosestFrame(long)}, so that its
+     * slot can be reused.
+     */
+    public void release(@NonNull Frame frame) {
+        synchronized (slots) {
+            for (Slot slot : slots) {
+                if (slot.image == frame.image) {
+                    slot.acquired = false;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class Slot {
+
+        byte[] image = null;
+        Size size = null;
+        int rotation = 0;
+        long sequenceNumber = 0;
+        long timestampNanos = 0;
+
+        boolean filled = false;
+        boolean acquired = false;
+
+        void store(Frame frame) {
+            if (image == null || image.length != frame.image.length) {
+                image = new byte[frame.image.length];
+            }
+
+            System.arraycopy(frame.image, 0, image, 0, image.length);
+
+            size = frame.size;
+            rotation = frame.rotation;
+            sequenceNumber = frame.getSequenceNumber();
+            timestampNanos = frame.getTimestampNanos();
+            filled = true;
+        }
+
+        Frame toFrame() {
+            return new Frame(
+                    size,
+                    image,
+                    rotation,
+                    sequenceNumber,
+                    timestampNanos,
+                    timestampNanos
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,225 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.util.ByteArrayPool;
+
+/**
+ * Physically rotates preview images so that they are upright, for processors which can not take
+ * {@link Frame#rotation} into account themselves.
+ * <p>
+ * Images are rotated clockwise by their rotation and optionally mirrored horizontally, which is
+ * what the front lens needs to match the on-screen preview. Planes are copied in square tiles so
+ * that both reads and writes stay within a few cache lines, even though one of them walks across
+ * rows.
+ * <p>
+ * Output images are written into pooled arrays and always have rotation of {@code 0}. Release
+ * every image once it is no longer needed. Thread safe.
+ * <p>
+ * Use {@link FrameRotator#builder()} to create a new instance.
+ */
+public class FrameRotator {
+
+    /**
+     * Side of a square tile in pixels.
+     */
+    private static final int TILE_SIZE = 32;
+
+    private final boolean mirror;
+
+    private final ByteArrayPool pool = new ByteArrayPool();
+
+    private FrameRotator(Builder builder) {
+        this.mirror = builder.mirror;
+    }
+
+    /**
+     * @return builder for {@link FrameRotator}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return upright NV21 image of the frame. Must be released once it is no longer needed.
+     * @throws IllegalArgumentException if rotation of the frame is not a multiple of 90 degrees.
+     */
+    public PreviewImage rotate(@NonNull Frame frame) {
+        return rotate(frame.size, frame.image, PreviewImage.Format.NV21, frame.rotation);
+    }
+
+    /**
+     * @return upright image in the same format. Must be released once it is no longer needed.
+     * @throws IllegalArgumentException if rotation of the image is not a multiple of 90 degrees.
+     */
+    public PreviewImage rotate(@NonNull PreviewImage image) {
+        return rotate(image.size, image.image, image.format, image.rotation);
+    }
+
+    private PreviewImage rotate(Size size,
+                                byte[] image,
+                                PreviewImage.Format format,
+                                int rotation) {
+        int degrees = normalizedRotation(rotation);
+
+        byte[] output = pool.acquire(
+                format.bytesFor(size.width, size.height)
+        );
+
+        rotatePlane(
+                image, 0, size.width, size.height, channelsOf(format),
+                output, 0,
+                degrees
+        );
+
+        if (format == PreviewImage.Format.NV21) {
+            int chromaOffset = size.width * size.height;
+
+            rotatePlane(
+                    image, chromaOffset, size.width / 2, size.height / 2, 2,
+                    output, chromaOffset,
+                    degrees
+            );
+        }
+
+        Size outputSize = degrees % 180 == 0
+                ? size
+                : size.flip();
+
+        return new PreviewImage(outputSize, output, format, 0, pool);
+    }
+
+    private static int normalizedRotation(int rotation) {
+        int degrees = ((rotation % 360) + 360) % 360;
+
+        if (degrees % 90 != 0) {
+            throw new IllegalArgumentException("Rotation must be a multiple of 90 degrees: " + rotation);
+        }
+
+        return degrees;
+    }
+
+    private static int channelsOf(PreviewImage.Format format) {
+        return format == PreviewImage.Format.RGB
+                ? 3
+                : 1;
+    }
+
+    /**
+     * Copies a plane of {@code width * height} pixels of {@code channels} bytes each. Output
+     * coordinates are a linear function of input coordinates, so position of every output pixel
+     * is {@code origin + x * stepX + y * stepY}.
+     */
+    private void rotatePlane(byte[] source,
+                             int sourceOffset,
+                             int width,
+                             int height,
+                             int channels,
+                             byte[] output,
+                             int outputOffset,
+                             int degrees) {
+        boolean sideways = degrees % 180 != 0;
+        int outputWidth = sideways ? height : width;
+
+        // Output x and y expressed as originX + x * xFromX + y * xFromY (same for y)
+        int originX;
+        int xFromX;
+        int xFromY;
+        int originY;
+        int yFromX;
+        int yFromY;
+
+        switch (degrees) {
+            case 90:
+                originX = height - 1;
+                xFromX = 0;
+                xFromY = -1;
+                originY = 0;
+                yFromX = 1;
+                yFromY = 0;
+                break;
+            case 180:
+                originX = width - 1;
+                xFromX = -1;
+                xFromY = 0;
+                originY = height - 1;
+                yFromX = 0;
+                yFromY = -1;
+                break;
+            case 270:
+                originX = 0;
+                xFromX = 0;
+                xFromY = 1;
+                originY = width - 1;
+                yFromX = -1;
+                yFromY = 0;
+                break;
+            default:
+                originX = 0;
+                xFromX = 1;
+                xFromY = 0;
+                originY = 0;
+                yFromX = 0;
+                yFromY = 1;
+                break;
+        }
+
+        if (mirror) {
+            originX = outputWidth - 1 - originX;
+            xFromX = -xFromX;
+            xFromY = -xFromY;
+        }
+
+        int origin = (originY * outputWidth + originX) * channels;
+        int stepX = (yFromX * outputWidth + xFromX) * channels;
+        int stepY = (yFromY * outputWidth + xFromY) * channels;
+
+        for (int tileY = 0; tileY < height; tileY += TILE_SIZE) {
+            int tileBottom = Math.min(tileY + TILE_SIZE, height);
+
+            for (int tileX = 0; tileX < width; tileX += TILE_SIZE) {
+                int tileRight = Math.min(tileX + TILE_SIZE, width);
+
+                for (int y = tileY; y < tileBottom; y++) {
+                    int sourcePosition = sourceOffset + (y * width + tileX) * channels;
+                    int outputPosition = outputOffset + origin + tileX * stepX + y * stepY;
+
+                    for (int x = tileX; x < tileRight; x++) {
+                        for (int channel = 0; channel < channels; channel++) {
+                            output[outputPosition + channel] = source[sourcePosition++];
+                        }
+
+                        outputPosition += stepX;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link FrameRotator}.
+     */
+    public static class Builder {
+
+        boolean mirror = false;
+
+        /**
+         * @param mirror {@code true} to mirror images horizontally after rotation, as it is
+         *               needed for the front lens. {@code false} by default.
+         */
+        public Builder mirror(boolean mirror) {
+            this.mirror = mirror;
+            return this;
+        }
+
+        /**
+         * @return new instance of {@link FrameRotator}.
+         */
+        public FrameRotator build() {
+            return new FrameRotator(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package io.fotoapparat.preview;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which frames of the stream are delivered to a processor according to
+ * {@link ProcessorOptions#frameInterval} and {@link ProcessorOptions#maxFrameRate}.
+ * <p>
+ * Both can be scaled down at runtime with {@link #setRateDivisor(int)}.
+ */
+class FrameSampler {
+
+    /**
+     * Portion of the delivery interval by which a frame may come early and still be delivered.
+     * Absorbs jitter of the camera, while the long-term rate stays within the limit.
+     */
+    private static final int EARLY_FRAME_TOLERANCE_DIVISOR = 8;
+
+    private final int baseFrameInterval;
+    private final long baseDeliveryIntervalNanos;
+
+    private int frameInterval;
+    private long deliveryIntervalNanos;
+    private long toleranceNanos;
+
+    private long frameCount = 0;
+    private boolean delivered = false;
+    private long nextDeliveryNanos;
+
+    FrameSampler(ProcessorOptions options) {
+        this.baseFrameInterval = options.frameInterval;
+        this.baseDeliveryIntervalNanos = options.maxFrameRate > 0f
+                ? (long) (TimeUnit.SECONDS.toNanos(1) / options.maxFrameRate)
+                : 0L;
+
+        setRateDivisor(1);
+    }
+
+    /**
+     * @param rateDivisor processor receives only one of this many frames it would receive
+     *                    according to its {@link ProcessorOptions}. Must be positive.
+     */
+    synchronized void setRateDivisor(int rateDivisor) {
+        frameInterval = baseFrameInterval * rateDivisor;
+        deliveryIntervalNanos = baseDeliveryIntervalNanos * rateDivisor;
+        toleranceNanos = deliveryIntervalNanos / EARLY_FRAME_TOLERANCE_DIVISOR;
+    }
+
+    /**
+     * @param timestampNanos time of the frame in nanoseconds.
+     * @return {@code true} if frame should be delivered to the processor, {@code false} if it
+     * should be skipped.
+     */
+    synchronized boolean accept(long timestampNanos) {
+        return acceptByInterval() && acceptByRate(timestampNanos);
+    }
+
+    private boolean acceptByInterval() {
+        return frameCount++ % frameInterval == 0;
+    }
+
+    private boolean acceptByRate(long timestampNanos) {
+        if (deliveryIntervalNanos == 0L) {
+            return true;
+        }
+
+        if (delivered && timestampNanos + toleranceNanos < nextDeliveryNanos) {
+            return false;
+        }
+
+        nextDeliveryNanos = !delivered || timestampNanos - nextDeliveryNanos > deliveryIntervalNanos
+                ? timestampNanos + deliveryIntervalNanos
+                : nextDeliveryNanos + deliveryIntervalNanos;
+        delivered = true;
+
+        return true;
+    }
+
+}
@@ -0,0 +1,344 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.util.ByteArrayPool;
+
+/**
+ * Produces downscaled and cropped {@link PreviewImage}s from preview {@link Frame}s.
+ * <p>
+ * Output images are written into pooled arrays. Release every image once it is no longer needed.
+ * Sampling tables are computed once per input size, so the steady state does not allocate.
+ * <p>
+ * Region and output size are given in frame coordinates, that is before rotation. Output images
+ * keep {@link Frame#rotation} of the input frame. Thread safe.
+ * <p>
+ * Use {@link FrameScaler#builder()} to create a new instance.
+ */
+public class FrameScaler {
+
+    private final int outputWidth;
+    private final int outputHeight;
+    private final Filter filter;
+    private final PreviewImage.Format format;
+    private final int regionLeft;
+    private final int regionTop;
+    private final int regionWidth;
+    private final int regionHeight;
+
+    private final ByteArrayPool pool = new ByteArrayPool();
+
+    private Tables tables;
+
+    private FrameScaler(Builder builder) {
+        this.format = builder.format;
+        this.outputWidth = evenIfNv21(builder.outputWidth);
+        this.outputHeight = evenIfNv21(builder.outputHeight);
+        this.filter = builder.filter;
+        this.regionLeft = builder.regionLeft;
+        this.regionTop = builder.regionTop;
+        this.regionWidth = builder.regionWidth;
+        this.regionHeight = builder.regionHeight;
+    }
+
+    /**
+     * @return builder for {@link FrameScaler}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private int evenIfNv21(int length) {
+        return format == PreviewImage.Format.NV21
+                ? Math.max(2, length & ~1)
+                : length;
+    }
+
+    /**
+     * @return scaled image of the frame. Must be released once it is no longer needed.
+     * @throws IllegalArgumentException if the region does not intersect with the frame.
+     */
+    public PreviewImage scale(@NonNull Frame frame) {
+        Tables tables = tablesFor(frame.size);
+
+        byte[] output = pool.acquire(
+                format.bytesFor(outputWidth, outputHeight)
+        );
+
+        resample(
+                frame.image, 0, frame.size.width, 1,
+                tables.lumaX, tables.lumaY,
+                output, 0
+        );
+
+        if (format == PreviewImage.Format.NV21) {
+            resample(
+                    frame.image, frame.size.width * frame.size.height, frame.size.width, 2,
+                    tables.chromaX, tables.chromaY,
+                    output, outputWidth * outputHeight
+            );
+        }
+
+        return new PreviewImage(
+                new Size(outputWidth, outputHeight),
+                output,
+                format,
+                frame.rotation,
+                pool
+        );
+    }
+
+    private synchronized Tables tablesFor(Size frameSize) {
+        if (tables == null || !tables.frameSize.equals(frameSize)) {
+            tables = new Tables(frameSize);
+        }
+
+        return tables;
+    }
+
+    private void resample(byte[] source,
+                          int sourceOffset,
+                          int sourceRowStride,
+                          int channels,
+                          AxisSampling xSampling,
+                          AxisSampling ySampling,
+                          byte[] output,
+                          int outputOffset) {
+        if (filter == Filter.BOX) {
+            resampleBox(source, sourceOffset, sourceRowStride, channels, xSampling, ySampling, output, outputOffset);
+        } else {
+            resampleBilinear(source, sourceOffset, sourceRowStride, channels, xSampling, ySampling, output, outputOffset);
+        }
+    }
+
+    private static void resampleBox(byte[] source,
+                                    int sourceOffset,
+                                    int sourceRowStride,
+                                    int channels,
+                                    AxisSampling xSampling,
+                                    AxisSampling ySampling,
+                                    byte[] output,
+                                    int outputOffset) {
+        int position = outputOffset;
+
+        for (int outputY = 0; outputY < ySampling.from.length; outputY++) {
+            int fromY = ySampling.from[outputY];
+            int toY = ySampling.to[outputY];
+
+            for (int outputX = 0; outputX < xSampling.from.length; outputX++) {
+                int fromX = xSampling.from[outputX] * channels;
+                int toX = xSampling.to[outputX] * channels;
+                int count = (toY - fromY) * (toX - fromX) / channels;
+
+                for (int channel = 0; channel < channels; channel++) {
+                    int sum = 0;
+
+                    for (int y = fromY; y < toY; y++) {
+                        int row = sourceOffset + y * sourceRowStride + channel;
+
+                        for (int x = fromX; x < toX; x += channels) {
+                            sum += source[row + x] & 0xFF;
+                        }
+                    }
+
+                    output[position++] = (byte) ((sum + count / 2) / count);
+                }
+            }
+        }
+    }
+
+    private static void resampleBilinear(byte[] source,
+                                         int sourceOffset,
+                                         int sourceRowStride,
+                                         int channels,
+                                         AxisSampling xSampling,
+                                         AxisSampling ySampling,
+                                         byte[] output,
+                                         int outputOffset) {
+        int position = outputOffset;
+        int rounding = 1 << (2 * AxisSampling.WEIGHT_BITS - 1);
+
+        for (int outputY = 0; outputY < ySampling.from.length; outputY++) {
+            int topRow = sourceOffset + ySampling.from[outputY] * sourceRowStride;
+            int bottomRow = sourceOffset + ySampling.to[outputY] * sourceRowStride;
+            int bottomWeight = ySampling.weights[outputY];
+            int topWeight = AxisSampling.WEIGHT_ONE - bottomWeight;
+
+            for (int outputX = 0; outputX < xSampling.from.length; outputX++) {
+                int left = xSampling.from[outputX] * channels;
+                int right = xSampling.to[outputX] * channels;
+                int rightWeight = xSampling.weights[outputX];
+                int leftWeight = AxisSampling.WEIGHT_ONE - rightWeight;
+
+                for (int channel = 0; channel < channels; channel++) {
+                    int top = (source[topRow + left + channel] & 0xFF) * leftWeight
+                            + (source[topRow + right + channel] & 0xFF) * rightWeight;
+                    int bottom = (source[bottomRow + left + channel] & 0xFF) * leftWeight
+                            + (source[bottomRow + right + channel] & 0xFF) * rightWeight;
+
+                    output[position++] = (byte) ((top * topWeight + bottom * bottomWeight + rounding)
+                            >> (2 * AxisSampling.WEIGHT_BITS));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sampling tables for frames of one size.
+     */
+    private class Tables {
+
+        final Size frameSize;
+
+        final AxisSampling lumaX;
+        final AxisSampling lumaY;
+        final AxisSampling chromaX;
+        final AxisSampling chromaY;
+
+        Tables(Size frameSize) {
+            this.frameSize = frameSize;
+
+            int left = Math.max(regionLeft, 0) & ~1;
+            int top = Math.max(regionTop, 0) & ~1;
+            int right = regionWidth > 0
+                    ? Math.min(regionLeft + regionWidth, frameSize.width)
+                    : frameSize.width;
+            int bottom = regionHeight > 0
+                    ? Math.min(regionTop + regionHeight, frameSize.height)
+                    : frameSize.height;
+
+            if (right - left < 2 || bottom - top < 2) {
+                throw new IllegalArgumentException("Region does not intersect with frame of size " + frameSize);
+            }
+
+            lumaX = sampling(left, right - left, outputWidth);
+            lumaY = sampling(top, bottom - top, outputHeight);
+            chromaX = sampling(left / 2, (right - left) / 2, outputWidth / 2);
+            chromaY = sampling(top / 2, (bottom - top) / 2, outputHeight / 2);
+        }
+
+        private AxisSampling sampling(int offset, int sourceLength, int outputLength) {
+            return filter == Filter.BOX
+                    ? AxisSampling.box(offset, sourceLength, outputLength)
+                    : AxisSampling.bilinear(offset, sourceLength, outputLength);
+        }
+
+    }
+
+    /**
+     * Filter which is used to compute output pixels.
+     */
+    public enum Filter {
+
+        /**
+         * Averages all source pixels covered by the output pixel. Best quality for downscaling.
+         */
+        BOX,
+
+        /**
+         * Interpolates between four source pixels closest to the output pixel. Faster than
+         * {@link #BOX} for large scale factors, but ignores pixels in between.
+         */
+        BILINEAR
+
+    }
+
+    /**
+     * Builder for {@link FrameScaler}.
+     */
+    public static class Builder {
+
+        int outputWidth = 0;
+        int outputHeight = 0;
+        Filter filter = Filter.BOX;
+        PreviewImage.Format format = PreviewImage.Format.NV21;
+        int regionLeft = 0;
+        int regionTop = 0;
+        int regionWidth = 0;
+        int regionHeight = 0;
+
+        /**
+         * @param size size of the output image in pixels (before rotation). NV21 images are
+         *             rounded down to even width and height.
+         */
+        public Builder outputSize(@NonNull Size size) {
+            this.outputWidth = size.width;
+            this.outputHeight = size.height;
+            return this;
+        }
+
+        /**
+         * @param filter filter which is used to compute output pixels. {@link Filter#BOX} by
+         *               default.
+         */
+        public Builder filter(@NonNull Filter filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        /**
+         * @param format layout of output images. Either {@link PreviewImage.Format#NV21} (default)
+         *               or {@link PreviewImage.Format#LUMA}.
+         */
+        public Builder format(@NonNull PreviewImage.Format format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Limits the output to a region of the frame. By default the whole frame is used. Parts of
+         * the region which lie outside of the frame are ignored.
+         *
+         * @param left   left edge of the region in frame pixels (before rotation).
+         * @param top    top edge of the region in frame pixels (before rotation).
+         * @param width  width of the region in frame pixels.
+         * @param height height of the region in frame pixels.
+         */
+        public Builder region(@IntRange(from = 0) int left,
+                              @IntRange(from = 0) int top,
+                              @IntRange(from = 1) int width,
+                              @IntRange(from = 1) int height) {
+            this.regionLeft = left;
+            this.regionTop = top;
+            this.regionWidth = width;
+            this.regionHeight = height;
+            return this;
+        }
+
+        /**
+         * @return new instance of {@link FrameScaler}.
+         * @throws IllegalStateException if some of the values are invalid.
+         */
+        public FrameScaler build() {
+            validate();
+
+            return new FrameScaler(this);
+        }
+
+        private void validate() {
+            if (outputWidth < 1 || outputHeight < 1) {
+                throw new IllegalStateException("Output size is mandatory.");
+            }
+
+            if (filter == null) {
+                throw new IllegalStateException("Filter is mandatory.");
+            }
+
+            if (format == null) {
+                throw new IllegalStateException("Format is mandatory.");
+            }
+
+            if (format == PreviewImage.Format.RGB) {
+                throw new IllegalStateException("RGB output is not supported. Use ColorConverter instead.");
+            }
+
+            if (regionLeft < 0 || regionTop < 0 || regionWidth < 0 || regionHeight < 0) {
+                throw new IllegalStateException("Region must not be negative.");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * {@link FrameProcessor} which shares values of {@link FrameNode}s with other processors of the
+ * same stream.
+ * <p>
+ * When the processor is registered in a {@link PreviewStream}, all graph processors which receive
+ * the same frame share a single {@link FrameContext}, so every node is computed at most once per
+ * frame regardless of how many processors use it.
+ */
+public abstract class GraphFrameProcessor implements FrameProcessor {
+
+    /**
+     * Processes the frame with a context of its own, so nodes are not shared with other
+     * processors. Used only when the processor is called outside of a {@link PreviewStream}.
+     */
+    @Override
+    public final void processFrame(Frame frame) {
+        FrameContext context = new FrameContext(frame);
+
+        try {
+            processFrame(context);
+        } finally {
+            context.release();
+        }
+    }
+
+    /**
+     * Performs processing on the frame of the context. Do not keep references to the context or
+     * to values of its nodes after the method returns, as they are released once all processors
+     * are done with the frame.
+     *
+     * @param context context of the frame which gives access to values of {@link FrameNode}s.
+     */
+    public abstract void processFrame(@NonNull FrameContext context);
+
+}
@@ -0,0 +1,23 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+import io.fotoapparat.log.Logger;
+
+/**
+ * {@link ProcessorEventListener} which writes every event to a {@link Logger}.
+ */
+public class LoggingProcessorEventListener implements ProcessorEventListener {
+
+    private final Logger logger;
+
+    public LoggingProcessorEventListener(@NonNull Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void onProcessorEvent(ProcessorEvent event) {
+        logger.log(event.toString());
+    }
+
+}
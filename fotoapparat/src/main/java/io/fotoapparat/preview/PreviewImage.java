@@ -0,0 +1,151 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.util.ByteArrayPool;
+
+/**
+ * Image derived from a preview {@link Frame}, for example by {@link FrameScaler}.
+ * <p>
+ * Image might be backed by a pooled array. Call {@link #release()} once the image is no longer
+ * needed, so the array can be reused for the following frames. Do not use the image afterwards.
+ */
+public class PreviewImage {
+
+    /**
+     * Size of the image in pixels (before rotation).
+     */
+    public final Size size;
+
+    /**
+     * Pixels of the image in the given {@link #format}. Might be longer than needed.
+     */
+    public final byte[] image;
+
+    /**
+     * Layout of {@link #image}.
+     */
+    public final Format format;
+
+    /**
+     * Clockwise rotation of the image in degrees relatively to user.
+     */
+    public final int rotation;
+
+    @Nullable
+    private final ByteArrayPool pool;
+
+    public PreviewImage(@NonNull Size size,
+                        @NonNull byte[] image,
+                        @NonNull Format format,
+                        int rotation) {
+        this(size, image, format, rotation, null);
+    }
+
+    PreviewImage(Size size,
+                 byte[] image,
+                 Format format,
+                 int rotation,
+                 @Nullable ByteArrayPool pool) {
+        this.size = size;
+        this.image = image;
+        this.format = format;
+        this.rotation = rotation;
+        this.pool = pool;
+    }
+
+    /**
+     * @return image which shares the array of the frame. Releasing it does nothing.
+     */
+    public static PreviewImage fromFrame(@NonNull Frame frame) {
+        return new PreviewImage(
+                frame.size,
+                frame.image,
+                Format.NV21,
+                frame.rotation
+        );
+    }
+
+    /**
+     * Returns the array of the image back to its pool. If the image is not pooled, does nothing.
+     */
+    public void release() {
+        if (pool != null) {
+            pool.release(image);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PreviewImage that = (PreviewImage) o;
+
+        return rotation == that.rotation
+                && size.equals(that.size)
+                && format == that.format
+                && Arrays.equals(image, that.image);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size.hashCode();
+        result = 31 * result + Arrays.hashCode(image);
+        result = 31 * result + format.hashCode();
+        result = 31 * result + rotation;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PreviewImage{" +
+                "size=" + size +
+                ", image= array(" + image.length + ")" +
+                ", format=" + format +
+                ", rotation=" + rotation +
+                '}';
+    }
+
+    /**
+     * Layout of pixels of {@link PreviewImage}.
+     */
+    public enum Format {
+
+        /**
+         * Full resolution luma plane followed by interleaved V and U samples in half resolution.
+         * Width and height are always even.
+         */
+        NV21,
+
+        /**
+         * Luma plane only. One byte per pixel.
+         */
+        LUMA,
+
+        /**
+         * Red, green and blue bytes of every pixel.
+         */
+        RGB;
+
+        /**
+         * @return number of bytes of an image of the given size.
+         */
+        public int bytesFor(int width, int height) {
+            switch (this) {
+                case NV21:
+                    return width * height * 3 / 2;
+                case RGB:
+                    return width * height * 3;
+                default:
+                    return width * height;
+            }
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package io.fotoapparat.preview;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 /**
  * Stream of preview frames from the camera.
@@ -21,11 +22,29 @@ public interface PreviewStream {
             // Do nothing
         }
 
+        @Override
+        public void addProcessor(@NonNull FrameProcessor processor,
+                                 @NonNull ProcessorOptions options) {
+            // Do nothing
+        }
+
         @Override
         public void removeProcessor(@NonNull FrameProcessor processor) {
             // Do nothing
         }
 
+        @Nullable
+        @Override
+        public ProcessorStatistics getStatistics(@NonNull FrameProcessor processor) {
+            return null;
+        }
+
+        @NonNull
+        @Override
+        public StreamStatistics getStreamStatistics() {
+            return StreamStatistics.EMPTY;
+        }
+
         @Override
         public void start() {
             // Do nothing
@@ -38,15 +57,37 @@ public interface PreviewStream {
     void addFrameToBuffer();
 
     /**
-     * Registers new processor. If processor was already added before, does nothing.
+     * Registers new processor with {@link ProcessorOptions#defaults()}. If processor was already
+     * added before, does nothing.
      */
     void addProcessor(@NonNull FrameProcessor processor);
 
+    /**
+     * Registers new processor. If processor was already added before, does nothing.
+     *
+     * @param options decide which frames processor receives and what happens with frames when
+     *                processor does not keep up.
+     */
+    void addProcessor(@NonNull FrameProcessor processor,
+                      @NonNull ProcessorOptions options);
+
     /**
      * Unregisters the processor. If processor was not registered before, does nothing.
      */
     void removeProcessor(@NonNull FrameProcessor processor);
 
+    /**
+     * @return counters of the processor or {@code null} if processor is not registered.
+     */
+    @Nullable
+    ProcessorStatistics getStatistics(@NonNull FrameProcessor processor);
+
+    /**
+     * @return frame intervals and latencies of the stream, aggregated over all processors.
+     */
+    @NonNull
+    StreamStatistics getStreamStatistics();
+
     /**
      * Starts preview stream. After preview is started frame processors will start receiving frames.
      */
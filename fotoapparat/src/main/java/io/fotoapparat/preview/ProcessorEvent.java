@@ -0,0 +1,119 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Something which the watchdog of a {@link FrameProcessor} noticed.
+ *
+ * @see ProcessorEventListener
+ */
+public class ProcessorEvent {
+
+    /**
+     * Processor which caused the event.
+     */
+    @NonNull
+    public final FrameProcessor processor;
+
+    /**
+     * Type of the event.
+     */
+    @NonNull
+    public final Type type;
+
+    /**
+     * How long processing of the frame took, in nanoseconds.
+     */
+    public final long durationNanos;
+
+    /**
+     * Processor receives only one of this many frames it would receive otherwise. {@code 1} means
+     * that processor is not demoted.
+     */
+    public final int rateDivisor;
+
+    /**
+     * Exception thrown by the processor if type is {@link Type#FAILED}, {@code null} otherwise.
+     */
+    @Nullable
+    public final Throwable failure;
+
+    public ProcessorEvent(@NonNull FrameProcessor processor,
+                          @NonNull Type type,
+                          long durationNanos,
+                          int rateDivisor,
+                          @Nullable Throwable failure) {
+        this.processor = processor;
+        this.type = type;
+        this.durationNanos = durationNanos;
+        this.rateDivisor = rateDivisor;
+        this.failure = failure;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ProcessorEvent that = (ProcessorEvent) o;
+
+        return durationNanos == that.durationNanos
+                && rateDivisor == that.rateDivisor
+                && processor.equals(that.processor)
+                && type == that.type
+                && (failure != null ? failure.equals(that.failure) : that.failure == null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = processor.hashCode();
+        result = 31 * result + type.hashCode();
+        result = 31 * result + (int) (durationNanos ^ (durationNanos >>> 32));
+        result = 31 * result + rateDivisor;
+        result = 31 * result + (failure != null ? failure.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessorEvent{" +
+                "processor=" + processor +
+                ", type=" + type +
+                ", durationNanos=" + durationNanos +
+                ", rateDivisor=" + rateDivisor +
+                ", failure=" + failure +
+                '}';
+    }
+
+    /**
+     * Type of {@link ProcessorEvent}.
+     */
+    public enum Type {
+
+        /**
+         * Processor threw an exception. The exception did not affect other processors and the
+         * processor keeps receiving frames.
+         */
+        FAILED,
+
+        /**
+         * Processing of a frame took longer than {@link ProcessorOptions#timeBudgetNanos}.
+         */
+        OVER_BUDGET,
+
+        /**
+         * Processor failed or exceeded its budget several times in a row and now receives fewer
+         * frames.
+         */
+        DEMOTED,
+
+        /**
+         * Demoted processor stayed within its budget for a while and now receives more frames
+         * again.
+         */
+        PROMOTED
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package io.fotoapparat.preview;
+
+/**
+ * Notified about {@link ProcessorEvent}s of a {@link FrameProcessor}.
+ * <p>
+ * Called from the worker thread of the processor, right after the frame which caused the event.
+ * Implementations should return quickly.
+ */
+public interface ProcessorEventListener {
+
+    /**
+     * No-op implementation of {@link ProcessorEventListener}.
+     */
+    ProcessorEventListener NULL = new ProcessorEventListener() {
+        @Override
+        public void onProcessorEvent(ProcessorEvent event) {
+            // Do nothing
+        }
+    };
+
+    /**
+     * Notified when watchdog of the processor noticed something.
+     */
+    void onProcessorEvent(ProcessorEvent event);
+
+}
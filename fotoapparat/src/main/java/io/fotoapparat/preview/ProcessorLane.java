@@ -0,0 +1,255 @@
+package io.fotoapparat.preview;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker thread with its own queue of frames which feeds a single {@link FrameProcessor}.
+ * <p>
+ * Frames which the processor does not need according to its {@link ProcessorOptions} are skipped
+ * before they are queued. Size of the queue and behaviour on overflow are defined by
+ * {@link BackpressurePolicy}.
+ * <p>
+ * Exceptions thrown by the processor are caught, so a failing processor affects neither the lane
+ * nor other processors. Failures and time spent on every frame are reported to
+ * {@link ProcessorWatchdog}, which lowers the rate of a processor which does not keep up.
+ * <p>
+ * The thread waits for frames on the queue itself rather than being scheduled for every frame, so
+ * passing a frame to the processor does not allocate. The thread is stopped when the lane stays
+ * idle for a while and is started again on the next frame, so abandoned lanes do not keep threads
+ * around.
+ */
+class ProcessorLane implements Runnable {
+
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final FrameProcessor processor;
+    private final BackpressurePolicy policy;
+    private final FrameSampler sampler;
+    private final StreamStatisticsCollector statisticsCollector;
+    private final ProcessorWatchdog watchdog;
+
+    private final Queue<DispatchedFrame> queue = new ArrayDeque<>();
+
+    private final AtomicLong deliveredFrames = new AtomicLong();
+    private final AtomicLong skippedFrames = new AtomicLong();
+    private final AtomicLong processedFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong failedFrames = new AtomicLong();
+    private final AtomicLong overBudgetFrames = new AtomicLong();
+    private final AtomicLong processingTimeNanos = new AtomicLong();
+
+    private Thread worker = null;
+    private boolean closed = false;
+
+    ProcessorLane(FrameProcessor processor,
+                  ProcessorOptions options,
+                  StreamStatisticsCollector statisticsCollector) {
+        this.processor = processor;
+        this.policy = options.backpressurePolicy;
+        this.sampler = new FrameSampler(options);
+        this.statisticsCollector = statisticsCollector;
+        this.watchdog = new ProcessorWatchdog(processor, options, sampler);
+    }
+
+    /**
+     * Adds frame to the queue of the lane. If lane is closed or processor does not need the frame,
+     * it is released immediately.
+     * <p>
+     * If the queue is full then, depending on {@link BackpressurePolicy}, either the oldest frame is
+     * dropped or the caller waits until the processor takes the next frame.
+     *
+     * @param timestampNanos time of the frame in nanoseconds.
+     */
+    void offer(DispatchedFrame frame, long timestampNanos) {
+        if (!sampler.accept(timestampNanos)) {
+            skippedFrames.incrementAndGet();
+            frame.release();
+            return;
+        }
+
+        deliveredFrames.incrementAndGet();
+
+        synchronized (queue) {
+            if (policy.blocking) {
+                awaitFreeSlot();
+            } else if (queue.size() >= policy.capacity) {
+                dropFrame(queue.poll());
+            }
+
+            if (closed) {
+                frame.release();
+                return;
+            }
+
+            queue.add(frame);
+
+            if (worker == null) {
+                startWorker();
+            } else {
+                queue.notifyAll();
+            }
+        }
+    }
+
+    private void startWorker() {
+        worker = new Thread(this, "FrameProcessorLane");
+        worker.start();
+    }
+
+    private void awaitFreeSlot() {
+        while (!closed && queue.size() >= policy.capacity) {
+            try {
+                queue.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropFrame(queue.poll());
+            }
+        }
+    }
+
+    private void dropFrame(DispatchedFrame frame) {
+        droppedFrames.incrementAndGet();
+        frame.release();
+    }
+
+    /**
+     * Stops accepting frames and releases those which were not processed yet.
+     */
+    void close() {
+        synchronized (queue) {
+            closed = true;
+
+            DispatchedFrame frame;
+            while ((frame = queue.poll()) != null) {
+                frame.release();
+            }
+
+            queue.notifyAll();
+        }
+    }
+
+    /**
+     * @return current counters of the lane.
+     */
+    ProcessorStatistics getStatistics() {
+        return new ProcessorStatistics(
+                deliveredFrames.get(),
+                skippedFrames.get(),
+                processedFrames.get(),
+                droppedFrames.get(),
+                failedFrames.get(),
+                overBudgetFrames.get(),
+                watchdog.getRateDivisor(),
+                processingTimeNanos.get()
+        );
+    }
+
+    @Override
+    public void run() {
+        boolean completed = false;
+
+        try {
+            processPendingFrames();
+            completed = true;
+        } finally {
+            if (!completed) {
+                restartAfterFailure();
+            }
+        }
+    }
+
+    private void processPendingFrames() {
+        DispatchedFrame frame;
+
+        while ((frame = nextFrame()) != null) {
+            try {
+                processedFrames.incrementAndGet();
+
+                long startNanos = System.nanoTime();
+                statisticsCollector.onFrameProcessing(frame.frame, startNanos);
+
+                RuntimeException failure = processSafely(frame);
+                long durationNanos = System.nanoTime() - startNanos;
+
+                processingTimeNanos.addAndGet(durationNanos);
+                if (failure != null) {
+                    failedFrames.incrementAndGet();
+                }
+                if (watchdog.onFrameProcessed(durationNanos, failure)) {
+                    overBudgetFrames.incrementAndGet();
+                }
+            } finally {
+                frame.release();
+            }
+        }
+    }
+
+    /**
+     * @return exception thrown by the processor or {@code null} if it succeeded.
+     */
+    private RuntimeException processSafely(DispatchedFrame frame) {
+        try {
+            process(frame);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private void process(DispatchedFrame frame) {
+        if (processor instanceof GraphFrameProcessor) {
+            ((GraphFrameProcessor) processor).processFrame(frame.context);
+        } else {
+            processor.processFrame(frame.frame);
+        }
+    }
+
+    /**
+     * @return next frame or {@code null} if the lane was closed or stayed idle for too long. In
+     * the latter case the worker thread is already detached from the lane.
+     */
+    private DispatchedFrame nextFrame() {
+        synchronized (queue) {
+            awaitFrame();
+
+            DispatchedFrame frame = queue.poll();
+
+            if (frame == null) {
+                worker = null;
+            } else if (policy.blocking) {
+                queue.notifyAll();
+            }
+
+            return frame;
+        }
+    }
+
+    private void awaitFrame() {
+        long deadlineMillis = System.currentTimeMillis() + IDLE_TIMEOUT_MILLIS;
+        long remainingMillis = IDLE_TIMEOUT_MILLIS;
+
+        while (!closed && queue.isEmpty() && remainingMillis > 0) {
+            try {
+                queue.wait(remainingMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            remainingMillis = deadlineMillis - System.currentTimeMillis();
+        }
+    }
+
+    private void restartAfterFailure() {
+        synchronized (queue) {
+            worker = null;
+
+            if (!queue.isEmpty()) {
+                startWorker();
+            }
+        }
+    }
+
+}
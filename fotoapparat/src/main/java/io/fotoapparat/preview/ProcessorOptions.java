@@ -0,0 +1,193 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.FloatRange;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options of a {@link FrameProcessor} registered in {@link PreviewStream}.
+ * <p>
+ * Use {@link ProcessorOptions#builder()} to create a new instance.
+ */
+public class ProcessorOptions {
+
+    /**
+     * Decides what happens with frames when processor does not keep up.
+     */
+    @NonNull
+    public final BackpressurePolicy backpressurePolicy;
+
+    /**
+     * Processor receives only every N-th frame of the stream. {@code 1} means every frame.
+     */
+    public final int frameInterval;
+
+    /**
+     * Maximum number of frames per second which processor receives. {@code 0} means no limit.
+     */
+    public final float maxFrameRate;
+
+    /**
+     * Time in nanoseconds within which processor is expected to process a frame. {@code 0} means
+     * no budget.
+     */
+    public final long timeBudgetNanos;
+
+    /**
+     * Notified when processor fails, exceeds its time budget or its rate changes because of that.
+     */
+    @NonNull
+    public final ProcessorEventListener eventListener;
+
+    private ProcessorOptions(Builder builder) {
+        this.backpressurePolicy = builder.backpressurePolicy;
+        this.frameInterval = builder.frameInterval;
+        this.maxFrameRate = builder.maxFrameRate;
+        this.timeBudgetNanos = builder.timeBudgetNanos;
+        this.eventListener = builder.eventListener;
+    }
+
+    /**
+     * @return options with which processor receives every frame with
+     * {@link BackpressurePolicy#latestOnly()} policy.
+     */
+    public static ProcessorOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @return builder for {@link ProcessorOptions}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ProcessorOptions that = (ProcessorOptions) o;
+
+        return frameInterval == that.frameInterval
+                && Float.compare(that.maxFrameRate, maxFrameRate) == 0
+                && timeBudgetNanos == that.timeBudgetNanos
+                && backpressurePolicy.equals(that.backpressurePolicy)
+                && eventListener.equals(that.eventListener);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = backpressurePolicy.hashCode();
+        result = 31 * result + frameInterval;
+        result = 31 * result + (maxFrameRate != +0.0f ? Float.floatToIntBits(maxFrameRate) : 0);
+        result = 31 * result + (int) (timeBudgetNanos ^ (timeBudgetNanos >>> 32));
+        result = 31 * result + eventListener.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessorOptions{" +
+                "backpressurePolicy=" + backpressurePolicy +
+                ", frameInterval=" + frameInterval +
+                ", maxFrameRate=" + maxFrameRate +
+                ", timeBudgetNanos=" + timeBudgetNanos +
+                ", eventListener=" + eventListener +
+                '}';
+    }
+
+    /**
+     * Builder for {@link ProcessorOptions}.
+     */
+    public static class Builder {
+
+        BackpressurePolicy backpressurePolicy = BackpressurePolicy.latestOnly();
+        int frameInterval = 1;
+        float maxFrameRate = 0f;
+        long timeBudgetNanos = 0L;
+        ProcessorEventListener eventListener = ProcessorEventListener.NULL;
+
+        /**
+         * @param policy decides what happens with frames when processor does not keep up.
+         */
+        public Builder backpressure(@NonNull BackpressurePolicy policy) {
+            this.backpressurePolicy = policy;
+            return this;
+        }
+
+        /**
+         * @param interval processor receives only every N-th frame of the stream. Skipped frames
+         *                 are never queued for the processor.
+         */
+        public Builder everyNthFrame(@IntRange(from = 1) int interval) {
+            this.frameInterval = interval;
+            return this;
+        }
+
+        /**
+         * @param framesPerSecond maximum number of frames per second which processor receives.
+         *                        Skipped frames are never queued for the processor.
+         */
+        public Builder maxFrameRate(@FloatRange(from = 0f, fromInclusive = false) float framesPerSecond) {
+            this.maxFrameRate = framesPerSecond;
+            return this;
+        }
+
+        /**
+         * @param budget time within which processor is expected to process a frame. Processor
+         *               which exceeds it several times in a row receives fewer frames until it
+         *               keeps up again.
+         * @param unit   unit of the budget.
+         */
+        public Builder timeBudget(@IntRange(from = 1) long budget, @NonNull TimeUnit unit) {
+            this.timeBudgetNanos = unit.toNanos(budget);
+            return this;
+        }
+
+        /**
+         * @param listener notified when processor fails, exceeds its time budget or its rate
+         *                 changes because of that. Called from the worker thread of the processor.
+         */
+        public Builder eventListener(@NonNull ProcessorEventListener listener) {
+            this.eventListener = listener;
+            return this;
+        }
+
+        /**
+         * @return new instance of {@link ProcessorOptions}.
+         * @throws IllegalStateException if some of the values are invalid.
+         */
+        public ProcessorOptions build() {
+            validate();
+
+            return new ProcessorOptions(this);
+        }
+
+        private void validate() {
+            if (backpressurePolicy == null) {
+                throw new IllegalStateException("Backpressure policy is mandatory.");
+            }
+
+            if (frameInterval < 1) {
+                throw new IllegalStateException("Frame interval must be positive: " + frameInterval);
+            }
+
+            if (maxFrameRate < 0f) {
+                throw new IllegalStateException("Max frame rate must not be negative: " + maxFrameRate);
+            }
+
+            if (timeBudgetNanos < 0L) {
+                throw new IllegalStateException("Time budget must not be negative: " + timeBudgetNanos);
+            }
+
+            if (eventListener == null) {
+                throw new IllegalStateException("Event listener is mandatory.");
+            }
+        }
+
+    }
+
+}
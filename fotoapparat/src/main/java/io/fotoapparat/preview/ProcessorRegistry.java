@@ -0,0 +1,96 @@
+package io.fotoapparat.preview;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy-on-write registry of processor lanes.
+ * <p>
+ * Readers get an immutable snapshot without taking any lock. Every change builds a new snapshot
+ * and publishes it atomically, so registering or unregistering processors never waits for frames
+ * which are being dispatched or processed.
+ */
+class ProcessorRegistry {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    /**
+     * @return lanes of all registered processors in registration order. The array must not be
+     * modified.
+     */
+    ProcessorLane[] lanes() {
+        return snapshot.get().lanes;
+    }
+
+    /**
+     * @return lane of the processor or {@code null} if processor is not registered.
+     */
+    ProcessorLane get(FrameProcessor processor) {
+        return snapshot.get().lanesByProcessor.get(processor);
+    }
+
+    /**
+     * Registers the lane unless its processor is already registered.
+     *
+     * @return {@code true} if lane was registered.
+     */
+    boolean add(ProcessorLane lane, FrameProcessor processor) {
+        while (true) {
+            Snapshot current = snapshot.get();
+
+            if (current.lanesByProcessor.containsKey(processor)) {
+                return false;
+            }
+
+            Map<FrameProcessor, ProcessorLane> lanesByProcessor = new LinkedHashMap<>(current.lanesByProcessor);
+            lanesByProcessor.put(processor, lane);
+
+            if (snapshot.compareAndSet(current, new Snapshot(lanesByProcessor))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Unregisters the processor.
+     *
+     * @return lane of the processor or {@code null} if processor was not registered.
+     */
+    ProcessorLane remove(FrameProcessor processor) {
+        while (true) {
+            Snapshot current = snapshot.get();
+
+            ProcessorLane lane = current.lanesByProcessor.get(processor);
+            if (lane == null) {
+                return null;
+            }
+
+            Map<FrameProcessor, ProcessorLane> lanesByProcessor = new LinkedHashMap<>(current.lanesByProcessor);
+            lanesByProcessor.remove(processor);
+
+            if (snapshot.compareAndSet(current, new Snapshot(lanesByProcessor))) {
+                return lane;
+            }
+        }
+    }
+
+    /**
+     * Immutable state of the registry.
+     */
+    private static class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.<FrameProcessor, ProcessorLane>emptyMap());
+
+        final Map<FrameProcessor, ProcessorLane> lanesByProcessor;
+        final ProcessorLane[] lanes;
+
+        Snapshot(Map<FrameProcessor, ProcessorLane> lanesByProcessor) {
+            this.lanesByProcessor = Collections.unmodifiableMap(lanesByProcessor);
+            this.lanes = lanesByProcessor.values().toArray(new ProcessorLane[lanesByProcessor.size()]);
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+package io.fotoapparat.preview;
+
+/**
+ * Snapshot of counters of a single {@link FrameProcessor}.
+ */
+public class ProcessorStatistics {
+
+    /**
+     * Number of frames which were queued for the processor.
+     */
+    public final long deliveredFrames;
+
+    /**
+     * Number of frames which were skipped because of {@link ProcessorOptions#frameInterval} or
+     * {@link ProcessorOptions#maxFrameRate}. Skipped frames are never queued.
+     */
+    public final long skippedFrames;
+
+    /**
+     * Number of frames which were passed to the processor.
+     */
+    public final long processedFrames;
+
+    /**
+     * Number of frames which were dropped by {@link BackpressurePolicy} because the processor did
+     * not keep up.
+     */
+    public final long droppedFrames;
+
+    /**
+     * Number of frames on which the processor threw an exception.
+     */
+    public final long failedFrames;
+
+    /**
+     * Number of frames which took longer than {@link ProcessorOptions#timeBudgetNanos}.
+     */
+    public final long overBudgetFrames;
+
+    /**
+     * Processor currently receives only one of this many frames it would receive according to its
+     * {@link ProcessorOptions}, because it did not keep up. {@code 1} means it is not demoted.
+     */
+    public final int rateDivisor;
+
+    /**
+     * Total time in nanoseconds which the processor spent processing frames.
+     */
+    public final long processingTimeNanos;
+
+    public ProcessorStatistics(long deliveredFrames,
+                               long skippedFrames,
+                               long processedFrames,
+                               long droppedFrames,
+                               long failedFrames,
+                               long overBudgetFrames,
+                               int rateDivisor,
+                               long processingTimeNanos) {
+        this.deliveredFrames = deliveredFrames;
+        this.skippedFrames = skippedFrames;
+        this.processedFrames = processedFrames;
+        this.droppedFrames = droppedFrames;
+        this.failedFrames = failedFrames;
+        this.overBudgetFrames = overBudgetFrames;
+        this.rateDivisor = rateDivisor;
+        this.processingTimeNanos = processingTimeNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ProcessorStatistics that = (ProcessorStatistics) o;
+
+        return deliveredFrames == that.deliveredFrames
+                && skippedFrames == that.skippedFrames
+                && processedFrames == that.processedFrames
+                && droppedFrames == that.droppedFrames
+                && failedFrames == that.failedFrames
+                && overBudgetFrames == that.overBudgetFrames
+                && rateDivisor == that.rateDivisor
+                && processingTimeNanos == that.processingTimeNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (deliveredFrames ^ (deliveredFrames >>> 32));
+        result = 31 * result + (int) (skippedFrames ^ (skippedFrames >>> 32));
+        result = 31 * result + (int) (processedFrames ^ (processedFrames >>> 32));
+        result = 31 * result + (int) (droppedFrames ^ (droppedFrames >>> 32));
+        result = 31 * result + (int) (failedFrames ^ (failedFrames >>> 32));
+        result = 31 * result + (int) (overBudgetFrames ^ (overBudgetFrames >>> 32));
+        result = 31 * result + rateDivisor;
+        result = 31 * result + (int) (processingTimeNanos ^ (processingTimeNanos >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessorStatistics{" +
+                "deliveredFrames=" + deliveredFrames +
+                ", skippedFrames=" + skippedFrames +
+                ", processedFrames=" + processedFrames +
+                ", droppedFrames=" + droppedFrames +
+                ", failedFrames=" + failedFrames +
+                ", overBudgetFrames=" + overBudgetFrames +
+                ", rateDivisor=" + rateDivisor +
+                ", processingTimeNanos=" + processingTimeNanos +
+                '}';
+    }
+
+}
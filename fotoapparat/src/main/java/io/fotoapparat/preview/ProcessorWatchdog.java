@@ -0,0 +1,121 @@
+package io.fotoapparat.preview;
+
+/**
+ * Watches how long a {@link FrameProcessor} takes and whether it fails.
+ * <p>
+ * A processor which fails or exceeds its time budget for several frames in a row is demoted: the
+ * rate at which it receives frames is halved, down to a fixed minimum. A demoted processor which
+ * stays within its budget for a while is promoted back step by step. Every failure, overrun and
+ * change of the rate is reported to {@link ProcessorOptions#eventListener}.
+ * <p>
+ * Called only from the worker thread of the lane, except for {@link #getRateDivisor()}.
+ */
+class ProcessorWatchdog {
+
+    /**
+     * Number of failures or overruns in a row after which processor is demoted.
+     */
+    static final int DEMOTION_STRIKES = 3;
+
+    /**
+     * Number of frames within the budget in a row after which demoted processor is promoted.
+     */
+    static final int PROMOTION_FRAMES = 30;
+
+    /**
+     * Processor is never demoted below this fraction of its normal rate.
+     */
+    static final int MAX_RATE_DIVISOR = 8;
+
+    private final FrameProcessor processor;
+    private final long timeBudgetNanos;
+    private final ProcessorEventListener eventListener;
+    private final FrameSampler sampler;
+
+    private int strikes = 0;
+    private int framesWithinBudget = 0;
+    private volatile int rateDivisor = 1;
+
+    ProcessorWatchdog(FrameProcessor processor,
+                      ProcessorOptions options,
+                      FrameSampler sampler) {
+        this.processor = processor;
+        this.timeBudgetNanos = options.timeBudgetNanos;
+        this.eventListener = options.eventListener;
+        this.sampler = sampler;
+    }
+
+    /**
+     * Called after the processor is done with a frame.
+     *
+     * @param durationNanos how long processing took.
+     * @param failure       exception thrown by the processor or {@code null} if it succeeded.
+     * @return {@code true} if the processor exceeded its budget.
+     */
+    boolean onFrameProcessed(long durationNanos, Throwable failure) {
+        boolean overBudget = timeBudgetNanos > 0 && durationNanos > timeBudgetNanos;
+
+        if (failure != null) {
+            notifyListener(ProcessorEvent.Type.FAILED, durationNanos, failure);
+        } else if (overBudget) {
+            notifyListener(ProcessorEvent.Type.OVER_BUDGET, durationNanos, null);
+        }
+
+        if (failure != null || overBudget) {
+            onStrike(durationNanos);
+        } else {
+            onFrameWithinBudget(durationNanos);
+        }
+
+        return overBudget;
+    }
+
+    private void onStrike(long durationNanos) {
+        framesWithinBudget = 0;
+
+        if (++strikes < DEMOTION_STRIKES) {
+            return;
+        }
+        strikes = 0;
+
+        if (rateDivisor < MAX_RATE_DIVISOR) {
+            changeRateDivisor(rateDivisor * 2, ProcessorEvent.Type.DEMOTED, durationNanos);
+        }
+    }
+
+    private void onFrameWithinBudget(long durationNanos) {
+        strikes = 0;
+
+        if (rateDivisor == 1 || ++framesWithinBudget < PROMOTION_FRAMES) {
+            return;
+        }
+        framesWithinBudget = 0;
+
+        changeRateDivisor(rateDivisor / 2, ProcessorEvent.Type.PROMOTED, durationNanos);
+    }
+
+    private void changeRateDivisor(int rateDivisor, ProcessorEvent.Type type, long durationNanos) {
+        this.rateDivisor = rateDivisor;
+        sampler.setRateDivisor(rateDivisor);
+
+        notifyListener(type, durationNanos, null);
+    }
+
+    private void notifyListener(ProcessorEvent.Type type, long durationNanos, Throwable failure) {
+        try {
+            eventListener.onProcessorEvent(
+                    new ProcessorEvent(processor, type, durationNanos, rateDivisor, failure)
+            );
+        } catch (RuntimeException e) {
+            // Listener must not break the lane
+        }
+    }
+
+    /**
+     * @return processor receives only one of this many frames it would receive otherwise.
+     */
+    int getRateDivisor() {
+        return rateDivisor;
+    }
+
+}
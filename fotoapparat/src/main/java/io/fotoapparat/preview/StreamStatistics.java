@@ -0,0 +1,106 @@
+package io.fotoapparat.preview;
+
+/**
+ * Snapshot of timing counters of a {@link PreviewStream}. All times are in nanoseconds.
+ */
+public class StreamStatistics {
+
+    /**
+     * Statistics of a stream which did not dispatch any frames.
+     */
+    public static final StreamStatistics EMPTY = new StreamStatistics(0, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * Number of frames which were handed over to frame processors.
+     */
+    public final long dispatchedFrames;
+
+    /**
+     * Estimated number of frames which the camera did not deliver, judging by unusually long
+     * intervals between captured frames.
+     */
+    public final long lostFrames;
+
+    /**
+     * Average interval between capture times of consecutive frames.
+     */
+    public final long averageFrameIntervalNanos;
+
+    /**
+     * Longest interval between capture times of consecutive frames.
+     */
+    public final long maxFrameIntervalNanos;
+
+    /**
+     * Average time from capture of a frame until it is handed over to frame processors.
+     */
+    public final long averageDispatchLatencyNanos;
+
+    /**
+     * Average time from capture of a frame until a processor starts processing it.
+     */
+    public final long averageProcessingLatencyNanos;
+
+    /**
+     * Longest time from capture of a frame until a processor started processing it.
+     */
+    public final long maxProcessingLatencyNanos;
+
+    public StreamStatistics(long dispatchedFrames,
+                            long lostFrames,
+                            long averageFrameIntervalNanos,
+                            long maxFrameIntervalNanos,
+                            long averageDispatchLatencyNanos,
+                            long averageProcessingLatencyNanos,
+                            long maxProcessingLatencyNanos) {
+        this.dispatchedFrames = dispatchedFrames;
+        this.lostFrames = lostFrames;
+        this.averageFrameIntervalNanos = averageFrameIntervalNanos;
+        this.maxFrameIntervalNanos = maxFrameIntervalNanos;
+        this.averageDispatchLatencyNanos = averageDispatchLatencyNanos;
+        this.averageProcessingLatencyNanos = averageProcessingLatencyNanos;
+        this.maxProcessingLatencyNanos = maxProcessingLatencyNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StreamStatistics that = (StreamStatistics) o;
+
+        return dispatchedFrames == that.dispatchedFrames
+                && lostFrames == that.lostFrames
+                && averageFrameIntervalNanos == that.averageFrameIntervalNanos
+                && maxFrameIntervalNanos == that.maxFrameIntervalNanos
+                && averageDispatchLatencyNanos == that.averageDispatchLatencyNanos
+                && averageProcessingLatencyNanos == that.averageProcessingLatencyNanos
+                && maxProcessingLatencyNanos == that.maxProcessingLatencyNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (dispatchedFrames ^ (dispatchedFrames >>> 32));
+        result = 31 * result + (int) (lostFrames ^ (lostFrames >>> 32));
+        result = 31 * result + (int) (averageFrameIntervalNanos ^ (averageFrameIntervalNanos >>> 32));
+        result = 31 * result + (int) (maxFrameIntervalNanos ^ (maxFrameIntervalNanos >>> 32));
+        result = 31 * result + (int) (averageDispatchLatencyNanos ^ (averageDispatchLatencyNanos >>> 32));
+        result = 31 * result + (int) (averageProcessingLatencyNanos ^ (averageProcessingLatencyNanos >>> 32));
+        result = 31 * result + (int) (maxProcessingLatencyNanos ^ (maxProcessingLatencyNanos >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamStatistics{" +
+                "dispatchedFrames=" + dispatchedFrames +
+                ", lostFrames=" + lostFrames +
+                ", averageFrameIntervalNanos=" + averageFrameIntervalNanos +
+                ", maxFrameIntervalNanos=" + maxFrameIntervalNanos +
+                ", averageDispatchLatencyNanos=" + averageDispatchLatencyNanos +
+                ", averageProcessingLatencyNanos=" + averageProcessingLatencyNanos +
+                ", maxProcessingLatencyNanos=" + maxProcessingLatencyNanos +
+                '}';
+    }
+
+}
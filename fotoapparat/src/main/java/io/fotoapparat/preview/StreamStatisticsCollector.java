@@ -0,0 +1,113 @@
+package io.fotoapparat.preview;
+
+/**
+ * Aggregates frame intervals and latencies of a single stream into {@link StreamStatistics}.
+ * Frames without {@link Frame#getTimestampNanos()} are counted but do not affect timings. Thread safe.
+ */
+class StreamStatisticsCollector {
+
+    /**
+     * Interval which is this many times longer than the usual one is considered a gap.
+     */
+    private static final double GAP_FACTOR = 1.5;
+
+    private long dispatchedFrames = 0;
+    private long lostFrames = 0;
+
+    private long lastTimestampNanos = 0;
+    private long usualIntervalNanos = 0;
+    private long intervalSumNanos = 0;
+    private long intervalCount = 0;
+    private long maxIntervalNanos = 0;
+
+    private long dispatchLatencySumNanos = 0;
+    private long dispatchLatencyCount = 0;
+
+    private long processingLatencySumNanos = 0;
+    private long processingLatencyCount = 0;
+    private long maxProcessingLatencyNanos = 0;
+
+    /**
+     * Called once for every frame when it is handed over to processors.
+     */
+    synchronized void onFrameDispatched(Frame frame) {
+        dispatchedFrames++;
+
+        if (frame.getTimestampNanos() == 0) {
+            return;
+        }
+
+        if (frame.getDispatchTimestampNanos() != 0) {
+            dispatchLatencySumNanos += Math.max(0, frame.getDispatchTimestampNanos() - frame.getTimestampNanos());
+            dispatchLatencyCount++;
+        }
+
+        long intervalNanos = frame.getTimestampNanos() - lastTimestampNanos;
+
+        if (lastTimestampNanos != 0 && intervalNanos > 0) {
+            intervalSumNanos += intervalNanos;
+            intervalCount++;
+            maxIntervalNanos = Math.max(maxIntervalNanos, intervalNanos);
+            lostFrames += lostFramesWithin(intervalNanos);
+        }
+
+        lastTimestampNanos = frame.getTimestampNanos();
+    }
+
+    /**
+     * Estimates how many frames are missing within the interval. Intervals without missing frames
+     * update the usual interval, so that slow changes of the frame rate are not mistaken for gaps.
+     */
+    private long lostFramesWithin(long intervalNanos) {
+        if (usualIntervalNanos == 0) {
+            usualIntervalNanos = intervalNanos;
+            return 0;
+        }
+
+        if (intervalNanos > usualIntervalNanos * GAP_FACTOR) {
+            return Math.round((double) intervalNanos / usualIntervalNanos) - 1;
+        }
+
+        usualIntervalNanos += (intervalNanos - usualIntervalNanos) / 8;
+        return 0;
+    }
+
+    /**
+     * Called by a lane right before the processor receives the frame.
+     *
+     * @param nowNanos current time in {@link System#nanoTime()} time base.
+     */
+    synchronized void onFrameProcessing(Frame frame, long nowNanos) {
+        if (frame.getTimestampNanos() == 0) {
+            return;
+        }
+
+        long latencyNanos = Math.max(0, nowNanos - frame.getTimestampNanos());
+
+        processingLatencySumNanos += latencyNanos;
+        processingLatencyCount++;
+        maxProcessingLatencyNanos = Math.max(maxProcessingLatencyNanos, latencyNanos);
+    }
+
+    /**
+     * @return snapshot of current counters.
+     */
+    synchronized StreamStatistics getStatistics() {
+        return new StreamStatistics(
+                dispatchedFrames,
+                lostFrames,
+                average(intervalSumNanos, intervalCount),
+                maxIntervalNanos,
+                average(dispatchLatencySumNanos, dispatchLatencyCount),
+                average(processingLatencySumNanos, processingLatencyCount),
+                maxProcessingLatencyNanos
+        );
+    }
+
+    private static long average(long sum, long count) {
+        return count > 0
+                ? sum / count
+                : 0;
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.fotoapparat.result;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * {@link FutureTask} which notifies listeners as soon as it is completed, so that nobody has to
+ * block waiting for its result.
+ */
+public class ListenableFutureTask<T> extends FutureTask<T> {
+
+    private final List<Listener> listeners = new ArrayList<>();
+    private boolean completed = false;
+
+    public ListenableFutureTask(@NonNull Callable<T> callable) {
+        super(callable);
+    }
+
+    /**
+     * Registers a listener which is executed on the given executor once the task is completed,
+     * successfully, exceptionally or by cancellation. If the task is already completed, the
+     * listener is executed right away.
+     */
+    public void addListener(@NonNull Runnable listener, @NonNull Executor executor) {
+        synchronized (listeners) {
+            if (!completed) {
+                listeners.add(new Listener(listener, executor));
+                return;
+            }
+        }
+
+        executor.execute(listener);
+    }
+
+    @Override
+    protected void done() {
+        List<Listener> listenersToNotify;
+
+        synchronized (listeners) {
+            completed = true;
+
+            listenersToNotify = new ArrayList<>(listeners);
+            listeners.clear();
+        }
+
+        for (Listener listener : listenersToNotify) {
+            listener.executor.execute(listener.runnable);
+        }
+    }
+
+    private static class Listener {
+
+        final Runnable runnable;
+        final Executor executor;
+
+        Listener(Runnable runnable, Executor executor) {
+            this.runnable = runnable;
+            this.executor = executor;
+        }
+
+    }
+
+}
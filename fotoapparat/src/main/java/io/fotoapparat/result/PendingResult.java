@@ -2,13 +2,15 @@ package io.fotoapparat.result;
 
 import android.os.Handler;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import io.fotoapparat.result.adapter.Adapter;
 import io.fotoapparat.result.transformer.Transformer;
@@ -16,49 +18,104 @@ import io.fotoapparat.result.transformer.Transformer;
 /**
  * Result which might not be readily available at the given moment but will be available in the
  * future.
+ * <p>
+ * Transformations and callbacks are chained to the completion of the result, so no thread waits
+ * for it and results of different photos are processed concurrently.
  */
 public class PendingResult<T> {
 
-    private static final Executor TASK_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Executor TASK_EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors()
+    );
+    private static final Executor WAITING_EXECUTOR = Executors.newCachedThreadPool();
     private static final Handler MAIN_THREAD_HANDLER = new Handler();
 
     private final Future<T> future;
+    private final ListenableFutureTask<T> completion;
     private final Executor executor;
 
     PendingResult(Future<T> future,
                   Executor executor) {
+        this(future, executor, executor);
+    }
+
+    private PendingResult(Future<T> future,
+                          Executor executor,
+                          Executor waitingExecutor) {
         this.future = future;
+        this.completion = listenable(future, waitingExecutor);
         this.executor = executor;
     }
 
     /**
-     * @return {@link PendingResult} which waits for the result of {@link Future}.
+     * @return {@link PendingResult} which waits for the result of {@link Future}. Results of
+     * {@link ListenableFutureTask} are waited for without blocking any thread.
      */
     public static <T> PendingResult<T> fromFuture(@NonNull Future<T> future) {
         return new PendingResult<>(
                 future,
-                TASK_EXECUTOR
+                TASK_EXECUTOR,
+                WAITING_EXECUTOR
         );
     }
 
     /**
-     * Transforms result from one type to another.
+     * Futures which can not notify about their completion are waited for by a thread of the
+     * given executor.
+     */
+    private static <T> ListenableFutureTask<T> listenable(final Future<T> future,
+                                                          Executor waitingExecutor) {
+        if (future instanceof ListenableFutureTask) {
+            return (ListenableFutureTask<T>) future;
+        }
+
+        ListenableFutureTask<T> waitTask = new ListenableFutureTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                try {
+                    return future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+        });
+
+        waitingExecutor.execute(waitTask);
+
+        return waitTask;
+    }
+
+    /**
+     * Transforms result from one type to another. Transformation starts as soon as the result is
+     * available. If the result is cancelled, the transformed result is cancelled as well.
      *
      * @param transformer function which performs transformation of current result type to a new
      *                    type.
      * @return {@link PendingResult} of another type.
      */
     public <R> PendingResult<R> transform(@NonNull final Transformer<T, R> transformer) {
-        FutureTask<R> transformTask = new FutureTask<>(new Callable<R>() {
+        final ListenableFutureTask<R> transformTask = new ListenableFutureTask<>(new Callable<R>() {
             @Override
             public R call() throws Exception {
                 return transformer.transform(
-                        future.get()
+                        completion.get()
                 );
             }
         });
 
-        executor.execute(transformTask);
+        completion.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (completion.isCancelled()) {
+                    transformTask.cancel(false);
+                } else {
+                    transformTask.run();
+                }
+            }
+        }, executor);
 
         return new PendingResult<>(
                 transformTask,
@@ -72,7 +129,44 @@ public class PendingResult<T> {
      * @return result of execution.
      */
     public T await() throws ExecutionException, InterruptedException {
-        return future.get();
+        return completion.get();
+    }
+
+    /**
+     * Blocks current thread until result is available, but no longer than given time.
+     *
+     * @return result of execution.
+     * @throws TimeoutException if the result is not available in time. The operation is not
+     *                          cancelled by that, see {@link #cancel()}.
+     */
+    public T await(long timeout, @NonNull TimeUnit unit) throws ExecutionException, InterruptedException, TimeoutException {
+        return completion.get(timeout, unit);
+    }
+
+    /**
+     * Cancels the operation which produces the result. Operation which waits for the camera is
+     * interrupted, so that operations queued after it can run. Results which are transformed
+     * from this one are cancelled as well, while the result this one was transformed from is
+     * not affected.
+     *
+     * @return {@code false} if the result could not be cancelled because it is already
+     * available.
+     */
+    public boolean cancel() {
+        boolean cancelled = completion.cancel(true);
+
+        if (future != completion) {
+            future.cancel(true);
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * @return {@code true} if the result was cancelled before it became available.
+     */
+    public boolean isCancelled() {
+        return completion.isCancelled();
     }
 
     /**
@@ -88,21 +182,43 @@ public class PendingResult<T> {
 
     /**
      * Notifies given callback as soon as result is available. Callback will always be notified on
-     * a main thread.
+     * a main thread. Callback is not notified if the result is cancelled or if the operation
+     * failed, use {@link #whenAvailable(Callback, FailureCallback)} to learn about failures.
      */
     public void whenAvailable(@NonNull final Callback<T> callback) {
-        executor.execute(new Runnable() {
+        whenAvailable(callback, null);
+    }
+
+    /**
+     * Notifies given callback as soon as result is available, or the failure callback if the
+     * operation failed, for example because the camera did not take the picture in time. Both
+     * callbacks are notified on a main thread. Neither is notified if the result is cancelled or
+     * if it can not be produced for a recoverable reason, such as a photo without a thumbnail.
+     */
+    public void whenAvailable(@NonNull final Callback<T> callback,
+                              @Nullable final FailureCallback failureCallback) {
+        completion.addListener(new Runnable() {
             @Override
             public void run() {
-                try {
-                    final T result = getResultUnsafe();
+                if (completion.isCancelled()) {
+                    return;
+                }
 
-                    notifyCallbackOnMainThread(result, callback);
+                final T result;
+
+                try {
+                    result = getResultUnsafe();
                 } catch (RecoverableRuntimeException e) {
                     // Ignore
+                    return;
+                } catch (RuntimeException e) {
+                    notifyFailureOnMainThread(e, failureCallback);
+                    return;
                 }
+
+                notifyCallbackOnMainThread(result, callback);
             }
-        });
+        }, executor);
     }
 
     /**
@@ -122,10 +238,29 @@ public class PendingResult<T> {
         });
     }
 
+    private void notifyFailureOnMainThread(final RuntimeException failure,
+                                           @Nullable final FailureCallback failureCallback) {
+        if (failureCallback == null) {
+            return;
+        }
+
+        MAIN_THREAD_HANDLER.post(new Runnable() {
+            @Override
+            public void run() {
+                failureCallback.onFailure(failure);
+            }
+        });
+    }
+
     private T getResultUnsafe() {
         try {
-            return future.get();
-        } catch (InterruptedException | ExecutionException e) {
+            return completion.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
@@ -142,4 +277,18 @@ public class PendingResult<T> {
 
     }
 
+    /**
+     * Notified when the operation which produces the result failed.
+     */
+    public interface FailureCallback {
+
+        /**
+         * Called as soon as the operation failed.
+         *
+         * @param cause reason of the failure.
+         */
+        void onFailure(Throwable cause);
+
+    }
+
 }
@@ -1,15 +1,18 @@
 package io.fotoapparat.result;
 
 import android.graphics.Bitmap;
+import android.graphics.Rect;
 
 import java.io.File;
 import java.util.concurrent.Future;
 
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.photo.BitmapPhoto;
+import io.fotoapparat.photo.BitmapPool;
 import io.fotoapparat.photo.Photo;
 import io.fotoapparat.result.transformer.BitmapPhotoTransformer;
 import io.fotoapparat.result.transformer.SaveToFileTransformer;
+import io.fotoapparat.result.transformer.ThumbnailTransformer;
 import io.fotoapparat.result.transformer.Transformer;
 
 import static io.fotoapparat.result.transformer.SizeTransformers.originalSize;
@@ -60,6 +63,55 @@ public class PhotoResult {
                 .transform(new BitmapPhotoTransformer(sizeTransformer));
     }
 
+    /**
+     * Converts a region of the result to {@link Bitmap} of size provided by {@link Transformer}.
+     * Only the region is decoded, so it is much cheaper than decoding the whole photo and cropping
+     * it afterwards.
+     *
+     * @param region          Region of the photo in pixels of the encoded image, that is before
+     *                        rotation by {@link Photo#rotationDegrees}. Parts outside of the
+     *                        photo are ignored.
+     * @param sizeTransformer Given the size of the region, returns the updated size so that
+     *                        region will be downscaled, upscaled or unchanged.
+     * @return result as pending {@link BitmapPhoto} which will be available at some point in the
+     * future.
+     */
+    public PendingResult<BitmapPhoto> toBitmap(Rect region,
+                                               Transformer<Size, Size> sizeTransformer) {
+        return pendingResult
+                .transform(new BitmapPhotoTransformer(sizeTransformer, region, null));
+    }
+
+    /**
+     * Converts result to {@link Bitmap} of size provided by {@link Transformer}, reusing memory of
+     * bitmaps from the given pool. Call {@link BitmapPhoto#recycle()} to return the bitmap to the
+     * pool once it is no longer displayed.
+     *
+     * @param sizeTransformer Given the original size of the photo, returns the updated size so that
+     *                        photo will be downscaled, upscaled or unchanged.
+     * @param bitmapPool      Pool of bitmaps to decode into.
+     * @return result as pending {@link BitmapPhoto} which will be available at some point in the
+     * future.
+     */
+    public PendingResult<BitmapPhoto> toBitmap(Transformer<Size, Size> sizeTransformer,
+                                               BitmapPool bitmapPool) {
+        return pendingResult
+                .transform(new BitmapPhotoTransformer(sizeTransformer, null, bitmapPool));
+    }
+
+    /**
+     * Converts the thumbnail embedded into EXIF of the photo to {@link Bitmap}. The photo itself
+     * is not decoded, so this is much faster than {@link #toBitmap()} and is suitable for quick
+     * previews. Result is not delivered if the photo has no thumbnail.
+     *
+     * @return result as pending {@link BitmapPhoto} which will be available at some point in the
+     * future.
+     */
+    public PendingResult<BitmapPhoto> toThumbnail() {
+        return pendingResult
+                .transform(new ThumbnailTransformer());
+    }
+
     /**
      * Saves result to file.
      *
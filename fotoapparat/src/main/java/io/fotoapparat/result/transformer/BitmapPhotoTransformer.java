@@ -2,42 +2,188 @@ package io.fotoapparat.result.transformer;
 
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Build;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
 
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.photo.BitmapPhoto;
+import io.fotoapparat.photo.BitmapPool;
 import io.fotoapparat.photo.Photo;
 import io.fotoapparat.result.RecoverableRuntimeException;
+import io.fotoapparat.util.JpegHeader;
 
 /**
  * Creates {@link BitmapPhoto} out of {@link Photo}.
+ * <p>
+ * Photo is decoded already subsampled by the largest power of two which keeps it at least as
+ * large as the desired size, so that small bitmaps never need a full size bitmap in memory. The
+ * result is then scaled once to the exact size. Optionally only a region of the photo is decoded.
+ * <p>
+ * If a {@link BitmapPool} is given, photo is decoded into a pooled bitmap whenever the platform
+ * allows it, and bitmaps which are no longer needed are returned to the pool.
  */
 public class BitmapPhotoTransformer implements Transformer<Photo, BitmapPhoto> {
 
     private final Transformer<Size, Size> sizeTransformer;
+    @Nullable
+    private final Rect region;
+    @Nullable
+    private final BitmapPool bitmapPool;
 
     public BitmapPhotoTransformer(Transformer<Size, Size> sizeTransformer) {
+        this(sizeTransformer, null, null);
+    }
+
+    /**
+     * @param sizeTransformer Given the size of the decoded region, returns the size of the bitmap.
+     * @param region          Region of the photo to decode, in pixels of the encoded image which
+     *                        is not rotated by {@link Photo#rotationDegrees}. {@code null} to
+     *                        decode the whole photo.
+     * @param bitmapPool      Pool of bitmaps to decode into or {@code null} to always allocate
+     *                        new bitmaps.
+     */
+    public BitmapPhotoTransformer(Transformer<Size, Size> sizeTransformer,
+                                  @Nullable Rect region,
+                                  @Nullable BitmapPool bitmapPool) {
         this.sizeTransformer = sizeTransformer;
+        this.region = region;
+        this.bitmapPool = bitmapPool;
     }
 
     @Override
     public BitmapPhoto transform(Photo input) {
-        Size originalSize = readImageSize(input);
+        Size imageSize = readImageSize(input);
+        Rect decodedRegion = region != null
+                ? clampRegion(region, imageSize)
+                : null;
+
+        Size originalSize = decodedRegion != null
+                ? new Size(decodedRegion.width(), decodedRegion.height())
+                : imageSize;
         Size desiredSize = sizeTransformer.transform(originalSize);
 
-        float scaleFactor = computeScaleFactor(originalSize, desiredSize);
+        int sampleSize = computeSampleSize(originalSize, desiredSize);
 
-        Bitmap bitmap = readImage(input, scaleFactor);
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
 
-        ensureBitmapDecoded(bitmap);
+        if (bitmapPool != null) {
+            options.inMutable = true;
 
-        if (bitmap.getWidth() != desiredSize.width || bitmap.getHeight() != desiredSize.height) {
-            bitmap = Bitmap.createScaledBitmap(bitmap, desiredSize.width, desiredSize.height, true);
+            if (canDecodeIntoBitmap(sampleSize, decodedRegion != null)) {
+                options.inBitmap = bitmapPool.get(
+                        divideRoundingUp(originalSize.width, sampleSize),
+                        divideRoundingUp(originalSize.height, sampleSize),
+                        Bitmap.Config.ARGB_8888
+                );
+            }
         }
 
+        Bitmap bitmap = decode(input, decodedRegion, options);
+
+        ensureBitmapDecoded(bitmap);
+
         return new BitmapPhoto(
+                scaleToSize(bitmap, desiredSize),
+                input.rotationDegrees,
+                bitmapPool
+        );
+    }
+
+    /**
+     * Before KitKat a bitmap can be reused only for an image of exactly the same size, which rules
+     * out subsampling. Region decoder can reuse bitmaps since Jelly Bean.
+     */
+    private static boolean canDecodeIntoBitmap(int sampleSize, boolean regionDecode) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return true;
+        }
+
+        int minVersion = regionDecode
+                ? Build.VERSION_CODES.JELLY_BEAN
+                : Build.VERSION_CODES.HONEYCOMB;
+
+        return Build.VERSION.SDK_INT >= minVersion && sampleSize == 1;
+    }
+
+    private static int divideRoundingUp(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Pooled bitmap which turns out to be unsuitable is returned to the pool and the image is
+     * decoded into a new bitmap.
+     */
+    private Bitmap decode(Photo input, @Nullable Rect decodedRegion, BitmapFactory.Options options) {
+        try {
+            return decodedRegion != null
+                    ? readRegion(input, decodedRegion, options)
+                    : readImage(input, options);
+        } catch (IllegalArgumentException e) {
+            if (options.inBitmap == null || bitmapPool == null) {
+                throw e;
+            }
+
+            bitmapPool.put(options.inBitmap);
+            options.inBitmap = null;
+
+            return decode(input, decodedRegion, options);
+        }
+    }
+
+    private Bitmap scaleToSize(Bitmap bitmap, Size size) {
+        if (bitmap.getWidth() == size.width && bitmap.getHeight() == size.height) {
+            return bitmap;
+        }
+
+        Bitmap scaledBitmap = bitmapPool != null
+                ? scaleIntoPooledBitmap(bitmap, size, bitmapPool)
+                : null;
+
+        if (scaledBitmap == null) {
+            scaledBitmap = Bitmap.createScaledBitmap(bitmap, size.width, size.height, true);
+        }
+
+        if (scaledBitmap != bitmap) {
+            releaseBitmap(bitmap);
+        }
+
+        return scaledBitmap;
+    }
+
+    @Nullable
+    private static Bitmap scaleIntoPooledBitmap(Bitmap bitmap, Size size, BitmapPool bitmapPool) {
+        Bitmap.Config config = bitmap.getConfig() != null
+                ? bitmap.getConfig()
+                : Bitmap.Config.ARGB_8888;
+
+        Bitmap target = bitmapPool.get(size.width, size.height, config);
+        if (target == null) {
+            return null;
+        }
+
+        new Canvas(target).drawBitmap(
                 bitmap,
-                input.rotationDegrees
+                null,
+                new Rect(0, 0, size.width, size.height),
+                new Paint(Paint.FILTER_BITMAP_FLAG)
         );
+
+        return target;
+    }
+
+    private void releaseBitmap(Bitmap bitmap) {
+        if (bitmapPool != null) {
+            bitmapPool.put(bitmap);
+        } else {
+            bitmap.recycle();
+        }
     }
 
     private void ensureBitmapDecoded(Bitmap bitmap) {
@@ -46,32 +192,85 @@ public class BitmapPhotoTransformer implements Transformer<Photo, BitmapPhoto> {
         }
     }
 
-    private Bitmap readImage(Photo image, float scaleFactor) {
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inSampleSize = (int) scaleFactor;
-
+    private Bitmap readImage(Photo image, BitmapFactory.Options options) {
         return BitmapFactory.decodeByteArray(
                 image.encodedImage,
                 0,
-                image.encodedImage.length
+                image.encodedImageLength,
+                options
         );
     }
 
-    private float computeScaleFactor(Size originalSize, Size desiredSize) {
-        return Math.min(
-                originalSize.width / (float) desiredSize.width,
-                originalSize.height / (float) desiredSize.height
+    private Bitmap readRegion(Photo image, Rect region, BitmapFactory.Options options) {
+        BitmapRegionDecoder decoder;
+
+        try {
+            decoder = BitmapRegionDecoder.newInstance(
+                    image.encodedImage,
+                    0,
+                    image.encodedImageLength,
+                    false
+            );
+        } catch (IOException e) {
+            throw new UnableToDecodeBitmapException();
+        }
+
+        try {
+            return decoder.decodeRegion(region, options);
+        } finally {
+            decoder.recycle();
+        }
+    }
+
+    private static Rect clampRegion(Rect region, Size imageSize) {
+        Rect clampedRegion = new Rect(
+                Math.max(0, region.left),
+                Math.max(0, region.top),
+                Math.min(imageSize.width, region.right),
+                Math.min(imageSize.height, region.bottom)
         );
+
+        if (clampedRegion.left >= clampedRegion.right || clampedRegion.top >= clampedRegion.bottom) {
+            throw new IllegalArgumentException("Region " + region + " is outside of the photo of size " + imageSize);
+        }
+
+        return clampedRegion;
     }
 
+    /**
+     * @return the largest power of two by which the original size can be divided while staying at
+     * least as large as the desired size in both dimensions. {@code 1} if the photo is upscaled.
+     */
+    static int computeSampleSize(Size originalSize, Size desiredSize) {
+        int desiredWidth = Math.max(1, desiredSize.width);
+        int desiredHeight = Math.max(1, desiredSize.height);
+        int sampleSize = 1;
+
+        while (originalSize.width / (sampleSize * 2) >= desiredWidth
+                && originalSize.height / (sampleSize * 2) >= desiredHeight) {
+            sampleSize *= 2;
+        }
+
+        return sampleSize;
+    }
+
+    /**
+     * Size is read from the JPEG header. Only if the header can not be parsed, the decoder is
+     * asked for the bounds.
+     */
     private Size readImageSize(Photo image) {
+        Size headerSize = JpegHeader.of(image).size;
+        if (headerSize != null) {
+            return headerSize;
+        }
+
         BitmapFactory.Options options = new BitmapFactory.Options();
         options.inJustDecodeBounds = true;
 
         BitmapFactory.decodeByteArray(
                 image.encodedImage,
                 0,
-                image.encodedImage.length,
+                image.encodedImageLength,
                 options
         );
 
@@ -86,6 +285,8 @@ public class BitmapPhotoTransformer implements Transformer<Photo, BitmapPhoto> {
      */
     private static class UnableToDecodeBitmapException extends RecoverableRuntimeException {
 
+        private static final long serialVersionUID = 1L;
+
         public UnableToDecodeBitmapException() {
             super("Unable to decode bitmap");
         }
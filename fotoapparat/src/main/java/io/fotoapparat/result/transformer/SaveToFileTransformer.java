@@ -11,6 +11,9 @@ import io.fotoapparat.util.ExifOrientationWriter;
 
 /**
  * Saves {@link Photo} to file.
+ * <p>
+ * EXIF orientation is written together with the image, so the file is written once. Only photos
+ * whose EXIF can not be patched in place are rewritten afterwards.
  */
 public class SaveToFileTransformer implements Transformer<Photo, Void> {
 
@@ -38,9 +41,11 @@ public class SaveToFileTransformer implements Transformer<Photo, Void> {
         BufferedOutputStream outputStream = outputStream();
 
         try {
-            saveImage(input, outputStream);
+            boolean orientationWritten = saveImage(input, outputStream);
 
-            exifOrientationWriter.writeExifOrientation(file, input);
+            if (!orientationWritten) {
+                exifOrientationWriter.writeExifOrientation(file, input);
+            }
         } catch (IOException e) {
             throw new FileSaveException(e);
         }
@@ -48,10 +53,12 @@ public class SaveToFileTransformer implements Transformer<Photo, Void> {
         return null;
     }
 
-    private void saveImage(Photo input, BufferedOutputStream outputStream) throws IOException {
+    private boolean saveImage(Photo input, BufferedOutputStream outputStream) throws IOException {
         try {
-            outputStream.write(input.encodedImage);
+            boolean orientationWritten = exifOrientationWriter.writeWithExifOrientation(input, outputStream);
             outputStream.flush();
+
+            return orientationWritten;
         } finally {
             outputStream.close();
         }
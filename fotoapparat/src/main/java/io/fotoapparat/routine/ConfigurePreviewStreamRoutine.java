@@ -1,33 +1,122 @@
 package io.fotoapparat.routine;
 
+import android.support.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.preview.FrameProcessor;
 import io.fotoapparat.preview.PreviewStream;
+import io.fotoapparat.preview.ProcessorOptions;
+import io.fotoapparat.preview.ProcessorStatistics;
 
 /**
  * Configures {@link PreviewStream} of the camera.
+ * <p>
+ * Keeps track of frame processors, so that processors which were attached while camera was running
+ * are attached again after the camera is restarted. All methods must be called from the same
+ * thread which starts and stops the camera.
  */
 public class ConfigurePreviewStreamRoutine implements Runnable {
 
     private final CameraDevice cameraDevice;
-    private final FrameProcessor frameProcessor;
+
+    private final Map<FrameProcessor, ProcessorOptions> processors = new LinkedHashMap<>();
+
+    private boolean configured = false;
 
     public ConfigurePreviewStreamRoutine(CameraDevice cameraDevice,
                                          FrameProcessor frameProcessor) {
         this.cameraDevice = cameraDevice;
-        this.frameProcessor = frameProcessor;
+
+        if (frameProcessor != null) {
+            processors.put(frameProcessor, ProcessorOptions.defaults());
+        }
     }
 
     @Override
     public void run() {
-        if (frameProcessor == null) {
+        PreviewStream previewStream = cameraDevice.getPreviewStream();
+
+        for (Map.Entry<FrameProcessor, ProcessorOptions> entry : processors.entrySet()) {
+            previewStream.addProcessor(entry.getKey(), entry.getValue());
+        }
+        previewStream.start();
+
+        configured = true;
+    }
+
+    /**
+     * Detaches all processors from the preview stream before the camera is stopped. Processors are
+     * attached again on the next {@link #run()}.
+     */
+    public void stop() {
+        if (!configured) {
             return;
         }
+        configured = false;
 
         PreviewStream previewStream = cameraDevice.getPreviewStream();
 
-        previewStream.addProcessor(frameProcessor);
-        previewStream.start();
+        for (FrameProcessor processor : processors.keySet()) {
+            previewStream.removeProcessor(processor);
+        }
+    }
+
+    /**
+     * Attaches the processor. If preview stream is already running, processor starts receiving
+     * frames right away. If processor was already attached, does nothing.
+     */
+    public void addProcessor(@NonNull FrameProcessor processor,
+                             @NonNull ProcessorOptions options) {
+        if (processors.containsKey(processor)) {
+            return;
+        }
+
+        processors.put(processor, options);
+
+        if (configured) {
+            cameraDevice.getPreviewStream().addProcessor(processor, options);
+        }
+    }
+
+    /**
+     * Detaches the processor. If processor was not attached, does nothing.
+     */
+    public void removeProcessor(@NonNull FrameProcessor processor) {
+        if (processors.remove(processor) == null) {
+            return;
+        }
+
+        if (configured) {
+            cameraDevice.getPreviewStream().removeProcessor(processor);
+        }
+    }
+
+    /**
+     * @return statistics of all processors which are currently attached to the preview stream.
+     * Empty if the preview stream is not configured.
+     */
+    @NonNull
+    public Map<FrameProcessor, ProcessorStatistics> getStatistics() {
+        if (!configured) {
+            return Collections.emptyMap();
+        }
+
+        PreviewStream previewStream = cameraDevice.getPreviewStream();
+        Map<FrameProcessor, ProcessorStatistics> result = new LinkedHashMap<>();
+
+        for (FrameProcessor processor : processors.keySet()) {
+            ProcessorStatistics statistics = previewStream.getStatistics(processor);
+
+            if (statistics != null) {
+                result.put(processor, statistics);
+            }
+        }
+
+        return result;
     }
 
 }
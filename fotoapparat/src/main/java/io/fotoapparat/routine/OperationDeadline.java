@@ -0,0 +1,83 @@
+package io.fotoapparat.routine;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.result.ListenableFutureTask;
+
+/**
+ * Cancels camera operations which did not complete in time. Time is counted from the moment the
+ * operation is submitted, so waiting behind other operations counts as well.
+ * <p>
+ * Cancellation interrupts the operation, so it stops waiting for the camera and frees the
+ * executor for the next operation.
+ */
+public class OperationDeadline {
+
+    /**
+     * Deadline which never cancels anything.
+     */
+    public static final OperationDeadline NONE = new OperationDeadline(0, null);
+
+    private final long timeoutNanos;
+    @Nullable
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param timeoutNanos time in nanoseconds an operation is given to complete. {@code 0} for no
+     *                     deadline.
+     * @param scheduler    cancels operations when their time is up.
+     */
+    public OperationDeadline(long timeoutNanos,
+                             @Nullable ScheduledExecutorService scheduler) {
+        if (timeoutNanos < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeoutNanos);
+        }
+
+        if (timeoutNanos > 0 && scheduler == null) {
+            throw new IllegalArgumentException("Scheduler is mandatory for a deadline");
+        }
+
+        this.timeoutNanos = timeoutNanos;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Starts counting time of the operation. It is cancelled if it does not complete in time.
+     *
+     * @return the same operation.
+     */
+    public <T extends ListenableFutureTask<?>> T start(@NonNull final T operation) {
+        if (timeoutNanos == 0 || scheduler == null) {
+            return operation;
+        }
+
+        final Future<?> timeout = scheduler.schedule(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        operation.cancel(true);
+                    }
+                },
+                timeoutNanos,
+                TimeUnit.NANOSECONDS
+        );
+
+        operation.addListener(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        timeout.cancel(false);
+                    }
+                },
+                scheduler
+        );
+
+        return operation;
+    }
+
+}
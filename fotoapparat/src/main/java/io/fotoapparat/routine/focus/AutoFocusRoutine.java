@@ -5,6 +5,7 @@ import java.util.concurrent.Executor;
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.result.FocusResult;
 import io.fotoapparat.result.PendingResult;
+import io.fotoapparat.routine.OperationDeadline;
 
 /**
  * Performs auto focus.
@@ -13,18 +14,31 @@ public class AutoFocusRoutine {
 
     private final CameraDevice cameraDevice;
     private final Executor cameraExecutor;
+    private final OperationDeadline deadline;
 
     public AutoFocusRoutine(CameraDevice cameraDevice,
                             Executor cameraExecutor) {
+        this(cameraDevice, cameraExecutor, OperationDeadline.NONE);
+    }
+
+    /**
+     * @param deadline cancels focusing which does not complete in time.
+     */
+    public AutoFocusRoutine(CameraDevice cameraDevice,
+                            Executor cameraExecutor,
+                            OperationDeadline deadline) {
         this.cameraDevice = cameraDevice;
         this.cameraExecutor = cameraExecutor;
+        this.deadline = deadline;
     }
 
     /**
      * Perform auto focus asynchronously.
      */
     public PendingResult<FocusResult> autoFocus() {
-        AutoFocusTask autoFocusTask = new AutoFocusTask(cameraDevice);
+        AutoFocusTask autoFocusTask = deadline.start(
+                new AutoFocusTask(cameraDevice)
+        );
         cameraExecutor.execute(autoFocusTask);
 
         return PendingResult.fromFuture(autoFocusTask);
@@ -3,15 +3,15 @@ package io.fotoapparat.routine.focus;
 import android.support.annotation.NonNull;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.FutureTask;
 
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.result.FocusResult;
+import io.fotoapparat.result.ListenableFutureTask;
 
 /**
  * Tries to perform auto focus and returns result as {@link FocusResult}.
  */
-public class AutoFocusTask extends FutureTask<FocusResult> {
+public class AutoFocusTask extends ListenableFutureTask<FocusResult> {
 
     public AutoFocusTask(final CameraDevice cameraDevice) {
         super(new Callable<FocusResult>() {
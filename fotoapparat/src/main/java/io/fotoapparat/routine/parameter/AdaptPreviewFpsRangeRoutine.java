@@ -0,0 +1,289 @@
+package io.fotoapparat.routine.parameter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.log.Logger;
+import io.fotoapparat.parameter.Parameters;
+import io.fotoapparat.parameter.range.Range;
+import io.fotoapparat.parameter.update.UpdateRequest;
+import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameRingBuffer;
+import io.fotoapparat.preview.ProcessorStatistics;
+import io.fotoapparat.routine.ConfigurePreviewStreamRoutine;
+
+import static io.fotoapparat.parameter.selector.PreviewFpsRangeSelectors.rangeWithHighestFps;
+import static io.fotoapparat.parameter.selector.PreviewFpsRangeSelectors.slowestRangeReaching;
+import static io.fotoapparat.parameter.selector.Selectors.single;
+
+/**
+ * Periodically measures how many frames per second the frame processors can actually process and
+ * selects the slowest preview FPS range of the camera which still feeds them. Camera which does not
+ * produce frames which would be dropped anyway saves power and heats less.
+ * <p>
+ * Throughput of a processor is derived from time it spends processing frames, so it does not
+ * depend on the current FPS of the camera. To avoid flapping, FPS is raised only when processors
+ * get close to the current limit, a new range always leaves some headroom above the measured
+ * throughput, and a range is applied only after it was selected several times in a row.
+ * <p>
+ * {@link FrameRingBuffer} which keeps frames for zero shutter lag is not taken into account. It
+ * only copies frames, so it would always ask for the fastest range and keep the camera there.
+ */
+public class AdaptPreviewFpsRangeRoutine implements Runnable {
+
+    /**
+     * How often throughput of processors is measured.
+     */
+    static final long EVALUATION_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    /**
+     * Processor which processed fewer frames since the previous evaluation is not measured.
+     */
+    static final int MIN_PROCESSED_FRAMES = 5;
+
+    /**
+     * Selected range must reach the measured throughput multiplied by this factor.
+     */
+    static final float HEADROOM = 1.25f;
+
+    /**
+     * FPS is raised when the measured throughput multiplied by this factor exceeds the current
+     * limit.
+     */
+    static final float RAISE_THRESHOLD = 1.1f;
+
+    /**
+     * Number of evaluations in a row which must select the same new range before it is applied.
+     */
+    static final int STABLE_EVALUATIONS = 3;
+
+    private static final int FPS_RANGE_BOUNDS_SCALE = 1000;
+
+    private final CameraDevice cameraDevice;
+    private final ConfigurePreviewStreamRoutine configurePreviewStreamRoutine;
+    private final UpdateParametersRoutine updateParametersRoutine;
+    private final ScheduledExecutorService scheduler;
+    private final Executor cameraExecutor;
+    private final Logger logger;
+    private final boolean enabled;
+
+    private final Runnable evaluationTask = new Runnable() {
+        @Override
+        public void run() {
+            cameraExecutor.execute(AdaptPreviewFpsRangeRoutine.this);
+        }
+    };
+
+    private final Map<FrameProcessor, ProcessorStatistics> previousStatistics = new HashMap<>();
+
+    private ScheduledFuture<?> scheduledEvaluation = null;
+
+    private Range<Integer> currentRange = null;
+    private Range<Integer> candidateRange = null;
+    private int candidateEvaluations = 0;
+
+    public AdaptPreviewFpsRangeRoutine(CameraDevice cameraDevice,
+                                       ConfigurePreviewStreamRoutine configurePreviewStreamRoutine,
+                                       UpdateParametersRoutine updateParametersRoutine,
+                                       ScheduledExecutorService scheduler,
+                                       Executor cameraExecutor,
+                                       Logger logger,
+                                       boolean enabled) {
+        this.cameraDevice = cameraDevice;
+        this.configurePreviewStreamRoutine = configurePreviewStreamRoutine;
+        this.updateParametersRoutine = updateParametersRoutine;
+        this.scheduler = scheduler;
+        this.cameraExecutor = cameraExecutor;
+        this.logger = logger;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts routine. Does nothing if routine is not enabled.
+     */
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        scheduledEvaluation = scheduler.scheduleWithFixedDelay(
+                evaluationTask,
+                EVALUATION_INTERVAL_MILLIS,
+                EVALUATION_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Stops routine. The next start begins with the FPS range selected by initial parameters.
+     */
+    public void stop() {
+        if (scheduledEvaluation == null) {
+            return;
+        }
+
+        scheduledEvaluation.cancel(false);
+        scheduledEvaluation = null;
+
+        cameraExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                reset();
+            }
+        });
+    }
+
+    private void reset() {
+        previousStatistics.clear();
+        currentRange = null;
+        resetCandidate();
+    }
+
+    private void resetCandidate() {
+        candidateRange = null;
+        candidateEvaluations = 0;
+    }
+
+    /**
+     * Measures throughput of processors and updates FPS range if needed. Must be called from the
+     * thread which starts and stops the camera.
+     */
+    @Override
+    public void run() {
+        float requiredFps = requiredFps(
+                configurePreviewStreamRoutine.getStatistics()
+        );
+
+        if (requiredFps <= 0f) {
+            return;
+        }
+
+        Collection<Range<Integer>> supportedRanges = cameraDevice.getCapabilities().supportedPreviewFpsRanges();
+
+        if (supportedRanges.isEmpty()) {
+            return;
+        }
+
+        if (currentRange == null) {
+            currentRange = appliedRange(supportedRanges);
+        }
+
+        Range<Integer> desiredRange = desiredRange(requiredFps, supportedRanges);
+
+        if (desiredRange.equals(currentRange)) {
+            resetCandidate();
+            return;
+        }
+
+        if (!desiredRange.equals(candidateRange)) {
+            candidateRange = desiredRange;
+            candidateEvaluations = 0;
+        }
+
+        if (++candidateEvaluations >= STABLE_EVALUATIONS) {
+            applyRange(desiredRange, requiredFps);
+        }
+    }
+
+    /**
+     * @return range which the camera currently runs with. If the camera does not report it, the
+     * fastest supported range is assumed.
+     */
+    private Range<Integer> appliedRange(Collection<Range<Integer>> supportedRanges) {
+        Parameters parameters = cameraDevice.getCurrentParameters();
+        Range<Integer> range = parameters != null
+                ? parameters.<Range<Integer>>getValue(Parameters.Type.PREVIEW_FPS_RANGE)
+                : null;
+
+        if (range != null && supportedRanges.contains(range)) {
+            return range;
+        }
+
+        return rangeWithHighestFps().select(supportedRanges);
+    }
+
+    /**
+     * @return number of frames per second which the camera should produce so that the fastest
+     * processor is kept busy, or {@code 0} if there is not enough data. {@link FrameRingBuffer}
+     * is ignored.
+     */
+    private float requiredFps(Map<FrameProcessor, ProcessorStatistics> statistics) {
+        float result = 0f;
+
+        for (Map.Entry<FrameProcessor, ProcessorStatistics> entry : statistics.entrySet()) {
+            if (entry.getKey() instanceof FrameRingBuffer) {
+                continue;
+            }
+
+            ProcessorStatistics previous = previousStatistics.get(entry.getKey());
+
+            if (previous != null) {
+                result = Math.max(result, requiredFps(previous, entry.getValue()));
+            }
+        }
+
+        previousStatistics.clear();
+        previousStatistics.putAll(statistics);
+
+        return result;
+    }
+
+    private static float requiredFps(ProcessorStatistics previous, ProcessorStatistics current) {
+        long processedFrames = current.processedFrames - previous.processedFrames;
+        long processingTimeNanos = current.processingTimeNanos - previous.processingTimeNanos;
+        long deliveredFrames = current.deliveredFrames - previous.deliveredFrames;
+        long skippedFrames = current.skippedFrames - previous.skippedFrames;
+
+        if (processedFrames < MIN_PROCESSED_FRAMES || processingTimeNanos <= 0 || deliveredFrames <= 0) {
+            return 0f;
+        }
+
+        float processorFps = processedFrames * (float) TimeUnit.SECONDS.toNanos(1) / processingTimeNanos;
+        float streamFramesPerDeliveredFrame = (deliveredFrames + skippedFrames) / (float) deliveredFrames;
+
+        return processorFps * streamFramesPerDeliveredFrame;
+    }
+
+    private Range<Integer> desiredRange(float requiredFps,
+                                        Collection<Range<Integer>> supportedRanges) {
+        Range<Integer> range = slowestRangeReaching(
+                (int) Math.ceil(requiredFps * HEADROOM)
+        ).select(supportedRanges);
+
+        if (range.highest() < currentRange.highest()) {
+            return range;
+        }
+
+        boolean processorsStarving = requiredFps * RAISE_THRESHOLD * FPS_RANGE_BOUNDS_SCALE > currentRange.highest();
+
+        if (range.highest() > currentRange.highest() && processorsStarving) {
+            return range;
+        }
+
+        return currentRange;
+    }
+
+    private void applyRange(Range<Integer> range, float requiredFps) {
+        resetCandidate();
+        currentRange = range;
+
+        try {
+            updateParametersRoutine.updateParameters(
+                    UpdateRequest.builder()
+                            .previewFpsRange(single(range))
+                            .build()
+            );
+
+            logger.log("Preview FPS range changed to " + range + ", processors need " + requiredFps + " fps");
+        } catch (RuntimeException e) {
+            logger.log("Failed to change preview FPS range to " + range + " e: " + e.getMessage());
+        }
+    }
+
+}
@@ -35,7 +35,8 @@ public class UpdateParametersRoutine {
                 combineParameters(asList(
                         flashModeParameters(request, capabilities),
                         antiBandingModeParameters(request, capabilities),
-                        focusModeParameters(request, capabilities)
+                        focusModeParameters(request, capabilities),
+                        previewFpsRangeParameters(request, capabilities)
                 ))
         );
     }
@@ -61,6 +62,13 @@ public class UpdateParametersRoutine {
         );
     }
 
+    private Parameters previewFpsRangeParameters(@NonNull UpdateRequest request, Capabilities capabilities) {
+        return ParametersFactory.selectPreviewFpsRange(
+                capabilities,
+                optional(request.previewFpsRangeSelector)
+        );
+    }
+
     @NonNull
     private <Input, Output> SelectorFunction<Input, Output> optional(@Nullable SelectorFunction<Input, Output> selector) {
         return selector != null
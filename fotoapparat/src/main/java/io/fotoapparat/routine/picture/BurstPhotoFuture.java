@@ -0,0 +1,48 @@
+package io.fotoapparat.routine.picture;
+
+import java.util.concurrent.Callable;
+
+import io.fotoapparat.photo.Photo;
+import io.fotoapparat.result.ListenableFutureTask;
+
+/**
+ * {@link java.util.concurrent.Future} of a single photo of a burst. Completed by
+ * {@link TakePicturesTask} as soon as the photo is available, independently of the other photos.
+ */
+class BurstPhotoFuture extends ListenableFutureTask<Photo> {
+
+    private final DeliveredPhoto deliveredPhoto;
+
+    BurstPhotoFuture() {
+        this(new DeliveredPhoto());
+    }
+
+    private BurstPhotoFuture(DeliveredPhoto deliveredPhoto) {
+        super(deliveredPhoto);
+        this.deliveredPhoto = deliveredPhoto;
+    }
+
+    void complete(Photo photo) {
+        deliveredPhoto.photo = photo;
+        run();
+    }
+
+    void fail(Throwable cause) {
+        setException(cause);
+    }
+
+    /**
+     * Returns the photo which was delivered to the future.
+     */
+    private static class DeliveredPhoto implements Callable<Photo> {
+
+        private volatile Photo photo;
+
+        @Override
+        public Photo call() throws Exception {
+            return photo;
+        }
+
+    }
+
+}
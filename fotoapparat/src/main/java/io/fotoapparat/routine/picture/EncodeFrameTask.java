@@ -0,0 +1,70 @@
+package io.fotoapparat.routine.picture;
+
+import android.graphics.ImageFormat;
+import android.graphics.Rect;
+import android.graphics.YuvImage;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.Callable;
+
+import io.fotoapparat.photo.Photo;
+import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameRingBuffer;
+import io.fotoapparat.result.ListenableFutureTask;
+
+/**
+ * Encodes a preview frame taken out of {@link FrameRingBuffer} to JPEG and returns result as
+ * {@link Photo}. Frame is released back to the buffer once the task is done, also when it is
+ * cancelled before it started.
+ */
+class EncodeFrameTask extends ListenableFutureTask<Photo> {
+
+    private final FrameRingBuffer frameRingBuffer;
+    private final Frame frame;
+
+    /**
+     * @param rotationDegrees rotation of the photo at the moment when it was requested. Rotation
+     *                        of the frame is not used, since not every camera reports it.
+     */
+    EncodeFrameTask(FrameRingBuffer frameRingBuffer,
+                    final Frame frame,
+                    final int rotationDegrees,
+                    final int jpegQuality) {
+        super(new Callable<Photo>() {
+            @Override
+            public Photo call() throws Exception {
+                return new Photo(
+                        encode(frame, jpegQuality),
+                        rotationDegrees
+                );
+            }
+        });
+
+        this.frameRingBuffer = frameRingBuffer;
+        this.frame = frame;
+    }
+
+    @Override
+    protected void done() {
+        frameRingBuffer.release(frame);
+
+        super.done();
+    }
+
+    private static byte[] encode(Frame frame, int jpegQuality) {
+        int width = frame.size.width;
+        int height = frame.size.height;
+
+        YuvImage yuvImage = new YuvImage(frame.image, ImageFormat.NV21, width, height, null);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(frame.image.length / 4);
+
+        yuvImage.compressToJpeg(
+                new Rect(0, 0, width, height),
+                jpegQuality,
+                outputStream
+        );
+
+        return outputStream.toByteArray();
+    }
+
+}
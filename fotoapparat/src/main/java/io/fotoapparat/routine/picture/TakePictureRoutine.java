@@ -1,22 +1,95 @@
 package io.fotoapparat.routine.picture;
 
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.lens.FocusStatistics;
+import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameRingBuffer;
 import io.fotoapparat.result.PhotoResult;
+import io.fotoapparat.routine.OperationDeadline;
 
 /**
  * Takes picture.
+ * <p>
+ * In zero shutter lag mode the picture is made of the preview frame which was received at the
+ * moment of the request, so neither focusing nor the capture round trip delay it. If there is no
+ * recent frame, the picture is taken by the camera as usual.
  */
 public class TakePictureRoutine {
 
+    /**
+     * Frames which are older than this at the moment of the request are not used for zero shutter
+     * lag pictures.
+     */
+    static final long MAX_FRAME_AGE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * Camera is not focused again before a picture if the lens converged no longer than this ago.
+     * Zero, so the camera focuses before every picture unless enabled explicitly.
+     */
+    public static final long DEFAULT_FOCUS_FRESHNESS_NANOS = 0;
+
     private final CameraDevice cameraDevice;
     private final Executor cameraExecutor;
+    private final long focusFreshnessNanos;
+    @Nullable
+    private final FrameRingBuffer frameRingBuffer;
+    private final Executor encoderExecutor;
+    private final int jpegQuality;
+    private final OperationDeadline deadline;
 
     public TakePictureRoutine(CameraDevice cameraDevice,
                               Executor cameraExecutor) {
+        this(cameraDevice, cameraExecutor, DEFAULT_FOCUS_FRESHNESS_NANOS, null, null, 0);
+    }
+
+    public TakePictureRoutine(CameraDevice cameraDevice,
+                              Executor cameraExecutor,
+                              long focusFreshnessNanos,
+                              @Nullable FrameRingBuffer frameRingBuffer,
+                              Executor encoderExecutor,
+                              int jpegQuality) {
+        this(
+                cameraDevice,
+                cameraExecutor,
+                focusFreshnessNanos,
+                frameRingBuffer,
+                encoderExecutor,
+                jpegQuality,
+                OperationDeadline.NONE
+        );
+    }
+
+    /**
+     * @param focusFreshnessNanos how long in nanoseconds focus stays valid after the lens
+     *                        converged. Camera is not focused again before a picture within this
+     *                        time.
+     * @param frameRingBuffer recent preview frames for zero shutter lag pictures or {@code null}
+     *                        if pictures are always taken by the camera.
+     * @param encoderExecutor encodes zero shutter lag pictures.
+     * @param jpegQuality     quality of zero shutter lag pictures (1-100).
+     * @param deadline        cancels pictures which are not taken by the camera in time.
+     */
+    public TakePictureRoutine(CameraDevice cameraDevice,
+                              Executor cameraExecutor,
+                              long focusFreshnessNanos,
+                              @Nullable FrameRingBuffer frameRingBuffer,
+                              Executor encoderExecutor,
+                              int jpegQuality,
+                              OperationDeadline deadline) {
         this.cameraDevice = cameraDevice;
         this.cameraExecutor = cameraExecutor;
+        this.focusFreshnessNanos = focusFreshnessNanos;
+        this.frameRingBuffer = frameRingBuffer;
+        this.encoderExecutor = encoderExecutor;
+        this.jpegQuality = jpegQuality;
+        this.deadline = deadline;
     }
 
     /**
@@ -25,10 +98,76 @@ public class TakePictureRoutine {
      * @return {@link PhotoResult} which will deliver result asynchronously.
      */
     public PhotoResult takePicture() {
-        TakePictureTask takePictureTask = new TakePictureTask(cameraDevice);
+        long requestNanos = System.nanoTime();
+
+        if (frameRingBuffer != null) {
+            Frame frame = acquireRecentFrame(frameRingBuffer, requestNanos);
+
+            if (frame != null) {
+                EncodeFrameTask encodeFrameTask = new EncodeFrameTask(
+                        frameRingBuffer,
+                        frame,
+                        cameraDevice.getPhotoOrientation(),
+                        jpegQuality
+                );
+                encoderExecutor.execute(encodeFrameTask);
+
+                return PhotoResult.fromFuture(encodeFrameTask);
+            }
+        }
+
+        TakePictureTask takePictureTask = deadline.start(
+                new TakePictureTask(cameraDevice, focusFreshnessNanos)
+        );
         cameraExecutor.execute(takePictureTask);
 
         return PhotoResult.fromFuture(takePictureTask);
     }
 
+    @Nullable
+    private static Frame acquireRecentFrame(FrameRingBuffer frameRingBuffer, long requestNanos) {
+        Frame frame = frameRingBuffer.acquireClosestFrame(requestNanos);
+
+        if (frame != null && Math.abs(requestNanos - frame.getTimestampNanos()) > MAX_FRAME_AGE_NANOS) {
+            frameRingBuffer.release(frame);
+            return null;
+        }
+
+        return frame;
+    }
+
+    /**
+     * Takes a burst of pictures, returns immediately. Camera is focused only once before the first
+     * picture.
+     *
+     * @param count number of pictures. Must be positive.
+     * @return {@link PhotoResult}s in the order of capture. Every result is delivered as soon as
+     * its photo is available.
+     */
+    public List<PhotoResult> takePictures(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Number of pictures must be positive: " + count);
+        }
+
+        TakePicturesTask takePicturesTask = deadline.start(
+                new TakePicturesTask(cameraDevice, count, focusFreshnessNanos)
+        );
+
+        List<PhotoResult> results = new ArrayList<>(count);
+        for (BurstPhotoFuture future : takePicturesTask.getFutures()) {
+            results.add(PhotoResult.fromFuture(future));
+        }
+
+        cameraExecutor.execute(takePicturesTask);
+
+        return results;
+    }
+
+    /**
+     * @return how much time focusing took before pictures which were taken by the camera.
+     */
+    public FocusStatistics getFocusStatistics() {
+        return cameraDevice.getFocusState().getStatistics();
+    }
+
 }
@@ -1,54 +1,90 @@
 package io.fotoapparat.routine.picture;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.FutureTask;
 
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.lens.FocusResult;
+import io.fotoapparat.lens.FocusStateTracker;
 import io.fotoapparat.parameter.FocusMode;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.photo.Photo;
+import io.fotoapparat.result.ListenableFutureTask;
 
 /**
  * Takes photo and returns result as {@link Photo}.
+ * <p>
+ * Camera is not focused again if the lens converged recently, see {@link FocusStateTracker}.
  */
-class TakePictureTask extends FutureTask<Photo> {
+class TakePictureTask extends ListenableFutureTask<Photo> {
 
     private static final int MAX_FOCUS_ATTEMPTS = 3;
 
-    TakePictureTask(final CameraDevice cameraDevice) {
+    TakePictureTask(CameraDevice cameraDevice) {
+        this(cameraDevice, TakePictureRoutine.DEFAULT_FOCUS_FRESHNESS_NANOS);
+    }
+
+    /**
+     * @param focusFreshnessNanos how long in nanoseconds focus stays valid after the lens
+     *                            converged.
+     */
+    TakePictureTask(final CameraDevice cameraDevice,
+                    final long focusFreshnessNanos) {
         super(new Callable<Photo>() {
             @Override
             public Photo call() throws Exception {
-                adjustCameraForBestShot(cameraDevice);
+                adjustCameraForBestShot(cameraDevice, focusFreshnessNanos);
+
+                if (Thread.interrupted()) {
+                    // Cancelled while focusing
+                    throw new InterruptedException();
+                }
 
                 Photo photo = cameraDevice.takePicture();
 
                 startPreviewSafe(cameraDevice);
 
-
                 return photo;
             }
         });
     }
 
-    private static void adjustCameraForBestShot(CameraDevice cameraDevice) {
-        if (shouldFocus(cameraDevice)) {
-            FocusResult focusResult = autoFocus(cameraDevice);
+    static void adjustCameraForBestShot(CameraDevice cameraDevice, long focusFreshnessNanos) {
+        FocusStateTracker focusState = cameraDevice.getFocusState();
+        long startNanos = System.nanoTime();
+
+        boolean focusSkipped = true;
+        if (currentFocusMode(cameraDevice, focusState) != FocusMode.CONTINUOUS_FOCUS) {
+            focusSkipped = focusState.isFocusFresh(focusFreshnessNanos);
 
-            if (focusResult.needsExposureMeasurement) {
+            if (focusSkipped) {
+                // Exposure might have changed since the lens converged
                 cameraDevice.measureExposure();
+            } else {
+                FocusResult focusResult = autoFocus(cameraDevice);
+
+                if (focusResult.needsExposureMeasurement) {
+                    cameraDevice.measureExposure();
+                }
             }
         }
-    }
 
-    private static boolean shouldFocus(CameraDevice cameraDevice) {
-        return currentFocusMode(cameraDevice) != FocusMode.CONTINUOUS_FOCUS;
+        focusState.onCaptureFocused(
+                System.nanoTime() - startNanos,
+                focusSkipped
+        );
     }
 
-    private static Object currentFocusMode(CameraDevice cameraDevice) {
-        return cameraDevice.getCurrentParameters().getValue(Parameters.Type.FOCUS_MODE);
+    private static FocusMode currentFocusMode(CameraDevice cameraDevice,
+                                              FocusStateTracker focusState) {
+        FocusMode focusMode = focusState.getFocusMode();
+
+        if (focusMode == null) {
+            focusMode = cameraDevice.getCurrentParameters().getValue(Parameters.Type.FOCUS_MODE);
+            focusState.onFocusModeChanged(focusMode);
+        }
+
+        return focusMode;
     }
 
     private static FocusResult autoFocus(CameraDevice cameraDevice) {
@@ -63,7 +99,7 @@ class TakePictureTask extends FutureTask<Photo> {
         return focusResult;
     }
 
-    private static void startPreviewSafe(CameraDevice cameraDevice) {
+    static void startPreviewSafe(CameraDevice cameraDevice) {
         try {
             cameraDevice.startPreview();
         } catch (CameraException e) {
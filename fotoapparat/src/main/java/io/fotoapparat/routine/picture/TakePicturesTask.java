@@ -0,0 +1,166 @@
+package io.fotoapparat.routine.picture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.hardware.CameraException;
+import io.fotoapparat.hardware.operators.CaptureOperator;
+import io.fotoapparat.photo.Photo;
+import io.fotoapparat.result.ListenableFutureTask;
+
+import static io.fotoapparat.routine.picture.TakePictureTask.adjustCameraForBestShot;
+import static io.fotoapparat.routine.picture.TakePictureTask.startPreviewSafe;
+
+/**
+ * Takes a burst of photos. Camera is focused once for the whole burst and every photo is delivered
+ * to its own {@link BurstPhotoFuture} as soon as it is available.
+ * <p>
+ * Cancelling the task stops the burst after the photo which is being taken and cancels photos
+ * which were not taken yet. The task is cancelled as well once all photos which were not taken
+ * yet are cancelled.
+ */
+class TakePicturesTask extends ListenableFutureTask<Void> {
+
+    private static final Executor IMMEDIATE_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final Burst burst;
+
+    TakePicturesTask(CameraDevice cameraDevice, int count) {
+        this(cameraDevice, count, TakePictureRoutine.DEFAULT_FOCUS_FRESHNESS_NANOS);
+    }
+
+    /**
+     * @param focusFreshnessNanos how long in nanoseconds focus stays valid after the lens
+     *                            converged.
+     */
+    TakePicturesTask(CameraDevice cameraDevice, int count, long focusFreshnessNanos) {
+        this(new Burst(cameraDevice, count, focusFreshnessNanos));
+    }
+
+    private TakePicturesTask(Burst burst) {
+        super(burst);
+        this.burst = burst;
+
+        for (BurstPhotoFuture future : burst.futures) {
+            future.addListener(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            if (burst.isAbandoned()) {
+                                cancel(true);
+                            }
+                        }
+                    },
+                    IMMEDIATE_EXECUTOR
+            );
+        }
+    }
+
+    /**
+     * @return futures of photos in the order of capture.
+     */
+    List<BurstPhotoFuture> getFutures() {
+        return burst.futures;
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            burst.cancelRemaining();
+        }
+
+        super.done();
+    }
+
+    private static class Burst implements Callable<Void>, CaptureOperator.BurstCallback {
+
+        private final CameraDevice cameraDevice;
+        private final long focusFreshnessNanos;
+        private final List<BurstPhotoFuture> futures;
+
+        private int takenPhotos = 0;
+
+        Burst(CameraDevice cameraDevice, int count, long focusFreshnessNanos) {
+            this.cameraDevice = cameraDevice;
+            this.focusFreshnessNanos = focusFreshnessNanos;
+
+            List<BurstPhotoFuture> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(new BurstPhotoFuture());
+            }
+            this.futures = Collections.unmodifiableList(futures);
+        }
+
+        @Override
+        public Void call() throws Exception {
+            try {
+                adjustCameraForBestShot(cameraDevice, focusFreshnessNanos);
+
+                cameraDevice.takePictures(futures.size(), this);
+
+                startPreviewSafe(cameraDevice);
+            } catch (RuntimeException e) {
+                failRemaining(e);
+                return null;
+            }
+
+            failRemaining(new CameraException(
+                    "Camera took only " + takenPhotos + " of " + futures.size() + " photos"
+            ));
+
+            return null;
+        }
+
+        @Override
+        public synchronized void onPhotoTaken(Photo photo) {
+            if (takenPhotos < futures.size()) {
+                futures.get(takenPhotos++).complete(photo);
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CameraException("Burst was cancelled after " + takenPhotos + " photos");
+            }
+        }
+
+        /**
+         * @return {@code true} if all photos which were not taken yet are cancelled, so nobody
+         * waits for the rest of the burst.
+         */
+        synchronized boolean isAbandoned() {
+            if (takenPhotos == futures.size()) {
+                return false;
+            }
+
+            for (BurstPhotoFuture future : futures.subList(takenPhotos, futures.size())) {
+                if (!future.isCancelled()) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        synchronized void cancelRemaining() {
+            while (takenPhotos < futures.size()) {
+                futures.get(takenPhotos++).cancel(false);
+            }
+        }
+
+        private synchronized void failRemaining(Throwable cause) {
+            while (takenPhotos < futures.size()) {
+                futures.get(takenPhotos++).fail(cause);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package io.fotoapparat.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of byte arrays of the same length. Thread safe.
+ * <p>
+ * The pool never holds more arrays than were handed out at the same time. When requested length
+ * changes, arrays of the old length are discarded.
+ */
+public class ByteArrayPool {
+
+    private final Deque<byte[]> arrays = new ArrayDeque<>();
+
+    private int arrayLength = -1;
+
+    /**
+     * @return array of given length. Either recycled or newly allocated. Contents of the array are
+     * undefined.
+     */
+    public byte[] acquire(int length) {
+        synchronized (arrays) {
+            if (length != arrayLength) {
+                arrays.clear();
+                arrayLength = length;
+            }
+
+            byte[] array = arrays.poll();
+
+            return array != null
+                    ? array
+                    : new byte[length];
+        }
+    }
+
+    /**
+     * Returns array back to the pool so it can be reused. Arrays of unexpected length are
+     * discarded.
+     */
+    public void release(byte[] array) {
+        synchronized (arrays) {
+            if (array.length == arrayLength) {
+                arrays.push(array);
+            }
+        }
+    }
+
+}
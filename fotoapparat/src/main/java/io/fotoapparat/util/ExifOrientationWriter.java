@@ -4,17 +4,34 @@ import android.media.ExifInterface;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import io.fotoapparat.photo.Photo;
 import io.fotoapparat.result.transformer.SaveToFileTransformer;
 
 /**
- * Writes EXIF orientation tag into a file.
+ * Writes EXIF orientation tag of a photo.
+ * <p>
+ * Preferably the tag is written while the photo is streamed out, see
+ * {@link #writeWithExifOrientation(Photo, OutputStream)}, so that the file is written only once.
+ * If the orientation tag is already in EXIF, its value is patched. If there is no EXIF at all, a
+ * minimal EXIF segment is inserted.
  */
 public class ExifOrientationWriter {
 
+    private static final int MARKER_PREFIX = 0xFF;
+    private static final int MARKER_APP1 = 0xE1;
+
+    private static final int TYPE_SHORT = 3;
+
     /**
-     * Writes EXIF orientation tag into a file, overwriting it if it already exists.
+     * Position of orientation value inside of the segment created by {@link #exifSegment(int)}.
+     */
+    private static final int EXIF_SEGMENT_ORIENTATION_POSITION = 28;
+
+    /**
+     * Writes EXIF orientation tag into a file, overwriting it if it already exists. The whole
+     * file is read and written again.
      *
      * @param file     File of the image.
      * @param photo    Photo stored in the file.
@@ -25,7 +42,7 @@ public class ExifOrientationWriter {
             ExifInterface exifInterface = new ExifInterface(file.getPath());
             exifInterface.setAttribute(
                     ExifInterface.TAG_ORIENTATION,
-                    toExifOrientation(photo.rotationDegrees)
+                    String.valueOf(toExifOrientation(photo.rotationDegrees))
             );
             exifInterface.saveAttributes();
         } catch (IOException e) {
@@ -33,18 +50,87 @@ public class ExifOrientationWriter {
         }
     }
 
-    private String toExifOrientation(int rotationDegrees) {
+    /**
+     * Writes the photo to the stream in one pass, with EXIF orientation tag set.
+     *
+     * @param photo        Photo to write.
+     * @param outputStream Stream to write to. Stream is not closed.
+     * @return {@code true} if the orientation was written. {@code false} if the photo has EXIF
+     * without orientation tag which can not be patched in place. Then the photo is written
+     * unchanged and {@link #writeExifOrientation(File, Photo)} has to be used afterwards.
+     * @throws IOException If writing has failed.
+     */
+    public boolean writeWithExifOrientation(Photo photo, OutputStream outputStream) throws IOException {
+        byte[] image = photo.encodedImage;
+        int length = photo.encodedImageLength;
+        int orientation = toExifOrientation(photo.rotationDegrees);
+
+        JpegHeader header = JpegHeader.parse(image, length);
+
+        if (header.orientationPosition >= 0) {
+            outputStream.write(image, 0, header.orientationPosition);
+            writeShort(outputStream, orientation, header.littleEndian);
+            outputStream.write(image, header.orientationPosition + 2, length - header.orientationPosition - 2);
+            return true;
+        }
+
+        if (header.exifInsertPosition >= 0) {
+            outputStream.write(image, 0, header.exifInsertPosition);
+            outputStream.write(exifSegment(orientation));
+            outputStream.write(image, header.exifInsertPosition, length - header.exifInsertPosition);
+            return true;
+        }
+
+        outputStream.write(image, 0, length);
+        return false;
+    }
+
+    private static void writeShort(OutputStream outputStream, int value, boolean littleEndian) throws IOException {
+        if (littleEndian) {
+            outputStream.write(value & 0xFF);
+            outputStream.write((value >> 8) & 0xFF);
+        } else {
+            outputStream.write((value >> 8) & 0xFF);
+            outputStream.write(value & 0xFF);
+        }
+    }
+
+    /**
+     * @return APP1 segment with big endian EXIF which contains only the orientation tag.
+     */
+    static byte[] exifSegment(int orientation) {
+        byte[] segment = {
+                (byte) MARKER_PREFIX, (byte) MARKER_APP1,
+                0, 34,                              // Segment length
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 42,                    // TIFF header
+                0, 0, 0, 8,                         // Offset of IFD0
+                0, 1,                               // Number of entries
+                0x01, 0x12,                         // Orientation tag
+                0, TYPE_SHORT,
+                0, 0, 0, 1,                         // Count
+                0, 0, 0, 0,                         // Value
+                0, 0, 0, 0                          // No next IFD
+        };
+
+        segment[EXIF_SEGMENT_ORIENTATION_POSITION] = (byte) ((orientation >> 8) & 0xFF);
+        segment[EXIF_SEGMENT_ORIENTATION_POSITION + 1] = (byte) (orientation & 0xFF);
+
+        return segment;
+    }
+
+    static int toExifOrientation(int rotationDegrees) {
         final int compensationRotationDegrees = (360 - rotationDegrees) % 360;
 
         switch (compensationRotationDegrees) {
             case 90:
-                return String.valueOf(ExifInterface.ORIENTATION_ROTATE_90);
+                return ExifInterface.ORIENTATION_ROTATE_90;
             case 180:
-                return String.valueOf(ExifInterface.ORIENTATION_ROTATE_180);
+                return ExifInterface.ORIENTATION_ROTATE_180;
             case 270:
-                return String.valueOf(ExifInterface.ORIENTATION_ROTATE_270);
+                return ExifInterface.ORIENTATION_ROTATE_270;
             default:
-                return String.valueOf(ExifInterface.ORIENTATION_NORMAL);
+                return ExifInterface.ORIENTATION_NORMAL;
         }
     }
 
@@ -0,0 +1,49 @@
+package io.fotoapparat.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of int arrays of the same length. Thread safe.
+ * <p>
+ * The pool never holds more arrays than were handed out at the same time. When requested length
+ * changes, arrays of the old length are discarded.
+ */
+public class IntArrayPool {
+
+    private final Deque<int[]> arrays = new ArrayDeque<>();
+
+    private int arrayLength = -1;
+
+    /**
+     * @return array of given length. Either recycled or newly allocated. Contents of the array are
+     * undefined.
+     */
+    public int[] acquire(int length) {
+        synchronized (arrays) {
+            if (length != arrayLength) {
+                arrays.clear();
+                arrayLength = length;
+            }
+
+            int[] array = arrays.poll();
+
+            return array != null
+                    ? array
+                    : new int[length];
+        }
+    }
+
+    /**
+     * Returns array back to the pool so it can be reused. Arrays of unexpected length are
+     * discarded.
+     */
+    public void release(int[] array) {
+        synchronized (arrays) {
+            if (array.length == arrayLength) {
+                arrays.push(array);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,350 @@
+package io.fotoapparat.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.photo.Photo;
+
+/**
+ * Information read from the markers of an encoded JPEG, without decoding the image itself.
+ * <p>
+ * Only the header is scanned, up to the start of the compressed data, and nothing is copied, so
+ * parsing is cheap enough to be done on any thread.
+ */
+public class JpegHeader {
+
+    private static final JpegHeader INVALID = new JpegHeader(null, 0, -1, 0, -1, false, -1);
+
+    private static final int MARKER_PREFIX = 0xFF;
+    private static final int MARKER_SOI = 0xD8;
+    private static final int MARKER_SOS = 0xDA;
+    private static final int MARKER_EOI = 0xD9;
+    private static final int MARKER_APP0 = 0xE0;
+    private static final int MARKER_APP1 = 0xE1;
+    private static final int MARKER_SOF0 = 0xC0;
+    private static final int MARKER_SOF15 = 0xCF;
+    private static final int MARKER_DHT = 0xC4;
+    private static final int MARKER_JPG = 0xC8;
+    private static final int MARKER_DAC = 0xCC;
+
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TAG_THUMBNAIL_OFFSET = 0x0201;
+    private static final int TAG_THUMBNAIL_LENGTH = 0x0202;
+
+    private static final int TYPE_SHORT = 3;
+    private static final int TYPE_LONG = 4;
+
+    private static final int IFD_ENTRY_LENGTH = 12;
+
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    /**
+     * Size of the image as encoded, that is before the EXIF orientation is applied. {@code null}
+     * if the header does not contain a frame.
+     */
+    @Nullable
+    public final Size size;
+
+    /**
+     * Value of the EXIF orientation tag or {@code 0} if there is no such tag.
+     */
+    public final int exifOrientation;
+
+    /**
+     * Position of the embedded EXIF thumbnail in the encoded image or {@code -1} if there is no
+     * thumbnail.
+     */
+    public final int thumbnailOffset;
+
+    /**
+     * Length of the embedded EXIF thumbnail in bytes or {@code 0} if there is no thumbnail.
+     */
+    public final int thumbnailLength;
+
+    /**
+     * Position of the orientation value in EXIF or {@code -1} if there is no such value.
+     */
+    final int orientationPosition;
+
+    /**
+     * {@code true} if EXIF is little endian.
+     */
+    final boolean littleEndian;
+
+    /**
+     * Position at which a new EXIF segment can be inserted or {@code -1} if the image already has
+     * EXIF or is not a valid JPEG.
+     */
+    final int exifInsertPosition;
+
+    private JpegHeader(@Nullable Size size,
+                       int exifOrientation,
+                       int thumbnailOffset,
+                       int thumbnailLength,
+                       int orientationPosition,
+                       boolean littleEndian,
+                       int exifInsertPosition) {
+        this.size = size;
+        this.exifOrientation = exifOrientation;
+        this.thumbnailOffset = thumbnailOffset;
+        this.thumbnailLength = thumbnailLength;
+        this.orientationPosition = orientationPosition;
+        this.littleEndian = littleEndian;
+        this.exifInsertPosition = exifInsertPosition;
+    }
+
+    /**
+     * @return header of the encoded image of the photo.
+     */
+    public static JpegHeader of(@NonNull Photo photo) {
+        return parse(photo.encodedImage, photo.encodedImageLength);
+    }
+
+    /**
+     * Parses the header of an encoded JPEG. Malformed parts are ignored, so the result of an
+     * image which is not a JPEG simply contains nothing.
+     *
+     * @param image  encoded image.
+     * @param length number of bytes of the image in the array.
+     * @return header of the image.
+     */
+    public static JpegHeader parse(@NonNull byte[] image, int length) {
+        if (length < 4 || unsignedByte(image, 0) != MARKER_PREFIX || unsignedByte(image, 1) != MARKER_SOI) {
+            return INVALID;
+        }
+
+        Builder builder = new Builder();
+        builder.exifInsertPosition = 2;
+
+        int position = 2;
+
+        while (position + 4 <= length && unsignedByte(image, position) == MARKER_PREFIX) {
+            int marker = unsignedByte(image, position + 1);
+
+            if (marker == MARKER_PREFIX) {
+                // Fill byte
+                position++;
+                continue;
+            }
+
+            if (marker == MARKER_SOS || marker == MARKER_EOI) {
+                break;
+            }
+
+            int segmentLength = readShort(image, position + 2, false);
+            int segmentEnd = position + 2 + segmentLength;
+
+            if (segmentLength < 2 || segmentEnd > length) {
+                break;
+            }
+
+            if (isStartOfFrame(marker) && segmentLength >= 7) {
+                builder.size = new Size(
+                        readShort(image, position + 7, false),
+                        readShort(image, position + 5, false)
+                );
+
+                // EXIF precedes the frame, there is nothing more to look for
+                break;
+            }
+
+            if (marker == MARKER_APP1
+                    && builder.exifInsertPosition >= 0
+                    && startsWith(image, position + 4, segmentEnd, EXIF_HEADER)) {
+                builder.exifInsertPosition = -1;
+                parseExif(builder, image, position + 4 + EXIF_HEADER.length, segmentEnd);
+            } else if (marker == MARKER_APP0 && position == 2 && builder.exifInsertPosition >= 0) {
+                // JFIF segment must stay the first one
+                builder.exifInsertPosition = segmentEnd;
+            }
+
+            position = segmentEnd;
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * @return {@code true} if the image has an embedded EXIF thumbnail.
+     */
+    public boolean hasThumbnail() {
+        return thumbnailOffset >= 0;
+    }
+
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= MARKER_SOF0
+                && marker <= MARKER_SOF15
+                && marker != MARKER_DHT
+                && marker != MARKER_JPG
+                && marker != MARKER_DAC;
+    }
+
+    private static void parseExif(Builder builder, byte[] image, int tiffStart, int segmentEnd) {
+        if (tiffStart + 8 > segmentEnd) {
+            return;
+        }
+
+        boolean littleEndian = image[tiffStart] == 'I' && image[tiffStart + 1] == 'I';
+        builder.littleEndian = littleEndian;
+
+        int ifd0Start = ifdStart(image, tiffStart, tiffStart + 4, segmentEnd, littleEndian);
+        if (ifd0Start < 0) {
+            return;
+        }
+
+        int entries = readShort(image, ifd0Start, littleEndian);
+
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd0Start + 2 + i * IFD_ENTRY_LENGTH;
+
+            if (entry + IFD_ENTRY_LENGTH > segmentEnd) {
+                return;
+            }
+
+            if (readShort(image, entry, littleEndian) == TAG_ORIENTATION
+                    && readShort(image, entry + 2, littleEndian) == TYPE_SHORT) {
+                builder.orientationPosition = entry + 8;
+                builder.exifOrientation = readShort(image, entry + 8, littleEndian);
+            }
+        }
+
+        int nextIfdPosition = ifd0Start + 2 + entries * IFD_ENTRY_LENGTH;
+        if (nextIfdPosition + 4 > segmentEnd) {
+            return;
+        }
+
+        int ifd1Start = ifdStart(image, tiffStart, nextIfdPosition, segmentEnd, littleEndian);
+        if (ifd1Start > ifd0Start) {
+            parseThumbnail(builder, image, tiffStart, ifd1Start, segmentEnd);
+        }
+    }
+
+    private static void parseThumbnail(Builder builder,
+                                       byte[] image,
+                                       int tiffStart,
+                                       int ifdStart,
+                                       int segmentEnd) {
+        long offset = -1;
+        long length = 0;
+        boolean littleEndian = builder.littleEndian;
+
+        int entries = readShort(image, ifdStart, littleEndian);
+
+        for (int i = 0; i < entries; i++) {
+            int entry = ifdStart + 2 + i * IFD_ENTRY_LENGTH;
+
+            if (entry + IFD_ENTRY_LENGTH > segmentEnd) {
+                break;
+            }
+
+            int tag = readShort(image, entry, littleEndian);
+            if (tag != TAG_THUMBNAIL_OFFSET && tag != TAG_THUMBNAIL_LENGTH) {
+                continue;
+            }
+
+            long value = readShort(image, entry + 2, littleEndian) == TYPE_LONG
+                    ? readInt(image, entry + 8, littleEndian)
+                    : readShort(image, entry + 8, littleEndian);
+
+            if (tag == TAG_THUMBNAIL_OFFSET) {
+                offset = tiffStart + value;
+            } else {
+                length = value;
+            }
+        }
+
+        if (offset >= tiffStart && length > 0 && offset + length <= segmentEnd) {
+            builder.thumbnailOffset = (int) offset;
+            builder.thumbnailLength = (int) length;
+        }
+    }
+
+    /**
+     * @return start of the IFD whose offset is stored at given position or {@code -1} if the
+     * offset is invalid.
+     */
+    private static int ifdStart(byte[] image,
+                                int tiffStart,
+                                int offsetPosition,
+                                int segmentEnd,
+                                boolean littleEndian) {
+        long offset = readInt(image, offsetPosition, littleEndian);
+        long start = tiffStart + offset;
+
+        if (offset < 8 || start + 2 > segmentEnd) {
+            return -1;
+        }
+
+        return (int) start;
+    }
+
+    private static boolean startsWith(byte[] image, int position, int end, byte[] prefix) {
+        if (position + prefix.length > end) {
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length; i++) {
+            if (image[position + i] != prefix[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int unsignedByte(byte[] image, int position) {
+        return image[position] & 0xFF;
+    }
+
+    private static int readShort(byte[] image, int position, boolean littleEndian) {
+        int first = unsignedByte(image, position);
+        int second = unsignedByte(image, position + 1);
+
+        return littleEndian
+                ? (second << 8) | first
+                : (first << 8) | second;
+    }
+
+    private static long readInt(byte[] image, int position, boolean littleEndian) {
+        long high = readShort(image, littleEndian ? position + 2 : position, littleEndian);
+        long low = readShort(image, littleEndian ? position : position + 2, littleEndian);
+
+        return (high << 16) | low;
+    }
+
+    @Override
+    public String toString() {
+        return "JpegHeader{" +
+                "size=" + size +
+                ", exifOrientation=" + exifOrientation +
+                ", thumbnailOffset=" + thumbnailOffset +
+                ", thumbnailLength=" + thumbnailLength +
+                '}';
+    }
+
+    private static class Builder {
+
+        Size size = null;
+        int exifOrientation = 0;
+        int thumbnailOffset = -1;
+        int thumbnailLength = 0;
+        int orientationPosition = -1;
+        boolean littleEndian = false;
+        int exifInsertPosition = -1;
+
+        JpegHeader build() {
+            return new JpegHeader(
+                    size,
+                    exifOrientation,
+                    thumbnailOffset,
+                    thumbnailLength,
+                    orientationPosition,
+                    littleEndian,
+                    exifInsertPosition
+            );
+        }
+
+    }
+
+}
@@ -7,6 +7,9 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Arrays;
+import java.util.List;
+
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.parameter.Parameters;
@@ -14,6 +17,8 @@ import io.fotoapparat.parameter.provider.CapabilitiesProvider;
 import io.fotoapparat.parameter.provider.CurrentParametersProvider;
 import io.fotoapparat.parameter.update.UpdateRequest;
 import io.fotoapparat.photo.Photo;
+import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.ProcessorOptions;
 import io.fotoapparat.result.CapabilitiesResult;
 import io.fotoapparat.result.FocusResult;
 import io.fotoapparat.result.ParametersResult;
@@ -25,6 +30,7 @@ import io.fotoapparat.routine.StartCameraRoutine;
 import io.fotoapparat.routine.StopCameraRoutine;
 import io.fotoapparat.routine.UpdateOrientationRoutine;
 import io.fotoapparat.routine.focus.AutoFocusRoutine;
+import io.fotoapparat.routine.parameter.AdaptPreviewFpsRangeRoutine;
 import io.fotoapparat.routine.parameter.UpdateParametersRoutine;
 import io.fotoapparat.routine.picture.TakePictureRoutine;
 import io.fotoapparat.routine.zoom.UpdateZoomLevelRoutine;
@@ -91,6 +97,10 @@ public class FotoapparatTest {
     UpdateParametersRoutine updateParametersRoutine;
     @Mock
     UpdateZoomLevelRoutine updateZoomLevelRoutine;
+    @Mock
+    AdaptPreviewFpsRangeRoutine adaptPreviewFpsRangeRoutine;
+    @Mock
+    FrameProcessor frameProcessor;
 
     Fotoapparat testee;
 
@@ -108,6 +118,7 @@ public class FotoapparatTest {
                 checkAvailabilityRoutine,
                 updateParametersRoutine,
                 updateZoomLevelRoutine,
+                adaptPreviewFpsRangeRoutine,
                 new ImmediateExecutor()
         );
     }
@@ -121,7 +132,8 @@ public class FotoapparatTest {
         InOrder inOrder = inOrder(
                 startCameraRoutine,
                 updateOrientationRoutine,
-                configurePreviewStreamRoutine
+                configurePreviewStreamRoutine,
+                adaptPreviewFpsRangeRoutine
         );
 
         assertTrue(testee.isStarted());
@@ -129,6 +141,7 @@ public class FotoapparatTest {
         inOrder.verify(startCameraRoutine).run();
         inOrder.verify(configurePreviewStreamRoutine).run();
         inOrder.verify(updateOrientationRoutine).start();
+        inOrder.verify(adaptPreviewFpsRangeRoutine).start();
     }
 
     @Test(expected = IllegalStateException.class)
@@ -156,10 +169,14 @@ public class FotoapparatTest {
 
         InOrder inOrder = inOrder(
                 stopCameraRoutine,
-                updateOrientationRoutine
+                updateOrientationRoutine,
+                configurePreviewStreamRoutine,
+                adaptPreviewFpsRangeRoutine
         );
 
+        inOrder.verify(adaptPreviewFpsRangeRoutine).stop();
         inOrder.verify(updateOrientationRoutine).stop();
+        inOrder.verify(configurePreviewStreamRoutine).stop();
         inOrder.verify(stopCameraRoutine).run();
     }
 
@@ -208,6 +225,35 @@ public class FotoapparatTest {
         );
     }
 
+    @Test
+    public void takePictures() throws Exception {
+        // Given
+        List<PhotoResult> photoResults = Arrays.asList(PHOTO_RESULT, PHOTO_RESULT);
+
+        given(takePictureRoutine.takePictures(2))
+                .willReturn(photoResults);
+
+        testee.start();
+
+        // When
+        List<PhotoResult> result = testee.takePictures(2);
+
+        // Then
+        assertEquals(
+                photoResults,
+                result
+        );
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void takePictures_NotStartedYet() throws Exception {
+        // When
+        testee.takePictures(2);
+
+        // Then
+        // Expect exception
+    }
+
     @Test(expected = IllegalStateException.class)
     public void takePicture_NotStartedYet() throws Exception {
         // When
@@ -388,4 +434,42 @@ public class FotoapparatTest {
         // Expect exception
     }
 
-}
\ No newline at end of file
+    @Test
+    public void addFrameProcessor() throws Exception {
+        // Given
+        ProcessorOptions options = ProcessorOptions.builder()
+                .everyNthFrame(2)
+                .build();
+
+        // When
+        testee.addFrameProcessor(frameProcessor, options);
+
+        // Then
+        verify(configurePreviewStreamRoutine).addProcessor(frameProcessor, options);
+    }
+
+    @Test
+    public void addFrameProcessor_DefaultOptions() throws Exception {
+        // Given
+        testee.start();
+
+        // When
+        testee.addFrameProcessor(frameProcessor);
+
+        // Then
+        verify(configurePreviewStreamRoutine).addProcessor(frameProcessor, ProcessorOptions.defaults());
+    }
+
+    @Test
+    public void removeFrameProcessor() throws Exception {
+        // Given
+        testee.start();
+
+        // When
+        testee.removeFrameProcessor(frameProcessor);
+
+        // Then
+        verify(configurePreviewStreamRoutine).removeProcessor(frameProcessor);
+    }
+
+}
@@ -12,6 +12,7 @@ import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
+import io.fotoapparat.parameter.range.Ranges;
 
 import static junit.framework.Assert.assertEquals;
 import static org.mockito.Mockito.when;
@@ -87,4 +88,19 @@ public class FromPlatformParametersConverterTest {
         assertEquals(previewSize.height, value.height);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void previewFpsRange() throws Exception {
+        // Given
+        when(platformParameters.getPreviewFpsRange()).thenReturn(new int[]{15000, 30000});
+
+        // When
+        Parameters parameters = testee.fromPlatformParameters(platformParameters);
+
+        // Then
+        assertEquals(
+                Ranges.continuousRange(15000, 30000),
+                parameters.getValue(Parameters.Type.PREVIEW_FPS_RANGE)
+        );
+    }
+
+}
@@ -0,0 +1,338 @@
+package io.fotoapparat.hardware.v1;
+
+import android.graphics.ImageFormat;
+import android.hardware.Camera;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import io.fotoapparat.preview.BackpressurePolicy;
+import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.ProcessorOptions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SuppressWarnings("deprecation")
+@RunWith(MockitoJUnitRunner.class)
+public class PreviewStream1Test {
+
+    static final int BUFFER_COUNT = 3;
+    static final long TIMEOUT_MS = 1000L;
+
+    @Mock
+    Camera camera;
+    @Mock
+    Camera.Parameters parameters;
+    @Mock
+    Camera.Size previewSize;
+    @Mock
+    FrameProcessor frameProcessor;
+
+    @Before
+    public void setUp() throws Exception {
+        previewSize.width = 4;
+        previewSize.height = 2;
+
+        given(camera.getParameters())
+                .willReturn(parameters);
+        given(parameters.getPreviewSize())
+                .willReturn(previewSize);
+        given(parameters.getPreviewFormat())
+                .willReturn(ImageFormat.NV21);
+    }
+
+    @Test
+    public void start_QueuesAllBuffers() throws Exception {
+        // Given
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(frameProcessor);
+
+        // When
+        testee.start();
+
+        // Then
+        verify(camera, times(BUFFER_COUNT)).addCallbackBuffer(any(byte[].class));
+        verify(camera).getParameters();
+        assertTrue(testee.isCallbackEnabled());
+    }
+
+    @Test
+    public void addFrameToBuffer_DoesNotGrowRing() throws Exception {
+        // Given
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(frameProcessor);
+
+        // When
+        testee.addFrameToBuffer();
+        testee.addFrameToBuffer();
+        testee.start();
+        testee.addFrameToBuffer();
+
+        // Then
+        verify(camera, times(BUFFER_COUNT)).addCallbackBuffer(any(byte[].class));
+    }
+
+    @Test
+    public void start_NoProcessors() throws Exception {
+        // Given
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+
+        // When
+        testee.start();
+
+        // Then
+        verify(camera, never()).setPreviewCallbackWithBuffer(any(Camera.PreviewCallback.class));
+        verify(camera, never()).addCallbackBuffer(any(byte[].class));
+        assertFalse(testee.isCallbackEnabled());
+    }
+
+    @Test
+    public void addProcessor_AfterStart() throws Exception {
+        // Given
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.start();
+
+        // When
+        testee.addProcessor(frameProcessor);
+
+        // Then
+        verify(camera, times(BUFFER_COUNT)).addCallbackBuffer(any(byte[].class));
+        verify(camera).setPreviewCallbackWithBuffer(any(Camera.PreviewCallback.class));
+        assertTrue(testee.isCallbackEnabled());
+    }
+
+    @Test
+    public void removeProcessor_LastOne() throws Exception {
+        // Given
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(frameProcessor);
+        testee.start();
+
+        // When
+        testee.removeProcessor(frameProcessor);
+
+        // Then
+        verify(camera).setPreviewCallbackWithBuffer(null);
+        assertFalse(testee.isCallbackEnabled());
+    }
+
+    @Test
+    public void reattach_ReusesBuffers() throws Exception {
+        // Given
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(frameProcessor);
+        testee.start();
+        testee.removeProcessor(frameProcessor);
+
+        // When
+        testee.addProcessor(frameProcessor);
+
+        // Then
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(camera, times(2 * BUFFER_COUNT)).addCallbackBuffer(captor.capture());
+
+        List<byte[]> buffers = captor.getAllValues();
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            assertTrue(buffers.subList(BUFFER_COUNT, 2 * BUFFER_COUNT).contains(buffers.get(i)));
+        }
+        verify(camera).getParameters();
+    }
+
+    @Test
+    public void bufferReleasedWhileDetached_QueuedOnReattach() throws Exception {
+        // Given
+        BlockingFrameProcessor processor = new BlockingFrameProcessor();
+
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(processor, options(BackpressurePolicy.dropOldest(BUFFER_COUNT)));
+        testee.start();
+
+        byte[] image = new byte[]{1};
+        previewCallback().onPreviewFrame(image, camera);
+        await(processor.started);
+
+        testee.removeProcessor(processor);
+        processor.unblock();
+
+        // When
+        testee.addProcessor(frameProcessor);
+
+        // Then
+        verify(camera, timeout(TIMEOUT_MS)).addCallbackBuffer(image);
+        assertEquals(0, testee.getBuffersInFlight());
+    }
+
+    @Test
+    public void buffersInFlight() throws Exception {
+        // Given
+        BlockingFrameProcessor processor = new BlockingFrameProcessor();
+
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(processor, options(BackpressurePolicy.dropOldest(BUFFER_COUNT)));
+        testee.start();
+
+        Camera.PreviewCallback callback = previewCallback();
+
+        // When
+        callback.onPreviewFrame(new byte[1], camera);
+        callback.onPreviewFrame(new byte[1], camera);
+
+        // Then
+        assertEquals(2, testee.getBuffersInFlight());
+        assertEquals(0, testee.getStarvationCount());
+
+        processor.unblock();
+
+        verify(camera, timeout(TIMEOUT_MS).times(BUFFER_COUNT + 2)).addCallbackBuffer(any(byte[].class));
+        assertEquals(0, testee.getBuffersInFlight());
+    }
+
+    @Test
+    public void starvation() throws Exception {
+        // Given
+        BlockingFrameProcessor processor = new BlockingFrameProcessor();
+
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(processor, options(BackpressurePolicy.dropOldest(BUFFER_COUNT)));
+        testee.start();
+
+        Camera.PreviewCallback callback = previewCallback();
+
+        // When
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            callback.onPreviewFrame(new byte[1], camera);
+        }
+
+        // Then
+        assertEquals(BUFFER_COUNT, testee.getBuffersInFlight());
+        assertEquals(1, testee.getStarvationCount());
+
+        processor.unblock();
+    }
+
+    @Test
+    public void slowProcessorDoesNotBlockOthers() throws Exception {
+        // Given
+        BlockingFrameProcessor slowProcessor = new BlockingFrameProcessor();
+
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(slowProcessor, options(BackpressurePolicy.dropOldest(BUFFER_COUNT)));
+        testee.addProcessor(frameProcessor, options(BackpressurePolicy.dropOldest(BUFFER_COUNT)));
+        testee.start();
+
+        Camera.PreviewCallback callback = previewCallback();
+        byte[] image = new byte[]{1};
+
+        // When
+        callback.onPreviewFrame(image, camera);
+        callback.onPreviewFrame(new byte[]{2}, camera);
+
+        // Then
+        verify(frameProcessor, timeout(TIMEOUT_MS).times(2)).processFrame(any(Frame.class));
+        verify(camera, never()).addCallbackBuffer(image);
+
+        slowProcessor.unblock();
+
+        verify(camera, timeout(TIMEOUT_MS)).addCallbackBuffer(image);
+    }
+
+    @Test
+    public void framesAreNumberedAndTimestamped() throws Exception {
+        // Given
+        PreviewStream1 testee = new PreviewStream1(camera, BUFFER_COUNT);
+        testee.addProcessor(frameProcessor, options(BackpressurePolicy.dropOldest(BUFFER_COUNT)));
+        testee.start();
+
+        Camera.PreviewCallback callback = previewCallback();
+
+        // When
+        callback.onPreviewFrame(new byte[]{1}, camera);
+        callback.onPreviewFrame(new byte[]{2}, camera);
+
+        // Then
+        ArgumentCaptor<Frame> captor = ArgumentCaptor.forClass(Frame.class);
+        verify(frameProcessor, timeout(TIMEOUT_MS).times(2)).processFrame(captor.capture());
+
+        Frame first = captor.getAllValues().get(0);
+        Frame second = captor.getAllValues().get(1);
+
+        assertEquals(0, first.getSequenceNumber());
+        assertEquals(1, second.getSequenceNumber());
+        assertTrue(first.getTimestampNanos() <= first.getDispatchTimestampNanos());
+        assertTrue(first.getTimestampNanos() <= second.getTimestampNanos());
+        assertEquals(2, testee.getStreamStatistics().dispatchedFrames);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBufferCount() throws Exception {
+        // When
+        new PreviewStream1(camera, 0);
+
+        // Then
+        // Expect exception
+    }
+
+    private static ProcessorOptions options(BackpressurePolicy policy) {
+        return ProcessorOptions.builder()
+                .backpressure(policy)
+                .build();
+    }
+
+    private Camera.PreviewCallback previewCallback() {
+        ArgumentCaptor<Camera.PreviewCallback> captor = ArgumentCaptor.forClass(Camera.PreviewCallback.class);
+        verify(camera, atLeastOnce()).setPreviewCallbackWithBuffer(captor.capture());
+
+        return captor.getAllValues().get(0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            // Do nothing
+        }
+    }
+
+    /**
+     * {@link FrameProcessor} which does not return until it is unblocked.
+     */
+    static class BlockingFrameProcessor implements FrameProcessor {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void processFrame(Frame frame) {
+            started.countDown();
+
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                // Do nothing
+            }
+        }
+
+        void unblock() {
+            latch.countDown();
+        }
+
+    }
+
+}
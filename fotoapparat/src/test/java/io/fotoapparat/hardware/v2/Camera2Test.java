@@ -25,6 +25,7 @@ import io.fotoapparat.hardware.operators.RendererParametersOperator;
 import io.fotoapparat.hardware.operators.SurfaceOperator;
 import io.fotoapparat.hardware.provider.AvailableLensPositionsProvider;
 import io.fotoapparat.lens.FocusResult;
+import io.fotoapparat.lens.FocusStateTracker;
 import io.fotoapparat.log.Logger;
 import io.fotoapparat.parameter.AntiBandingMode;
 import io.fotoapparat.parameter.Flash;
@@ -76,6 +77,8 @@ public class Camera2Test {
     RendererParametersOperator rendererParametersOperator;
     @Mock
     ExposureMeasurementOperator exposureMeasurementOperator;
+    @Mock
+    FocusStateTracker focusStateTracker;
 
     @InjectMocks
     Camera2 testee;
@@ -141,6 +144,19 @@ public class Camera2Test {
         verify(orientationOperator).setDisplayOrientation(90);
     }
 
+    @Test
+    public void getPhotoOrientation() throws Exception {
+        // Given
+        given(orientationOperator.getPhotoOrientation())
+                .willReturn(270);
+
+        // When
+        int result = testee.getPhotoOrientation();
+
+        // Then
+        assertEquals(270, result);
+    }
+
     @Test
     public void updateParameters() throws Exception {
         // When
@@ -191,6 +207,19 @@ public class Camera2Test {
         assertEquals(photo, returnedPhoto);
     }
 
+    @Test
+    public void takePictures() throws Exception {
+        // Given
+        CaptureOperator.BurstCallback callback = Mockito.mock(CaptureOperator.BurstCallback.class);
+
+        // When
+        testee.takePictures(3, callback);
+
+        // Then
+        verify(logger).log(anyString());
+        verify(captureOperator).takePictures(3, callback);
+    }
+
     @Test
     public void previewStream() throws Exception {
         // Given
@@ -214,6 +243,7 @@ public class Camera2Test {
 
         // Then
         verify(logger).log(anyString());
+        verify(focusStateTracker).onFocusResult(successNoMeasurement());
         assertEquals(successNoMeasurement(), resultState);
     }
 
@@ -0,0 +1,144 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.fotoapparat.hardware.CameraException;
+import io.fotoapparat.hardware.v2.CameraThread;
+import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
+import io.fotoapparat.photo.Photo;
+import io.fotoapparat.photo.PhotoBufferPool;
+import io.fotoapparat.photo.PooledPhoto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StillSurfaceReaderTest {
+
+    @Mock
+    ParametersProvider parametersProvider;
+    @Mock
+    CameraThread cameraThread;
+
+    StillSurfaceReader testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new StillSurfaceReader(
+                parametersProvider,
+                cameraThread,
+                StillSurfaceReader.DEFAULT_MAX_IMAGES,
+                null
+        );
+    }
+
+    @Test
+    public void imageIsMatchedByTimestamp() throws Exception {
+        // Given
+        StillSurfaceReader.Capture first = testee.startCapture();
+        StillSurfaceReader.Capture second = testee.startCapture();
+
+        testee.onCaptureStarted(first, 100L);
+        testee.onCaptureStarted(second, 200L);
+
+        // When
+        testee.onImage(image(2, 200L));
+        testee.onImage(image(1, 100L));
+
+        // Then
+        assertEquals(1, first.nextPhoto(0).encodedImage[0]);
+        assertEquals(2, second.nextPhoto(0).encodedImage[0]);
+    }
+
+    @Test
+    public void lateImageOfFinishedCaptureIsDropped() throws Exception {
+        // Given
+        StillSurfaceReader.Capture timedOut = testee.startCapture();
+        testee.onCaptureStarted(timedOut, 100L);
+        testee.finishCapture(timedOut);
+
+        StillSurfaceReader.Capture next = testee.startCapture();
+        testee.onCaptureStarted(next, 200L);
+
+        // When
+        testee.onImage(image(1, 100L));
+        testee.onImage(image(2, 200L));
+
+        // Then
+        assertEquals(2, next.nextPhoto(0).encodedImage[0]);
+    }
+
+    @Test
+    public void imageBeforeCaptureStarted() throws Exception {
+        // Given
+        StillSurfaceReader.Capture capture = testee.startCapture();
+        testee.onImage(image(1, 100L));
+
+        // When
+        testee.onCaptureStarted(capture, 100L);
+
+        // Then
+        assertEquals(1, capture.nextPhoto(0).encodedImage[0]);
+    }
+
+    @Test
+    public void pooledPhoto() throws Exception {
+        // Given
+        StillSurfaceReader testee = new StillSurfaceReader(
+                parametersProvider,
+                cameraThread,
+                StillSurfaceReader.DEFAULT_MAX_IMAGES,
+                new PhotoBufferPool(1)
+        );
+
+        StillSurfaceReader.Capture capture = testee.startCapture();
+        testee.onCaptureStarted(capture, 100L);
+        testee.onImage(image(1, 100L));
+
+        // When
+        Photo photo = capture.nextPhoto(0);
+
+        // Then
+        assertTrue(photo instanceof PooledPhoto);
+    }
+
+    @Test(expected = CameraException.class)
+    public void failedCapture() throws Exception {
+        // Given
+        StillSurfaceReader.Capture capture = testee.startCapture();
+        testee.onCaptureFailed(capture);
+
+        // When
+        capture.nextPhoto(0);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test
+    public void interrupted() throws Exception {
+        // Given
+        StillSurfaceReader.Capture capture = testee.startCapture();
+        Thread.currentThread().interrupt();
+
+        // When
+        try {
+            capture.nextPhoto(0);
+        } catch (CameraException e) {
+            // Then
+            assertTrue(Thread.interrupted());
+            return;
+        }
+
+        throw new AssertionError("Expected an exception");
+    }
+
+    private static StillSurfaceReader.EncodedImage image(int content, long timestampNanos) {
+        return new StillSurfaceReader.EncodedImage(new byte[]{(byte) content}, 1, timestampNanos);
+    }
+
+}
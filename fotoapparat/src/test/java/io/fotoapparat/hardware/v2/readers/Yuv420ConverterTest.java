@@ -0,0 +1,87 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class Yuv420ConverterTest {
+
+    Yuv420Converter testee = new Yuv420Converter();
+
+    @Test
+    public void nv21Length() throws Exception {
+        // When
+        int length = Yuv420Converter.nv21Length(4, 2);
+
+        // Then
+        assertEquals(12, length);
+    }
+
+    @Test
+    public void planar_NoPadding() throws Exception {
+        // Given
+        ByteBuffer y = ByteBuffer.wrap(new byte[]{
+                1, 2, 3, 4,
+                5, 6, 7, 8
+        });
+        ByteBuffer u = ByteBuffer.wrap(new byte[]{10, 11});
+        ByteBuffer v = ByteBuffer.wrap(new byte[]{20, 21});
+
+        byte[] nv21 = new byte[12];
+
+        // When
+        testee.toNv21(4, 2, y, 4, u, v, 2, 1, nv21);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        1, 2, 3, 4,
+                        5, 6, 7, 8,
+                        20, 10, 21, 11
+                },
+                nv21
+        );
+    }
+
+    @Test
+    public void semiPlanar_WithRowPadding() throws Exception {
+        // Given
+        ByteBuffer y = ByteBuffer.wrap(new byte[]{
+                1, 2, 3, 4, 0, 0,
+                5, 6, 7, 8, 0, 0,
+                9, 10, 11, 12, 0, 0,
+                13, 14, 15, 16
+        });
+        // Chroma samples interleaved with each other, last row without padding
+        ByteBuffer u = ByteBuffer.wrap(new byte[]{
+                30, 40, 31, 0, 0, 0,
+                32, 42, 33
+        });
+        ByteBuffer v = ByteBuffer.wrap(new byte[]{
+                40, 30, 41, 0, 0, 0,
+                42, 32, 43
+        });
+
+        byte[] nv21 = new byte[24];
+
+        // When
+        testee.toNv21(4, 4, y, 6, u, v, 6, 2, nv21);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        1, 2, 3, 4,
+                        5, 6, 7, 8,
+                        9, 10, 11, 12,
+                        13, 14, 15, 16,
+                        40, 30, 41, 31,
+                        42, 32, 43, 33
+                },
+                nv21
+        );
+    }
+
+}
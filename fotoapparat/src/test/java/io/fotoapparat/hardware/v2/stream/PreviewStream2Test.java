@@ -10,12 +10,14 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.hardware.v2.stream.OnImageAcquiredObserver.OnFrameAcquiredListener;
-import io.fotoapparat.log.Logger;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.preview.Frame;
 import io.fotoapparat.preview.FrameProcessor;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.mockito.BDDMockito.given;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -25,8 +27,6 @@ public class PreviewStream2Test {
 
     @Mock
     ParametersProvider parametersProvider;
-    @Mock
-    Logger logger;
 
     @Test
     public void acquireFrame() throws Exception {
@@ -38,6 +38,8 @@ public class PreviewStream2Test {
         final AtomicReference<Frame> frameReference = new AtomicReference<>();
         final CountDownLatch listenerSet = new CountDownLatch(1);
         final CountDownLatch frameAcquired = new CountDownLatch(1);
+        final AtomicReference<byte[]> recycledReference = new AtomicReference<>();
+        final CountDownLatch imageRecycled = new CountDownLatch(1);
 
         PreviewStream2 testee = new PreviewStream2(new OnImageAcquiredObserver() {
             @Override
@@ -45,7 +47,13 @@ public class PreviewStream2Test {
                 listenerReference.set(listener);
                 listenerSet.countDown();
             }
-        }, parametersProvider, logger);
+
+            @Override
+            public void recycle(byte[] bytes) {
+                recycledReference.set(bytes);
+                imageRecycled.countDown();
+            }
+        }, parametersProvider);
 
         testee.addProcessor(new FrameProcessor() {
             @Override
@@ -58,10 +66,20 @@ public class PreviewStream2Test {
 
         // When
         listenerSet.await();
-        listenerReference.get().onFrameAcquired(new byte[]{1});
+        byte[] image = new byte[]{1};
+        listenerReference.get().onFrameAcquired(image, 1000L);
 
         // Then
         frameAcquired.await();
-        assertEquals(new Frame(PREVIEW_SIZE, new byte[]{1}, 0), frameReference.get());
+        Frame frame = frameReference.get();
+        assertEquals(PREVIEW_SIZE, frame.size);
+        assertArrayEquals(new byte[]{1}, frame.image);
+        assertEquals(0, frame.rotation);
+        assertEquals(0, frame.getSequenceNumber());
+        assertEquals(1000L, frame.getTimestampNanos());
+        assertTrue(frame.getDispatchTimestampNanos() > 0);
+
+        imageRecycled.await();
+        assertSame(image, recycledReference.get());
     }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package io.fotoapparat.lens;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.FocusMode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FocusStateTrackerTest {
+
+    static final long FRESHNESS_NANOS = 1000L;
+
+    FocusStateTracker testee = new FocusStateTracker();
+
+    @Test
+    public void notConverged() throws Exception {
+        // Then
+        assertFalse(testee.isFocusFresh(FRESHNESS_NANOS, 0L));
+    }
+
+    @Test
+    public void convergedRecently() throws Exception {
+        // Given
+        testee.onFocusConverged(100L);
+
+        // When
+        boolean result = testee.isFocusFresh(FRESHNESS_NANOS, 100L + FRESHNESS_NANOS);
+
+        // Then
+        assertTrue(result);
+    }
+
+    @Test
+    public void convergedLongAgo() throws Exception {
+        // Given
+        testee.onFocusConverged(100L);
+
+        // When
+        boolean result = testee.isFocusFresh(FRESHNESS_NANOS, 101L + FRESHNESS_NANOS);
+
+        // Then
+        assertFalse(result);
+    }
+
+    @Test
+    public void zeroFreshness() throws Exception {
+        // Given
+        testee.onFocusConverged(100L);
+
+        // When
+        boolean result = testee.isFocusFresh(0L, 100L);
+
+        // Then
+        assertFalse(result);
+    }
+
+    @Test
+    public void lensMovedAfterConverging() throws Exception {
+        // Given
+        testee.onFocusConverged(100L);
+
+        // When
+        testee.onFocusLost();
+
+        // Then
+        assertFalse(testee.isFocusFresh(FRESHNESS_NANOS, 100L));
+    }
+
+    @Test
+    public void failedFocusResult() throws Exception {
+        // Given
+        testee.onFocusConverged();
+
+        // When
+        testee.onFocusResult(FocusResult.none());
+
+        // Then
+        assertFalse(testee.isFocusFresh(FRESHNESS_NANOS));
+    }
+
+    @Test
+    public void unfocusedLockIsNotConverged() throws Exception {
+        // When
+        testee.onFocusResult(new FocusResult(true, false, false));
+
+        // Then
+        assertFalse(testee.isFocusFresh(FRESHNESS_NANOS));
+    }
+
+    @Test
+    public void focusedResultIsConverged() throws Exception {
+        // When
+        testee.onFocusResult(FocusResult.successNoMeasurement());
+
+        // Then
+        assertTrue(testee.isFocusFresh(FRESHNESS_NANOS));
+    }
+
+    @Test
+    public void focusModeChanged() throws Exception {
+        // Given
+        testee.onFocusModeChanged(FocusMode.AUTO);
+        testee.onFocusConverged(100L);
+
+        // When
+        testee.onFocusModeChanged(FocusMode.MACRO);
+
+        // Then
+        assertEquals(FocusMode.MACRO, testee.getFocusMode());
+        assertFalse(testee.isFocusFresh(FRESHNESS_NANOS, 100L));
+    }
+
+    @Test
+    public void focusModeBecameKnown() throws Exception {
+        // Given
+        testee.onFocusConverged(100L);
+
+        // When
+        testee.onFocusModeChanged(FocusMode.AUTO);
+
+        // Then
+        assertTrue(testee.isFocusFresh(FRESHNESS_NANOS, 100L));
+    }
+
+    @Test
+    public void reset() throws Exception {
+        // Given
+        testee.onFocusModeChanged(FocusMode.AUTO);
+        testee.onFocusConverged(100L);
+
+        // When
+        testee.reset();
+
+        // Then
+        assertNull(testee.getFocusMode());
+        assertFalse(testee.isFocusFresh(FRESHNESS_NANOS, 100L));
+    }
+
+    @Test
+    public void statistics() throws Exception {
+        // Given
+        testee.onCaptureFocused(300L, false);
+        testee.onCaptureFocused(0L, true);
+
+        // When
+        FocusStatistics result = testee.getStatistics();
+
+        // Then
+        assertEquals(
+                new FocusStatistics(2, 1, 300L),
+                result
+        );
+        assertEquals(150L, result.averageFocusTimeNanos());
+    }
+
+}
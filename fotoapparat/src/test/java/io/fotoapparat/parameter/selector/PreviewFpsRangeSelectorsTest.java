@@ -136,4 +136,47 @@ public class PreviewFpsRangeSelectorsTest {
                 result
         );
     }
+
+    @Test
+    public void slowestRangeReaching_Available() throws Exception {
+        // Given
+        List<Range<Integer>> availableRanges = Arrays.<Range<Integer>>asList(
+                Ranges.continuousRange(7000, 15000),
+                Ranges.continuousRange(15000, 20000),
+                Ranges.continuousRange(7000, 20000),
+                Ranges.continuousRange(30000, 30000)
+        );
+
+        // When
+        Range<Integer> result = PreviewFpsRangeSelectors
+                .slowestRangeReaching(16)
+                .select(availableRanges);
+
+        // Then
+        assertEquals(
+                Ranges.continuousRange(7000, 20000),
+                result
+        );
+    }
+
+    @Test
+    public void slowestRangeReaching_NotAvailable() throws Exception {
+        // Given
+        List<Range<Integer>> availableRanges = Arrays.<Range<Integer>>asList(
+                Ranges.continuousRange(15000, 15000),
+                Ranges.continuousRange(30000, 30000)
+        );
+
+        // When
+        Range<Integer> result = PreviewFpsRangeSelectors
+                .slowestRangeReaching(60)
+                .select(availableRanges);
+
+        // Then
+        assertEquals(
+                Ranges.continuousRange(30000, 30000),
+                result
+        );
+    }
+
 }
@@ -0,0 +1,163 @@
+package io.fotoapparat.photo;
+
+import android.graphics.Bitmap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class BitmapPoolTest {
+
+    static final long BITMAP_BYTES = 2 * 2 * 4;
+
+    BitmapPool testee = new BitmapPool(2 * BITMAP_BYTES);
+
+    @Test
+    public void get_Empty() throws Exception {
+        // When
+        Bitmap result = testee.get(2, 2, Bitmap.Config.ARGB_8888);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void get_SameSizeAndConfig() throws Exception {
+        // Given
+        Bitmap bitmap = bitmap(2, 2, Bitmap.Config.ARGB_8888);
+        testee.put(bitmap);
+
+        // When
+        Bitmap result = testee.get(2, 2, Bitmap.Config.ARGB_8888);
+
+        // Then
+        assertSame(bitmap, result);
+        assertEquals(0, testee.getPooledBytes());
+        verify(bitmap, never()).recycle();
+    }
+
+    @Test
+    public void get_DifferentSize() throws Exception {
+        // Given
+        testee.put(bitmap(2, 2, Bitmap.Config.ARGB_8888));
+
+        // When
+        Bitmap result = testee.get(1, 4, Bitmap.Config.ARGB_8888);
+
+        // Then
+        assertNull(result);
+        assertEquals(BITMAP_BYTES, testee.getPooledBytes());
+    }
+
+    @Test
+    public void put_LeastRecentlyPooledEvicted() throws Exception {
+        // Given
+        Bitmap first = bitmap(2, 2, Bitmap.Config.ARGB_8888);
+        Bitmap second = bitmap(2, 2, Bitmap.Config.ARGB_8888);
+        Bitmap third = bitmap(4, 1, Bitmap.Config.ARGB_8888);
+
+        // When
+        testee.put(first);
+        testee.put(second);
+        testee.put(third);
+
+        // Then
+        verify(first).recycle();
+        verify(second, never()).recycle();
+        assertEquals(2 * BITMAP_BYTES, testee.getPooledBytes());
+        assertSame(second, testee.get(2, 2, Bitmap.Config.ARGB_8888));
+        assertNull(testee.get(2, 2, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void put_ImmutableBitmapRecycled() throws Exception {
+        // Given
+        Bitmap bitmap = bitmap(2, 2, Bitmap.Config.ARGB_8888);
+        given(bitmap.isMutable())
+                .willReturn(false);
+
+        // When
+        testee.put(bitmap);
+
+        // Then
+        verify(bitmap).recycle();
+        assertEquals(0, testee.getPooledBytes());
+    }
+
+    @Test
+    public void put_OverBudgetBitmapRecycled() throws Exception {
+        // Given
+        Bitmap bitmap = bitmap(4, 4, Bitmap.Config.ARGB_8888);
+
+        // When
+        testee.put(bitmap);
+
+        // Then
+        verify(bitmap).recycle();
+        assertEquals(0, testee.getPooledBytes());
+    }
+
+    @Test
+    public void clear() throws Exception {
+        // Given
+        Bitmap bitmap = bitmap(2, 2, Bitmap.Config.ARGB_8888);
+        testee.put(bitmap);
+
+        // When
+        testee.clear();
+
+        // Then
+        verify(bitmap).recycle();
+        assertEquals(0, testee.getPooledBytes());
+    }
+
+    @Test
+    public void bitmapPhoto_RecycleReturnsToPool() throws Exception {
+        // Given
+        Bitmap bitmap = bitmap(2, 2, Bitmap.Config.ARGB_8888);
+        BitmapPhoto photo = new BitmapPhoto(bitmap, 0, testee);
+
+        // When
+        photo.recycle();
+
+        // Then
+        assertSame(bitmap, testee.get(2, 2, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void bitmapPhoto_RecycleWithoutPool() throws Exception {
+        // Given
+        Bitmap bitmap = bitmap(2, 2, Bitmap.Config.ARGB_8888);
+        BitmapPhoto photo = new BitmapPhoto(bitmap, 0);
+
+        // When
+        photo.recycle();
+
+        // Then
+        verify(bitmap).recycle();
+    }
+
+    private static Bitmap bitmap(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = mock(Bitmap.class);
+
+        given(bitmap.getWidth())
+                .willReturn(width);
+        given(bitmap.getHeight())
+                .willReturn(height);
+        given(bitmap.getConfig())
+                .willReturn(config);
+        given(bitmap.isMutable())
+                .willReturn(true);
+        given(bitmap.getByteCount())
+                .willReturn(width * height * 4);
+
+        return bitmap;
+    }
+
+}
@@ -0,0 +1,98 @@
+package io.fotoapparat.photo;
+
+import org.junit.Test;
+
+import static io.fotoapparat.photo.PhotoBufferPool.BUCKET_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PhotoBufferPoolTest {
+
+    PhotoBufferPool testee = new PhotoBufferPool(2);
+
+    @Test
+    public void acquire_RoundsUpToBucket() throws Exception {
+        // When
+        byte[] result = testee.acquire(BUCKET_SIZE + 1);
+
+        // Then
+        assertEquals(2 * BUCKET_SIZE, result.length);
+    }
+
+    @Test
+    public void acquire_ReusesReleasedBuffer() throws Exception {
+        // Given
+        byte[] buffer = testee.acquire(BUCKET_SIZE);
+        testee.release(buffer);
+
+        // When
+        byte[] result = testee.acquire(BUCKET_SIZE - 10);
+
+        // Then
+        assertSame(buffer, result);
+        assertEquals(0, testee.getPooledBuffers());
+    }
+
+    @Test
+    public void acquire_ReusesSlightlyLargerBuffer() throws Exception {
+        // Given
+        byte[] buffer = testee.acquire(3 * BUCKET_SIZE);
+        testee.release(buffer);
+
+        // When
+        byte[] result = testee.acquire(BUCKET_SIZE);
+
+        // Then
+        assertSame(buffer, result);
+    }
+
+    @Test
+    public void acquire_DoesNotReuseMuchLargerBuffer() throws Exception {
+        // Given
+        byte[] buffer = testee.acquire(4 * BUCKET_SIZE);
+        testee.release(buffer);
+
+        // When
+        byte[] result = testee.acquire(BUCKET_SIZE);
+
+        // Then
+        assertNotSame(buffer, result);
+        assertEquals(1, testee.getPooledBuffers());
+    }
+
+    @Test
+    public void release_KeepsAtMostMaxBuffers() throws Exception {
+        // When
+        testee.release(new byte[BUCKET_SIZE]);
+        testee.release(new byte[BUCKET_SIZE]);
+        testee.release(new byte[BUCKET_SIZE]);
+
+        // Then
+        assertEquals(2, testee.getPooledBuffers());
+    }
+
+    @Test
+    public void release_IgnoresForeignBuffer() throws Exception {
+        // When
+        testee.release(new byte[100]);
+
+        // Then
+        assertEquals(0, testee.getPooledBuffers());
+    }
+
+    @Test
+    public void pooledPhoto_ReleasedOnce() throws Exception {
+        // Given
+        PooledPhoto photo = new PooledPhoto(testee.acquire(10), 10, 0, testee);
+
+        // When
+        photo.release();
+        photo.release();
+
+        // Then
+        assertEquals(1, testee.getPooledBuffers());
+        assertEquals(10, photo.encodedImageLength);
+    }
+
+}
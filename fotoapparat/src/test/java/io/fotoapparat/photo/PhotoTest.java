@@ -3,6 +3,7 @@ package io.fotoapparat.photo;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class PhotoTest {
 
@@ -22,4 +23,29 @@ public class PhotoTest {
                 result.rotationDegrees
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void equals_OnlyImageBytesCompared() throws Exception {
+        // Given
+        Photo photo = new Photo(new byte[]{1, 2, 0, 0}, 2, 90);
+
+        // When
+        boolean result = photo.equals(new Photo(new byte[]{1, 2}, 90));
+
+        // Then
+        assertTrue(result);
+        assertEquals(
+                new Photo(new byte[]{1, 2}, 90).hashCode(),
+                photo.hashCode()
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLength() throws Exception {
+        // When
+        new Photo(new byte[]{1, 2}, 3, 0);
+
+        // Then
+        // Expect exception
+    }
+}
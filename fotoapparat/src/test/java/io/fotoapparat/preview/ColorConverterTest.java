@@ -0,0 +1,224 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ColorConverterTest {
+
+    static final Size SIZE = new Size(16, 10);
+
+    static final Executor CALLING_THREAD = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void toArgb_FullRange() throws Exception {
+        // Given
+        Frame frame = randomFrame();
+
+        ColorConverter testee = ColorConverter.builder()
+                .range(ColorConverter.Range.FULL)
+                .build();
+
+        // When
+        ArgbImage result = testee.toArgb(frame);
+
+        // Then
+        assertEquals(SIZE, result.size);
+        assertEquals(frame.rotation, result.rotation);
+        assertMatchesReference(frame, result.pixels, ColorConverter.Range.FULL);
+    }
+
+    @Test
+    public void toArgb_LimitedRange() throws Exception {
+        // Given
+        Frame frame = randomFrame();
+
+        ColorConverter testee = ColorConverter.builder()
+                .range(ColorConverter.Range.LIMITED)
+                .build();
+
+        // When
+        ArgbImage result = testee.toArgb(frame);
+
+        // Then
+        assertMatchesReference(frame, result.pixels, ColorConverter.Range.LIMITED);
+    }
+
+    @Test
+    public void toRgb() throws Exception {
+        // Given
+        Frame frame = randomFrame();
+
+        ColorConverter testee = ColorConverter.builder().build();
+        int[] argb = testee.toArgb(frame).pixels;
+
+        // When
+        PreviewImage result = testee.toRgb(frame);
+
+        // Then
+        assertEquals(PreviewImage.Format.RGB, result.format);
+        assertEquals(argb.length * 3, result.image.length);
+
+        for (int i = 0; i < argb.length; i++) {
+            assertEquals((argb[i] >> 16) & 0xFF, result.image[i * 3] & 0xFF);
+            assertEquals((argb[i] >> 8) & 0xFF, result.image[i * 3 + 1] & 0xFF);
+            assertEquals(argb[i] & 0xFF, result.image[i * 3 + 2] & 0xFF);
+        }
+    }
+
+    @Test
+    public void stripesProduceSameResult() throws Exception {
+        // Given
+        Frame frame = randomFrame();
+
+        ColorConverter singleStripe = ColorConverter.builder()
+                .stripes(1)
+                .build();
+
+        ColorConverter manyStripes = ColorConverter.builder()
+                .stripes(4)
+                .build();
+
+        // When
+        int[] expected = singleStripe.toArgb(frame).pixels;
+        int[] result = manyStripes.toArgb(frame).pixels;
+
+        // Then
+        assertArrayEquals(expected, result);
+    }
+
+    @Test
+    public void moreStripesThanRows() throws Exception {
+        // Given
+        Frame frame = randomFrame();
+
+        ColorConverter testee = ColorConverter.builder()
+                .executor(CALLING_THREAD)
+                .stripes(100)
+                .build();
+
+        // When
+        ArgbImage result = testee.toArgb(frame);
+
+        // Then
+        assertMatchesReference(frame, result.pixels, ColorConverter.Range.FULL);
+    }
+
+    @Test
+    public void releasedArrayIsReused() throws Exception {
+        // Given
+        Frame frame = randomFrame();
+
+        ColorConverter testee = ColorConverter.builder().build();
+
+        ArgbImage first = testee.toArgb(frame);
+        int[] pixels = first.pixels;
+
+        // When
+        first.release();
+        ArgbImage second = testee.toArgb(frame);
+
+        // Then
+        assertTrue(pixels == second.pixels);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lumaImageIsRejected() throws Exception {
+        // Given
+        ColorConverter testee = ColorConverter.builder().build();
+
+        // When
+        testee.toArgb(new PreviewImage(
+                SIZE,
+                new byte[SIZE.width * SIZE.height],
+                PreviewImage.Format.LUMA,
+                0
+        ));
+
+        // Then
+        // Expect exception
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidStripes() throws Exception {
+        // When
+        ColorConverter.builder()
+                .stripes(0)
+                .build();
+
+        // Then
+        // Expect exception
+    }
+
+    @Test
+    public void toArgb_OddWidth() throws Exception {
+        // Given
+        Frame frame = randomFrame(new Size(15, 10));
+
+        ColorConverter testee = ColorConverter.builder()
+                .stripes(2)
+                .build();
+
+        // When
+        ArgbImage result = testee.toArgb(frame);
+
+        // Then
+        assertMatchesReference(frame, result.pixels, ColorConverter.Range.FULL);
+    }
+
+    private static Frame randomFrame() {
+        return randomFrame(SIZE);
+    }
+
+    private static Frame randomFrame(Size size) {
+        int chromaStride = (size.width + 1) & ~1;
+        byte[] image = new byte[size.width * size.height + chromaStride * ((size.height + 1) / 2)];
+        new Random(42).nextBytes(image);
+
+        return new Frame(size, image, 90);
+    }
+
+    private static void assertMatchesReference(Frame frame, int[] pixels, ColorConverter.Range range) {
+        int width = frame.size.width;
+        int chromaOffset = width * frame.size.height;
+        int chromaStride = (width + 1) & ~1;
+
+        for (int row = 0; row < frame.size.height; row++) {
+            for (int column = 0; column < width; column++) {
+                int chroma = chromaOffset + (row / 2) * chromaStride + (column / 2) * 2;
+
+                double y = frame.image[row * width + column] & 0xFF;
+                double v = (frame.image[chroma] & 0xFF) - 128;
+                double u = (frame.image[chroma + 1] & 0xFF) - 128;
+
+                double luma = Math.max(y - range.lumaOffset, 0) * range.lumaScale;
+
+                int pixel = pixels[row * width + column];
+
+                assertEquals(0xFF, (pixel >>> 24) & 0xFF);
+                assertChannel(luma + range.redFromV * v, (pixel >> 16) & 0xFF);
+                assertChannel(luma - range.greenFromU * u - range.greenFromV * v, (pixel >> 8) & 0xFF);
+                assertChannel(luma + range.blueFromU * u, pixel & 0xFF);
+            }
+        }
+    }
+
+    private static void assertChannel(double expected, int actual) {
+        double clamped = Math.max(0, Math.min(255, expected));
+
+        assertEquals(clamped, actual, 1.5);
+    }
+
+}
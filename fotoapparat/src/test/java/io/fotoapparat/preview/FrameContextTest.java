@@ -0,0 +1,260 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FrameContextTest {
+
+    static final long TIMEOUT_MS = 1000L;
+
+    static final Frame FRAME = new Frame(new Size(2, 2), new byte[]{1, 2, 3, 4, 5, 6}, 0);
+
+    @Mock
+    FrameDispatcher.OnFrameReleasedListener releasedListener;
+
+    @Test
+    public void get_ComputedOnce() throws Exception {
+        // Given
+        CountingNode node = new CountingNode();
+        FrameContext testee = new FrameContext(FRAME);
+
+        // When
+        Integer first = testee.get(node);
+        Integer second = testee.get(node);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, node.computations.get());
+    }
+
+    @Test
+    public void get_Dependency() throws Exception {
+        // Given
+        final CountingNode source = new CountingNode();
+        FrameNode<String> dependent = new FrameNode<String>() {
+            @Override
+            protected String compute(FrameContext context) {
+                return "value " + context.get(source);
+            }
+        };
+
+        FrameContext testee = new FrameContext(FRAME);
+
+        // When
+        String result = testee.get(dependent);
+        testee.get(source);
+
+        // Then
+        assertEquals("value 1", result);
+        assertEquals(1, source.computations.get());
+    }
+
+    @Test
+    public void release_InReverseOrder() throws Exception {
+        // Given
+        final List<String> released = new ArrayList<>();
+
+        final FrameNode<String> source = new RecordingNode("source", released);
+        FrameNode<String> dependent = new RecordingNode("dependent", released) {
+            @Override
+            protected String compute(FrameContext context) {
+                context.get(source);
+                return super.compute(context);
+            }
+        };
+
+        FrameContext testee = new FrameContext(FRAME);
+        testee.get(dependent);
+
+        // When
+        testee.release();
+
+        // Then
+        assertEquals(
+                Arrays.asList("dependent", "source"),
+                released
+        );
+    }
+
+    @Test
+    public void release_ComputedAgainForNextFrame() throws Exception {
+        // Given
+        CountingNode node = new CountingNode();
+        FrameContext testee = new FrameContext(FRAME);
+        testee.get(node);
+
+        // When
+        testee.release();
+        testee.reset(FRAME);
+        Integer result = testee.get(node);
+
+        // Then
+        assertEquals(Integer.valueOf(2), result);
+    }
+
+    @Test
+    public void get_FailedNodeIsComputedAgain() throws Exception {
+        // Given
+        final AtomicInteger attempts = new AtomicInteger();
+        FrameNode<String> node = new FrameNode<String>() {
+            @Override
+            protected String compute(FrameContext context) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new RuntimeException("Test");
+                }
+                return "value";
+            }
+        };
+
+        FrameContext testee = new FrameContext(FRAME);
+
+        try {
+            testee.get(node);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected
+        }
+
+        // When
+        String result = testee.get(node);
+
+        // Then
+        assertEquals("value", result);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void get_Cycle() throws Exception {
+        // Given
+        FrameNode<String> node = new FrameNode<String>() {
+            @Override
+            protected String compute(FrameContext context) {
+                return context.get(this);
+            }
+        };
+
+        FrameContext testee = new FrameContext(FRAME);
+
+        // When
+        testee.get(node);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test
+    public void dispatcher_SharesNodesBetweenProcessors() throws Exception {
+        // Given
+        final CountingNode node = new CountingNode();
+        final CountDownLatch processed = new CountDownLatch(3);
+        final List<Integer> results = Collections.synchronizedList(new ArrayList<Integer>());
+
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+
+        for (int i = 0; i < 3; i++) {
+            testee.addProcessor(new GraphFrameProcessor() {
+                @Override
+                public void processFrame(FrameContext context) {
+                    results.add(context.get(node));
+                    processed.countDown();
+                }
+            }, ProcessorOptions.defaults());
+        }
+
+        // When
+        testee.dispatch(FRAME);
+
+        // Then
+        assertTrue(processed.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        verify(releasedListener, timeout(TIMEOUT_MS)).onFrameReleased(FRAME);
+
+        assertEquals(1, node.computations.get());
+        assertEquals(1, node.releases.get());
+        assertEquals(Collections.nCopies(3, 1), results);
+    }
+
+    @Test
+    public void processorOutsideOfStream() throws Exception {
+        // Given
+        final CountingNode node = new CountingNode();
+
+        GraphFrameProcessor testee = new GraphFrameProcessor() {
+            @Override
+            public void processFrame(FrameContext context) {
+                context.get(node);
+            }
+        };
+
+        // When
+        testee.processFrame(FRAME);
+
+        // Then
+        assertEquals(1, node.computations.get());
+        assertEquals(1, node.releases.get());
+    }
+
+    /**
+     * Node which counts its computations and releases.
+     */
+    static class CountingNode extends FrameNode<Integer> {
+
+        final AtomicInteger computations = new AtomicInteger();
+        final AtomicInteger releases = new AtomicInteger();
+
+        @Override
+        protected Integer compute(FrameContext context) {
+            return computations.incrementAndGet();
+        }
+
+        @Override
+        protected void release(Integer value) {
+            releases.incrementAndGet();
+        }
+
+    }
+
+    /**
+     * Node which records its name when it is released.
+     */
+    static class RecordingNode extends FrameNode<String> {
+
+        final String name;
+        final List<String> released;
+
+        RecordingNode(String name, List<String> released) {
+            this.name = name;
+            this.released = released;
+        }
+
+        @Override
+        protected String compute(FrameContext context) {
+            return name;
+        }
+
+        @Override
+        protected void release(String value) {
+            released.add(value);
+        }
+
+    }
+
+}
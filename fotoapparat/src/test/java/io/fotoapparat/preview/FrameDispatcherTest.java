@@ -0,0 +1,482 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FrameDispatcherTest {
+
+    static final long TIMEOUT_MS = 1000L;
+
+    static final Frame FRAME = new Frame(new Size(2, 2), new byte[6], 0);
+
+    @Mock
+    FrameDispatcher.OnFrameReleasedListener releasedListener;
+    @Mock
+    FrameProcessor frameProcessor;
+    @Mock
+    FrameProcessor otherFrameProcessor;
+    @Mock
+    ProcessorEventListener eventListener;
+
+    @Test
+    public void dispatch_NoProcessors() throws Exception {
+        // Given
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+
+        // When
+        testee.dispatch(FRAME);
+
+        // Then
+        verify(releasedListener).onFrameReleased(FRAME);
+    }
+
+    @Test
+    public void dispatch_AllProcessors() throws Exception {
+        // Given
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(frameProcessor, options(BackpressurePolicy.latestOnly()));
+        testee.addProcessor(otherFrameProcessor, options(BackpressurePolicy.latestOnly()));
+
+        // When
+        testee.dispatch(FRAME);
+
+        // Then
+        verify(frameProcessor, timeout(TIMEOUT_MS)).processFrame(FRAME);
+        verify(otherFrameProcessor, timeout(TIMEOUT_MS)).processFrame(FRAME);
+        verify(releasedListener, timeout(TIMEOUT_MS)).onFrameReleased(FRAME);
+    }
+
+    @Test
+    public void dispatch_ReleasedAfterAllLanes() throws Exception {
+        // Given
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(frameProcessor, options(BackpressurePolicy.latestOnly()));
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                await(latch);
+            }
+        }, options(BackpressurePolicy.latestOnly()));
+
+        // When
+        testee.dispatch(FRAME);
+
+        // Then
+        verify(frameProcessor, timeout(TIMEOUT_MS)).processFrame(FRAME);
+        verify(releasedListener, never()).onFrameReleased(FRAME);
+
+        latch.countDown();
+
+        verify(releasedListener, timeout(TIMEOUT_MS)).onFrameReleased(FRAME);
+    }
+
+    @Test
+    public void removeProcessor_ReleasesPendingFrames() throws Exception {
+        // Given
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        FrameProcessor blockingProcessor = new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                started.countDown();
+                await(latch);
+            }
+        };
+
+        Frame pendingFrame = new Frame(new Size(2, 2), new byte[6], 90);
+
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(blockingProcessor, options(BackpressurePolicy.latestOnly()));
+
+        testee.dispatch(FRAME);
+        await(started);
+        testee.dispatch(pendingFrame);
+
+        // When
+        testee.removeProcessor(blockingProcessor);
+
+        // Then
+        verify(releasedListener).onFrameReleased(pendingFrame);
+        verify(releasedListener, never()).onFrameReleased(FRAME);
+
+        latch.countDown();
+
+        verify(releasedListener, timeout(TIMEOUT_MS)).onFrameReleased(FRAME);
+    }
+
+    @Test
+    public void failingProcessorKeepsLaneAlive() throws Exception {
+        // Given
+        final CountDownLatch processed = new CountDownLatch(2);
+
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                processed.countDown();
+                throw new RuntimeException("Test");
+            }
+        }, options(BackpressurePolicy.dropOldest(2)));
+
+        // When
+        testee.dispatch(FRAME);
+        testee.dispatch(FRAME);
+
+        // Then
+        await(processed);
+        verify(releasedListener, timeout(TIMEOUT_MS).times(2)).onFrameReleased(FRAME);
+    }
+
+    @Test
+    public void latestOnly_DropsWaitingFrame() throws Exception {
+        // Given
+        BlockingFrameProcessor processor = new BlockingFrameProcessor();
+
+        Frame waitingFrame = new Frame(new Size(2, 2), new byte[6], 90);
+        Frame latestFrame = new Frame(new Size(2, 2), new byte[6], 180);
+
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(processor, options(BackpressurePolicy.latestOnly()));
+
+        testee.dispatch(FRAME);
+        await(processor.started);
+
+        // When
+        testee.dispatch(waitingFrame);
+        testee.dispatch(latestFrame);
+
+        // Then
+        verify(releasedListener).onFrameReleased(waitingFrame);
+        assertEquals(
+                new ProcessorStatistics(3, 0, 1, 1, 0, 0, 1, 0),
+                withoutProcessingTime(testee.getStatistics(processor))
+        );
+
+        processor.unblock();
+
+        verify(releasedListener, timeout(TIMEOUT_MS)).onFrameReleased(latestFrame);
+        assertEquals(
+                new ProcessorStatistics(3, 0, 2, 1, 0, 0, 1, 0),
+                withoutProcessingTime(testee.getStatistics(processor))
+        );
+    }
+
+    @Test
+    public void dropOldest_KeepsCapacity() throws Exception {
+        // Given
+        BlockingFrameProcessor processor = new BlockingFrameProcessor();
+
+        Frame oldestFrame = new Frame(new Size(2, 2), new byte[6], 90);
+
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(processor, options(BackpressurePolicy.dropOldest(2)));
+
+        testee.dispatch(FRAME);
+        await(processor.started);
+
+        // When
+        testee.dispatch(oldestFrame);
+        testee.dispatch(new Frame(new Size(2, 2), new byte[6], 180));
+        testee.dispatch(new Frame(new Size(2, 2), new byte[6], 270));
+
+        // Then
+        verify(releasedListener).onFrameReleased(oldestFrame);
+        assertEquals(1, testee.getStatistics(processor).droppedFrames);
+
+        processor.unblock();
+
+        verify(releasedListener, timeout(TIMEOUT_MS).times(4)).onFrameReleased(any(Frame.class));
+        assertEquals(
+                new ProcessorStatistics(4, 0, 3, 1, 0, 0, 1, 0),
+                withoutProcessingTime(testee.getStatistics(processor))
+        );
+    }
+
+    @Test
+    public void block_WaitsForFreeSlot() throws Exception {
+        // Given
+        final BlockingFrameProcessor processor = new BlockingFrameProcessor();
+        final FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(processor, options(BackpressurePolicy.block(1)));
+
+        testee.dispatch(FRAME);
+        await(processor.started);
+        testee.dispatch(FRAME);
+
+        final CountDownLatch dispatched = new CountDownLatch(1);
+
+        // When
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                testee.dispatch(FRAME);
+                dispatched.countDown();
+            }
+        }).start();
+
+        // Then
+        assertFalse(dispatched.await(100, TimeUnit.MILLISECONDS));
+
+        processor.unblock();
+
+        assertTrue(dispatched.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        verify(releasedListener, timeout(TIMEOUT_MS).times(3)).onFrameReleased(FRAME);
+        assertEquals(
+                new ProcessorStatistics(3, 0, 3, 0, 0, 0, 1, 0),
+                withoutProcessingTime(testee.getStatistics(processor))
+        );
+    }
+
+    @Test
+    public void everyNthFrame_SkippedFramesAreNotQueued() throws Exception {
+        // Given
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(
+                frameProcessor,
+                ProcessorOptions.builder()
+                        .backpressure(BackpressurePolicy.dropOldest(4))
+                        .everyNthFrame(2)
+                        .build()
+        );
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            testee.dispatch(FRAME);
+        }
+
+        // Then
+        verify(releasedListener, timeout(TIMEOUT_MS).times(4)).onFrameReleased(FRAME);
+        verify(frameProcessor, times(2)).processFrame(FRAME);
+        assertEquals(
+                new ProcessorStatistics(2, 2, 2, 0, 0, 0, 1, 0),
+                withoutProcessingTime(testee.getStatistics(frameProcessor))
+        );
+    }
+
+    @Test
+    public void failingProcessor_IsIsolated() throws Exception {
+        // Given
+        willThrow(new RuntimeException("Test"))
+                .given(frameProcessor)
+                .processFrame(any(Frame.class));
+
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(
+                frameProcessor,
+                ProcessorOptions.builder()
+                        .backpressure(BackpressurePolicy.dropOldest(2))
+                        .eventListener(eventListener)
+                        .build()
+        );
+        testee.addProcessor(otherFrameProcessor, options(BackpressurePolicy.dropOldest(2)));
+
+        // When
+        testee.dispatch(FRAME);
+        testee.dispatch(FRAME);
+
+        // Then
+        verify(releasedListener, timeout(TIMEOUT_MS).times(2)).onFrameReleased(FRAME);
+        verify(frameProcessor, times(2)).processFrame(FRAME);
+        verify(otherFrameProcessor, times(2)).processFrame(FRAME);
+        verify(eventListener, times(2)).onProcessorEvent(any(ProcessorEvent.class));
+        assertEquals(
+                new ProcessorStatistics(2, 0, 2, 0, 2, 0, 1, 0),
+                withoutProcessingTime(testee.getStatistics(frameProcessor))
+        );
+    }
+
+    @Test
+    public void getStatistics_NotRegistered() throws Exception {
+        // Given
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+
+        // When
+        ProcessorStatistics statistics = testee.getStatistics(frameProcessor);
+
+        // Then
+        assertNull(statistics);
+    }
+
+    @Test
+    public void addAndRemoveDoNotWaitForProcessing() throws Exception {
+        // Given
+        BlockingFrameProcessor blockingProcessor = new BlockingFrameProcessor();
+
+        FrameDispatcher testee = new FrameDispatcher(releasedListener);
+        testee.addProcessor(blockingProcessor, options(BackpressurePolicy.latestOnly()));
+
+        testee.dispatch(FRAME);
+        await(blockingProcessor.started);
+
+        // When
+        testee.addProcessor(frameProcessor, options(BackpressurePolicy.latestOnly()));
+        testee.removeProcessor(frameProcessor);
+        testee.removeProcessor(blockingProcessor);
+
+        // Then
+        assertNull(testee.getStatistics(frameProcessor));
+        assertNull(testee.getStatistics(blockingProcessor));
+
+        blockingProcessor.unblock();
+
+        verify(releasedListener, timeout(TIMEOUT_MS)).onFrameReleased(FRAME);
+    }
+
+    @Test
+    public void dispatch_DoesNotAllocateAfterWarmUp() throws Exception {
+        // Given
+        final int warmUpFrames = 2000;
+        final int measuredFrames = 1000;
+
+        final AtomicLong releasedFrames = new AtomicLong();
+        final AllocationRecordingProcessor processor = new AllocationRecordingProcessor(
+                warmUpFrames,
+                warmUpFrames + measuredFrames - 1
+        );
+
+        FrameDispatcher testee = new FrameDispatcher(new FrameDispatcher.OnFrameReleasedListener() {
+            @Override
+            public void onFrameReleased(Frame frame) {
+                releasedFrames.incrementAndGet();
+            }
+        });
+        testee.addProcessor(processor, options(BackpressurePolicy.dropOldest(3)));
+
+        Size size = new Size(2, 2);
+        byte[][] images = {new byte[6], new byte[6], new byte[6]};
+
+        long dispatchAllocatedBytes = 0;
+
+        // When
+        for (int i = 0; i < warmUpFrames + measuredFrames; i++) {
+            if (i == warmUpFrames) {
+                dispatchAllocatedBytes = -allocatedBytes(Thread.currentThread());
+            }
+
+            testee.dispatch(size, images[i % images.length], 0, i, i + 1);
+
+            while (releasedFrames.get() <= i) {
+                Thread.yield();
+            }
+        }
+
+        dispatchAllocatedBytes += allocatedBytes(Thread.currentThread());
+
+        // Then
+        assertTrue(
+                "Dispatch allocated " + dispatchAllocatedBytes + " bytes",
+                dispatchAllocatedBytes < measuredFrames
+        );
+        assertTrue(
+                "Lane allocated " + processor.allocatedBytes + " bytes",
+                processor.allocatedBytes < measuredFrames
+        );
+    }
+
+    private static long allocatedBytes(Thread thread) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        return threadMXBean.getThreadAllocatedBytes(thread.getId());
+    }
+
+    private static ProcessorStatistics withoutProcessingTime(ProcessorStatistics statistics) {
+        return new ProcessorStatistics(
+                statistics.deliveredFrames,
+                statistics.skippedFrames,
+                statistics.processedFrames,
+                statistics.droppedFrames,
+                statistics.failedFrames,
+                statistics.overBudgetFrames,
+                statistics.rateDivisor,
+                0
+        );
+    }
+
+    private static ProcessorOptions options(BackpressurePolicy policy) {
+        return ProcessorOptions.builder()
+                .backpressure(policy)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            // Do nothing
+        }
+    }
+
+    /**
+     * {@link FrameProcessor} which measures how much its own thread allocates between two frames.
+     */
+    static class AllocationRecordingProcessor implements FrameProcessor {
+
+        final long firstSequenceNumber;
+        final long lastSequenceNumber;
+
+        volatile long allocatedBytes = Long.MAX_VALUE;
+
+        private long startAllocatedBytes;
+
+        AllocationRecordingProcessor(long firstSequenceNumber, long lastSequenceNumber) {
+            this.firstSequenceNumber = firstSequenceNumber;
+            this.lastSequenceNumber = lastSequenceNumber;
+        }
+
+        @Override
+        public void processFrame(Frame frame) {
+            if (frame.getSequenceNumber() == firstSequenceNumber) {
+                startAllocatedBytes = allocatedBytes(Thread.currentThread());
+            } else if (frame.getSequenceNumber() == lastSequenceNumber) {
+                allocatedBytes = allocatedBytes(Thread.currentThread()) - startAllocatedBytes;
+            }
+        }
+
+    }
+
+    /**
+     * {@link FrameProcessor} which does not return until it is unblocked.
+     */
+    static class BlockingFrameProcessor implements FrameProcessor {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void processFrame(Frame frame) {
+            started.countDown();
+            await(latch);
+        }
+
+        void unblock() {
+            latch.countDown();
+        }
+
+    }
+
+}
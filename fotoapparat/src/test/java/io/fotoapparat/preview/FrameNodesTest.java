@@ -0,0 +1,82 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class FrameNodesTest {
+
+    static final Frame FRAME = new Frame(
+            new Size(4, 2),
+            new byte[]{
+                    // Luma
+                    0, 0, 10, (byte) 255,
+                    10, 10, 20, 20,
+                    // Chroma (V, U)
+                    1, 2, 3, 4
+            },
+            0
+    );
+
+    @Test
+    public void lumaHistogram() throws Exception {
+        // Given
+        FrameNode<int[]> testee = FrameNodes.lumaHistogram();
+
+        // When
+        int[] result = new FrameContext(FRAME).get(testee);
+
+        // Then
+        assertEquals(FrameNodes.HISTOGRAM_BINS, result.length);
+        assertEquals(2, result[0]);
+        assertEquals(3, result[10]);
+        assertEquals(2, result[20]);
+        assertEquals(1, result[255]);
+        assertEquals(0, result[1]);
+    }
+
+    @Test
+    public void lumaHistogram_OfScaledImage() throws Exception {
+        // Given
+        FrameNode<PreviewImage> scaled = FrameNodes.scaled(
+                FrameScaler.builder()
+                        .outputSize(new Size(2, 2))
+                        .format(PreviewImage.Format.LUMA)
+                        .build()
+        );
+        FrameNode<int[]> testee = FrameNodes.lumaHistogram(scaled);
+
+        FrameContext context = new FrameContext(FRAME);
+
+        // When
+        int[] result = context.get(testee);
+
+        // Then
+        assertEquals(1, result[0]);
+        assertEquals(1, result[10]);
+        assertEquals(1, result[20]);
+        assertEquals(1, result[133]);
+    }
+
+    @Test
+    public void releasedHistogramIsReused() throws Exception {
+        // Given
+        FrameNode<int[]> testee = FrameNodes.lumaHistogram();
+
+        FrameContext context = new FrameContext(FRAME);
+        int[] first = context.get(testee);
+
+        // When
+        context.release();
+        context.reset(FRAME);
+        int[] second = context.get(testee);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(2, second[0]);
+    }
+
+}
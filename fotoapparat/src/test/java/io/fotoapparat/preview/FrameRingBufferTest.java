@@ -0,0 +1,129 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FrameRingBufferTest {
+
+    static final Size SIZE = new Size(2, 1);
+
+    @Test
+    public void acquireClosestFrame() throws Exception {
+        // Given
+        FrameRingBuffer testee = new FrameRingBuffer(3);
+        testee.processFrame(frame(1, 100L));
+        testee.processFrame(frame(2, 200L));
+        testee.processFrame(frame(3, 300L));
+
+        // When
+        Frame result = testee.acquireClosestFrame(190L);
+
+        // Then
+        assertEquals(2, result.image[0]);
+        assertEquals(200L, result.getTimestampNanos());
+        assertEquals(90, result.rotation);
+    }
+
+    @Test
+    public void acquireClosestFrame_Empty() throws Exception {
+        // Given
+        FrameRingBuffer testee = new FrameRingBuffer(3);
+
+        // When
+        Frame result = testee.acquireClosestFrame(100L);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void framesAreCopied() throws Exception {
+        // Given
+        Frame frame = frame(1, 100L);
+
+        FrameRingBuffer testee = new FrameRingBuffer(1);
+        testee.processFrame(frame);
+
+        // When
+        frame.image[0] = 5;
+        Frame result = testee.acquireClosestFrame(100L);
+
+        // Then
+        assertNotSame(frame.image, result.image);
+        assertArrayEquals(new byte[]{1, 1}, result.image);
+    }
+
+    @Test
+    public void oldestFrameIsOverwritten() throws Exception {
+        // Given
+        FrameRingBuffer testee = new FrameRingBuffer(2);
+        testee.processFrame(frame(1, 100L));
+        testee.processFrame(frame(2, 200L));
+
+        // When
+        testee.processFrame(frame(3, 300L));
+
+        // Then
+        assertEquals(2, testee.acquireClosestFrame(0L).image[0]);
+    }
+
+    @Test
+    public void acquiredFrameIsNotOverwritten() throws Exception {
+        // Given
+        FrameRingBuffer testee = new FrameRingBuffer(2);
+        testee.processFrame(frame(1, 100L));
+        testee.processFrame(frame(2, 200L));
+
+        Frame acquired = testee.acquireClosestFrame(100L);
+
+        // When
+        testee.processFrame(frame(3, 300L));
+        testee.processFrame(frame(4, 400L));
+
+        // Then
+        assertEquals(1, acquired.image[0]);
+        assertEquals(4, testee.acquireClosestFrame(400L).image[0]);
+    }
+
+    @Test
+    public void releasedSlotIsReused() throws Exception {
+        // Given
+        FrameRingBuffer testee = new FrameRingBuffer(1);
+        testee.processFrame(frame(1, 100L));
+
+        Frame acquired = testee.acquireClosestFrame(100L);
+        testee.processFrame(frame(2, 200L));
+
+        // When
+        testee.release(acquired);
+        testee.processFrame(frame(3, 300L));
+
+        // Then
+        Frame result = testee.acquireClosestFrame(300L);
+        assertSame(acquired.image, result.image);
+        assertEquals(3, result.image[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity() throws Exception {
+        // When
+        new FrameRingBuffer(0);
+
+        // Then
+        // Expect exception
+    }
+
+    private static Frame frame(int value, long timestampNanos) {
+        byte[] image = new byte[]{(byte) value, (byte) value};
+
+        return new Frame(SIZE, image, 90, value, timestampNanos, timestampNanos);
+    }
+
+}
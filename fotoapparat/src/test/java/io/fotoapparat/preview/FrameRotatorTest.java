@@ -0,0 +1,212 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FrameRotatorTest {
+
+    static final Frame SMALL_FRAME = new Frame(
+            new Size(4, 2),
+            new byte[]{
+                    // Luma
+                    1, 2, 3, 4,
+                    5, 6, 7, 8,
+                    // Chroma (V, U)
+                    10, 11, 12, 13
+            },
+            90
+    );
+
+    @Test
+    public void rotate_90() throws Exception {
+        // Given
+        FrameRotator testee = FrameRotator.builder().build();
+
+        // When
+        PreviewImage result = testee.rotate(SMALL_FRAME);
+
+        // Then
+        assertEquals(new Size(2, 4), result.size);
+        assertEquals(0, result.rotation);
+        assertEquals(PreviewImage.Format.NV21, result.format);
+        assertArrayEquals(
+                new byte[]{
+                        5, 1,
+                        6, 2,
+                        7, 3,
+                        8, 4,
+                        10, 11,
+                        12, 13
+                },
+                result.image
+        );
+    }
+
+    @Test
+    public void rotate_90_Mirrored() throws Exception {
+        // Given
+        FrameRotator testee = FrameRotator.builder()
+                .mirror(true)
+                .build();
+
+        // When
+        PreviewImage result = testee.rotate(SMALL_FRAME);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        1, 5,
+                        2, 6,
+                        3, 7,
+                        4, 8,
+                        10, 11,
+                        12, 13
+                },
+                result.image
+        );
+    }
+
+    @Test
+    public void allRotations_MatchReference() throws Exception {
+        Size size = new Size(70, 38);
+        byte[] image = new byte[PreviewImage.Format.NV21.bytesFor(size.width, size.height)];
+        new Random(42).nextBytes(image);
+
+        for (boolean mirror : new boolean[]{false, true}) {
+            for (int rotation = -90; rotation <= 360; rotation += 90) {
+                // Given
+                FrameRotator testee = FrameRotator.builder()
+                        .mirror(mirror)
+                        .build();
+
+                // When
+                PreviewImage result = testee.rotate(new Frame(size, image, rotation));
+
+                // Then
+                assertArrayEquals(
+                        "rotation " + rotation + ", mirror " + mirror,
+                        referenceNv21(size, image, rotation, mirror),
+                        result.image
+                );
+            }
+        }
+    }
+
+    @Test
+    public void rotate_Luma() throws Exception {
+        // Given
+        FrameRotator testee = FrameRotator.builder().build();
+
+        PreviewImage image = new PreviewImage(
+                new Size(3, 2),
+                new byte[]{
+                        1, 2, 3,
+                        4, 5, 6
+                },
+                PreviewImage.Format.LUMA,
+                270
+        );
+
+        // When
+        PreviewImage result = testee.rotate(image);
+
+        // Then
+        assertEquals(new Size(2, 3), result.size);
+        assertEquals(PreviewImage.Format.LUMA, result.format);
+        assertArrayEquals(
+                new byte[]{
+                        3, 6,
+                        2, 5,
+                        1, 4
+                },
+                result.image
+        );
+    }
+
+    @Test
+    public void releasedArrayIsReused() throws Exception {
+        // Given
+        FrameRotator testee = FrameRotator.builder().build();
+
+        PreviewImage first = testee.rotate(SMALL_FRAME);
+        byte[] array = first.image;
+
+        // When
+        first.release();
+        PreviewImage second = testee.rotate(SMALL_FRAME);
+
+        // Then
+        assertTrue(array == second.image);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRotation() throws Exception {
+        // Given
+        FrameRotator testee = FrameRotator.builder().build();
+
+        // When
+        testee.rotate(new Frame(SMALL_FRAME.size, SMALL_FRAME.image, 45));
+
+        // Then
+        // Expect exception
+    }
+
+    private static byte[] referenceNv21(Size size, byte[] image, int rotation, boolean mirror) {
+        byte[] result = new byte[image.length];
+
+        referencePlane(image, 0, size.width, size.height, 1, result, rotation, mirror);
+        referencePlane(image, size.width * size.height, size.width / 2, size.height / 2, 2, result, rotation, mirror);
+
+        return result;
+    }
+
+    private static void referencePlane(byte[] source,
+                                       int offset,
+                                       int width,
+                                       int height,
+                                       int channels,
+                                       byte[] output,
+                                       int rotation,
+                                       boolean mirror) {
+        int degrees = ((rotation % 360) + 360) % 360;
+        int outputWidth = degrees % 180 == 0 ? width : height;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int outputX;
+                int outputY;
+
+                if (degrees == 90) {
+                    outputX = height - 1 - y;
+                    outputY = x;
+                } else if (degrees == 180) {
+                    outputX = width - 1 - x;
+                    outputY = height - 1 - y;
+                } else if (degrees == 270) {
+                    outputX = y;
+                    outputY = width - 1 - x;
+                } else {
+                    outputX = x;
+                    outputY = y;
+                }
+
+                if (mirror) {
+                    outputX = outputWidth - 1 - outputX;
+                }
+
+                for (int channel = 0; channel < channels; channel++) {
+                    output[offset + (outputY * outputWidth + outputX) * channels + channel] =
+                            source[offset + (y * width + x) * channels + channel];
+                }
+            }
+        }
+    }
+
+}
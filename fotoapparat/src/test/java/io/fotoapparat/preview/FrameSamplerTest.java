@@ -0,0 +1,133 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrameSamplerTest {
+
+    static final long FRAME_30_FPS_NANOS = TimeUnit.SECONDS.toNanos(1) / 30;
+
+    @Test
+    public void everyFrame() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(ProcessorOptions.defaults());
+
+        // When
+        int accepted = acceptedFrames(testee, 30, FRAME_30_FPS_NANOS);
+
+        // Then
+        assertEquals(30, accepted);
+    }
+
+    @Test
+    public void everyNthFrame() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(
+                ProcessorOptions.builder()
+                        .everyNthFrame(3)
+                        .build()
+        );
+
+        // Then
+        assertTrue(testee.accept(0));
+        assertFalse(testee.accept(1));
+        assertFalse(testee.accept(2));
+        assertTrue(testee.accept(3));
+    }
+
+    @Test
+    public void maxFrameRate() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(
+                ProcessorOptions.builder()
+                        .maxFrameRate(10f)
+                        .build()
+        );
+
+        // When
+        int accepted = acceptedFrames(testee, 300, FRAME_30_FPS_NANOS);
+
+        // Then
+        assertEquals(100, accepted);
+    }
+
+    @Test
+    public void maxFrameRate_NotMultipleOfStreamRate() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(
+                ProcessorOptions.builder()
+                        .maxFrameRate(12f)
+                        .build()
+        );
+
+        // When
+        int accepted = acceptedFrames(testee, 300, FRAME_30_FPS_NANOS);
+
+        // Then
+        assertEquals(120, accepted);
+    }
+
+    @Test
+    public void maxFrameRate_AboveStreamRate() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(
+                ProcessorOptions.builder()
+                        .maxFrameRate(60f)
+                        .build()
+        );
+
+        // When
+        int accepted = acceptedFrames(testee, 30, FRAME_30_FPS_NANOS);
+
+        // Then
+        assertEquals(30, accepted);
+    }
+
+    @Test
+    public void rateDivisor() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(
+                ProcessorOptions.builder()
+                        .maxFrameRate(10f)
+                        .build()
+        );
+
+        // When
+        testee.setRateDivisor(2);
+        int accepted = acceptedFrames(testee, 300, FRAME_30_FPS_NANOS);
+
+        // Then
+        assertEquals(50, accepted);
+    }
+
+    @Test
+    public void rateDivisor_EveryNthFrame() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(ProcessorOptions.defaults());
+
+        // When
+        testee.setRateDivisor(4);
+        int accepted = acceptedFrames(testee, 32, FRAME_30_FPS_NANOS);
+
+        // Then
+        assertEquals(8, accepted);
+    }
+
+    private static int acceptedFrames(FrameSampler sampler, int framesCount, long frameNanos) {
+        int accepted = 0;
+
+        for (int i = 0; i < framesCount; i++) {
+            if (sampler.accept(i * frameNanos)) {
+                accepted++;
+            }
+        }
+
+        return accepted;
+    }
+
+}
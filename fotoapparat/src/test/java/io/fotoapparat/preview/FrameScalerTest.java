@@ -0,0 +1,210 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class FrameScalerTest {
+
+    static final Frame FRAME = new Frame(
+            new Size(4, 4),
+            new byte[]{
+                    // Luma
+                    10, 20, 30, 40,
+                    30, 40, 50, 60,
+                    70, 80, 90, 100,
+                    90, 100, 110, (byte) 200,
+                    // Chroma (V, U)
+                    1, 2, 3, 4,
+                    5, 6, 7, 8
+            },
+            90
+    );
+
+    @Test
+    public void box_Luma() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(new Size(2, 2))
+                .format(PreviewImage.Format.LUMA)
+                .build();
+
+        // When
+        PreviewImage result = testee.scale(FRAME);
+
+        // Then
+        assertEquals(new Size(2, 2), result.size);
+        assertEquals(PreviewImage.Format.LUMA, result.format);
+        assertEquals(90, result.rotation);
+        assertArrayEquals(
+                new byte[]{
+                        25, 45,
+                        85, (byte) 125
+                },
+                result.image
+        );
+    }
+
+    @Test
+    public void box_Nv21() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(new Size(2, 2))
+                .build();
+
+        // When
+        PreviewImage result = testee.scale(FRAME);
+
+        // Then
+        assertEquals(PreviewImage.Format.NV21, result.format);
+        assertArrayEquals(
+                new byte[]{
+                        25, 45,
+                        85, (byte) 125,
+                        4, 5
+                },
+                result.image
+        );
+    }
+
+    @Test
+    public void bilinear_SameSize() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(FRAME.size)
+                .filter(FrameScaler.Filter.BILINEAR)
+                .build();
+
+        // When
+        PreviewImage result = testee.scale(FRAME);
+
+        // Then
+        assertArrayEquals(FRAME.image, result.image);
+    }
+
+    @Test
+    public void bilinear_Downscale() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(new Size(2, 2))
+                .filter(FrameScaler.Filter.BILINEAR)
+                .format(PreviewImage.Format.LUMA)
+                .build();
+
+        // When
+        PreviewImage result = testee.scale(FRAME);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        25, 45,
+                        85, (byte) 125
+                },
+                result.image
+        );
+    }
+
+    @Test
+    public void region() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(new Size(2, 2))
+                .region(2, 2, 2, 2)
+                .build();
+
+        // When
+        PreviewImage result = testee.scale(FRAME);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        90, 100,
+                        110, (byte) 200,
+                        7, 8
+                },
+                result.image
+        );
+    }
+
+    @Test
+    public void region_ClippedToFrame() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(new Size(2, 2))
+                .format(PreviewImage.Format.LUMA)
+                .region(2, 0, 10, 2)
+                .build();
+
+        // When
+        PreviewImage result = testee.scale(FRAME);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        30, 40,
+                        50, 60
+                },
+                result.image
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void region_OutsideOfFrame() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(new Size(2, 2))
+                .region(10, 10, 2, 2)
+                .build();
+
+        // When
+        testee.scale(FRAME);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test
+    public void outputSize_EvenForNv21() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(new Size(3, 3))
+                .build();
+
+        // When
+        PreviewImage result = testee.scale(FRAME);
+
+        // Then
+        assertEquals(new Size(2, 2), result.size);
+    }
+
+    @Test
+    public void release_ReusesArray() throws Exception {
+        // Given
+        FrameScaler testee = FrameScaler.builder()
+                .outputSize(new Size(2, 2))
+                .build();
+
+        PreviewImage first = testee.scale(FRAME);
+        first.release();
+
+        // When
+        PreviewImage second = testee.scale(FRAME);
+
+        // Then
+        assertSame(first.image, second.image);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void build_NoOutputSize() throws Exception {
+        // When
+        FrameScaler.builder().build();
+
+        // Then
+        // Expect exception
+    }
+
+}
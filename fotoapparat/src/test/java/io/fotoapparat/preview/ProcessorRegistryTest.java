@@ -0,0 +1,99 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessorRegistryTest {
+
+    @Mock
+    FrameProcessor frameProcessor;
+    @Mock
+    FrameProcessor otherFrameProcessor;
+    @Mock
+    ProcessorLane lane;
+    @Mock
+    ProcessorLane otherLane;
+
+    @Test
+    public void add() throws Exception {
+        // Given
+        ProcessorRegistry testee = new ProcessorRegistry();
+
+        // When
+        boolean added = testee.add(lane, frameProcessor);
+        testee.add(otherLane, otherFrameProcessor);
+
+        // Then
+        assertTrue(added);
+        assertSame(lane, testee.get(frameProcessor));
+        assertArrayEquals(new ProcessorLane[]{lane, otherLane}, testee.lanes());
+    }
+
+    @Test
+    public void add_AlreadyRegistered() throws Exception {
+        // Given
+        ProcessorRegistry testee = new ProcessorRegistry();
+        testee.add(lane, frameProcessor);
+
+        // When
+        boolean added = testee.add(otherLane, frameProcessor);
+
+        // Then
+        assertFalse(added);
+        assertSame(lane, testee.get(frameProcessor));
+    }
+
+    @Test
+    public void remove() throws Exception {
+        // Given
+        ProcessorRegistry testee = new ProcessorRegistry();
+        testee.add(lane, frameProcessor);
+        testee.add(otherLane, otherFrameProcessor);
+
+        // When
+        ProcessorLane removed = testee.remove(frameProcessor);
+
+        // Then
+        assertSame(lane, removed);
+        assertNull(testee.get(frameProcessor));
+        assertArrayEquals(new ProcessorLane[]{otherLane}, testee.lanes());
+    }
+
+    @Test
+    public void remove_NotRegistered() throws Exception {
+        // Given
+        ProcessorRegistry testee = new ProcessorRegistry();
+
+        // When
+        ProcessorLane removed = testee.remove(frameProcessor);
+
+        // Then
+        assertNull(removed);
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByChanges() throws Exception {
+        // Given
+        ProcessorRegistry testee = new ProcessorRegistry();
+        testee.add(lane, frameProcessor);
+
+        ProcessorLane[] snapshot = testee.lanes();
+
+        // When
+        testee.add(otherLane, otherFrameProcessor);
+        testee.remove(frameProcessor);
+
+        // Then
+        assertArrayEquals(new ProcessorLane[]{lane}, snapshot);
+    }
+
+}
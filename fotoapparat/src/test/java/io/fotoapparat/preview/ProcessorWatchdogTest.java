@@ -0,0 +1,179 @@
+package io.fotoapparat.preview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.fotoapparat.preview.ProcessorWatchdog.DEMOTION_STRIKES;
+import static io.fotoapparat.preview.ProcessorWatchdog.MAX_RATE_DIVISOR;
+import static io.fotoapparat.preview.ProcessorWatchdog.PROMOTION_FRAMES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessorWatchdogTest {
+
+    static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    static final long FAST_NANOS = BUDGET_NANOS / 2;
+    static final long SLOW_NANOS = BUDGET_NANOS * 2;
+
+    @Mock
+    FrameProcessor processor;
+    @Mock
+    ProcessorEventListener eventListener;
+    @Mock
+    FrameSampler sampler;
+
+    ProcessorWatchdog testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new ProcessorWatchdog(
+                processor,
+                ProcessorOptions.builder()
+                        .timeBudget(BUDGET_NANOS, TimeUnit.NANOSECONDS)
+                        .eventListener(eventListener)
+                        .build(),
+                sampler
+        );
+    }
+
+    @Test
+    public void withinBudget() throws Exception {
+        // When
+        boolean overBudget = testee.onFrameProcessed(FAST_NANOS, null);
+
+        // Then
+        assertFalse(overBudget);
+        verify(eventListener, never()).onProcessorEvent(any(ProcessorEvent.class));
+    }
+
+    @Test
+    public void overBudget() throws Exception {
+        // When
+        boolean overBudget = testee.onFrameProcessed(SLOW_NANOS, null);
+
+        // Then
+        assertTrue(overBudget);
+        verify(eventListener).onProcessorEvent(
+                new ProcessorEvent(processor, ProcessorEvent.Type.OVER_BUDGET, SLOW_NANOS, 1, null)
+        );
+    }
+
+    @Test
+    public void noBudget() throws Exception {
+        // Given
+        ProcessorWatchdog testee = new ProcessorWatchdog(
+                processor,
+                ProcessorOptions.builder()
+                        .eventListener(eventListener)
+                        .build(),
+                sampler
+        );
+
+        // When
+        boolean overBudget = testee.onFrameProcessed(Long.MAX_VALUE, null);
+
+        // Then
+        assertFalse(overBudget);
+        verify(eventListener, never()).onProcessorEvent(any(ProcessorEvent.class));
+    }
+
+    @Test
+    public void failure() throws Exception {
+        // Given
+        RuntimeException failure = new RuntimeException("Test");
+
+        // When
+        testee.onFrameProcessed(FAST_NANOS, failure);
+
+        // Then
+        verify(eventListener).onProcessorEvent(
+                new ProcessorEvent(processor, ProcessorEvent.Type.FAILED, FAST_NANOS, 1, failure)
+        );
+    }
+
+    @Test
+    public void demotedAfterStrikes() throws Exception {
+        // When
+        for (int i = 0; i < DEMOTION_STRIKES; i++) {
+            testee.onFrameProcessed(SLOW_NANOS, null);
+        }
+
+        // Then
+        assertEquals(2, testee.getRateDivisor());
+        verify(sampler).setRateDivisor(2);
+        verify(eventListener).onProcessorEvent(
+                new ProcessorEvent(processor, ProcessorEvent.Type.DEMOTED, SLOW_NANOS, 2, null)
+        );
+    }
+
+    @Test
+    public void notDemoted_StrikesNotInARow() throws Exception {
+        // When
+        for (int i = 0; i < DEMOTION_STRIKES * 2; i++) {
+            testee.onFrameProcessed(i % 2 == 0 ? SLOW_NANOS : FAST_NANOS, null);
+        }
+
+        // Then
+        assertEquals(1, testee.getRateDivisor());
+        verify(sampler, never()).setRateDivisor(any(Integer.class));
+    }
+
+    @Test
+    public void demotionIsLimited() throws Exception {
+        // When
+        for (int i = 0; i < DEMOTION_STRIKES * 10; i++) {
+            testee.onFrameProcessed(SLOW_NANOS, new RuntimeException("Test"));
+        }
+
+        // Then
+        assertEquals(MAX_RATE_DIVISOR, testee.getRateDivisor());
+        verify(sampler).setRateDivisor(MAX_RATE_DIVISOR);
+    }
+
+    @Test
+    public void promotedAfterFramesWithinBudget() throws Exception {
+        // Given
+        for (int i = 0; i < DEMOTION_STRIKES * 2; i++) {
+            testee.onFrameProcessed(SLOW_NANOS, null);
+        }
+
+        // When
+        for (int i = 0; i < PROMOTION_FRAMES; i++) {
+            testee.onFrameProcessed(FAST_NANOS, null);
+        }
+
+        // Then
+        assertEquals(2, testee.getRateDivisor());
+        verify(sampler, times(2)).setRateDivisor(2);
+        verify(eventListener).onProcessorEvent(
+                new ProcessorEvent(processor, ProcessorEvent.Type.PROMOTED, FAST_NANOS, 2, null)
+        );
+    }
+
+    @Test
+    public void failingListenerIsIgnored() throws Exception {
+        // Given
+        willThrow(new RuntimeException("Test"))
+                .given(eventListener)
+                .onProcessorEvent(any(ProcessorEvent.class));
+
+        // When
+        boolean overBudget = testee.onFrameProcessed(SLOW_NANOS, null);
+
+        // Then
+        assertTrue(overBudget);
+    }
+
+}
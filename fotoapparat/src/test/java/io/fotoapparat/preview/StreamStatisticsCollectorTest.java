@@ -0,0 +1,110 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamStatisticsCollectorTest {
+
+    static final long INTERVAL = 33_000_000L;
+
+    @Test
+    public void noFrames() throws Exception {
+        // Given
+        StreamStatisticsCollector testee = new StreamStatisticsCollector();
+
+        // When
+        StreamStatistics result = testee.getStatistics();
+
+        // Then
+        assertEquals(StreamStatistics.EMPTY, result);
+    }
+
+    @Test
+    public void regularFrames() throws Exception {
+        // Given
+        StreamStatisticsCollector testee = new StreamStatisticsCollector();
+
+        // When
+        for (int i = 1; i <= 4; i++) {
+            testee.onFrameDispatched(frame(i, i * INTERVAL, i * INTERVAL + 1000));
+        }
+
+        // Then
+        StreamStatistics result = testee.getStatistics();
+
+        assertEquals(4, result.dispatchedFrames);
+        assertEquals(0, result.lostFrames);
+        assertEquals(INTERVAL, result.averageFrameIntervalNanos);
+        assertEquals(INTERVAL, result.maxFrameIntervalNanos);
+        assertEquals(1000, result.averageDispatchLatencyNanos);
+    }
+
+    @Test
+    public void gapIsCountedAsLostFrames() throws Exception {
+        // Given
+        StreamStatisticsCollector testee = new StreamStatisticsCollector();
+
+        testee.onFrameDispatched(frame(0, INTERVAL, 0));
+        testee.onFrameDispatched(frame(1, 2 * INTERVAL, 0));
+        testee.onFrameDispatched(frame(2, 3 * INTERVAL, 0));
+
+        // When
+        testee.onFrameDispatched(frame(3, 6 * INTERVAL, 0));
+
+        // Then
+        StreamStatistics result = testee.getStatistics();
+
+        assertEquals(2, result.lostFrames);
+        assertEquals(3 * INTERVAL, result.maxFrameIntervalNanos);
+    }
+
+    @Test
+    public void processingLatency() throws Exception {
+        // Given
+        StreamStatisticsCollector testee = new StreamStatisticsCollector();
+        Frame frame = frame(0, 1000, 0);
+
+        // When
+        testee.onFrameProcessing(frame, 2000);
+        testee.onFrameProcessing(frame, 5000);
+
+        // Then
+        StreamStatistics result = testee.getStatistics();
+
+        assertEquals(2500, result.averageProcessingLatencyNanos);
+        assertEquals(4000, result.maxProcessingLatencyNanos);
+    }
+
+    @Test
+    public void framesWithoutTimestamp() throws Exception {
+        // Given
+        StreamStatisticsCollector testee = new StreamStatisticsCollector();
+        Frame frame = new Frame(new Size(2, 2), new byte[6], 0);
+
+        // When
+        testee.onFrameDispatched(frame);
+        testee.onFrameDispatched(frame);
+        testee.onFrameProcessing(frame, 1000);
+
+        // Then
+        assertEquals(
+                new StreamStatistics(2, 0, 0, 0, 0, 0, 0),
+                testee.getStatistics()
+        );
+    }
+
+    private static Frame frame(long sequenceNumber, long timestampNanos, long dispatchTimestampNanos) {
+        return new Frame(
+                new Size(2, 2),
+                new byte[6],
+                0,
+                sequenceNumber,
+                timestampNanos,
+                dispatchTimestampNanos
+        );
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.fotoapparat.result;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.Callable;
+
+import io.fotoapparat.test.ImmediateExecutor;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ListenableFutureTaskTest {
+
+    static final Callable<String> CALLABLE = new Callable<String>() {
+        @Override
+        public String call() throws Exception {
+            return "Result";
+        }
+    };
+
+    @Mock
+    Runnable listener;
+
+    ListenableFutureTask<String> testee = new ListenableFutureTask<>(CALLABLE);
+
+    @Test
+    public void listenerNotifiedOnCompletion() throws Exception {
+        // Given
+        testee.addListener(listener, new ImmediateExecutor());
+
+        verifyZeroInteractions(listener);
+
+        // When
+        testee.run();
+
+        // Then
+        verify(listener).run();
+    }
+
+    @Test
+    public void listenerNotifiedRightAwayWhenCompleted() throws Exception {
+        // Given
+        testee.run();
+
+        // When
+        testee.addListener(listener, new ImmediateExecutor());
+
+        // Then
+        verify(listener).run();
+    }
+
+    @Test
+    public void listenerNotifiedOnCancellation() throws Exception {
+        // Given
+        testee.addListener(listener, new ImmediateExecutor());
+
+        // When
+        testee.cancel(false);
+
+        // Then
+        verify(listener).run();
+    }
+
+}
@@ -6,16 +6,23 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.result.adapter.Adapter;
 import io.fotoapparat.result.transformer.Transformer;
 import io.fotoapparat.test.ImmediateExecutor;
 
 import static io.fotoapparat.test.TestUtils.immediateFuture;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PendingResultTest {
@@ -27,6 +34,10 @@ public class PendingResultTest {
     Transformer<String, Integer> transformer;
     @Mock
     Adapter<String, Integer> adapter;
+    @Mock
+    PendingResult.Callback<String> callback;
+    @Mock
+    PendingResult.FailureCallback failureCallback;
 
     PendingResult<String> testee;
 
@@ -55,6 +66,103 @@ public class PendingResultTest {
         );
     }
 
+    @Test
+    public void transform_WaitsForCompletion() throws Exception {
+        // Given
+        ListenableFutureTask<String> task = new ListenableFutureTask<>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return RESULT;
+            }
+        });
+
+        given(transformer.transform(RESULT))
+                .willReturn(123);
+
+        PendingResult<Integer> pendingResult = new PendingResult<>(task, new ImmediateExecutor())
+                .transform(transformer);
+
+        verifyZeroInteractions(transformer);
+
+        // When
+        task.run();
+
+        // Then
+        assertEquals(
+                Integer.valueOf(123),
+                pendingResult.await()
+        );
+    }
+
+    @Test
+    public void cancel_CancelsTransformedResult() throws Exception {
+        // Given
+        ListenableFutureTask<String> task = new ListenableFutureTask<>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return RESULT;
+            }
+        });
+
+        PendingResult<String> source = new PendingResult<>(task, new ImmediateExecutor());
+        PendingResult<Integer> transformed = source.transform(transformer);
+
+        // When
+        boolean result = source.cancel();
+
+        // Then
+        assertTrue(result);
+        assertTrue(task.isCancelled());
+        assertTrue(transformed.isCancelled());
+        verifyZeroInteractions(transformer);
+    }
+
+    @Test
+    public void cancel_AlreadyAvailable() throws Exception {
+        // When
+        boolean result = testee.cancel();
+
+        // Then
+        assertFalse(result);
+        assertEquals(RESULT, testee.await());
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void await_Timeout() throws Exception {
+        // Given
+        ListenableFutureTask<String> task = new ListenableFutureTask<>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return RESULT;
+            }
+        });
+
+        PendingResult<String> pendingResult = new PendingResult<>(task, new ImmediateExecutor());
+
+        // When
+        pendingResult.await(1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void whenAvailable_Failure_DoesNotThrow() throws Exception {
+        // Given
+        ListenableFutureTask<String> task = new ListenableFutureTask<>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                throw new CameraException("test");
+            }
+        });
+        task.run();
+
+        PendingResult<String> pendingResult = new PendingResult<>(task, new ImmediateExecutor());
+
+        // When
+        pendingResult.whenAvailable(callback, failureCallback);
+
+        // Then
+        verifyZeroInteractions(callback);
+    }
+
     @Test
     public void adapt() throws Exception {
         // Given
@@ -2,6 +2,7 @@ package io.fotoapparat.result;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.File;
@@ -10,6 +11,7 @@ import io.fotoapparat.photo.BitmapPhoto;
 import io.fotoapparat.photo.Photo;
 import io.fotoapparat.result.transformer.BitmapPhotoTransformer;
 import io.fotoapparat.result.transformer.SaveToFileTransformer;
+import io.fotoapparat.result.transformer.ThumbnailTransformer;
 import io.fotoapparat.test.ImmediateExecutor;
 
 import static io.fotoapparat.test.TestUtils.immediateFuture;
@@ -18,6 +20,7 @@ import static junit.framework.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PhotoResultTest {
@@ -29,6 +32,9 @@ public class PhotoResultTest {
             new ImmediateExecutor()
     );
 
+    @Mock
+    PendingResult.Callback<BitmapPhoto> callback;
+
     @Test
     public void toPendingResult() throws Exception {
         // Given
@@ -62,6 +68,36 @@ public class PhotoResultTest {
         );
     }
 
+    @Test
+    public void toThumbnail() throws Exception {
+        // Given
+        PendingResult<Photo> pendingResult = spy(PENDING_RESULT);
+
+        PhotoResult photoResult = new PhotoResult(pendingResult);
+
+        // When
+        PendingResult<BitmapPhoto> result = photoResult.toThumbnail();
+
+        // Then
+        assertNotNull(result);
+
+        verify(pendingResult).transform(
+                isA(ThumbnailTransformer.class)
+        );
+    }
+
+    @Test
+    public void toThumbnail_NoThumbnail_NotDelivered() throws Exception {
+        // Given
+        PhotoResult photoResult = new PhotoResult(PENDING_RESULT);
+
+        // When
+        photoResult.toThumbnail().whenAvailable(callback);
+
+        // Then
+        verifyZeroInteractions(callback);
+    }
+
     @Test
     public void saveToFile() throws Exception {
         // Given
@@ -0,0 +1,59 @@
+package io.fotoapparat.result.transformer;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static io.fotoapparat.result.transformer.BitmapPhotoTransformer.computeSampleSize;
+import static org.junit.Assert.assertEquals;
+
+public class BitmapPhotoTransformerTest {
+
+    static final Size ORIGINAL_SIZE = new Size(4000, 3000);
+
+    @Test
+    public void sampleSize_OriginalSize() throws Exception {
+        // When
+        int result = computeSampleSize(ORIGINAL_SIZE, ORIGINAL_SIZE);
+
+        // Then
+        assertEquals(1, result);
+    }
+
+    @Test
+    public void sampleSize_ExactPowerOfTwo() throws Exception {
+        // When
+        int result = computeSampleSize(ORIGINAL_SIZE, new Size(1000, 750));
+
+        // Then
+        assertEquals(4, result);
+    }
+
+    @Test
+    public void sampleSize_NotBelowDesiredSize() throws Exception {
+        // When
+        int result = computeSampleSize(ORIGINAL_SIZE, new Size(1001, 750));
+
+        // Then
+        assertEquals(2, result);
+    }
+
+    @Test
+    public void sampleSize_LimitedByEitherDimension() throws Exception {
+        // When
+        int result = computeSampleSize(ORIGINAL_SIZE, new Size(100, 1000));
+
+        // Then
+        assertEquals(2, result);
+    }
+
+    @Test
+    public void sampleSize_Upscale() throws Exception {
+        // When
+        int result = computeSampleSize(ORIGINAL_SIZE, new Size(8000, 6000));
+
+        // Then
+        assertEquals(1, result);
+    }
+
+}
@@ -4,7 +4,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.File;
@@ -14,14 +14,18 @@ import io.fotoapparat.util.ExifOrientationWriter;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SaveToFileTransformerTest {
 
     static final File FILE = new File("test");
+    static final int EXIF_SEGMENT_LENGTH = 36;
 
-    @Mock
+    @Spy
     ExifOrientationWriter exifOrientationWriter;
 
     SaveToFileTransformer testee;
@@ -30,6 +34,10 @@ public class SaveToFileTransformerTest {
     public void setUp() throws Exception {
         ensureFileDeleted();
 
+        doNothing()
+                .when(exifOrientationWriter)
+                .writeExifOrientation(any(File.class), any(Photo.class));
+
         testee = new SaveToFileTransformer(
                 FILE,
                 exifOrientationWriter
@@ -37,7 +45,27 @@ public class SaveToFileTransformerTest {
     }
 
     @Test
-    public void savePhoto() throws Exception {
+    public void savePhoto_OrientationWrittenInline() throws Exception {
+        // Given
+        Photo photo = new Photo(
+                new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xD9},
+                0
+        );
+
+        // When
+        testee.transform(photo);
+
+        // Then
+        assertEquals(
+                photo.encodedImage.length + EXIF_SEGMENT_LENGTH,
+                FILE.length()
+        );
+
+        verify(exifOrientationWriter, never()).writeExifOrientation(FILE, photo);
+    }
+
+    @Test
+    public void savePhoto_OrientationRewritten() throws Exception {
         // Given
         Photo photo = new Photo(
                 new byte[]{1, 2, 3},
@@ -57,6 +85,25 @@ public class SaveToFileTransformerTest {
         verify(exifOrientationWriter).writeExifOrientation(FILE, photo);
     }
 
+    @Test
+    public void savePhoto_BackedByLargerBuffer() throws Exception {
+        // Given
+        Photo photo = new Photo(
+                new byte[]{1, 2, 3, 0, 0},
+                3,
+                0
+        );
+
+        // When
+        testee.transform(photo);
+
+        // Then
+        assertEquals(
+                3,
+                FILE.length()
+        );
+    }
+
     @After
     public void tearDown() throws Exception {
         ensureFileDeleted();
@@ -4,35 +4,55 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Collections;
+import java.util.Map;
+
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.preview.FrameProcessor;
 import io.fotoapparat.preview.PreviewStream;
+import io.fotoapparat.preview.ProcessorOptions;
+import io.fotoapparat.preview.ProcessorStatistics;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ConfigurePreviewStreamRoutineTest {
 
+    static final ProcessorOptions OPTIONS = ProcessorOptions.builder()
+            .everyNthFrame(2)
+            .build();
+
     @Mock
     CameraDevice cameraDevice;
     @Mock
     PreviewStream previewStream;
     @Mock
     FrameProcessor frameProcessor;
+    @Mock
+    FrameProcessor otherFrameProcessor;
 
-    @InjectMocks
     ConfigurePreviewStreamRoutine testee;
 
     @Before
     public void setUp() throws Exception {
         given(cameraDevice.getPreviewStream())
                 .willReturn(previewStream);
+
+        testee = new ConfigurePreviewStreamRoutine(
+                cameraDevice,
+                frameProcessor
+        );
     }
 
     @Test
@@ -43,7 +63,7 @@ public class ConfigurePreviewStreamRoutineTest {
         // Then
         InOrder inOrder = inOrder(previewStream);
 
-        inOrder.verify(previewStream).addProcessor(frameProcessor);
+        inOrder.verify(previewStream).addProcessor(frameProcessor, ProcessorOptions.defaults());
         inOrder.verify(previewStream).start();
     }
 
@@ -59,7 +79,127 @@ public class ConfigurePreviewStreamRoutineTest {
         testee.run();
 
         // Then
+        verify(previewStream).start();
+        verifyNoMoreInteractions(previewStream);
+    }
+
+    @Test
+    public void addProcessor_BeforeRun() throws Exception {
+        // When
+        testee.addProcessor(otherFrameProcessor, OPTIONS);
+
+        // Then
+        verifyZeroInteractions(previewStream);
+
+        testee.run();
+
+        verify(previewStream).addProcessor(otherFrameProcessor, OPTIONS);
+    }
+
+    @Test
+    public void addProcessor_WhileRunning() throws Exception {
+        // Given
+        testee.run();
+
+        // When
+        testee.addProcessor(otherFrameProcessor, OPTIONS);
+
+        // Then
+        verify(previewStream).addProcessor(otherFrameProcessor, OPTIONS);
+    }
+
+    @Test
+    public void removeProcessor_WhileRunning() throws Exception {
+        // Given
+        testee.run();
+
+        // When
+        testee.removeProcessor(frameProcessor);
+
+        // Then
+        verify(previewStream).removeProcessor(frameProcessor);
+    }
+
+    @Test
+    public void removeProcessor_NotAttached() throws Exception {
+        // Given
+        testee.run();
+
+        // When
+        testee.removeProcessor(otherFrameProcessor);
+
+        // Then
+        verify(previewStream, never()).removeProcessor(otherFrameProcessor);
+    }
+
+    @Test
+    public void stop_DetachesProcessors() throws Exception {
+        // Given
+        testee.run();
+
+        // When
+        testee.stop();
+
+        // Then
+        verify(previewStream).removeProcessor(frameProcessor);
+    }
+
+    @Test
+    public void processorsAreAttachedAfterRestart() throws Exception {
+        // Given
+        testee.run();
+        testee.addProcessor(otherFrameProcessor, OPTIONS);
+        testee.stop();
+
+        // When
+        testee.run();
+
+        // Then
+        verify(previewStream, times(2)).addProcessor(frameProcessor, ProcessorOptions.defaults());
+        verify(previewStream, times(2)).addProcessor(otherFrameProcessor, OPTIONS);
+    }
+
+    @Test
+    public void addProcessor_WhileStopped() throws Exception {
+        // Given
+        testee.run();
+        testee.stop();
+
+        // When
+        testee.addProcessor(otherFrameProcessor, OPTIONS);
+
+        // Then
+        verify(previewStream, never()).addProcessor(otherFrameProcessor, OPTIONS);
+    }
+
+    @Test
+    public void getStatistics() throws Exception {
+        // Given
+        ProcessorStatistics statistics = new ProcessorStatistics(1, 0, 1, 0, 0, 0, 1, 1000);
+
+        given(previewStream.getStatistics(frameProcessor))
+                .willReturn(statistics);
+
+        testee.run();
+
+        // When
+        Map<FrameProcessor, ProcessorStatistics> result = testee.getStatistics();
+
+        // Then
+        assertEquals(
+                Collections.singletonMap(frameProcessor, statistics),
+                result
+        );
+    }
+
+    @Test
+    public void getStatistics_NotConfigured() throws Exception {
+        // When
+        Map<FrameProcessor, ProcessorStatistics> result = testee.getStatistics();
+
+        // Then
+        assertTrue(result.isEmpty());
         verifyZeroInteractions(previewStream);
     }
 
-}
\ No newline at end of file
+}
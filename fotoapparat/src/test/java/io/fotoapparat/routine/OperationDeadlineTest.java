@@ -0,0 +1,124 @@
+package io.fotoapparat.routine;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.result.ListenableFutureTask;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OperationDeadlineTest {
+
+    static final long TIMEOUT_NANOS = 1000;
+
+    @Mock
+    ScheduledExecutorService scheduler;
+    @Mock
+    ScheduledFuture timeout;
+
+    ListenableFutureTask<String> operation = new ListenableFutureTask<>(new Callable<String>() {
+        @Override
+        public String call() throws Exception {
+            return "Result";
+        }
+    });
+
+    @Test
+    public void none() throws Exception {
+        // When
+        ListenableFutureTask<String> result = OperationDeadline.NONE.start(operation);
+
+        // Then
+        assertSame(operation, result);
+    }
+
+    @Test
+    public void cancelledWhenTimeIsUp() throws Exception {
+        // Given
+        ArgumentCaptor<Runnable> cancellation = givenTimeoutScheduled();
+
+        OperationDeadline testee = new OperationDeadline(TIMEOUT_NANOS, scheduler);
+        testee.start(operation);
+
+        // When
+        cancellation.getValue().run();
+
+        // Then
+        assertTrue(operation.isCancelled());
+    }
+
+    @Test
+    public void timeoutCancelledOnCompletion() throws Exception {
+        // Given
+        givenTimeoutScheduled();
+        givenSchedulerExecutesImmediately();
+
+        OperationDeadline testee = new OperationDeadline(TIMEOUT_NANOS, scheduler);
+        testee.start(operation);
+
+        // When
+        operation.run();
+
+        // Then
+        assertFalse(operation.isCancelled());
+        verify(timeout).cancel(false);
+    }
+
+    @Test
+    public void zeroTimeout() throws Exception {
+        // Given
+        OperationDeadline testee = new OperationDeadline(0, scheduler);
+
+        // When
+        testee.start(operation);
+
+        // Then
+        verifyZeroInteractions(scheduler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTimeout() throws Exception {
+        // When
+        new OperationDeadline(-1, scheduler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<Runnable> givenTimeoutScheduled() {
+        ArgumentCaptor<Runnable> cancellation = ArgumentCaptor.forClass(Runnable.class);
+
+        given(scheduler.schedule(cancellation.capture(), eq(TIMEOUT_NANOS), eq(TimeUnit.NANOSECONDS)))
+                .willReturn(timeout);
+
+        return cancellation;
+    }
+
+    private void givenSchedulerExecutesImmediately() {
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ((Runnable) invocation.getArgument(0)).run();
+                return null;
+            }
+        }).given(scheduler).execute(any(Runnable.class));
+    }
+
+}
@@ -1,8 +1,8 @@
 package io.fotoapparat.routine.focus;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -12,6 +12,7 @@ import java.util.concurrent.Executor;
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.result.FocusResult;
 import io.fotoapparat.result.PendingResult;
+import io.fotoapparat.routine.OperationDeadline;
 import io.fotoapparat.test.ImmediateExecutor;
 
 import static junit.framework.Assert.assertNotNull;
@@ -26,9 +27,17 @@ public class AutoFocusRoutineTest {
     @Spy
     Executor executor = new ImmediateExecutor();
 
-    @InjectMocks
     AutoFocusRoutine testee;
 
+    @Before
+    public void setUp() throws Exception {
+        testee = new AutoFocusRoutine(
+                cameraDevice,
+                executor,
+                OperationDeadline.NONE
+        );
+    }
+
     @Test
     public void autoFocus() throws Exception {
         // When
@@ -0,0 +1,271 @@
+package io.fotoapparat.routine.parameter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.hardware.Capabilities;
+import io.fotoapparat.log.Logger;
+import io.fotoapparat.parameter.AntiBandingMode;
+import io.fotoapparat.parameter.Flash;
+import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.Parameters;
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.parameter.range.Range;
+import io.fotoapparat.parameter.range.Ranges;
+import io.fotoapparat.parameter.update.UpdateRequest;
+import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameRingBuffer;
+import io.fotoapparat.preview.ProcessorStatistics;
+import io.fotoapparat.routine.ConfigurePreviewStreamRoutine;
+import io.fotoapparat.test.ImmediateExecutor;
+
+import static io.fotoapparat.routine.parameter.AdaptPreviewFpsRangeRoutine.STABLE_EVALUATIONS;
+import static io.fotoapparat.test.TestUtils.asSet;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptPreviewFpsRangeRoutineTest {
+
+    static final Range<Integer> RANGE_15 = Ranges.continuousRange(15000, 15000);
+    static final Range<Integer> RANGE_20 = Ranges.continuousRange(20000, 20000);
+    static final Range<Integer> RANGE_30 = Ranges.continuousRange(30000, 30000);
+
+    static final Set<Range<Integer>> SUPPORTED_RANGES = asSet(RANGE_15, RANGE_20, RANGE_30);
+
+    static final int FRAMES_PER_EVALUATION = 10;
+
+    @Mock
+    CameraDevice cameraDevice;
+    @Mock
+    ConfigurePreviewStreamRoutine configurePreviewStreamRoutine;
+    @Mock
+    UpdateParametersRoutine updateParametersRoutine;
+    @Mock
+    ScheduledExecutorService scheduler;
+    @Mock
+    Logger logger;
+    @Mock
+    FrameProcessor frameProcessor;
+
+    AdaptPreviewFpsRangeRoutine testee;
+
+    FrameRingBuffer frameRingBuffer = null;
+
+    long processedFrames = 0;
+    long processingTimeNanos = 0;
+
+    @Before
+    public void setUp() throws Exception {
+        given(cameraDevice.getCapabilities())
+                .willReturn(new Capabilities(
+                        Collections.<Size>emptySet(),
+                        Collections.<Size>emptySet(),
+                        Collections.<AntiBandingMode>emptySet(),
+                        Collections.<FocusMode>emptySet(),
+                        Collections.<Flash>emptySet(),
+                        SUPPORTED_RANGES,
+                        Ranges.<Integer>emptyRange(),
+                        false
+                ));
+
+        testee = routine(true);
+    }
+
+    @Test
+    public void start() throws Exception {
+        // When
+        testee.start();
+
+        // Then
+        verify(scheduler).scheduleWithFixedDelay(
+                any(Runnable.class),
+                anyLong(),
+                anyLong(),
+                eq(TimeUnit.MILLISECONDS)
+        );
+    }
+
+    @Test
+    public void start_Disabled() throws Exception {
+        // Given
+        AdaptPreviewFpsRangeRoutine testee = routine(false);
+
+        // When
+        testee.start();
+        testee.stop();
+
+        // Then
+        verifyZeroInteractions(scheduler);
+    }
+
+    @Test
+    public void slowProcessor_LowersRange() throws Exception {
+        // Given
+        evaluate(12f, STABLE_EVALUATIONS);
+
+        verify(updateParametersRoutine, never()).updateParameters(any(UpdateRequest.class));
+
+        // When
+        evaluate(12f, 1);
+
+        // Then
+        assertEquals(RANGE_15, lastSelectedRange(1));
+    }
+
+    @Test
+    public void frameRingBuffer_IsIgnored() throws Exception {
+        // Given
+        frameRingBuffer = new FrameRingBuffer(1);
+
+        // When
+        evaluate(12f, STABLE_EVALUATIONS + 1);
+
+        // Then
+        assertEquals(RANGE_15, lastSelectedRange(1));
+    }
+
+    @Test
+    public void fastProcessor_KeepsRange() throws Exception {
+        // When
+        evaluate(100f, STABLE_EVALUATIONS * 3);
+
+        // Then
+        verify(updateParametersRoutine, never()).updateParameters(any(UpdateRequest.class));
+    }
+
+    @Test
+    public void starvingProcessor_RaisesRange() throws Exception {
+        // Given
+        evaluate(12f, STABLE_EVALUATIONS + 1);
+
+        // When
+        evaluate(25f, STABLE_EVALUATIONS);
+
+        // Then
+        assertEquals(RANGE_30, lastSelectedRange(2));
+    }
+
+    @Test
+    public void appliedRange_SeedsCurrentRange() throws Exception {
+        // Given
+        Parameters parameters = new Parameters();
+        parameters.putValue(Parameters.Type.PREVIEW_FPS_RANGE, RANGE_15);
+
+        given(cameraDevice.getCurrentParameters())
+                .willReturn(parameters);
+
+        // When
+        evaluate(25f, STABLE_EVALUATIONS + 1);
+
+        // Then
+        assertEquals(RANGE_30, lastSelectedRange(1));
+    }
+
+    @Test
+    public void smallChange_KeepsRange() throws Exception {
+        // Given
+        evaluate(12f, STABLE_EVALUATIONS + 1);
+
+        // When
+        evaluate(13.5f, STABLE_EVALUATIONS * 3);
+
+        // Then
+        assertEquals(RANGE_15, lastSelectedRange(1));
+    }
+
+    @Test
+    public void notEnoughFrames_KeepsRange() throws Exception {
+        // Given
+        given(configurePreviewStreamRoutine.getStatistics())
+                .willReturn(Collections.singletonMap(
+                        frameProcessor,
+                        new ProcessorStatistics(1, 0, 1, 0, 0, 0, 1, TimeUnit.SECONDS.toNanos(1))
+                ));
+
+        // When
+        for (int i = 0; i < STABLE_EVALUATIONS * 2; i++) {
+            testee.run();
+        }
+
+        // Then
+        verify(updateParametersRoutine, never()).updateParameters(any(UpdateRequest.class));
+    }
+
+    private AdaptPreviewFpsRangeRoutine routine(boolean enabled) {
+        return new AdaptPreviewFpsRangeRoutine(
+                cameraDevice,
+                configurePreviewStreamRoutine,
+                updateParametersRoutine,
+                scheduler,
+                new ImmediateExecutor(),
+                logger,
+                enabled
+        );
+    }
+
+    /**
+     * Runs given number of evaluations after the processor processed frames at given rate.
+     */
+    private void evaluate(float processorFps, int evaluations) {
+        for (int i = 0; i < evaluations; i++) {
+            processedFrames += FRAMES_PER_EVALUATION;
+            processingTimeNanos += (long) (FRAMES_PER_EVALUATION * TimeUnit.SECONDS.toNanos(1) / processorFps);
+
+            Map<FrameProcessor, ProcessorStatistics> statistics = new HashMap<>();
+            statistics.put(frameProcessor, statistics(processedFrames, processingTimeNanos));
+
+            if (frameRingBuffer != null) {
+                statistics.put(frameRingBuffer, statistics(processedFrames * 10, processingTimeNanos / 100));
+            }
+
+            given(configurePreviewStreamRoutine.getStatistics())
+                    .willReturn(statistics);
+
+            testee.run();
+        }
+    }
+
+    private static ProcessorStatistics statistics(long processedFrames, long processingTimeNanos) {
+        return new ProcessorStatistics(
+                processedFrames,
+                0,
+                processedFrames,
+                0,
+                0,
+                0,
+                1,
+                processingTimeNanos
+        );
+    }
+
+    private Range<Integer> lastSelectedRange(int expectedUpdates) {
+        ArgumentCaptor<UpdateRequest> captor = ArgumentCaptor.forClass(UpdateRequest.class);
+        verify(updateParametersRoutine, times(expectedUpdates)).updateParameters(captor.capture());
+
+        Collection<Range<Integer>> supportedRanges = SUPPORTED_RANGES;
+
+        return captor.getValue().previewFpsRangeSelector.select(supportedRanges);
+    }
+
+}
@@ -22,6 +22,7 @@ import io.fotoapparat.parameter.update.UpdateRequest;
 import static io.fotoapparat.parameter.selector.FlashSelectors.torch;
 import static io.fotoapparat.parameter.selector.AntiBandingModeSelectors.auto;
 import static io.fotoapparat.parameter.selector.FocusModeSelectors.autoFocus;
+import static io.fotoapparat.parameter.selector.PreviewFpsRangeSelectors.rangeWithHighestFps;
 import static io.fotoapparat.test.TestUtils.asSet;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
@@ -57,6 +58,7 @@ public class UpdateParametersRoutineTest {
                 .flash(torch())
                 .antiBandingMode(auto())
                 .focusMode(autoFocus())
+                .previewFpsRange(rangeWithHighestFps())
                 .build();
 
         // When
@@ -77,6 +79,10 @@ public class UpdateParametersRoutineTest {
                                 Parameters.Type.FOCUS_MODE,
                                 FocusMode.AUTO
                         )
+                        .putValue(
+                                Parameters.Type.PREVIEW_FPS_RANGE,
+                                Ranges.continuousRange(30000, 30000)
+                        )
         );
     }
 
@@ -1,22 +1,31 @@
 package io.fotoapparat.routine.picture;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.photo.Photo;
+import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameRingBuffer;
 import io.fotoapparat.result.PhotoResult;
-import io.fotoapparat.routine.picture.TakePictureRoutine;
-import io.fotoapparat.routine.picture.TakePictureTask;
 import io.fotoapparat.test.ImmediateExecutor;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -27,9 +36,18 @@ public class TakePictureRoutineTest {
     @Spy
     Executor executor = new ImmediateExecutor();
 
-    @InjectMocks
+    @Mock
+    FrameRingBuffer frameRingBuffer;
+    @Spy
+    Executor encoderExecutor = new ImmediateExecutor();
+
     TakePictureRoutine testee;
 
+    @Before
+    public void setUp() throws Exception {
+        testee = new TakePictureRoutine(cameraDevice, executor);
+    }
+
     @Test
     public void takePicture_EmptyRequest() throws Exception {
         // When
@@ -41,4 +59,102 @@ public class TakePictureRoutineTest {
         assertNotNull(result);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void takePictures() throws Exception {
+        // When
+        List<PhotoResult> results = testee.takePictures(3);
+
+        // Then
+        verify(executor).execute(isA(TakePicturesTask.class));
+
+        assertEquals(3, results.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void takePictures_InvalidCount() throws Exception {
+        // When
+        testee.takePictures(0);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test
+    public void takePicture_ZeroShutterLag() throws Exception {
+        // Given
+        Frame frame = new Frame(new Size(2, 2), new byte[6], 0, 0, System.nanoTime(), 0);
+
+        given(frameRingBuffer.acquireClosestFrame(anyLong()))
+                .willReturn(frame);
+        given(cameraDevice.getPhotoOrientation())
+                .willReturn(90);
+
+        TakePictureRoutine testee = zeroShutterLagRoutine();
+
+        // When
+        Photo result = testee.takePicture().toPendingResult().await();
+
+        // Then
+        verify(encoderExecutor).execute(isA(EncodeFrameTask.class));
+        verify(executor, never()).execute(isA(TakePictureTask.class));
+        verify(frameRingBuffer).release(frame);
+        assertEquals(90, result.rotationDegrees);
+    }
+
+    @Test
+    public void takePicture_ZeroShutterLag_NoRecentFrame() throws Exception {
+        // Given
+        long staleTimestamp = System.nanoTime() - 2 * TakePictureRoutine.MAX_FRAME_AGE_NANOS;
+        Frame frame = new Frame(new Size(2, 2), new byte[6], 90, 0, staleTimestamp, 0);
+
+        given(frameRingBuffer.acquireClosestFrame(anyLong()))
+                .willReturn(frame);
+
+        TakePictureRoutine testee = zeroShutterLagRoutine();
+
+        // When
+        testee.takePicture();
+
+        // Then
+        verify(frameRingBuffer).release(frame);
+        verify(executor).execute(isA(TakePictureTask.class));
+    }
+
+    @Test
+    public void takePicture_ZeroShutterLag_CancelledBeforeEncoding() throws Exception {
+        // Given
+        FrameRingBuffer frameRingBuffer = new FrameRingBuffer(1);
+        frameRingBuffer.processFrame(new Frame(new Size(2, 2), new byte[6], 90, 0, System.nanoTime(), 0));
+
+        Executor pendingExecutor = mock(Executor.class);
+
+        TakePictureRoutine testee = new TakePictureRoutine(
+                cameraDevice,
+                executor,
+                TakePictureRoutine.DEFAULT_FOCUS_FRESHNESS_NANOS,
+                frameRingBuffer,
+                pendingExecutor,
+                90
+        );
+
+        // When
+        testee.takePicture().toPendingResult().cancel();
+        testee.takePicture();
+
+        // Then
+        verify(pendingExecutor, times(2)).execute(isA(EncodeFrameTask.class));
+        verify(executor, never()).execute(isA(TakePictureTask.class));
+    }
+
+    private TakePictureRoutine zeroShutterLagRoutine() {
+        return new TakePictureRoutine(
+                cameraDevice,
+                executor,
+                TakePictureRoutine.DEFAULT_FOCUS_FRESHNESS_NANOS,
+                frameRingBuffer,
+                encoderExecutor,
+                90
+        );
+    }
+
+}
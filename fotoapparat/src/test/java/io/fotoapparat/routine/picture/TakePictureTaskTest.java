@@ -4,13 +4,15 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.concurrent.TimeUnit;
+
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.lens.FocusResult;
+import io.fotoapparat.lens.FocusStateTracker;
 import io.fotoapparat.parameter.FocusMode;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.photo.Photo;
@@ -35,14 +37,21 @@ public class TakePictureTaskTest {
     static final Parameters PARAMETERS_WITH_CONTINUOUS_FOCUS = new Parameters()
             .putValue(Parameters.Type.FOCUS_MODE, FocusMode.CONTINUOUS_FOCUS);
 
+    static final long FOCUS_FRESHNESS_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     @Mock
     CameraDevice cameraDevice;
 
-    @InjectMocks
+    FocusStateTracker focusStateTracker = new FocusStateTracker();
+
     TakePictureTask testee;
 
     @Before
     public void setUp() throws Exception {
+        testee = new TakePictureTask(cameraDevice, FOCUS_FRESHNESS_NANOS);
+
+        given(cameraDevice.getFocusState())
+                .willReturn(focusStateTracker);
         given(cameraDevice.takePicture())
                 .willReturn(PHOTO);
 
@@ -139,4 +148,71 @@ public class TakePictureTaskTest {
         assertEquals(result, PHOTO);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void doNotFocusWhenFocusIsFresh() throws Exception {
+        // Given
+        focusStateTracker.onFocusConverged();
+
+        // When
+        Photo result = resultOf(testee);
+
+        // Then
+        InOrder inOrder = inOrder(cameraDevice);
+        inOrder.verify(cameraDevice).measureExposure();
+        inOrder.verify(cameraDevice).takePicture();
+
+        verify(cameraDevice, never()).autoFocus();
+        assertEquals(1, focusStateTracker.getStatistics().skippedFocusCaptures);
+
+        assertEquals(result, PHOTO);
+    }
+
+    @Test
+    public void focusByDefaultEvenIfConverged() throws Exception {
+        // Given
+        focusStateTracker.onFocusConverged();
+
+        given(cameraDevice.autoFocus())
+                .willReturn(new FocusResult(true, false));
+
+        // When
+        resultOf(new TakePictureTask(cameraDevice));
+
+        // Then
+        verify(cameraDevice).autoFocus();
+        assertEquals(0, focusStateTracker.getStatistics().skippedFocusCaptures);
+    }
+
+    @Test
+    public void focusWhenLensMovedAfterConverging() throws Exception {
+        // Given
+        focusStateTracker.onFocusConverged();
+        focusStateTracker.onFocusLost();
+
+        given(cameraDevice.autoFocus())
+                .willReturn(new FocusResult(true, false));
+
+        // When
+        resultOf(testee);
+
+        // Then
+        verify(cameraDevice).autoFocus();
+        assertEquals(0, focusStateTracker.getStatistics().skippedFocusCaptures);
+    }
+
+    @Test
+    public void focusModeIsReadOnce() throws Exception {
+        // Given
+        given(cameraDevice.getCurrentParameters())
+                .willReturn(PARAMETERS_WITH_CONTINUOUS_FOCUS);
+
+        // When
+        resultOf(testee);
+        resultOf(new TakePictureTask(cameraDevice, FOCUS_FRESHNESS_NANOS));
+
+        // Then
+        verify(cameraDevice).getCurrentParameters();
+        assertEquals(2, focusStateTracker.getStatistics().captures);
+    }
+
+}
@@ -0,0 +1,241 @@
+package io.fotoapparat.routine.picture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.hardware.CameraException;
+import io.fotoapparat.hardware.operators.CaptureOperator;
+import io.fotoapparat.lens.FocusResult;
+import io.fotoapparat.lens.FocusStateTracker;
+import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.Parameters;
+import io.fotoapparat.photo.Photo;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TakePicturesTaskTest {
+
+    static final Photo FIRST_PHOTO = new Photo(new byte[]{1}, 0);
+    static final Photo SECOND_PHOTO = new Photo(new byte[]{2}, 0);
+
+    @Mock
+    CameraDevice cameraDevice;
+
+    @Before
+    public void setUp() throws Exception {
+        given(cameraDevice.getFocusState())
+                .willReturn(new FocusStateTracker());
+        given(cameraDevice.getCurrentParameters())
+                .willReturn(new Parameters().putValue(Parameters.Type.FOCUS_MODE, FocusMode.AUTO));
+        given(cameraDevice.autoFocus())
+                .willReturn(FocusResult.successNoMeasurement());
+    }
+
+    @Test
+    public void takePictures_FocusesOnce() throws Exception {
+        // Given
+        givenCameraTakes(FIRST_PHOTO, SECOND_PHOTO);
+
+        TakePicturesTask testee = new TakePicturesTask(cameraDevice, 2);
+
+        // When
+        testee.run();
+
+        // Then
+        InOrder inOrder = inOrder(cameraDevice);
+        inOrder.verify(cameraDevice, times(1)).autoFocus();
+        inOrder.verify(cameraDevice).takePictures(any(int.class), any(CaptureOperator.BurstCallback.class));
+        inOrder.verify(cameraDevice).startPreview();
+
+        List<BurstPhotoFuture> futures = testee.getFutures();
+        assertSame(FIRST_PHOTO, futures.get(0).get());
+        assertSame(SECOND_PHOTO, futures.get(1).get());
+    }
+
+    @Test
+    public void photoIsDeliveredBeforeBurstCompletes() throws Exception {
+        // Given
+        final TakePicturesTask testee = new TakePicturesTask(cameraDevice, 2);
+
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CaptureOperator.BurstCallback callback = invocation.getArgument(1);
+                callback.onPhotoTaken(FIRST_PHOTO);
+
+                assertTrue(testee.getFutures().get(0).isDone());
+                assertFalse(testee.getFutures().get(1).isDone());
+
+                callback.onPhotoTaken(SECOND_PHOTO);
+                return null;
+            }
+        }).given(cameraDevice).takePictures(anyInt(), any(CaptureOperator.BurstCallback.class));
+
+        // When
+        testee.run();
+
+        // Then
+        assertSame(SECOND_PHOTO, testee.getFutures().get(1).get());
+    }
+
+    @Test
+    public void burstFails_RemainingPhotosFail() throws Exception {
+        // Given
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CaptureOperator.BurstCallback callback = invocation.getArgument(1);
+                callback.onPhotoTaken(FIRST_PHOTO);
+
+                throw new CameraException("Test");
+            }
+        }).given(cameraDevice).takePictures(anyInt(), any(CaptureOperator.BurstCallback.class));
+
+        TakePicturesTask testee = new TakePicturesTask(cameraDevice, 2);
+
+        // When
+        testee.run();
+
+        // Then
+        assertSame(FIRST_PHOTO, testee.getFutures().get(0).get());
+        assertFails(testee.getFutures().get(1));
+    }
+
+    @Test
+    public void cameraTakesFewerPhotos_RemainingPhotosFail() throws Exception {
+        // Given
+        givenCameraTakes(FIRST_PHOTO);
+
+        TakePicturesTask testee = new TakePicturesTask(cameraDevice, 2);
+
+        // When
+        testee.run();
+
+        // Then
+        assertSame(FIRST_PHOTO, testee.getFutures().get(0).get());
+        assertFails(testee.getFutures().get(1));
+        verify(cameraDevice).startPreview();
+    }
+
+    @Test
+    public void cancelledBeforeStart_PhotosCancelled() throws Exception {
+        // Given
+        TakePicturesTask testee = new TakePicturesTask(cameraDevice, 2);
+
+        // When
+        testee.cancel(true);
+        testee.run();
+
+        // Then
+        verify(cameraDevice, never()).takePictures(anyInt(), any(CaptureOperator.BurstCallback.class));
+        assertTrue(testee.getFutures().get(0).isCancelled());
+        assertTrue(testee.getFutures().get(1).isCancelled());
+    }
+
+    @Test
+    public void cancelledDuringBurst_StopsAfterCurrentPhoto() throws Exception {
+        // Given
+        final TakePicturesTask testee = new TakePicturesTask(cameraDevice, 3);
+
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CaptureOperator.BurstCallback callback = invocation.getArgument(1);
+
+                testee.cancel(true);
+                callback.onPhotoTaken(FIRST_PHOTO);
+                callback.onPhotoTaken(SECOND_PHOTO);
+
+                fail("Burst must stop once cancelled");
+                return null;
+            }
+        }).given(cameraDevice).takePictures(anyInt(), any(CaptureOperator.BurstCallback.class));
+
+        // When
+        testee.run();
+        Thread.interrupted();
+
+        // Then
+        List<BurstPhotoFuture> futures = testee.getFutures();
+        assertTrue(futures.get(0).isCancelled());
+        assertTrue(futures.get(1).isCancelled());
+        assertTrue(futures.get(2).isCancelled());
+    }
+
+    @Test
+    public void allRemainingPhotosCancelled_BurstCancelled() throws Exception {
+        // Given
+        final TakePicturesTask testee = new TakePicturesTask(cameraDevice, 3);
+
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CaptureOperator.BurstCallback callback = invocation.getArgument(1);
+                callback.onPhotoTaken(FIRST_PHOTO);
+
+                testee.getFutures().get(1).cancel(true);
+                assertFalse(testee.isCancelled());
+
+                testee.getFutures().get(2).cancel(true);
+                assertTrue(testee.isCancelled());
+
+                callback.onPhotoTaken(SECOND_PHOTO);
+                return null;
+            }
+        }).given(cameraDevice).takePictures(anyInt(), any(CaptureOperator.BurstCallback.class));
+
+        // When
+        testee.run();
+        Thread.interrupted();
+
+        // Then
+        assertSame(FIRST_PHOTO, testee.getFutures().get(0).get());
+    }
+
+    private void givenCameraTakes(final Photo... photos) {
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CaptureOperator.BurstCallback callback = invocation.getArgument(1);
+
+                for (Photo photo : photos) {
+                    callback.onPhotoTaken(photo);
+                }
+
+                return null;
+            }
+        }).given(cameraDevice).takePictures(anyInt(), any(CaptureOperator.BurstCallback.class));
+    }
+
+    private static void assertFails(BurstPhotoFuture future) throws InterruptedException {
+        try {
+            future.get();
+            fail("Expected photo to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CameraException);
+        }
+    }
+
+}
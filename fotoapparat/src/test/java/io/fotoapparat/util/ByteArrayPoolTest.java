@@ -0,0 +1,62 @@
+package io.fotoapparat.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ByteArrayPoolTest {
+
+    ByteArrayPool testee = new ByteArrayPool();
+
+    @Test
+    public void acquire_NewArray() throws Exception {
+        // When
+        byte[] array = testee.acquire(10);
+
+        // Then
+        assertEquals(10, array.length);
+    }
+
+    @Test
+    public void acquire_RecycledArray() throws Exception {
+        // Given
+        byte[] array = testee.acquire(10);
+        testee.release(array);
+
+        // When
+        byte[] result = testee.acquire(10);
+
+        // Then
+        assertSame(array, result);
+    }
+
+    @Test
+    public void acquire_LengthChanged() throws Exception {
+        // Given
+        byte[] array = testee.acquire(10);
+        testee.release(array);
+
+        // When
+        byte[] result = testee.acquire(20);
+
+        // Then
+        assertEquals(20, result.length);
+        assertNotSame(array, result);
+    }
+
+    @Test
+    public void release_UnexpectedLength() throws Exception {
+        // Given
+        testee.acquire(10);
+        byte[] array = new byte[5];
+
+        // When
+        testee.release(array);
+
+        // Then
+        assertEquals(10, testee.acquire(10).length);
+    }
+
+}
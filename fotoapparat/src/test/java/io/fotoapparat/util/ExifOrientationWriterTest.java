@@ -0,0 +1,139 @@
+package io.fotoapparat.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import io.fotoapparat.photo.Photo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExifOrientationWriterTest {
+
+    static final byte[] SOI = {(byte) 0xFF, (byte) 0xD8};
+    static final byte[] EOI = {(byte) 0xFF, (byte) 0xD9};
+    static final byte[] JFIF = {(byte) 0xFF, (byte) 0xE0, 0, 4, 'J', 'F'};
+
+    static final byte[] EXIF_LITTLE_ENDIAN = {
+            (byte) 0xFF, (byte) 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'I', 'I', 42, 0,
+            8, 0, 0, 0,
+            1, 0,
+            0x12, 0x01,
+            3, 0,
+            1, 0, 0, 0,
+            1, 0, 0, 0,
+            0, 0, 0, 0
+    };
+
+    static final byte[] EXIF_WITHOUT_ORIENTATION = {
+            (byte) 0xFF, (byte) 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'M', 'M', 0, 42,
+            0, 0, 0, 8,
+            0, 1,
+            0x01, 0x0F,
+            0, 2,
+            0, 0, 0, 1,
+            0, 0, 0, 0,
+            0, 0, 0, 0
+    };
+
+    ExifOrientationWriter testee = new ExifOrientationWriter();
+
+    @Test
+    public void noExif_SegmentInsertedAfterSoi() throws Exception {
+        // Given
+        Photo photo = new Photo(concat(SOI, EOI), 270);
+
+        // When
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        boolean result = testee.writeWithExifOrientation(photo, outputStream);
+
+        // Then
+        assertTrue(result);
+        assertArrayEquals(
+                concat(SOI, ExifOrientationWriter.exifSegment(6), EOI),
+                outputStream.toByteArray()
+        );
+    }
+
+    @Test
+    public void noExif_SegmentInsertedAfterJfif() throws Exception {
+        // Given
+        Photo photo = new Photo(concat(SOI, JFIF, EOI), 0);
+
+        // When
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        testee.writeWithExifOrientation(photo, outputStream);
+
+        // Then
+        assertArrayEquals(
+                concat(SOI, JFIF, ExifOrientationWriter.exifSegment(1), EOI),
+                outputStream.toByteArray()
+        );
+    }
+
+    @Test
+    public void exifWithOrientation_Patched() throws Exception {
+        // Given
+        Photo photo = new Photo(concat(SOI, EXIF_LITTLE_ENDIAN, EOI), 90);
+
+        // When
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        boolean result = testee.writeWithExifOrientation(photo, outputStream);
+
+        // Then
+        byte[] expectedExif = EXIF_LITTLE_ENDIAN.clone();
+        expectedExif[28] = 8;
+
+        assertTrue(result);
+        assertArrayEquals(
+                concat(SOI, expectedExif, EOI),
+                outputStream.toByteArray()
+        );
+    }
+
+    @Test
+    public void exifWithoutOrientation_WrittenUnchanged() throws Exception {
+        // Given
+        byte[] image = concat(SOI, EXIF_WITHOUT_ORIENTATION, EOI);
+        Photo photo = new Photo(image, 90);
+
+        // When
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        boolean result = testee.writeWithExifOrientation(photo, outputStream);
+
+        // Then
+        assertFalse(result);
+        assertArrayEquals(image, outputStream.toByteArray());
+    }
+
+    @Test
+    public void notJpeg_WrittenUnchanged() throws Exception {
+        // Given
+        Photo photo = new Photo(new byte[]{1, 2, 3, 4, 0}, 4, 90);
+
+        // When
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        boolean result = testee.writeWithExifOrientation(photo, outputStream);
+
+        // Then
+        assertFalse(result);
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, outputStream.toByteArray());
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        for (byte[] array : arrays) {
+            outputStream.write(array, 0, array.length);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+}
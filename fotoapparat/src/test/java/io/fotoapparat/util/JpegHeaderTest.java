@@ -0,0 +1,182 @@
+package io.fotoapparat.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.photo.Photo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JpegHeaderTest {
+
+    static final byte[] SOI = {(byte) 0xFF, (byte) 0xD8};
+    static final byte[] EOI = {(byte) 0xFF, (byte) 0xD9};
+    static final byte[] SOS = {(byte) 0xFF, (byte) 0xDA, 0, 2};
+    static final byte[] DQT = {(byte) 0xFF, (byte) 0xDB, 0, 4, 0, 0};
+
+    static final byte[] SOF0_640_480 = {
+            (byte) 0xFF, (byte) 0xC0, 0, 11,
+            8,                                  // Precision
+            0x01, (byte) 0xE0,                  // Height
+            0x02, (byte) 0x80,                  // Width
+            1,                                  // Number of components
+            1, 0x11, 0
+    };
+
+    static final byte[] THUMBNAIL = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xD9};
+
+    /**
+     * Position of {@link #THUMBNAIL} in an image which starts with {@link #SOI} followed by
+     * {@link #EXIF_WITH_THUMBNAIL}.
+     */
+    static final int THUMBNAIL_OFFSET = 68;
+
+    static final byte[] EXIF_WITH_THUMBNAIL = {
+            (byte) 0xFF, (byte) 0xE1, 0, 68,
+            'E', 'x', 'i', 'f', 0, 0,
+            'M', 'M', 0, 42,
+            0, 0, 0, 8,
+            // IFD0
+            0, 1,
+            0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, 6, 0, 0,
+            0, 0, 0, 26,
+            // IFD1
+            0, 2,
+            0x02, 0x01, 0, 4, 0, 0, 0, 1, 0, 0, 0, 56,
+            0x02, 0x02, 0, 4, 0, 0, 0, 1, 0, 0, 0, 4,
+            0, 0, 0, 0,
+            // Thumbnail
+            (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xD9
+    };
+
+    static final byte[] EXIF_LITTLE_ENDIAN = {
+            (byte) 0xFF, (byte) 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'I', 'I', 42, 0,
+            8, 0, 0, 0,
+            1, 0,
+            0x12, 0x01, 3, 0, 1, 0, 0, 0, 3, 0, 0, 0,
+            0, 0, 0, 0
+    };
+
+    @Test
+    public void notJpeg() throws Exception {
+        // Given
+        byte[] image = {1, 2, 3, 4, 5};
+
+        // When
+        JpegHeader header = JpegHeader.parse(image, image.length);
+
+        // Then
+        assertNull(header.size);
+        assertEquals(0, header.exifOrientation);
+        assertFalse(header.hasThumbnail());
+        assertEquals(-1, header.exifInsertPosition);
+    }
+
+    @Test
+    public void sizeFromStartOfFrame() throws Exception {
+        // Given
+        byte[] image = concat(SOI, DQT, SOF0_640_480, SOS, EOI);
+
+        // When
+        JpegHeader header = JpegHeader.parse(image, image.length);
+
+        // Then
+        assertEquals(new Size(640, 480), header.size);
+        assertEquals(0, header.exifOrientation);
+        assertFalse(header.hasThumbnail());
+        assertEquals(2, header.exifInsertPosition);
+    }
+
+    @Test
+    public void sizeAfterFillBytes() throws Exception {
+        // Given
+        byte[] image = concat(SOI, new byte[]{(byte) 0xFF, (byte) 0xFF}, SOF0_640_480, EOI);
+
+        // When
+        JpegHeader header = JpegHeader.parse(image, image.length);
+
+        // Then
+        assertEquals(new Size(640, 480), header.size);
+    }
+
+    @Test
+    public void truncatedFrame() throws Exception {
+        // Given
+        byte[] image = concat(SOI, SOF0_640_480);
+
+        // When
+        JpegHeader header = JpegHeader.parse(image, image.length - 2);
+
+        // Then
+        assertNull(header.size);
+    }
+
+    @Test
+    public void exifOrientationAndThumbnail() throws Exception {
+        // Given
+        Photo photo = new Photo(
+                concat(SOI, EXIF_WITH_THUMBNAIL, SOF0_640_480, SOS, EOI),
+                0
+        );
+
+        // When
+        JpegHeader header = JpegHeader.of(photo);
+
+        // Then
+        assertEquals(new Size(640, 480), header.size);
+        assertEquals(6, header.exifOrientation);
+        assertTrue(header.hasThumbnail());
+        assertEquals(THUMBNAIL_OFFSET, header.thumbnailOffset);
+        assertEquals(THUMBNAIL.length, header.thumbnailLength);
+        assertEquals(-1, header.exifInsertPosition);
+    }
+
+    @Test
+    public void thumbnailOutsideOfSegment() throws Exception {
+        // Given
+        byte[] exif = EXIF_WITH_THUMBNAIL.clone();
+        exif[exif.length - THUMBNAIL.length - 5] = 100;   // Length of the thumbnail
+
+        byte[] image = concat(SOI, exif, SOF0_640_480, EOI);
+
+        // When
+        JpegHeader header = JpegHeader.parse(image, image.length);
+
+        // Then
+        assertFalse(header.hasThumbnail());
+        assertEquals(6, header.exifOrientation);
+    }
+
+    @Test
+    public void littleEndianExif() throws Exception {
+        // Given
+        byte[] image = concat(SOI, EXIF_LITTLE_ENDIAN, SOF0_640_480, EOI);
+
+        // When
+        JpegHeader header = JpegHeader.parse(image, image.length);
+
+        // Then
+        assertEquals(3, header.exifOrientation);
+        assertTrue(header.littleEndian);
+        assertEquals(30, header.orientationPosition);
+        assertFalse(header.hasThumbnail());
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        for (byte[] array : arrays) {
+            outputStream.write(array, 0, array.length);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+}